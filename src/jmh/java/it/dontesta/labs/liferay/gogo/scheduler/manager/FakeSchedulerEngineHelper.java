@@ -0,0 +1,171 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager;
+
+import com.liferay.portal.kernel.scheduler.SchedulerEngineHelper;
+import com.liferay.portal.kernel.scheduler.StorageType;
+import com.liferay.portal.kernel.scheduler.Trigger;
+import com.liferay.portal.kernel.scheduler.TriggerState;
+import com.liferay.portal.kernel.scheduler.TriggerType;
+import com.liferay.portal.kernel.scheduler.messaging.SchedulerResponse;
+import com.liferay.portal.kernel.util.ObjectValuePair;
+
+import java.lang.reflect.Proxy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fake job provider that replaces the portal scheduler engine helper in the
+ * benchmarks. Every call to the scheduler engine helper is counted.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class FakeSchedulerEngineHelper {
+
+	/**
+	 * @param jobs The number of jobs
+	 */
+	public FakeSchedulerEngineHelper(int jobs) {
+		long now = System.currentTimeMillis();
+
+		StorageType[] storageTypes = StorageType.values();
+
+		for (int job = 0; job < jobs; job++) {
+			String jobName = "com.acme.job.Job" + job + "MessageListener";
+			String groupName = "com.acme.group." + (job % 40);
+
+			SchedulerResponse schedulerResponse = new SchedulerResponse();
+
+			schedulerResponse.setDestinationName("liferay/scheduler_dispatch");
+			schedulerResponse.setGroupName(groupName);
+			schedulerResponse.setJobName(jobName);
+			schedulerResponse.setStorageType(
+				storageTypes[job % storageTypes.length]);
+			schedulerResponse.setTrigger(
+				_createTrigger(
+					jobName, groupName, new Date(now - 86400000L),
+					"0 " + (job % 60) + " * * * ?"));
+
+			_schedulerResponses.add(schedulerResponse);
+
+			TriggerState triggerState = TriggerState.NORMAL;
+
+			if ((job % 10) == 0) {
+				triggerState = TriggerState.PAUSED;
+			}
+
+			_jobs.put(
+				schedulerResponse,
+				new Object[] {
+					triggerState, new Date(now - (job % 600) * 1000L),
+					new Date(now + (job % 600) * 1000L)
+				});
+		}
+	}
+
+	/**
+	 * @return The number of calls to the scheduler engine helper
+	 */
+	public long getCalls() {
+		return _calls;
+	}
+
+	public List<SchedulerResponse> getSchedulerResponses() {
+		return Collections.unmodifiableList(_schedulerResponses);
+	}
+
+	/**
+	 * @return The fake scheduler engine helper
+	 */
+	public SchedulerEngineHelper getSchedulerEngineHelper() {
+		return _schedulerEngineHelper;
+	}
+
+	public void resetCalls() {
+		_calls = 0;
+	}
+
+	private static Trigger _createTrigger(
+		String jobName, String groupName, Date startDate,
+		String cronExpression) {
+
+		return (Trigger)Proxy.newProxyInstance(
+			Trigger.class.getClassLoader(), new Class<?>[] {Trigger.class},
+			(proxy, method, args) -> {
+				switch (method.getName()) {
+					case "getGroupName":
+						return groupName;
+					case "getJobName":
+						return jobName;
+					case "getStartDate":
+						return startDate;
+					case "getTriggerContent":
+						return cronExpression;
+					case "getTriggerType":
+						return TriggerType.CRON;
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					default:
+						return null;
+				}
+			});
+	}
+
+	private Object _invoke(String methodName, Object[] args) {
+		_calls++;
+
+		switch (methodName) {
+			case "getJobState":
+				return _jobs.get(args[0])[0];
+			case "getPreviousFireTime":
+				return _jobs.get(args[0])[1];
+			case "getNextFireTime":
+				return _jobs.get(args[0])[2];
+			case "getJobExceptions":
+				return new ObjectValuePair<?, ?>[0];
+			case "getScheduledJobs":
+				return new ArrayList<>(_schedulerResponses);
+			default:
+				throw new UnsupportedOperationException(methodName);
+		}
+	}
+
+	private long _calls;
+	private final Map<SchedulerResponse, Object[]> _jobs = new HashMap<>();
+	private final List<SchedulerResponse> _schedulerResponses =
+		new ArrayList<>();
+	private final SchedulerEngineHelper _schedulerEngineHelper =
+		(SchedulerEngineHelper)Proxy.newProxyInstance(
+			SchedulerEngineHelper.class.getClassLoader(),
+			new Class<?>[] {SchedulerEngineHelper.class},
+			(proxy, method, args) -> _invoke(method.getName(), args));
+
+}
@@ -0,0 +1,169 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.pojo;
+
+import com.liferay.portal.kernel.scheduler.SchedulerEngineHelper;
+import com.liferay.portal.kernel.scheduler.TriggerState;
+import com.liferay.portal.kernel.scheduler.messaging.SchedulerResponse;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.FakeSchedulerEngineHelper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compare the scheduler engine helper calls made by the jobs list before
+ * (every getter called twice: once for the filter/null check and once for
+ * the value) and after the introduction of the job snapshot.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class JobSnapshotBenchmark {
+
+	@Param({"1000", "10000"})
+	public int jobs;
+
+	/**
+	 * Print the number of scheduler engine helper calls per job of both the
+	 * paths.
+	 *
+	 * @param args The arguments (not used)
+	 */
+	public static void main(String[] args) {
+		JobSnapshotBenchmark jobSnapshotBenchmark = new JobSnapshotBenchmark();
+
+		jobSnapshotBenchmark.jobs = 1000;
+
+		jobSnapshotBenchmark.setUp();
+
+		FakeSchedulerEngineHelper fakeSchedulerEngineHelper =
+			jobSnapshotBenchmark._fakeSchedulerEngineHelper;
+
+		fakeSchedulerEngineHelper.resetCalls();
+
+		jobSnapshotBenchmark._legacy(value -> {
+		});
+
+		System.out.printf(
+			"legacy: %.1f helper calls per job%n",
+			(double)fakeSchedulerEngineHelper.getCalls() /
+				jobSnapshotBenchmark.jobs);
+
+		fakeSchedulerEngineHelper.resetCalls();
+
+		jobSnapshotBenchmark._snapshot(value -> {
+		});
+
+		System.out.printf(
+			"snapshot: %.1f helper calls per job%n",
+			(double)fakeSchedulerEngineHelper.getCalls() /
+				jobSnapshotBenchmark.jobs);
+	}
+
+	@Benchmark
+	public void legacy(Blackhole blackhole) {
+		_legacy(blackhole::consume);
+	}
+
+	@Setup
+	public void setUp() {
+		_fakeSchedulerEngineHelper = new FakeSchedulerEngineHelper(jobs);
+
+		_schedulerEngineHelper =
+			_fakeSchedulerEngineHelper.getSchedulerEngineHelper();
+		_schedulerResponses = _fakeSchedulerEngineHelper.getSchedulerResponses();
+	}
+
+	@Benchmark
+	public void snapshot(Blackhole blackhole) {
+		_snapshot(blackhole::consume);
+	}
+
+	private void _legacy(Consumer<Object> consumer) {
+		for (SchedulerResponse schedulerResponse : _schedulerResponses) {
+			if (_schedulerEngineHelper.getJobState(schedulerResponse) ==
+					TriggerState.UNSCHEDULED) {
+
+				continue;
+			}
+
+			consumer.accept(_schedulerEngineHelper.getJobState(schedulerResponse));
+
+			if (_schedulerEngineHelper.getPreviousFireTime(schedulerResponse) !=
+					null) {
+
+				consumer.accept(
+					_schedulerEngineHelper.getPreviousFireTime(
+						schedulerResponse));
+			}
+
+			if (_schedulerEngineHelper.getNextFireTime(schedulerResponse) !=
+					null) {
+
+				consumer.accept(
+					_schedulerEngineHelper.getNextFireTime(schedulerResponse));
+			}
+		}
+	}
+
+	private void _snapshot(Consumer<Object> consumer) {
+		for (SchedulerResponse schedulerResponse : _schedulerResponses) {
+			JobSnapshot jobSnapshot = JobSnapshot.of(
+				_schedulerEngineHelper, schedulerResponse);
+
+			if (jobSnapshot.getTriggerState() == TriggerState.UNSCHEDULED) {
+				continue;
+			}
+
+			consumer.accept(jobSnapshot.getTriggerState());
+			consumer.accept(jobSnapshot.getPreviousFireTime());
+			consumer.accept(jobSnapshot.getNextFireTime());
+		}
+	}
+
+	private FakeSchedulerEngineHelper _fakeSchedulerEngineHelper;
+	private SchedulerEngineHelper _schedulerEngineHelper;
+	private List<SchedulerResponse> _schedulerResponses;
+
+}
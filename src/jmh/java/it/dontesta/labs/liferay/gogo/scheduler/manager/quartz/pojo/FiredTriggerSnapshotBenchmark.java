@@ -0,0 +1,148 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the group by and top N queries over the fired triggers:
+ * list of FiredTrigger objects vs columnar FiredTriggerSnapshot. The rows
+ * are in random fired time order, so the top N of the snapshot uses the
+ * heap and not the sorted shortcut.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+public class FiredTriggerSnapshotBenchmark {
+
+	@Param({"10000", "100000", "500000"})
+	public int firedTriggers;
+
+	@Benchmark
+	public Map<String, Integer> countByGroupList() {
+		Map<String, Integer> counts = new HashMap<>();
+
+		for (FiredTrigger firedTrigger : _firedTriggerList) {
+			counts.merge(firedTrigger.getTriggerGroup(), 1, Integer::sum);
+		}
+
+		return counts;
+	}
+
+	@Benchmark
+	public int[] countByGroupSnapshot() {
+		return _firedTriggerSnapshot.countBy(
+			FiredTriggerSnapshot.Column.TRIGGER_GROUP);
+	}
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+
+		long now = System.currentTimeMillis();
+
+		FiredTriggerSnapshot.Builder builder = new FiredTriggerSnapshot.Builder(
+			new StringDictionary());
+
+		_firedTriggerList = new ArrayList<>(firedTriggers);
+
+		for (int i = 0; i < firedTriggers; i++) {
+			String entryId = "node" + (i % _INSTANCES) + "_" + i;
+			String instanceName = "node" + (i % _INSTANCES);
+			long firedTime = now - random.nextInt(3600000);
+			String triggerGroup = "com.acme.group" + random.nextInt(_GROUPS);
+			String triggerName = triggerGroup + ".Job" + random.nextInt(50);
+
+			// Fresh strings, as returned by the JDBC driver for every row
+
+			FiredTrigger firedTrigger = new FiredTrigger();
+
+			firedTrigger.setEntryId(entryId);
+			firedTrigger.setFiredTime(new Date(firedTime));
+			firedTrigger.setInstanceName(new String(instanceName));
+			firedTrigger.setSchedulerName(new String(_SCHEDULER_NAME));
+			firedTrigger.setState(new String(_STATE));
+			firedTrigger.setTriggerGroup(new String(triggerGroup));
+			firedTrigger.setTriggerName(new String(triggerName));
+
+			_firedTriggerList.add(firedTrigger);
+
+			builder.add(
+				_SCHEDULER_NAME, entryId, triggerName, triggerGroup,
+				instanceName, firedTime, _STATE);
+		}
+
+		_firedTriggerSnapshot = builder.build();
+	}
+
+	@Benchmark
+	public List<FiredTrigger> top100OldestList() {
+		List<FiredTrigger> firedTriggers = new ArrayList<>(_firedTriggerList);
+
+		firedTriggers.sort(Comparator.comparing(FiredTrigger::getFiredTime));
+
+		return firedTriggers.subList(0, Math.min(100, firedTriggers.size()));
+	}
+
+	@Benchmark
+	public int[] top100OldestSnapshot() {
+		return _firedTriggerSnapshot.getOldestRows(100);
+	}
+
+	private static final int _GROUPS = 200;
+
+	private static final int _INSTANCES = 4;
+
+	private static final String _SCHEDULER_NAME = "PersistedQuartzScheduler";
+
+	private static final String _STATE = "EXECUTING";
+
+	private List<FiredTrigger> _firedTriggerList;
+	private FiredTriggerSnapshot _firedTriggerSnapshot;
+
+}
@@ -0,0 +1,302 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+import java.nio.charset.StandardCharsets;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+
+/**
+ * Embedded H2 database with the Quartz tables, filled with generated data.
+ * The database replaces the portal data source of {@link QuartzConnection}
+ * until it is closed.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class EmbeddedQuartzDatabase implements AutoCloseable {
+
+	public static final String INSTANCE_NAME_PREFIX = "node-";
+
+	public static final int INSTANCES = 6;
+
+	public static final String SCHED_NAME =
+		"PersistedQuartzSchedulerEngineInstance";
+
+	public static final String TRIGGER_GROUP_PREFIX = "com.acme.group.";
+
+	public static final int TRIGGER_GROUPS = 40;
+
+	/**
+	 * Create the database.
+	 *
+	 * @param jobs          The number of jobs (triggers)
+	 * @param firedTriggers The number of fired triggers
+	 * @return The database
+	 * @throws Exception In the case of errors
+	 */
+	public static EmbeddedQuartzDatabase create(int jobs, int firedTriggers)
+		throws Exception {
+
+		JdbcConnectionPool jdbcConnectionPool = JdbcConnectionPool.create(
+			"jdbc:h2:mem:quartz" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+			"sa", "");
+
+		try (Connection connection = jdbcConnectionPool.getConnection()) {
+			_createTables(connection);
+			_insertJobs(connection, jobs);
+			_insertFiredTriggers(connection, jobs, firedTriggers);
+			_insertSchedulerState(connection);
+		}
+
+		QuartzConnection.setDataSource(jdbcConnectionPool);
+
+		return new EmbeddedQuartzDatabase(jdbcConnectionPool);
+	}
+
+	public static String getJobName(int job) {
+		return "com.acme.job.Job" + job + "MessageListener";
+	}
+
+	public static String getTriggerGroup(int job) {
+		return TRIGGER_GROUP_PREFIX + (job % TRIGGER_GROUPS);
+	}
+
+	@Override
+	public void close() throws SQLException {
+		QuartzConnection.setDataSource(null);
+
+		try (Connection connection = _jdbcConnectionPool.getConnection();
+			Statement statement = connection.createStatement()) {
+
+			statement.execute("SHUTDOWN");
+		}
+		finally {
+			_jdbcConnectionPool.dispose();
+		}
+	}
+
+	private static void _createTables(Connection connection)
+		throws IOException, SQLException {
+
+		StringBuilder sb = new StringBuilder();
+
+		try (InputStream inputStream =
+				EmbeddedQuartzDatabase.class.getResourceAsStream(
+					"quartz-tables.sql");
+			BufferedReader bufferedReader = new BufferedReader(
+				new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+			Statement statement = connection.createStatement()) {
+
+			String line;
+
+			while ((line = bufferedReader.readLine()) != null) {
+				if (line.startsWith("--")) {
+					continue;
+				}
+
+				sb.append(line);
+				sb.append('\n');
+
+				if (line.endsWith(";")) {
+					statement.execute(sb.toString());
+
+					sb.setLength(0);
+				}
+			}
+		}
+	}
+
+	private static void _insertFiredTriggers(
+			Connection connection, int jobs, int firedTriggers)
+		throws SQLException {
+
+		long now = System.currentTimeMillis();
+
+		try (PreparedStatement preparedStatement = connection.prepareStatement(
+				"INSERT INTO QUARTZ_FIRED_TRIGGERS (SCHED_NAME, ENTRY_ID, " +
+					"TRIGGER_NAME, TRIGGER_GROUP, INSTANCE_NAME, FIRED_TIME, " +
+						"PRIORITY, STATE, JOB_NAME, JOB_GROUP, " +
+							"IS_NONCONCURRENT, REQUESTS_RECOVERY) VALUES " +
+								"(?, ?, ?, ?, ?, ?, 5, 'EXECUTING', ?, ?, " +
+									"FALSE, FALSE)")) {
+
+			for (int i = 0; i < firedTriggers; i++) {
+				int job = i % jobs;
+				String instanceName =
+					INSTANCE_NAME_PREFIX + (i % INSTANCES);
+
+				preparedStatement.setString(1, SCHED_NAME);
+				preparedStatement.setString(2, instanceName + "-" + i);
+				preparedStatement.setString(3, getJobName(job));
+				preparedStatement.setString(4, getTriggerGroup(job));
+				preparedStatement.setString(5, instanceName);
+				preparedStatement.setLong(6, now - (i % 3600) * 1000L);
+				preparedStatement.setString(7, getJobName(job));
+				preparedStatement.setString(8, getTriggerGroup(job));
+
+				preparedStatement.addBatch();
+
+				if ((i % 1000) == 999) {
+					preparedStatement.executeBatch();
+				}
+			}
+
+			preparedStatement.executeBatch();
+		}
+	}
+
+	private static void _insertJobs(Connection connection, int jobs)
+		throws SQLException {
+
+		long now = System.currentTimeMillis();
+
+		try (PreparedStatement jobDetailsPreparedStatement =
+				connection.prepareStatement(
+					"INSERT INTO QUARTZ_JOB_DETAILS (SCHED_NAME, JOB_NAME, " +
+						"JOB_GROUP, JOB_CLASS_NAME, IS_DURABLE, " +
+							"IS_NONCONCURRENT, IS_UPDATE_DATA, " +
+								"REQUESTS_RECOVERY) VALUES (?, ?, ?, " +
+									"'com.liferay.portal.scheduler.quartz." +
+										"internal.job.MessageSenderJob', " +
+											"FALSE, FALSE, FALSE, FALSE)");
+			PreparedStatement triggersPreparedStatement =
+				connection.prepareStatement(
+					"INSERT INTO QUARTZ_TRIGGERS (SCHED_NAME, TRIGGER_NAME, " +
+						"TRIGGER_GROUP, JOB_NAME, JOB_GROUP, NEXT_FIRE_TIME, " +
+							"PREV_FIRE_TIME, PRIORITY, TRIGGER_STATE, " +
+								"TRIGGER_TYPE, START_TIME, MISFIRE_INSTR) " +
+									"VALUES (?, ?, ?, ?, ?, ?, ?, 5, ?, ?, " +
+										"?, 0)");
+			PreparedStatement cronTriggersPreparedStatement =
+				connection.prepareStatement(
+					"INSERT INTO QUARTZ_CRON_TRIGGERS (SCHED_NAME, " +
+						"TRIGGER_NAME, TRIGGER_GROUP, CRON_EXPRESSION, " +
+							"TIME_ZONE_ID) VALUES (?, ?, ?, ?, 'UTC')");
+			PreparedStatement simpleTriggersPreparedStatement =
+				connection.prepareStatement(
+					"INSERT INTO QUARTZ_SIMPLE_TRIGGERS (SCHED_NAME, " +
+						"TRIGGER_NAME, TRIGGER_GROUP, REPEAT_COUNT, " +
+							"REPEAT_INTERVAL, TIMES_TRIGGERED) VALUES (?, ?, " +
+								"?, -1, ?, 0)")) {
+
+			for (int job = 0; job < jobs; job++) {
+				String jobName = getJobName(job);
+				String triggerGroup = getTriggerGroup(job);
+
+				jobDetailsPreparedStatement.setString(1, SCHED_NAME);
+				jobDetailsPreparedStatement.setString(2, jobName);
+				jobDetailsPreparedStatement.setString(3, triggerGroup);
+				jobDetailsPreparedStatement.addBatch();
+
+				boolean cron = (job % 2) == 0;
+
+				triggersPreparedStatement.setString(1, SCHED_NAME);
+				triggersPreparedStatement.setString(2, jobName);
+				triggersPreparedStatement.setString(3, triggerGroup);
+				triggersPreparedStatement.setString(4, jobName);
+				triggersPreparedStatement.setString(5, triggerGroup);
+				triggersPreparedStatement.setLong(
+					6, now + (job % 600) * 1000L - 120000L);
+				triggersPreparedStatement.setLong(
+					7, now - (job % 600) * 1000L);
+				triggersPreparedStatement.setString(
+					8, ((job % 10) == 0) ? "PAUSED" : "WAITING");
+				triggersPreparedStatement.setString(
+					9, cron ? "CRON" : "SIMPLE");
+				triggersPreparedStatement.setLong(10, now - 86400000L);
+				triggersPreparedStatement.addBatch();
+
+				if (cron) {
+					cronTriggersPreparedStatement.setString(1, SCHED_NAME);
+					cronTriggersPreparedStatement.setString(2, jobName);
+					cronTriggersPreparedStatement.setString(3, triggerGroup);
+					cronTriggersPreparedStatement.setString(
+						4, "0 " + (job % 60) + " * * * ?");
+					cronTriggersPreparedStatement.addBatch();
+				}
+				else {
+					simpleTriggersPreparedStatement.setString(1, SCHED_NAME);
+					simpleTriggersPreparedStatement.setString(2, jobName);
+					simpleTriggersPreparedStatement.setString(
+						3, triggerGroup);
+					simpleTriggersPreparedStatement.setLong(
+						4, 60000L * (1 + job % 15));
+					simpleTriggersPreparedStatement.addBatch();
+				}
+			}
+
+			jobDetailsPreparedStatement.executeBatch();
+			triggersPreparedStatement.executeBatch();
+			cronTriggersPreparedStatement.executeBatch();
+			simpleTriggersPreparedStatement.executeBatch();
+		}
+	}
+
+	private static void _insertSchedulerState(Connection connection)
+		throws SQLException {
+
+		long now = System.currentTimeMillis();
+
+		try (PreparedStatement preparedStatement = connection.prepareStatement(
+				"INSERT INTO QUARTZ_SCHEDULER_STATE (SCHED_NAME, " +
+					"INSTANCE_NAME, LAST_CHECKIN_TIME, CHECKIN_INTERVAL) " +
+						"VALUES (?, ?, ?, 7500)")) {
+
+			for (int i = 0; i < INSTANCES; i++) {
+				preparedStatement.setString(1, SCHED_NAME);
+				preparedStatement.setString(2, INSTANCE_NAME_PREFIX + i);
+
+				// The last node stopped checking in ten minutes ago
+
+				if (i == (INSTANCES - 1)) {
+					preparedStatement.setLong(3, now - 600000L);
+				}
+				else {
+					preparedStatement.setLong(3, now);
+				}
+
+				preparedStatement.addBatch();
+			}
+
+			preparedStatement.executeBatch();
+		}
+	}
+
+	private EmbeddedQuartzDatabase(JdbcConnectionPool jdbcConnectionPool) {
+		_jdbcConnectionPool = jdbcConnectionPool;
+	}
+
+	private final JdbcConnectionPool _jdbcConnectionPool;
+
+}
@@ -0,0 +1,132 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredJobsCounts;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredTrigger;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredTriggerSnapshot;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.PersistedJob;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.StringDictionary;
+
+import java.sql.SQLException;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the QuartzUtils queries against the embedded H2 database.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+public class QuartzUtilsBenchmark {
+
+	@Param({"1000", "10000", "100000"})
+	public int firedTriggers;
+
+	@Param("5000")
+	public int jobs;
+
+	@Benchmark
+	public int firedJobCountByTriggerName() {
+		return QuartzUtils.getFiredJobCount(
+			EmbeddedQuartzDatabase.getJobName(0));
+	}
+
+	@Benchmark
+	public FiredJobsCounts firedJobsCountsAllGroups() throws SQLException {
+		return QuartzUtils.getFiredJobsCounts();
+	}
+
+	@Benchmark
+	public void firedJobsCountPerGroup(Blackhole blackhole) {
+		for (int i = 0; i < EmbeddedQuartzDatabase.TRIGGER_GROUPS; i++) {
+			blackhole.consume(
+				QuartzUtils.getFiredJobsCount(
+					EmbeddedQuartzDatabase.getTriggerGroup(i)));
+		}
+	}
+
+	@Benchmark
+	public void firedTriggerCursor(Blackhole blackhole) throws SQLException {
+		try (FiredTriggerCursor firedTriggerCursor =
+				QuartzUtils.openFiredTriggerCursor(
+					EmbeddedQuartzDatabase.getTriggerGroup(0))) {
+
+			while (firedTriggerCursor.next()) {
+				blackhole.consume(firedTriggerCursor.get());
+			}
+		}
+	}
+
+	@Benchmark
+	public FiredTriggerSnapshot firedTriggerSnapshot() throws SQLException {
+		return QuartzUtils.getFiredTriggerSnapshot(
+			EmbeddedQuartzDatabase.getTriggerGroup(0), new StringDictionary());
+	}
+
+	@Benchmark
+	public List<FiredTrigger> firedTriggerList() {
+		return QuartzUtils.getFiredTrigger(
+			EmbeddedQuartzDatabase.getTriggerGroup(0));
+	}
+
+	@Benchmark
+	public List<PersistedJob> persistedJobs() throws SQLException {
+		return QuartzUtils.getPersistedJobs(null);
+	}
+
+	@Setup
+	public void setUp() throws Exception {
+		_embeddedQuartzDatabase = EmbeddedQuartzDatabase.create(
+			jobs, firedTriggers);
+	}
+
+	@TearDown
+	public void tearDown() throws SQLException {
+		_embeddedQuartzDatabase.close();
+	}
+
+	private EmbeddedQuartzDatabase _embeddedQuartzDatabase;
+
+}
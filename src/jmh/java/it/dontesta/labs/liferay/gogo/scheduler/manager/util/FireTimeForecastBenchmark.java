@@ -0,0 +1,104 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.CollisionWindow;
+
+import java.time.ZoneOffset;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the fire time forecast of 24 hours, by second and by minute, of
+ * jobs that fire every minute, every hour and every few seconds.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+public class FireTimeForecastBenchmark {
+
+	@Param({"1000", "10000"})
+	public int jobs;
+
+	@Param({"1000", "60000"})
+	public long resolution;
+
+	@Benchmark
+	public List<CollisionWindow> forecast() {
+		FireTimeForecast fireTimeForecast = new FireTimeForecast(
+			_START_TIME, _START_TIME + 86400000L, resolution);
+
+		for (int job = 0; job < jobs; job++) {
+			fireTimeForecast.add(
+				"com.acme.job.Job" + job + "MessageListener",
+				CronSchedule.parse(_cronExpressions[job], ZoneOffset.UTC));
+		}
+
+		return fireTimeForecast.getWorstWindows(10);
+	}
+
+	@Setup
+	public void setUp() {
+		_cronExpressions = new String[jobs];
+
+		for (int job = 0; job < jobs; job++) {
+			switch (job % 3) {
+				case 0:
+					_cronExpressions[job] = "0 " + (job % 60) + " * * * ?";
+
+					break;
+				case 1:
+					_cronExpressions[job] = (job % 60) + " * * * * ?";
+
+					break;
+				default:
+					_cronExpressions[job] =
+						"0/" + (10 + (job % 50)) + " * * * * ?";
+			}
+		}
+	}
+
+	private static final long _START_TIME = 1767225600000L;
+
+	private String[] _cronExpressions;
+
+}
@@ -0,0 +1,143 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import com.liferay.portal.kernel.scheduler.SchedulerEngineHelper;
+import com.liferay.portal.kernel.scheduler.messaging.SchedulerResponse;
+
+import de.vandermeer.asciitable.AsciiTable;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.FakeSchedulerEngineHelper;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.JobSnapshot;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the rendering of the jobs list with AsciiTable (the whole table
+ * kept in memory and rendered as a single string) and with the streaming
+ * TableWriter.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+public class JobsListBenchmark {
+
+	@Param({"1000", "10000"})
+	public int jobs;
+
+	@Benchmark
+	public String asciiTable() {
+		JobSnapshotFormatter jobSnapshotFormatter = new JobSnapshotFormatter();
+
+		AsciiTable asciiTable = new AsciiTable();
+
+		asciiTable.addRule();
+		asciiTable.addRow((Object[])_COLUMN_NAMES);
+		asciiTable.addRule();
+
+		for (SchedulerResponse schedulerResponse : _schedulerResponses) {
+			asciiTable.addRow(
+				(Object[])jobSnapshotFormatter.toListRow(
+					JobSnapshot.of(_schedulerEngineHelper, schedulerResponse)));
+			asciiTable.addRule();
+		}
+
+		return asciiTable.render(_TABLE_WIDTH);
+	}
+
+	@Setup
+	public void setUp() {
+		FakeSchedulerEngineHelper fakeSchedulerEngineHelper =
+			new FakeSchedulerEngineHelper(jobs);
+
+		_schedulerEngineHelper =
+			fakeSchedulerEngineHelper.getSchedulerEngineHelper();
+		_schedulerResponses = fakeSchedulerEngineHelper.getSchedulerResponses();
+	}
+
+	@Benchmark
+	public long tableWriter() {
+		JobSnapshotFormatter jobSnapshotFormatter = new JobSnapshotFormatter();
+
+		TableWriter tableWriter = new TableWriter(
+			_nullPrintStream, _TABLE_WIDTH, _TABLE_SAMPLE_SIZE, 0,
+			_COLUMN_NAMES);
+
+		for (SchedulerResponse schedulerResponse : _schedulerResponses) {
+			tableWriter.writeRow(
+				jobSnapshotFormatter.toListRow(
+					JobSnapshot.of(_schedulerEngineHelper, schedulerResponse)));
+		}
+
+		tableWriter.finish("No Jobs found");
+
+		return tableWriter.getRowCount();
+	}
+
+	private static final String[] _COLUMN_NAMES = {
+		"Job Name", "Group Name", "State", "Start Time", "Previous Fire Time",
+		"Next Fire Time", "Storage Type"
+	};
+
+	private static final int _TABLE_SAMPLE_SIZE = 100;
+
+	private static final int _TABLE_WIDTH = 160;
+
+	private final PrintStream _nullPrintStream = new PrintStream(
+		new OutputStream() {
+
+			@Override
+			public void write(byte[] bytes, int offset, int length) {
+			}
+
+			@Override
+			public void write(int b) {
+			}
+
+		});
+	private SchedulerEngineHelper _schedulerEngineHelper;
+	private List<SchedulerResponse> _schedulerResponses;
+
+}
@@ -0,0 +1,146 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.SnapshotJob;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredTrigger;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the diff of two snapshot files, saved one minute apart, where
+ * one job in a hundred changed state or moved to another node.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+public class SnapshotDiffBenchmark {
+
+	@Param({"10000", "50000"})
+	public int jobs;
+
+	@Benchmark
+	public long diff() throws Exception {
+		SnapshotDiff snapshotDiff = new SnapshotDiff(null, false);
+
+		try (SnapshotReader beforeSnapshotReader = SnapshotReader.open(
+				_beforePath);
+			SnapshotReader afterSnapshotReader = SnapshotReader.open(
+				_afterPath)) {
+
+			snapshotDiff.diff(
+				beforeSnapshotReader, afterSnapshotReader,
+				(changeType, snapshotJob, field, beforeValue, afterValue) -> {
+				});
+		}
+
+		return snapshotDiff.getChangedCount();
+	}
+
+	@Setup
+	public void setUp() throws IOException {
+		long now = System.currentTimeMillis();
+
+		_beforePath = Files.createTempFile("before", ".snapshot");
+		_afterPath = Files.createTempFile("after", ".snapshot");
+
+		SnapshotWriter.write(
+			_beforePath, "node-1", now, _createSnapshotJobs(now, false));
+		SnapshotWriter.write(
+			_afterPath, "node-2", now + 60000,
+			_createSnapshotJobs(now + 60000, true));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(_beforePath);
+		Files.deleteIfExists(_afterPath);
+	}
+
+	private List<SnapshotJob> _createSnapshotJobs(long now, boolean changed) {
+		List<SnapshotJob> snapshotJobs = new ArrayList<>(jobs);
+
+		for (int i = 0; i < jobs; i++) {
+			String state = "NORMAL";
+			List<FiredTrigger> firedTriggers = Collections.emptyList();
+
+			if (changed && ((i % 100) == 0)) {
+				state = "PAUSED";
+			}
+
+			if ((i % 100) == 50) {
+				FiredTrigger firedTrigger = new FiredTrigger();
+
+				firedTrigger.setFiredTime(new Date(now));
+				firedTrigger.setInstanceName(changed ? "node-2" : "node-1");
+				firedTrigger.setState("EXECUTING");
+
+				firedTriggers = Collections.singletonList(firedTrigger);
+			}
+
+			snapshotJobs.add(
+				new SnapshotJob(
+					"PERSISTED", "com.liferay.group." + (i % _GROUPS),
+					"com.liferay.job.SampleMessageListener" + i, state,
+					"0 0/5 * * * ?", new Date(now - 86400000),
+					new Date(now - 60000), new Date(now + 240000),
+					firedTriggers));
+		}
+
+		return snapshotJobs;
+	}
+
+	private static final int _GROUPS = 100;
+
+	private Path _afterPath;
+	private Path _beforePath;
+
+}
@@ -0,0 +1,91 @@
+-- Stand-in of the Liferay Quartz tables (and of the Quartz indexes) for the
+-- embedded H2 database used by the benchmarks.
+
+create table QUARTZ_JOB_DETAILS (
+	SCHED_NAME VARCHAR(120) not null,
+	JOB_NAME VARCHAR(200) not null,
+	JOB_GROUP VARCHAR(200) not null,
+	DESCRIPTION VARCHAR(250) null,
+	JOB_CLASS_NAME VARCHAR(250) not null,
+	IS_DURABLE BOOLEAN not null,
+	IS_NONCONCURRENT BOOLEAN not null,
+	IS_UPDATE_DATA BOOLEAN not null,
+	REQUESTS_RECOVERY BOOLEAN not null,
+	JOB_DATA BLOB null,
+	primary key (SCHED_NAME, JOB_NAME, JOB_GROUP)
+);
+
+create table QUARTZ_TRIGGERS (
+	SCHED_NAME VARCHAR(120) not null,
+	TRIGGER_NAME VARCHAR(200) not null,
+	TRIGGER_GROUP VARCHAR(200) not null,
+	JOB_NAME VARCHAR(200) not null,
+	JOB_GROUP VARCHAR(200) not null,
+	DESCRIPTION VARCHAR(250) null,
+	NEXT_FIRE_TIME BIGINT null,
+	PREV_FIRE_TIME BIGINT null,
+	PRIORITY INTEGER null,
+	TRIGGER_STATE VARCHAR(16) not null,
+	TRIGGER_TYPE VARCHAR(8) not null,
+	START_TIME BIGINT not null,
+	END_TIME BIGINT null,
+	CALENDAR_NAME VARCHAR(200) null,
+	MISFIRE_INSTR INTEGER null,
+	JOB_DATA BLOB null,
+	primary key (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP)
+);
+
+create table QUARTZ_SIMPLE_TRIGGERS (
+	SCHED_NAME VARCHAR(120) not null,
+	TRIGGER_NAME VARCHAR(200) not null,
+	TRIGGER_GROUP VARCHAR(200) not null,
+	REPEAT_COUNT BIGINT not null,
+	REPEAT_INTERVAL BIGINT not null,
+	TIMES_TRIGGERED BIGINT not null,
+	primary key (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP)
+);
+
+create table QUARTZ_CRON_TRIGGERS (
+	SCHED_NAME VARCHAR(120) not null,
+	TRIGGER_NAME VARCHAR(200) not null,
+	TRIGGER_GROUP VARCHAR(200) not null,
+	CRON_EXPRESSION VARCHAR(200) not null,
+	TIME_ZONE_ID VARCHAR(80),
+	primary key (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP)
+);
+
+create table QUARTZ_FIRED_TRIGGERS (
+	SCHED_NAME VARCHAR(120) not null,
+	ENTRY_ID VARCHAR(95) not null,
+	TRIGGER_NAME VARCHAR(200) not null,
+	TRIGGER_GROUP VARCHAR(200) not null,
+	INSTANCE_NAME VARCHAR(200) not null,
+	FIRED_TIME BIGINT not null,
+	PRIORITY INTEGER not null,
+	STATE VARCHAR(16) not null,
+	JOB_NAME VARCHAR(200) null,
+	JOB_GROUP VARCHAR(200) null,
+	IS_NONCONCURRENT BOOLEAN null,
+	REQUESTS_RECOVERY BOOLEAN null,
+	primary key (SCHED_NAME, ENTRY_ID)
+);
+
+create table QUARTZ_SCHEDULER_STATE (
+	SCHED_NAME VARCHAR(120) not null,
+	INSTANCE_NAME VARCHAR(200) not null,
+	LAST_CHECKIN_TIME BIGINT not null,
+	CHECKIN_INTERVAL BIGINT not null,
+	primary key (SCHED_NAME, INSTANCE_NAME)
+);
+
+create index IDX_QRTZ_J_GRP on QUARTZ_JOB_DETAILS (SCHED_NAME, JOB_GROUP);
+
+create index IDX_QRTZ_T_J on QUARTZ_TRIGGERS (SCHED_NAME, JOB_NAME, JOB_GROUP);
+create index IDX_QRTZ_T_G on QUARTZ_TRIGGERS (SCHED_NAME, TRIGGER_GROUP);
+create index IDX_QRTZ_T_STATE on QUARTZ_TRIGGERS (SCHED_NAME, TRIGGER_STATE);
+create index IDX_QRTZ_T_NFT_ST on QUARTZ_TRIGGERS (SCHED_NAME, TRIGGER_STATE, NEXT_FIRE_TIME);
+create index IDX_QRTZ_T_NFT_MISFIRE on QUARTZ_TRIGGERS (SCHED_NAME, MISFIRE_INSTR, NEXT_FIRE_TIME);
+
+create index IDX_QRTZ_FT_TRIG_INST_NAME on QUARTZ_FIRED_TRIGGERS (SCHED_NAME, INSTANCE_NAME);
+create index IDX_QRTZ_FT_T_G on QUARTZ_FIRED_TRIGGERS (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP);
+create index IDX_QRTZ_FT_TG on QUARTZ_FIRED_TRIGGERS (SCHED_NAME, TRIGGER_GROUP);
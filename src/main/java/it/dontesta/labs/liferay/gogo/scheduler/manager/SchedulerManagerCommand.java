@@ -25,31 +25,112 @@ package it.dontesta.labs.liferay.gogo.scheduler.manager;
 
 import static org.fusesource.jansi.Ansi.ansi;
 
+import java.io.IOException;
+import java.io.PrintStream;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import java.sql.SQLException;
 import java.text.SimpleDateFormat;
+import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
 
 import com.liferay.petra.string.StringPool;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.configuration.SchedulerManagerConfiguration;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.Metric;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.SchedulerManagerMetrics;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.CollisionWindow;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.FailureSignature;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.JobKey;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.JobOperationResult;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.JobSnapshot;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.SnapshotJob;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.ExecutionStats;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredJobsCounts;
 import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredTrigger;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredTriggerCheckin;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredTriggerSnapshot;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.IndexCheck;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.MisfireBacklog;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.NodeLoad;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.PersistedJob;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.StringDictionary;
 import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util.Console;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util.FiredTriggerCursor;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util.FiredTriggerSampler;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util.FiredTriggerWatcher;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util.QuartzConnection;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util.QuartzDialect;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util.QuartzSql;
 import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util.QuartzUtils;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util.RunningTimeThresholds;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.AsyncCommand;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.BulkJobExecutor;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.CancellationScope;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.CommandExecutor;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.CronSchedule;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.FireTimeForecast;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.FireTimeSchedule;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.IntervalSchedule;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.JobExceptionAggregator;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.JobInventoryCache;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.JobNameMatcher;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.JobSnapshotFormatter;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.OutputFormat;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.RowWriter;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.SnapshotDiff;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.SnapshotReader;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.SnapshotWriter;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.TableWriter;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.TopView;
+import org.apache.felix.service.command.CommandSession;
 import org.apache.felix.service.command.Descriptor;
 import org.apache.felix.service.command.Parameter;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
 
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
 import com.liferay.portal.kernel.exception.PortalException;
-import com.liferay.portal.kernel.scheduler.SchedulerEngineHelperUtil;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.scheduler.SchedulerEngineHelper;
 import com.liferay.portal.kernel.scheduler.SchedulerException;
 import com.liferay.portal.kernel.scheduler.StorageType;
+import com.liferay.portal.kernel.scheduler.Trigger;
+import com.liferay.portal.kernel.scheduler.TriggerState;
+import com.liferay.portal.kernel.scheduler.TriggerType;
 import com.liferay.portal.kernel.scheduler.messaging.SchedulerResponse;
 import com.liferay.portal.kernel.util.DateUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.ObjectValuePair;
+import com.liferay.portal.kernel.util.PortalUtil;
+import com.liferay.portal.kernel.util.StringUtil;
 import com.liferay.portal.kernel.util.Validator;
 
 import de.vandermeer.asciitable.AsciiTable;
-import de.vandermeer.skb.interfaces.transformers.textformat.TextAlignment;
 
 /**
  * Gogo Shell Command Series for Liferay JOBS Management
@@ -62,12 +143,30 @@ import de.vandermeer.skb.interfaces.transformers.textformat.TextAlignment;
 		"osgi.command.function=list",
 		"osgi.command.function=info",
 		"osgi.command.function=pause",
+		"osgi.command.function=pauseMatching",
 		"osgi.command.function=resume",
+		"osgi.command.function=resumeMatching",
 		"osgi.command.function=jobIsFired",
 		"osgi.command.function=jobsIsFired",
+		"osgi.command.function=awaitIdle",
+		"osgi.command.function=checkIndexes",
+		"osgi.command.function=drain",
+		"osgi.command.function=errors",
+		"osgi.command.function=firedCounts",
+		"osgi.command.function=forecast",
 		"osgi.command.function=listJobsInProgress",
+		"osgi.command.function=misfires",
+		"osgi.command.function=nodes",
+		"osgi.command.function=snapshot",
+		"osgi.command.function=top",
+		"osgi.command.function=stats",
+		"osgi.command.function=stuck",
+		"osgi.command.function=results",
+		"osgi.command.function=result",
+		"osgi.command.function=cancel",
 		"osgi.command.scope=scheduler"
 	},
+	configurationPid = "it.dontesta.labs.liferay.gogo.scheduler.manager.configuration.SchedulerManagerConfiguration",
 	service = Object.class
 )
 @Descriptor("Gogo Shell Command Series for Liferay "
@@ -78,133 +177,166 @@ public class SchedulerManagerCommand {
 	/**
 	 * Print the list of the all Jobs filtered by state (default ALL)
 	 *
-	 * @param triggerState The trigger state. Possible values are
-	 *                     COMPLETE,NORMAL,EXPIRED,PAUSED,UNSCHEDULED
+	 * @param commandSession The session of the command
+	 * @param triggerState   The trigger state. Possible values are
+	 *                       COMPLETE,NORMAL,EXPIRED,PAUSED,UNSCHEDULED
+	 * @param groupName      The group name, empty for all the groups
+	 * @param name           The glob or the regular expression (regex:...)
+	 *                       matching the job names, empty for all the jobs
+	 * @param storageType    The storage type {ALL, MEMORY, MEMORY_CLUSTERED,
+	 *                       PERSISTED}
+	 * @param limit          The max number of jobs to print (0 for no limit)
+	 * @param offset         The number of jobs to skip
+	 * @param pageSize       The number of rows per page (0 for a single page)
+	 * @param noCache        true to read the jobs ignoring the cache
+	 * @param format         The output format {table, csv, json, jsonl}
+	 * @param timeout        The timeout in seconds (0 for the configured one,
+	 *                       -1 for no timeout)
+	 * @param async          true to run the command in background
 	 * @throws PortalException In the case of errors.
 	 */
 	@Descriptor("List of the all Jobs filtered by state (default ALL)")
 	public void list(
+		CommandSession commandSession,
 		@Descriptor("Filter the jobs by trigger state {state: COMPLETE,NORMAL,EXPIRED,PAUSED,UNSCHEDULED}")
 		@Parameter(names = {
 			"--status", "-s"
-		}, absentValue = "ALL") String triggerState)
+		}, absentValue = "ALL") String triggerState,
+		@Descriptor("Filter the jobs by group name")
+		@Parameter(names = {
+			"--group", "-g"
+		}, absentValue = "") String groupName,
+		@Descriptor("Filter the jobs by name with a glob (* and ?) or a regular expression (regex:...)")
+		@Parameter(names = {
+			"--name", "-n"
+		}, absentValue = "") String name,
+		@Descriptor("Filter the jobs by StorageType {ALL, MEMORY, MEMORY_CLUSTERED, PERSISTED} (default ALL)")
+		@Parameter(names = {
+			"--storage"
+		}, absentValue = _ALL) String storageType,
+		@Descriptor("The max number of jobs to print (default 0, no limit)")
+		@Parameter(names = {
+			"--limit", "-l"
+		}, absentValue = "0") int limit,
+		@Descriptor("The number of jobs to skip (default 0)")
+		@Parameter(names = {
+			"--offset", "-o"
+		}, absentValue = "0") int offset,
+		@Descriptor("The number of rows per page, the header is repeated on every page (default 0, single page)")
+		@Parameter(names = {
+			"--page-size", "-p"
+		}, absentValue = "0") int pageSize,
+		@Descriptor("Read the jobs ignoring the cache")
+		@Parameter(names = {
+			"--no-cache"
+		}, absentValue = "false", presentValue = "true") boolean noCache,
+		@Descriptor("The output format {table, csv, json, jsonl} (default table)")
+		@Parameter(names = {
+			"--format", "-f"
+		}, absentValue = _FORMAT_TABLE) String format,
+		@Descriptor("The timeout in seconds, the command and its running query are cancelled when it expires (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
+		@Descriptor("Run the command in background, the output is collected with the result command")
+		@Parameter(names = {
+			"--async"
+		}, absentValue = "false", presentValue = "true") boolean async)
 		throws PortalException {
 
-		Console.println(
-			ansi().eraseScreen().render(
-				"@|green List of the jobs filtered by state:|@ @|red " +
-				triggerState + " |@"));
-		Console.println(getJobsListTableHeader());
-		Console.println(getJobsListTableRows(triggerState));
+		try (Console.Output output = Console.open(commandSession)) {
+			OutputFormat outputFormat = _getOutputFormat(format);
+
+			_execute(
+				"list --status " + triggerState, timeout, async,
+				() -> {
+					long startTime = System.nanoTime();
+					long rows = 0;
+
+					try {
+						if (!outputFormat.isMachineReadable()) {
+							Console.println(
+								ansi().eraseScreen().render(
+									"@|green List of the jobs filtered by state:|@ @|red " +
+									triggerState + " |@"));
+						}
+
+						rows = writeJobsListTableRows(
+							triggerState, groupName, name, storageType, limit,
+							offset, pageSize, noCache, outputFormat);
+					}
+					finally {
+						SchedulerManagerMetrics.record(
+							Metric.COMMAND_LIST, startTime, rows);
+					}
+
+					return null;
+				});
+		}
 	}
 
 	/**
 	 * Print detail info of the job.
 	 *
-	 * @param jobName     The name of the job
-	 * @param groupName   The group name of the job
-	 * @param storageType The Storage Type of the job. The Storage Type values are
-	 *                    MEMORY, MEMORY_CLUSTERED, PERSISTED
+	 * @param commandSession The session of the command
+	 * @param jobName        The name of the job
+	 * @param groupName      The group name of the job
+	 * @param storageType    The Storage Type of the job. The Storage Type
+	 *                       values are MEMORY, MEMORY_CLUSTERED, PERSISTED
+	 * @param noCache        true to read the job ignoring the cache
+	 * @param format         The output format {table, csv, json, jsonl}
+	 * @param timeout        The timeout in seconds (0 for the configured
+	 *                       one, -1 for no timeout)
+	 * @param async          true to run the command in background
 	 * @throws PortalException
 	 */
 	@Descriptor("Detail info of the job")
 	public void info(
+		CommandSession commandSession,
+		@Descriptor("Read the job ignoring the cache")
+		@Parameter(names = {
+			"--no-cache"
+		}, absentValue = "false", presentValue = "true") boolean noCache,
+		@Descriptor("The output format {table, csv, json, jsonl} (default table)")
+		@Parameter(names = {
+			"--format", "-f"
+		}, absentValue = _FORMAT_TABLE) String format,
+		@Descriptor("The timeout in seconds, the command and its running query are cancelled when it expires (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
+		@Descriptor("Run the command in background, the output is collected with the result command")
+		@Parameter(names = {
+			"--async"
+		}, absentValue = "false", presentValue = "true") boolean async,
 		@Descriptor("The JobName") String jobName,
 		@Descriptor("The GroupName") String groupName,
 		@Descriptor("The StorageType {MEMORY, MEMORY_CLUSTERED, PERSISTED}") String storageType)
 		throws PortalException {
 
-		SchedulerResponse schedulerResponse =
-			SchedulerEngineHelperUtil.getScheduledJob(jobName, groupName,
-				StorageType.valueOf(storageType));
-
-		if (Validator.isNull(schedulerResponse)) {
-			throw new PortalException("Job not found with the name " + jobName);
-		}
-
-		SimpleDateFormat df = new SimpleDateFormat(DateUtil.ISO_8601_PATTERN);
-		AsciiTable at = new AsciiTable();
-
-		at.setPadding(5);
-		at.addRule();
-		at.addRow(_COLUMN_JOB_NAME, schedulerResponse.getJobName());
-		at.addRule();
-		at.addRow(_COLUMN_GROUP_NAME, schedulerResponse.getGroupName());
-		at.addRule();
-		at.addRow(
-			_COLUMN_STATE,
-			SchedulerEngineHelperUtil.getJobState(schedulerResponse).name());
-		at.addRule();
-
-		if (Validator.isNotNull(
-			schedulerResponse.getTrigger().getStartDate())) {
-			at.addRow(
-				_COLUMN_START_TIME,
-				df.format(schedulerResponse.getTrigger().getStartDate()));
-			at.addRule();
-		}
-		else {
-			at.addRow(_COLUMN_START_TIME, StringPool.DASH);
-			at.addRule();
-		}
-
-		if (Validator.isNotNull(
-			SchedulerEngineHelperUtil.getPreviousFireTime(
-				schedulerResponse))) {
-			at.addRow(
-				_COLUMN_PREVIOUS_FIRE_TIME,
-				df.format(
-					SchedulerEngineHelperUtil.getPreviousFireTime(
-						schedulerResponse)));
-			at.addRule();
-		}
-		else {
-			at.addRow(_COLUMN_PREVIOUS_FIRE_TIME, StringPool.DASH);
-			at.addRule();
-		}
+		try (Console.Output output = Console.open(commandSession)) {
+			OutputFormat outputFormat = _getOutputFormat(format);
 
-		if (Validator.isNotNull(
-			SchedulerEngineHelperUtil.getNextFireTime(schedulerResponse))) {
-			at.addRow(
-				_COLUMN_NEXT_FIRE_TIME,
-				df.format(
-					SchedulerEngineHelperUtil.getNextFireTime(
-						schedulerResponse)));
-			at.addRule();
-		}
-		else {
-			at.addRow(_COLUMN_NEXT_FIRE_TIME, StringPool.DASH);
-			at.addRule();
-		}
+			_execute(
+				"info " + jobName + StringPool.SPACE + groupName +
+					StringPool.SPACE + storageType,
+				timeout, async,
+				() -> {
+					long startTime = System.nanoTime();
 
-		at.addRow(
-			"Cron Expression",
-			SchedulerEngineHelperUtil.getCronText(
-				Calendar.getInstance(),
-				false));
-		at.addRule();
-		at.addRow(
-			_COLUMN_DESTINATION_NAME, schedulerResponse.getDestinationName());
-		at.addRule();
-		at.addRow(_COLUMN_STORAGE_TYPE, schedulerResponse.getStorageType());
-		at.addRule();
+					try {
+						writeJobInfoTable(
+							jobName, groupName, storageType, noCache,
+							outputFormat);
+					}
+					finally {
+						SchedulerManagerMetrics.record(
+							Metric.COMMAND_INFO, startTime);
+					}
 
-		if (Validator.isNotNull(SchedulerEngineHelperUtil.getJobExceptions(
-			jobName, groupName, StorageType.valueOf(storageType)))) {
-			at.addRow(
-				"Job Exceptions", SchedulerEngineHelperUtil.getJobExceptions(
-					jobName, groupName, StorageType.valueOf(storageType)));
-			at.addRule();
-		}
-		else {
-			at.addRow("Job Exceptions", StringPool.DASH);
-			at.addRule();
+					return null;
+				});
 		}
-
-		Console.println(
-			ansi().eraseScreen().render(
-				"@|green Detail of the job:|@ @|red " + jobName + " |@"));
-		Console.println(at.render(160));
 	}
 
 	/**
@@ -223,8 +355,18 @@ public class SchedulerManagerCommand {
 		@Descriptor("The StorageType {MEMORY, MEMORY_CLUSTERED, PERSISTED}") String storageType)
 		throws PortalException {
 
-		SchedulerEngineHelperUtil.pause(
-			jobName, groupName, StorageType.valueOf(storageType));
+		long startTime = System.nanoTime();
+
+		try {
+			_schedulerEngineHelper.pause(
+				jobName, groupName, StorageType.valueOf(storageType));
+		}
+		finally {
+			_jobInventoryCache.invalidate(
+				jobName, groupName, StorageType.valueOf(storageType));
+
+			SchedulerManagerMetrics.record(Metric.COMMAND_PAUSE, startTime);
+		}
 	}
 
 	/**
@@ -241,10 +383,59 @@ public class SchedulerManagerCommand {
 		@Descriptor("The StorageType {MEMORY, MEMORY_CLUSTERED, PERSISTED}") String storageType)
 		throws PortalException {
 
-		SchedulerEngineHelperUtil.pause(
-			groupName, StorageType.valueOf(storageType));
+		long startTime = System.nanoTime();
+
+		try {
+			_schedulerEngineHelper.pause(
+				groupName, StorageType.valueOf(storageType));
+		}
+		finally {
+			_jobInventoryCache.invalidate(
+				groupName, StorageType.valueOf(storageType));
+
+			SchedulerManagerMetrics.record(Metric.COMMAND_PAUSE, startTime);
+		}
 	}
 
+	/**
+	 * Pause all the Jobs whose name matches the pattern. The jobs are
+	 * paused by a bounded pool of workers and a failure on a job does not
+	 * abort the others.
+	 *
+	 * @param commandSession The session of the command
+	 * @param pattern        The glob (* and ?) or the regular expression
+	 *                       prefixed with regex:
+	 * @param storageType    The Storage Type of the jobs. The Storage Type
+	 *                       values are ALL, MEMORY, MEMORY_CLUSTERED, PERSISTED
+	 * @param dryRun         true to print the matching jobs without pausing
+	 *                       them
+	 * @throws PortalException In the case of errors.
+	 */
+	@Descriptor("Pause Jobs whose name matches a glob or a regular expression (regex:...)")
+	public void pauseMatching(
+		CommandSession commandSession,
+		@Descriptor("The glob (* and ?) or the regular expression (regex:...) matching the JobName")
+		@Parameter(names = {
+			"--match", "-m"
+		}, absentValue = "") String pattern,
+		@Descriptor("The StorageType {ALL, MEMORY, MEMORY_CLUSTERED, PERSISTED} (default ALL)")
+		@Parameter(names = {
+			"--storage"
+		}, absentValue = _ALL) String storageType,
+		@Descriptor("Print the matching jobs without pausing them")
+		@Parameter(names = {
+			"--dry-run"
+		}, absentValue = "false", presentValue = "true") boolean dryRun)
+		throws PortalException {
+
+		try (Console.Output output = Console.open(commandSession)) {
+			executeBulk(
+				"Pause", pattern, storageType, dryRun,
+				jobKey -> pause(
+					jobKey.getJobName(), jobKey.getGroupName(),
+					jobKey.getStorageType().name()));
+		}
+	}
 
 	/**
 	 * Resume Job by Job Name, Group Name and Storage Type
@@ -262,8 +453,18 @@ public class SchedulerManagerCommand {
 		@Descriptor("The StorageType {MEMORY, MEMORY_CLUSTERED, PERSISTED}") String storageType)
 		throws PortalException {
 
-		SchedulerEngineHelperUtil.resume(
-			jobName, groupName, StorageType.valueOf(storageType));
+		long startTime = System.nanoTime();
+
+		try {
+			_schedulerEngineHelper.resume(
+				jobName, groupName, StorageType.valueOf(storageType));
+		}
+		finally {
+			_jobInventoryCache.invalidate(
+				jobName, groupName, StorageType.valueOf(storageType));
+
+			SchedulerManagerMetrics.record(Metric.COMMAND_RESUME, startTime);
+		}
 	}
 
 	/**
@@ -280,234 +481,3648 @@ public class SchedulerManagerCommand {
 		@Descriptor("The StorageType {MEMORY, MEMORY_CLUSTERED, PERSISTED}") String storageType)
 		throws PortalException {
 
-		SchedulerEngineHelperUtil.resume(
-			groupName, StorageType.valueOf(storageType));
+		long startTime = System.nanoTime();
+
+		try {
+			_schedulerEngineHelper.resume(
+				groupName, StorageType.valueOf(storageType));
+		}
+		finally {
+			_jobInventoryCache.invalidate(
+				groupName, StorageType.valueOf(storageType));
+
+			SchedulerManagerMetrics.record(Metric.COMMAND_RESUME, startTime);
+		}
+	}
+
+	/**
+	 * Resume all the Jobs whose name matches the pattern. The jobs are
+	 * resumed by a bounded pool of workers and a failure on a job does not
+	 * abort the others.
+	 *
+	 * @param commandSession The session of the command
+	 * @param pattern        The glob (* and ?) or the regular expression
+	 *                       prefixed with regex:
+	 * @param storageType    The Storage Type of the jobs. The Storage Type
+	 *                       values are ALL, MEMORY, MEMORY_CLUSTERED, PERSISTED
+	 * @param dryRun         true to print the matching jobs without resuming
+	 *                       them
+	 * @throws PortalException In the case of errors.
+	 */
+	@Descriptor("Resume Jobs whose name matches a glob or a regular expression (regex:...)")
+	public void resumeMatching(
+		CommandSession commandSession,
+		@Descriptor("The glob (* and ?) or the regular expression (regex:...) matching the JobName")
+		@Parameter(names = {
+			"--match", "-m"
+		}, absentValue = "") String pattern,
+		@Descriptor("The StorageType {ALL, MEMORY, MEMORY_CLUSTERED, PERSISTED} (default ALL)")
+		@Parameter(names = {
+			"--storage"
+		}, absentValue = _ALL) String storageType,
+		@Descriptor("Print the matching jobs without resuming them")
+		@Parameter(names = {
+			"--dry-run"
+		}, absentValue = "false", presentValue = "true") boolean dryRun)
+		throws PortalException {
+
+		try (Console.Output output = Console.open(commandSession)) {
+			executeBulk(
+				"Resume", pattern, storageType, dryRun,
+				jobKey -> resume(
+					jobKey.getJobName(), jobKey.getGroupName(),
+					jobKey.getStorageType().name()));
+		}
 	}
 
 	/**
 	 * Return the count of the Job by groupName that are running
 	 *
+	 * @param timeout   The timeout in seconds (0 for the configured one, -1
+	 *                  for no timeout)
 	 * @param groupName The group name of the job
 	 * @throws PortalException In the case of errors.
 	 */
 	@Descriptor("Return the count of the Job by groupName that are running. ONLY QUARTZ PERSISTED JOB!!!")
 	public int jobsIsFired(
+		@Descriptor("The timeout in seconds, the command and its running query are cancelled when it expires (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
 		@Descriptor("The GroupName") String groupName)
 		throws PortalException {
 
-		return QuartzUtils.getFiredJobsCount(groupName);
+		return _execute(
+			"jobsIsFired " + groupName, timeout, false,
+			() -> {
+				long startTime = System.nanoTime();
+
+				try {
+					return QuartzUtils.getFiredJobsCount(groupName);
+				}
+				finally {
+					SchedulerManagerMetrics.record(
+						Metric.COMMAND_JOBS_IS_FIRED, startTime);
+				}
+			});
 	}
 
 	/**
-	 * Return true if the Job running false otherwise
+	 * Wait until no jobs of the group are running. The fired triggers of
+	 * the group are polled inside the bundle with a single prepared query
+	 * and an adaptive interval, so a deploy script can call this command
+	 * once instead of calling jobsIsFired in a loop. Unlike the other
+	 * commands, when the timeout expires the command returns false instead
+	 * of failing.
 	 *
-	 * @param jobName The job name of the job
+	 * @param  timeout   The max time to wait in seconds (0 for the
+	 *                   configured command timeout, -1 for no timeout)
+	 * @param  groupName The group name of the jobs
+	 * @return true if no jobs of the group are running, false if the
+	 *         timeout expired
 	 * @throws PortalException In the case of errors.
 	 */
-	@Descriptor("Return true if the Job running false otherwise. ONLY QUARTZ PERSISTED JOB!!!")
-	public boolean jobIsFired(
-		@Descriptor("The JobName") String jobName)
+	@Descriptor("Wait until no jobs of the group are running, return false if the timeout expires. ONLY QUARTZ PERSISTED JOB!!!")
+	public boolean awaitIdle(
+		@Descriptor("The max time to wait in seconds (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
+		@Descriptor("The GroupName") String groupName)
 		throws PortalException {
 
-		return QuartzUtils.getFiredJobCount(jobName) > 0;
+		long timeoutMillis = _getTimeoutMillis(timeout);
+
+		return _execute(
+			"awaitIdle " + groupName, -1, false,
+			() -> {
+				long startTime = System.nanoTime();
+
+				try (FiredTriggerWatcher firedTriggerWatcher =
+						QuartzUtils.openFiredTriggerWatcher(groupName)) {
+
+					return firedTriggerWatcher.awaitIdle(timeoutMillis);
+				}
+				finally {
+					SchedulerManagerMetrics.record(
+						Metric.COMMAND_AWAIT_IDLE, startTime);
+				}
+			});
 	}
 
 	/**
-	 * Print the list of the jobs that are in progress
+	 * Pause the jobs of the group and wait until the running ones complete,
+	 * then print the jobs waited on. The wait is the same of the awaitIdle
+	 * command.
 	 *
-	 * @param groupName The job name of the job
+	 * @param commandSession The session of the command
+	 * @param storageType    The Storage Type of the jobs {MEMORY,
+	 *                       MEMORY_CLUSTERED, PERSISTED}
+	 * @param timeout        The max time to wait in seconds (0 for the
+	 *                       configured command timeout, -1 for no timeout)
+	 * @param format         The output format {table, csv, json, jsonl}
+	 * @param groupName      The group name of the jobs
 	 * @throws PortalException In the case of errors.
 	 */
-	@Descriptor("Print the list of the jobs that are in progress. ONLY QUARTZ PERSISTED JOB!!!")
-	public void listJobsInProgress(
+	@Descriptor("Pause the jobs of the group and wait until the running ones complete. ONLY QUARTZ PERSISTED JOB!!!")
+	public void drain(
+		CommandSession commandSession,
+		@Descriptor("The StorageType {MEMORY, MEMORY_CLUSTERED, PERSISTED} (default PERSISTED)")
+		@Parameter(names = {
+			"--storage"
+		}, absentValue = "PERSISTED") String storageType,
+		@Descriptor("The max time to wait in seconds (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
+		@Descriptor("The output format {table, csv, json, jsonl} (default table)")
+		@Parameter(names = {
+			"--format", "-f"
+		}, absentValue = _FORMAT_TABLE) String format,
 		@Descriptor("The GroupName") String groupName)
 		throws PortalException {
 
-		Console.println(
-			ansi().eraseScreen().render(
-				"@|green List of the jobs that are in progress filtered by groupName:|@ @|red " +
-				groupName + " |@"));
-		Console.println(getJobsListInProgressTableHeader());
-		Console.println(getJobsListInProgressTableRows(groupName));
+		try (Console.Output output = Console.open(commandSession)) {
+			OutputFormat outputFormat = _getOutputFormat(format);
 
+			long timeoutMillis = _getTimeoutMillis(timeout);
 
+			pause(groupName, storageType);
+
+			_execute(
+				"drain " + groupName, -1, false,
+				() -> {
+					writeDrainTable(groupName, timeoutMillis, outputFormat);
+
+					return null;
+				});
+		}
 	}
 
 	/**
-	 * Return the jobs list in progress table header.
+	 * Print the count of the running jobs by group and by instance (cluster
+	 * node), loaded with a single query. The total row is printed by the
+	 * table format only. With the groups option a script reads the counts
+	 * of many groups at once instead of calling jobsIsFired for every group,
+	 * the groups without running jobs are printed with a count of 0.
 	 *
-	 * @return String Formatted table header
+	 * @param commandSession The session of the command
+	 * @param groupNames     The comma separated group names, empty for all
+	 *                       the groups
+	 * @param format         The output format {table, csv, json, jsonl}
+	 * @param timeout        The timeout in seconds (0 for the configured
+	 *                       one, -1 for no timeout)
+	 * @param async          true to run the command in background
+	 * @throws PortalException In the case of errors.
 	 */
-	private String getJobsListInProgressTableHeader() {
-		AsciiTable at = new AsciiTable();
-		at.addRule();
-		at.addRow(
-			_COLUMN_JOB_NAME, _COLUMN_GROUP_NAME, _COLUMN_INSTANCE_NAME,
-			_COLUMN_FIRED_TIME,
-			_COLUMN_STATE);
-		at.addRule();
+	@Descriptor("Print the count of the running jobs by group and instance name. ONLY QUARTZ PERSISTED JOB!!!")
+	public void firedCounts(
+		CommandSession commandSession,
+		@Descriptor("The comma separated group names (default all the groups)")
+		@Parameter(names = {
+			"--groups", "-g"
+		}, absentValue = "") String groupNames,
+		@Descriptor("The output format {table, csv, json, jsonl} (default table)")
+		@Parameter(names = {
+			"--format", "-f"
+		}, absentValue = _FORMAT_TABLE) String format,
+		@Descriptor("The timeout in seconds, the command and its running query are cancelled when it expires (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
+		@Descriptor("Run the command in background, the output is collected with the result command")
+		@Parameter(names = {
+			"--async"
+		}, absentValue = "false", presentValue = "true") boolean async)
+		throws PortalException {
+
+		try (Console.Output output = Console.open(commandSession)) {
+			OutputFormat outputFormat = _getOutputFormat(format);
 
-		return at.render(160);
+			_execute(
+				"firedCounts " + groupNames, timeout, async,
+				() -> {
+					writeFiredCountsTable(
+						StringUtil.split(groupNames), outputFormat);
+
+					return null;
+				});
+		}
 	}
 
 	/**
-	 * Return the jobs list table header.
+	 * Return true if the Job running false otherwise
 	 *
-	 * @return String Formatted table header
+	 * @param timeout The timeout in seconds (0 for the configured one, -1 for
+	 *                no timeout)
+	 * @param jobName The job name of the job
+	 * @throws PortalException In the case of errors.
 	 */
-	private String getJobsListTableHeader() {
-		AsciiTable at = new AsciiTable();
-		at.addRule();
-		at.addRow(
-			_COLUMN_JOB_NAME, _COLUMN_GROUP_NAME, _COLUMN_STATE,
-			_COLUMN_START_TIME,
-			_COLUMN_PREVIOUS_FIRE_TIME, _COLUMN_NEXT_FIRE_TIME,
-			_COLUMN_STORAGE_TYPE);
-		at.addRule();
+	@Descriptor("Return true if the Job running false otherwise. ONLY QUARTZ PERSISTED JOB!!!")
+	public boolean jobIsFired(
+		@Descriptor("The timeout in seconds, the command and its running query are cancelled when it expires (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
+		@Descriptor("The JobName") String jobName)
+		throws PortalException {
+
+		return _execute(
+			"jobIsFired " + jobName, timeout, false,
+			() -> {
+				long startTime = System.nanoTime();
 
-		return at.render(160);
+				try {
+					return QuartzUtils.getFiredJobCount(jobName) > 0;
+				}
+				finally {
+					SchedulerManagerMetrics.record(
+						Metric.COMMAND_JOB_IS_FIRED, startTime);
+				}
+			});
 	}
 
 	/**
-	 * Return the jobs list in progress table rows.
+	 * Print the list of the jobs that are in progress
 	 *
-	 * @param groupName
-	 * @return String Formatted table rows
+	 * @param commandSession The session of the command
+	 * @param format         The output format {table, csv, json, jsonl}
+	 * @param timeout        The timeout in seconds (0 for the configured
+	 *                       one, -1 for no timeout)
+	 * @param async          true to run the command in background
+	 * @param groupName      The job name of the job
+	 * @throws PortalException In the case of errors.
 	 */
-	private String getJobsListInProgressTableRows(String groupName) {
-		List<FiredTrigger> firedTriggerList =
-			QuartzUtils.getFiredTrigger(groupName);
+	@Descriptor("Print the list of the jobs that are in progress. ONLY QUARTZ PERSISTED JOB!!!")
+	public void listJobsInProgress(
+		CommandSession commandSession,
+		@Descriptor("The output format {table, csv, json, jsonl} (default table)")
+		@Parameter(names = {
+			"--format", "-f"
+		}, absentValue = _FORMAT_TABLE) String format,
+		@Descriptor("The timeout in seconds, the command and its running query are cancelled when it expires (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
+		@Descriptor("Run the command in background, the output is collected with the result command")
+		@Parameter(names = {
+			"--async"
+		}, absentValue = "false", presentValue = "true") boolean async,
+		@Descriptor("The GroupName") String groupName)
+		throws PortalException {
 
-		AsciiTable at = new AsciiTable();
-		SimpleDateFormat df = new SimpleDateFormat(DateUtil.ISO_8601_PATTERN);
+		try (Console.Output output = Console.open(commandSession)) {
+			OutputFormat outputFormat = _getOutputFormat(format);
 
-		firedTriggerList.forEach(firedTrigger -> {
-			Collection<String> columnsValue = new ArrayList<>();
+			_execute(
+				"listJobsInProgress " + groupName, timeout, async,
+				() -> {
+					long startTime = System.nanoTime();
+					long rows = 0;
 
-			columnsValue.add(firedTrigger.getTriggerName());
-			columnsValue.add(firedTrigger.getTriggerGroup());
-			columnsValue.add(firedTrigger.getInstanceName());
-			columnsValue.add(
-				df.format(firedTrigger.getFiredTime()
-				));
-			columnsValue.add(firedTrigger.getState());
+					try {
+						if (!outputFormat.isMachineReadable()) {
+							Console.println(
+								ansi().eraseScreen().render(
+									"@|green List of the jobs that are in progress filtered by groupName:|@ @|red " +
+									groupName + " |@"));
+						}
 
-			at.addRow(columnsValue);
-			at.addRule();
-		});
+						rows = writeJobsListInProgressTableRows(
+							groupName, outputFormat);
+					}
+					finally {
+						SchedulerManagerMetrics.record(
+							Metric.COMMAND_LIST_JOBS_IN_PROGRESS, startTime,
+							rows);
+					}
 
-		if (firedTriggerList.isEmpty()) {
-			at.addRow("No Jobs in progress found");
-			at.setTextAlignment(TextAlignment.CENTER);
-			at.addRule();
+					return null;
+				});
 		}
-
-		return at.render(160);
 	}
 
 	/**
-	 * Return the jobs list table rows.
+	 * Print the forecast of the fire times of the jobs in the next hours,
+	 * bucketed by second or by minute: the windows where most jobs fire at
+	 * the same time (with the jobs involved) or the whole histogram. The
+	 * fire times are computed from the cron expression (or the interval) of
+	 * the triggers of the jobs in state NORMAL.
 	 *
-	 * @param status
-	 * @return String Formatted table rows
-	 * @throws SchedulerException In the case of errors
+	 * @param commandSession The session of the command
+	 * @param window         The forecast window in hours
+	 * @param resolution     The size of the buckets {SECOND, MINUTE}
+	 * @param top            The max number of the worst windows
+	 * @param histogram      true to print the fires of every bucket instead
+	 *                       of the worst windows
+	 * @param groupName      The group name, empty for all the groups
+	 * @param name           The glob or the regular expression (regex:...)
+	 *                       matching the job names, empty for all the jobs
+	 * @param storageType    The storage type {ALL, MEMORY, MEMORY_CLUSTERED,
+	 *                       PERSISTED}
+	 * @param noCache        true to read the jobs ignoring the cache
+	 * @param format         The output format {table, csv, json, jsonl}
+	 * @param timeout        The timeout in seconds (0 for the configured
+	 *                       one, -1 for no timeout)
+	 * @param async          true to run the command in background
+	 * @throws PortalException In the case of errors.
 	 */
-	private String getJobsListTableRows(String status)
-		throws SchedulerException {
-		List<SchedulerResponse> schedulerResponses =
-			SchedulerEngineHelperUtil.getScheduledJobs();
-		List<SchedulerResponse> schedulerResponsesFiltered;
-
-		AsciiTable at = new AsciiTable();
-		SimpleDateFormat df = new SimpleDateFormat(DateUtil.ISO_8601_PATTERN);
-
-		if (!"ALL".equals(status)) {
-
-			schedulerResponsesFiltered = schedulerResponses.stream().filter(
-				schedulerResponse -> status.equals(
-					SchedulerEngineHelperUtil.getJobState(
-						schedulerResponse).name())).collect(
-				Collectors.toList());
-		}
-		else {
-			schedulerResponsesFiltered = schedulerResponses;
-		}
+	@Descriptor("Print the forecast of the fire times of the jobs and the windows where most jobs fire at the same time")
+	public void forecast(
+		CommandSession commandSession,
+		@Descriptor("The forecast window in hours (default 24)")
+		@Parameter(names = {
+			"--window", "-w"
+		}, absentValue = "24") int window,
+		@Descriptor("The size of the buckets {SECOND, MINUTE} (default MINUTE)")
+		@Parameter(names = {
+			"--resolution", "-r"
+		}, absentValue = _RESOLUTION_MINUTE) String resolution,
+		@Descriptor("The max number of the worst windows (default 10)")
+		@Parameter(names = {
+			"--top", "-t"
+		}, absentValue = "10") int top,
+		@Descriptor("Print the fires of every bucket instead of the worst windows")
+		@Parameter(names = {
+			"--histogram"
+		}, absentValue = "false", presentValue = "true") boolean histogram,
+		@Descriptor("Filter the jobs by group name")
+		@Parameter(names = {
+			"--group", "-g"
+		}, absentValue = "") String groupName,
+		@Descriptor("Filter the jobs by name with a glob (* and ?) or a regular expression (regex:...)")
+		@Parameter(names = {
+			"--name", "-n"
+		}, absentValue = "") String name,
+		@Descriptor("Filter the jobs by StorageType {ALL, MEMORY, MEMORY_CLUSTERED, PERSISTED} (default ALL)")
+		@Parameter(names = {
+			"--storage"
+		}, absentValue = _ALL) String storageType,
+		@Descriptor("Read the jobs ignoring the cache")
+		@Parameter(names = {
+			"--no-cache"
+		}, absentValue = "false", presentValue = "true") boolean noCache,
+		@Descriptor("The output format {table, csv, json, jsonl} (default table)")
+		@Parameter(names = {
+			"--format", "-f"
+		}, absentValue = _FORMAT_TABLE) String format,
+		@Descriptor("The timeout in seconds, the command and its running query are cancelled when it expires (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
+		@Descriptor("Run the command in background, the output is collected with the result command")
+		@Parameter(names = {
+			"--async"
+		}, absentValue = "false", presentValue = "true") boolean async)
+		throws PortalException {
 
-		schedulerResponsesFiltered.forEach(schedulerResponse -> {
-			Collection<String> columnsValue = new ArrayList<>();
+		try (Console.Output output = Console.open(commandSession)) {
+			OutputFormat outputFormat = _getOutputFormat(format);
 
-			columnsValue.add(schedulerResponse.getJobName());
-			columnsValue.add(schedulerResponse.getGroupName());
-			columnsValue.add(
-				SchedulerEngineHelperUtil.getJobState(
-					schedulerResponse).name());
+			long resolutionMillis;
 
-			if (Validator.isNotNull(
-				schedulerResponse.getTrigger().getStartDate())) {
-				columnsValue.add(
-					df.format(schedulerResponse.getTrigger().getStartDate()));
+			if (_RESOLUTION_SECOND.equals(resolution)) {
+				resolutionMillis = 1000;
+			}
+			else if (_RESOLUTION_MINUTE.equals(resolution)) {
+				resolutionMillis = 60000;
 			}
 			else {
-				columnsValue.add(StringPool.DASH);
+				throw new PortalException(
+					"Invalid resolution " + resolution +
+						", the valid values are " + _RESOLUTION_SECOND +
+							" and " + _RESOLUTION_MINUTE);
 			}
 
-			if (Validator.isNotNull(
-				SchedulerEngineHelperUtil.getPreviousFireTime(
-					schedulerResponse))) {
-				columnsValue.add(
-					df.format(
-						SchedulerEngineHelperUtil.getPreviousFireTime(
-							schedulerResponse)));
-			}
-			else {
-				columnsValue.add(StringPool.DASH);
+			if (window <= 0) {
+				throw new PortalException(
+					"Invalid window " + window + ", it must be positive");
 			}
 
-			if (Validator.isNotNull(
-				SchedulerEngineHelperUtil.getNextFireTime(schedulerResponse))) {
-				columnsValue.add(
-					df.format(
-						SchedulerEngineHelperUtil.getNextFireTime(
-							schedulerResponse)));
+			long now = System.currentTimeMillis();
+
+			long startTime =
+				now - (now % resolutionMillis) + resolutionMillis;
+
+			FireTimeForecast fireTimeForecast;
+
+			try {
+				fireTimeForecast = new FireTimeForecast(
+					startTime, startTime + window * 3600000L,
+					resolutionMillis);
 			}
-			else {
-				columnsValue.add(StringPool.DASH);
+			catch (IllegalArgumentException iae) {
+				throw new PortalException(iae.getMessage(), iae);
 			}
 
-			columnsValue.add(schedulerResponse.getStorageType().name());
-
-			at.addRow(columnsValue);
-			at.addRule();
-		});
+			_execute(
+				"forecast --window " + window + " --resolution " + resolution,
+				timeout, async,
+				() -> {
+					writeForecastTable(
+						fireTimeForecast, window, resolution, top, histogram,
+						groupName, name, storageType, noCache, outputFormat);
 
-		if (schedulerResponsesFiltered.isEmpty()) {
-			at.addRow("No Jobs found");
-			at.setTextAlignment(TextAlignment.CENTER);
-			at.addRule();
+					return null;
+				});
 		}
+	}
+
+	/**
+	 * Print the most frequent failures of the jobs. The job exceptions of
+	 * all the matching jobs are read in parallel (with the parallelism of
+	 * the bulk operations) and grouped by failure signature, the hash of
+	 * the normalized stack trace, with the number of exceptions and jobs,
+	 * the first and the last time the failure was seen and the first jobs
+	 * affected.
+	 *
+	 * @param commandSession The session of the command
+	 * @param top            The max number of failure signatures (0 for
+	 *                       all the signatures)
+	 * @param groupName      The group name, empty for all the groups
+	 * @param name           The pattern matching the job names, empty for
+	 *                       all the jobs
+	 * @param storageType    The storage type or ALL
+	 * @param noCache        true to read the jobs ignoring the cache
+	 * @param format         The output format {table, csv, json, jsonl}
+	 * @param timeout        The timeout in seconds (0 for the configured
+	 *                       one, -1 for no timeout)
+	 * @param async          true to run the command in background
+	 * @throws PortalException In the case of errors.
+	 */
+	@Descriptor("Print the most frequent failures of the jobs grouped by stack trace")
+	public void errors(
+		CommandSession commandSession,
+		@Descriptor("The max number of failure signatures (default 10, 0 for all)")
+		@Parameter(names = {
+			"--top", "-t"
+		}, absentValue = "10") int top,
+		@Descriptor("Filter the jobs by group name")
+		@Parameter(names = {
+			"--group", "-g"
+		}, absentValue = "") String groupName,
+		@Descriptor("Filter the jobs by name with a glob (* and ?) or a regular expression (regex:...)")
+		@Parameter(names = {
+			"--name", "-n"
+		}, absentValue = "") String name,
+		@Descriptor("Filter the jobs by StorageType {ALL, MEMORY, MEMORY_CLUSTERED, PERSISTED} (default ALL)")
+		@Parameter(names = {
+			"--storage"
+		}, absentValue = _ALL) String storageType,
+		@Descriptor("Read the jobs ignoring the cache")
+		@Parameter(names = {
+			"--no-cache"
+		}, absentValue = "false", presentValue = "true") boolean noCache,
+		@Descriptor("The output format {table, csv, json, jsonl} (default table)")
+		@Parameter(names = {
+			"--format", "-f"
+		}, absentValue = _FORMAT_TABLE) String format,
+		@Descriptor("The timeout in seconds, the command and its running query are cancelled when it expires (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
+		@Descriptor("Run the command in background, the output is collected with the result command")
+		@Parameter(names = {
+			"--async"
+		}, absentValue = "false", presentValue = "true") boolean async)
+		throws PortalException {
 
-		return at.render(160);
+		try (Console.Output output = Console.open(commandSession)) {
+			OutputFormat outputFormat = _getOutputFormat(format);
+
+			_execute(
+				"errors --top " + top, timeout, async,
+				() -> {
+					writeErrorsTable(
+						top, groupName, name, storageType, noCache,
+						outputFormat);
+
+					return null;
+				});
+		}
 	}
 
-	private static final String _COLUMN_DESTINATION_NAME = "Destination Name";
+	/**
+	 * Print the misfire backlog by group: the waiting triggers whose next
+	 * fire time is older than the misfire threshold, with the worst lag and
+	 * the histogram of the lags. It shows how big the catch-up burst is
+	 * (after a long GC pause or an outage of the nodes) before it hits the
+	 * cluster.
+	 *
+	 * @param commandSession The session of the command
+	 * @param threshold      The misfire threshold in milliseconds, 0 to use
+	 *                       the configured one
+	 * @param format         The output format {table, csv, json, jsonl}
+	 * @param timeout        The timeout in seconds (0 for the configured
+	 *                       one, -1 for no timeout)
+	 * @param async          true to run the command in background
+	 * @throws PortalException In the case of errors.
+	 */
+	@Descriptor("Print the misfire backlog by group with the histogram of the lags. ONLY QUARTZ PERSISTED JOB!!!")
+	public void misfires(
+		CommandSession commandSession,
+		@Descriptor("The misfire threshold in milliseconds (default from System Settings)")
+		@Parameter(names = {
+			"--threshold", "-t"
+		}, absentValue = "0") long threshold,
+		@Descriptor("The output format {table, csv, json, jsonl} (default table)")
+		@Parameter(names = {
+			"--format", "-f"
+		}, absentValue = _FORMAT_TABLE) String format,
+		@Descriptor("The timeout in seconds, the command and its running query are cancelled when it expires (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
+		@Descriptor("Run the command in background, the output is collected with the result command")
+		@Parameter(names = {
+			"--async"
+		}, absentValue = "false", presentValue = "true") boolean async)
+		throws PortalException {
 
-	private static final String _COLUMN_JOB_NAME = "Job Name";
+		try (Console.Output output = Console.open(commandSession)) {
+			OutputFormat outputFormat = _getOutputFormat(format);
 
-	private static final String _COLUMN_FIRED_TIME = "Fired Time";
+			long misfireThreshold;
 
-	private static final String _COLUMN_GROUP_NAME = "Group Name";
+			if (threshold > 0) {
+				misfireThreshold = threshold;
+			}
+			else {
+				misfireThreshold =
+					_schedulerManagerConfiguration.misfireThreshold();
+			}
 
-	private static final String _COLUMN_INSTANCE_NAME = "Instance Name";
+			_execute(
+				"misfires", timeout, async,
+				() -> {
+					writeMisfiresTable(misfireThreshold, outputFormat);
 
-	private static final String _COLUMN_STATE = "State";
+					return null;
+				});
+		}
+	}
 
-	private static final String _COLUMN_START_TIME = "Start Time";
+	/**
+	 * Check that the indexes needed by the commands exist on the Quartz
+	 * tables and that the configured scheduler name has triggers. Without
+	 * the indexes the commands scan the tables.
+	 *
+	 * @param commandSession The session of the command
+	 * @param format         The output format {table, csv, json, jsonl}
+	 * @param timeout        The timeout in seconds (0 for the configured
+	 *                       one, -1 for no timeout)
+	 * @param async          true to run the command in background
+	 * @throws PortalException In the case of errors.
+	 */
+	@Descriptor("Check that the indexes needed by the commands exist on the Quartz tables. ONLY QUARTZ PERSISTED JOB!!!")
+	public void checkIndexes(
+		CommandSession commandSession,
+		@Descriptor("The output format {table, csv, json, jsonl} (default table)")
+		@Parameter(names = {
+			"--format", "-f"
+		}, absentValue = _FORMAT_TABLE) String format,
+		@Descriptor("The timeout in seconds, the command and its running query are cancelled when it expires (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
+		@Descriptor("Run the command in background, the output is collected with the result command")
+		@Parameter(names = {
+			"--async"
+		}, absentValue = "false", presentValue = "true") boolean async)
+		throws PortalException {
 
-	private static final String _COLUMN_PREVIOUS_FIRE_TIME =
-		"Previous Fire Time";
+		try (Console.Output output = Console.open(commandSession)) {
+			OutputFormat outputFormat = _getOutputFormat(format);
 
-	private static final String _COLUMN_NEXT_FIRE_TIME = "Next Fire Time";
+			_execute(
+				"checkIndexes", timeout, async,
+				() -> {
+					writeCheckIndexesTable(outputFormat);
 
-	private static final String _COLUMN_STORAGE_TYPE = "Next Fire Time";
+					return null;
+				});
+		}
+	}
+
+	/**
+	 * Print the running jobs of every cluster node, with the share of the
+	 * load and the oldest running job. A node is flagged when it runs more
+	 * than threshold times the jobs of the average node; the check is
+	 * skipped when there are less running jobs than nodes.
+	 *
+	 * @param commandSession The session of the command
+	 * @param threshold      The skew threshold, 0 to use the configured one
+	 * @param format         The output format {table, csv, json, jsonl}
+	 * @param timeout        The timeout in seconds (0 for the configured
+	 *                       one, -1 for no timeout)
+	 * @param async          true to run the command in background
+	 * @throws PortalException In the case of errors.
+	 */
+	@Descriptor("Print the running jobs by cluster node and flag the imbalanced nodes. ONLY QUARTZ PERSISTED JOB!!!")
+	public void nodes(
+		CommandSession commandSession,
+		@Descriptor("The skew threshold, the ratio between the jobs of a node and the jobs of the average node (default from System Settings)")
+		@Parameter(names = {
+			"--threshold", "-t"
+		}, absentValue = "0") double threshold,
+		@Descriptor("The output format {table, csv, json, jsonl} (default table)")
+		@Parameter(names = {
+			"--format", "-f"
+		}, absentValue = _FORMAT_TABLE) String format,
+		@Descriptor("The timeout in seconds, the command and its running query are cancelled when it expires (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
+		@Descriptor("Run the command in background, the output is collected with the result command")
+		@Parameter(names = {
+			"--async"
+		}, absentValue = "false", presentValue = "true") boolean async)
+		throws PortalException {
+
+		try (Console.Output output = Console.open(commandSession)) {
+			OutputFormat outputFormat = _getOutputFormat(format);
+
+			double skewThreshold;
+
+			if (threshold > 0) {
+				skewThreshold = threshold;
+			}
+			else {
+				skewThreshold =
+					_schedulerManagerConfiguration.nodesSkewThreshold();
+			}
+
+			_execute(
+				"nodes", timeout, async,
+				() -> {
+					writeNodesTable(skewThreshold, outputFormat);
+
+					return null;
+				});
+		}
+	}
+
+	/**
+	 * Save the snapshot of the jobs to a file: the state, the trigger, the
+	 * fire times and the fired trigger rows of every job, read ignoring the
+	 * cache. The snapshots saved before and after a deploy, or on different
+	 * cluster nodes, are compared with the diff action.
+	 *
+	 * @param commandSession The session of the command
+	 * @param storageType    The storage type of the saved jobs or ALL
+	 * @param timeout        The timeout in seconds (0 for the configured
+	 *                       one, -1 for no timeout)
+	 * @param async          true to run the command in background
+	 * @param action         The action, save
+	 * @param file           The snapshot file, replaced if it exists
+	 * @throws PortalException In the case of errors.
+	 */
+	@Descriptor("Save the snapshot of the jobs to a file {save <file>}")
+	public void snapshot(
+		CommandSession commandSession,
+		@Descriptor("Filter the jobs by StorageType {ALL, MEMORY, MEMORY_CLUSTERED, PERSISTED} (default ALL)")
+		@Parameter(names = {
+			"--storage"
+		}, absentValue = _ALL) String storageType,
+		@Descriptor("The timeout in seconds, the command and its running query are cancelled when it expires (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
+		@Descriptor("Run the command in background, the output is collected with the result command")
+		@Parameter(names = {
+			"--async"
+		}, absentValue = "false", presentValue = "true") boolean async,
+		@Descriptor("The action {save}") String action,
+		@Descriptor("The snapshot file") String file)
+		throws PortalException {
+
+		try (Console.Output output = Console.open(commandSession)) {
+			if (!_SNAPSHOT_SAVE.equals(action)) {
+				throw new PortalException(
+					"Invalid action " + action + ", the valid actions are " +
+						"save <file> and diff <before> <after>");
+			}
+
+			_execute(
+				"snapshot save " + file, timeout, async,
+				() -> {
+					writeSnapshotFile(file, storageType);
+
+					return null;
+				});
+		}
+	}
+
+	/**
+	 * Print the differences between two snapshots saved with the save
+	 * action: the added and the removed jobs and the changed fields of the
+	 * other jobs. The snapshot files are memory mapped and read once,
+	 * sequentially. The fire times change at every fire, so they are
+	 * compared only with the --fire-times option.
+	 *
+	 * @param commandSession The session of the command
+	 * @param storageType    The storage type of the compared jobs or ALL
+	 * @param fireTimes      true to compare also the fire times
+	 * @param format         The output format {table, csv, json, jsonl}
+	 * @param timeout        The timeout in seconds (0 for the configured
+	 *                       one, -1 for no timeout)
+	 * @param async          true to run the command in background
+	 * @param action         The action, diff
+	 * @param before         The older snapshot file
+	 * @param after          The newer snapshot file
+	 * @throws PortalException In the case of errors.
+	 */
+	@Descriptor("Print the differences between two snapshots of the jobs {diff <before> <after>}")
+	public void snapshot(
+		CommandSession commandSession,
+		@Descriptor("Filter the jobs by StorageType {ALL, MEMORY, MEMORY_CLUSTERED, PERSISTED} (default ALL)")
+		@Parameter(names = {
+			"--storage"
+		}, absentValue = _ALL) String storageType,
+		@Descriptor("Compare also the previous and the next fire times")
+		@Parameter(names = {
+			"--fire-times"
+		}, absentValue = "false", presentValue = "true") boolean fireTimes,
+		@Descriptor("The output format {table, csv, json, jsonl} (default table)")
+		@Parameter(names = {
+			"--format", "-f"
+		}, absentValue = _FORMAT_TABLE) String format,
+		@Descriptor("The timeout in seconds, the command and its running query are cancelled when it expires (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
+		@Descriptor("Run the command in background, the output is collected with the result command")
+		@Parameter(names = {
+			"--async"
+		}, absentValue = "false", presentValue = "true") boolean async,
+		@Descriptor("The action {diff}") String action,
+		@Descriptor("The older snapshot file") String before,
+		@Descriptor("The newer snapshot file") String after)
+		throws PortalException {
+
+		try (Console.Output output = Console.open(commandSession)) {
+			OutputFormat outputFormat = _getOutputFormat(format);
+
+			if (!_SNAPSHOT_DIFF.equals(action)) {
+				throw new PortalException(
+					"Invalid action " + action + ", the valid actions are " +
+						"save <file> and diff <before> <after>");
+			}
+
+			_execute(
+				"snapshot diff " + before + " " + after, timeout, async,
+				() -> {
+					writeSnapshotDiffTable(
+						before, after, storageType, fireTimes, outputFormat);
+
+					return null;
+				});
+		}
+	}
+
+	/**
+	 * Live view of the jobs, refreshed at a set interval. Only the cells
+	 * that changed since the previous refresh are redrawn. The jobs are
+	 * read from the inventory cache and the state and the fire times are
+	 * read again only for the jobs that started or stopped running or that
+	 * reached their next fire time. Ctrl-C to exit.
+	 *
+	 * @param commandSession The session of the command
+	 * @param interval       The refresh interval in seconds
+	 * @param sort           The sort order {NEXT_FIRE_TIME, DURATION}
+	 * @param rows           The max number of rows of the view
+	 * @param iterations     The number of refresh (0 until interrupted)
+	 * @throws PortalException In the case of errors.
+	 */
+	@Descriptor("Live view of the jobs refreshed at a set interval (Ctrl-C to exit)")
+	public void top(
+		CommandSession commandSession,
+		@Descriptor("The refresh interval in seconds (default 2)")
+		@Parameter(names = {
+			"--interval", "-i"
+		}, absentValue = "2") int interval,
+		@Descriptor("The sort order {NEXT_FIRE_TIME, DURATION} (default NEXT_FIRE_TIME)")
+		@Parameter(names = {
+			"--sort", "-s"
+		}, absentValue = _SORT_NEXT_FIRE_TIME) String sort,
+		@Descriptor("The max number of rows (default 30)")
+		@Parameter(names = {
+			"--rows", "-r"
+		}, absentValue = "30") int rows,
+		@Descriptor("The number of refresh, 0 until interrupted (default 0)")
+		@Parameter(names = {
+			"--iterations", "-n"
+		}, absentValue = "0") int iterations)
+		throws PortalException {
+
+		try (Console.Output output = Console.open(commandSession)) {
+			if (!_SORT_NEXT_FIRE_TIME.equals(sort) &&
+				!_SORT_DURATION.equals(sort)) {
+
+				throw new PortalException(
+					"Invalid sort " + sort + ", the valid values are " +
+						_SORT_NEXT_FIRE_TIME + " and " + _SORT_DURATION);
+			}
+
+			if (interval < 1) {
+				throw new PortalException(
+					"Invalid interval " + interval + ", it must be at least 1");
+			}
+
+			if (rows < 1) {
+				throw new PortalException(
+					"Invalid rows " + rows + ", it must be at least 1");
+			}
+
+			TopView topView = new TopView(
+				Console.getPrintStream(), rows, _TOP_COLUMN_WIDTHS,
+				_COLUMN_JOB_NAME, _COLUMN_GROUP_NAME, _COLUMN_STATE,
+				_COLUMN_NEXT_FIRE_TIME, _COLUMN_RUNNING_FOR);
+			SimpleDateFormat df = new SimpleDateFormat(
+				DateUtil.ISO_8601_PATTERN);
+			TopState topState = new TopState(sort);
+
+			for (int i = 1; iterations <= 0 || i <= iterations; i++) {
+				long now = System.currentTimeMillis();
+				long startTime = System.nanoTime();
+
+				List<String[]> topRows = getTopRows(topState, rows, now, df);
+
+				String title =
+					"@|green Jobs sorted by " + sort + " at|@ @|red " +
+						df.format(new Date(now)) + " |@ (Ctrl-C to exit)";
+
+				if (topState._firedTriggersError != null) {
+					title +=
+						" @|red Running jobs unknown: " +
+							topState._firedTriggersError + "|@";
+				}
+
+				topView.refresh(title, topRows);
+
+				SchedulerManagerMetrics.record(
+					Metric.COMMAND_TOP_REFRESH, startTime, topRows.size());
+
+				if (iterations > 0 && i == iterations) {
+					break;
+				}
+
+				try {
+					Thread.sleep(interval * 1000L);
+				}
+				catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Print the execution duration statistics of the jobs, collected by the
+	 * background sampler of the fired triggers.
+	 *
+	 * @param commandSession The session of the command
+	 * @param by             The aggregation {JOB, GROUP}
+	 * @param format         The output format {table, csv, json, jsonl}
+	 * @throws PortalException In the case of errors.
+	 */
+	@Descriptor("Print the execution duration statistics by job or group. ONLY QUARTZ PERSISTED JOB!!!")
+	public void stats(
+		CommandSession commandSession,
+		@Descriptor("The aggregation {JOB, GROUP} (default JOB)")
+		@Parameter(names = {
+			"--by", "-b"
+		}, absentValue = _STATS_BY_JOB) String by,
+		@Descriptor("The output format {table, csv, json, jsonl} (default table)")
+		@Parameter(names = {
+			"--format", "-f"
+		}, absentValue = _FORMAT_TABLE) String format)
+		throws PortalException {
+
+		try (Console.Output output = Console.open(commandSession)) {
+			OutputFormat outputFormat = _getOutputFormat(format);
+
+			if (!_STATS_BY_JOB.equals(by) && !_STATS_BY_GROUP.equals(by)) {
+				throw new PortalException(
+					"Invalid aggregation " + by + ", the valid values are " +
+						_STATS_BY_JOB + " and " + _STATS_BY_GROUP);
+			}
+
+			FiredTriggerSampler firedTriggerSampler = _getFiredTriggerSampler();
+
+			if ((firedTriggerSampler == null) &&
+				outputFormat.isMachineReadable()) {
+
+				throw new PortalException(
+					"The execution stats sampler is disabled");
+			}
+
+			if (firedTriggerSampler == null) {
+				Console.println(
+					ansi().render(
+						"@|red The execution stats sampler is disabled, enable it in System Settings|@"));
+
+				return;
+			}
+
+			long startTime = System.nanoTime();
+
+			SimpleDateFormat df = new SimpleDateFormat(
+				DateUtil.ISO_8601_PATTERN);
+
+			if (!outputFormat.isMachineReadable()) {
+				String since = _format(
+					df, _toDate(firedTriggerSampler.getStartTime()));
+
+				Console.println(
+					ansi().eraseScreen().render(
+						"@|green Execution duration stats by " + by +
+							" sampled every " +
+								firedTriggerSampler.getInterval() +
+									" ms since|@ @|red " + since + " |@"));
+				Console.println(
+					ansi().render(
+						"@|green Executions in progress:|@ @|red " +
+							firedTriggerSampler.getRunningCount() + " |@"));
+			}
+
+			List<ExecutionStats> executionStatsList =
+				firedTriggerSampler.getExecutionStats();
+
+			if (_STATS_BY_GROUP.equals(by)) {
+				executionStatsList = _aggregateByGroup(executionStatsList);
+			}
+
+			executionStatsList.sort(
+				Comparator.comparing(
+					ExecutionStats::getTriggerGroup
+				).thenComparing(
+					executionStats -> String.valueOf(
+						executionStats.getTriggerName())
+				));
+
+			RowWriter rowWriter;
+
+			if (_STATS_BY_GROUP.equals(by)) {
+				rowWriter = outputFormat.createRowWriter(
+					Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE,
+					0, _COLUMN_GROUP_NAME, _COLUMN_RUNS, _COLUMN_P50_MILLIS,
+					_COLUMN_P95_MILLIS, _COLUMN_MAX_MILLIS,
+					_COLUMN_LAST_COMPLETED);
+			}
+			else {
+				rowWriter = outputFormat.createRowWriter(
+					Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE,
+					0, _COLUMN_JOB_NAME, _COLUMN_GROUP_NAME, _COLUMN_RUNS,
+					_COLUMN_P50_MILLIS, _COLUMN_P95_MILLIS, _COLUMN_MAX_MILLIS,
+					_COLUMN_LAST_COMPLETED);
+			}
+
+			for (ExecutionStats executionStats : executionStatsList) {
+				String[] values = {
+					String.valueOf(executionStats.getRunCount()),
+					String.valueOf(executionStats.getPercentile(50)),
+					String.valueOf(executionStats.getPercentile(95)),
+					String.valueOf(executionStats.getMax()),
+					_format(df, _toDate(executionStats.getLastCompletedTime()))
+				};
+
+				if (_STATS_BY_GROUP.equals(by)) {
+					rowWriter.writeRow(
+						_concat(executionStats.getTriggerGroup(), values));
+				}
+				else {
+					rowWriter.writeRow(
+						_concat(
+							executionStats.getTriggerName(),
+							_concat(executionStats.getTriggerGroup(), values)));
+				}
+			}
+
+			rowWriter.finish("No completed executions sampled yet");
+
+			SchedulerManagerMetrics.record(
+				Metric.COMMAND_STATS, startTime, rowWriter.getRowCount());
+		}
+	}
+
+	/**
+	 * Print the running jobs that are long running or orphaned, reading the
+	 * fired triggers and the check-in state of their owner node with a
+	 * single query. A job is long running when it runs for more than its
+	 * threshold (configured, learned from the execution stats or default);
+	 * it is orphaned when its owner node stopped checking in.
+	 *
+	 * @param commandSession The session of the command
+	 * @param all            true to print also the running jobs that are
+	 *                       neither long running nor orphaned
+	 * @param format         The output format {table, csv, json, jsonl}
+	 * @param timeout        The timeout in seconds (0 for the configured
+	 *                       one, -1 for no timeout)
+	 * @param async          true to run the command in background
+	 * @throws PortalException In the case of errors.
+	 */
+	@Descriptor("Print the long running and the orphaned jobs. ONLY QUARTZ PERSISTED JOB!!!")
+	public void stuck(
+		CommandSession commandSession,
+		@Descriptor("Print also the running jobs that are neither long running nor orphaned")
+		@Parameter(names = {
+			"--all", "-a"
+		}, absentValue = "false", presentValue = "true") boolean all,
+		@Descriptor("The output format {table, csv, json, jsonl} (default table)")
+		@Parameter(names = {
+			"--format", "-f"
+		}, absentValue = _FORMAT_TABLE) String format,
+		@Descriptor("The timeout in seconds, the command and its running query are cancelled when it expires (default from System Settings, -1 for no timeout)")
+		@Parameter(names = {
+			"--timeout"
+		}, absentValue = "0") long timeout,
+		@Descriptor("Run the command in background, the output is collected with the result command")
+		@Parameter(names = {
+			"--async"
+		}, absentValue = "false", presentValue = "true") boolean async)
+		throws PortalException {
+
+		try (Console.Output output = Console.open(commandSession)) {
+			OutputFormat outputFormat = _getOutputFormat(format);
+
+			RunningTimeThresholds runningTimeThresholds;
+
+			try {
+				runningTimeThresholds = new RunningTimeThresholds(
+					_schedulerManagerConfiguration.stuckDefaultThreshold(),
+					_schedulerManagerConfiguration.stuckJobThresholds(),
+					_schedulerManagerConfiguration.
+						stuckLearnedThresholdFactor(),
+					_getFiredTriggerSampler());
+			}
+			catch (IllegalArgumentException iae) {
+				throw new PortalException(iae.getMessage(), iae);
+			}
+
+			_execute(
+				"stuck", timeout, async,
+				() -> {
+					writeStuckTable(runningTimeThresholds, all, outputFormat);
+
+					return null;
+				});
+		}
+	}
+
+	/**
+	 * Print the commands run in background with the --async option.
+	 *
+	 * @param commandSession The session of the command
+	 * @param format         The output format {table, csv, json, jsonl}
+	 * @throws PortalException In the case of errors.
+	 */
+	@Descriptor("Print the commands run in background with the --async option")
+	public void results(
+		CommandSession commandSession,
+		@Descriptor("The output format {table, csv, json, jsonl} (default table)")
+		@Parameter(names = {
+			"--format", "-f"
+		}, absentValue = _FORMAT_TABLE) String format)
+		throws PortalException {
+
+		try (Console.Output output = Console.open(commandSession)) {
+			OutputFormat outputFormat = _getOutputFormat(format);
+
+			if (!outputFormat.isMachineReadable()) {
+				Console.println(
+					ansi().eraseScreen().render(
+						"@|green Commands run in background|@"));
+			}
+
+			SimpleDateFormat df = new SimpleDateFormat(
+				DateUtil.ISO_8601_PATTERN);
+
+			RowWriter rowWriter = outputFormat.createRowWriter(
+				Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE, 0,
+				_COLUMN_ID, _COLUMN_COMMAND, _COLUMN_STATUS, _COLUMN_START_TIME,
+				_COLUMN_END_TIME, _COLUMN_ERROR);
+
+			for (AsyncCommand asyncCommand :
+					_commandExecutor.getAsyncCommands()) {
+
+				String errorMessage = asyncCommand.getErrorMessage();
+
+				if (Validator.isNull(errorMessage)) {
+					errorMessage = StringPool.DASH;
+				}
+
+				rowWriter.writeRow(
+					String.valueOf(asyncCommand.getId()),
+					asyncCommand.getCommandLine(),
+					asyncCommand.getStatus().name(),
+					_format(df, asyncCommand.getStartDate()),
+					_format(df, asyncCommand.getEndDate()), errorMessage);
+			}
+
+			rowWriter.finish("No commands run in background found");
+		}
+	}
+
+	/**
+	 * Print the output of a command run in background. The result of a
+	 * completed command is removed, unless it is kept with --keep.
+	 *
+	 * @param commandSession The session of the command
+	 * @param keep           true to keep the result of the completed command
+	 * @param id             The id of the command
+	 * @throws PortalException In the case of errors.
+	 */
+	@Descriptor("Print the output of a command run in background")
+	public void result(
+		CommandSession commandSession,
+		@Descriptor("Keep the result of the completed command")
+		@Parameter(names = {
+			"--keep", "-k"
+		}, absentValue = "false", presentValue = "true") boolean keep,
+		@Descriptor("The id of the command") long id)
+		throws PortalException {
+
+		try (Console.Output output = Console.open(commandSession)) {
+			AsyncCommand asyncCommand = _getAsyncCommand(id);
+
+			try {
+				asyncCommand.writeOutput(Console.getPrintStream());
+			}
+			catch (IOException ioe) {
+				throw new PortalException(ioe);
+			}
+
+			String message =
+				"@|green Command|@ @|red " + id + " |@@|green (" +
+					asyncCommand.getCommandLine() + ") status:|@ @|red " +
+						asyncCommand.getStatus() + " |@";
+
+			if (Validator.isNotNull(asyncCommand.getErrorMessage())) {
+				message += "@|red " + asyncCommand.getErrorMessage() + "|@";
+			}
+
+			Console.println(ansi().render(message));
+
+			if (!keep && asyncCommand.isDone()) {
+				_commandExecutor.removeAsyncCommand(id);
+			}
+		}
+	}
+
+	/**
+	 * Cancel a command run in background, with its running query.
+	 *
+	 * @param commandSession The session of the command
+	 * @param id             The id of the command
+	 * @throws PortalException In the case of errors.
+	 */
+	@Descriptor("Cancel a command run in background")
+	public void cancel(
+		CommandSession commandSession,
+		@Descriptor("The id of the command") long id)
+		throws PortalException {
+
+		try (Console.Output output = Console.open(commandSession)) {
+			_getAsyncCommand(id);
+
+			AsyncCommand asyncCommand = _commandExecutor.cancel(id);
+
+			Console.println(
+				ansi().render(
+					"@|green Command|@ @|red " + id + " |@@|green status:|@ @|red " +
+						asyncCommand.getStatus() + " |@"));
+		}
+	}
+
+	@Activate
+	@Modified
+	protected void activate(Map<String, Object> properties) {
+		_schedulerManagerConfiguration = ConfigurableUtil.createConfigurable(
+			SchedulerManagerConfiguration.class, properties);
+
+		_jobInventoryCache = new JobInventoryCache(
+			_schedulerEngineHelper,
+			_schedulerManagerConfiguration.jobInventoryCacheTTL(),
+			_schedulerManagerConfiguration.jobInventoryCacheMaxSize());
+
+		if (_commandExecutor == null) {
+			_commandExecutor = new CommandExecutor(
+				_schedulerManagerConfiguration.asyncCommandsMaxResults());
+		}
+		else {
+			_commandExecutor.setMaxAsyncCommands(
+				_schedulerManagerConfiguration.asyncCommandsMaxResults());
+		}
+
+		// The sampler is started again with the new configuration by the
+		// first stats or stuck command
+
+		_stopFiredTriggerSampler();
+
+		QuartzUtils.setQuartzSql(_createQuartzSql());
+
+		QuartzConnection.setDefaultQueryTimeout(
+			(int)Math.ceil(
+				_schedulerManagerConfiguration.commandTimeout() / 1000.0));
+
+		// The database metadata is read in background, not to delay the
+		// activation of the component
+
+		Thread thread = new Thread(
+			this::_checkQuartzIndexes, _CHECK_INDEXES_THREAD_NAME);
+
+		thread.setDaemon(true);
+
+		thread.start();
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		if (_commandExecutor != null) {
+			_commandExecutor.shutdown();
+
+			_commandExecutor = null;
+		}
+
+		_stopFiredTriggerSampler();
+	}
+
+	/**
+	 * Execute the operation on all the jobs whose name matches the pattern
+	 * and print the report of the results.
+	 *
+	 * @param operationName The name of the operation
+	 * @param pattern       The pattern matching the job names
+	 * @param storageType   The storage type of the jobs or ALL
+	 * @param dryRun        true to print the matching jobs only
+	 * @param jobOperation  The operation
+	 * @throws PortalException In the case of errors
+	 */
+	private void executeBulk(
+			String operationName, String pattern, String storageType,
+			boolean dryRun, BulkJobExecutor.JobOperation jobOperation)
+		throws PortalException {
+
+		if (Validator.isNull(pattern)) {
+			throw new PortalException("The --match pattern is required");
+		}
+
+		Predicate<String> jobNamePredicate;
+		StorageType storageTypeFilter = null;
+
+		try {
+			jobNamePredicate = JobNameMatcher.compile(pattern);
+
+			if (!_ALL.equals(storageType)) {
+				storageTypeFilter = StorageType.valueOf(storageType);
+			}
+		}
+		catch (IllegalArgumentException iae) {
+			throw new PortalException(iae.getMessage(), iae);
+		}
+
+		List<JobKey> jobKeys = new ArrayList<>();
+
+		for (SchedulerResponse schedulerResponse :
+				_jobInventoryCache.getScheduledJobs(true)) {
+
+			if (((storageTypeFilter == null) ||
+				 (storageTypeFilter == schedulerResponse.getStorageType())) &&
+				jobNamePredicate.test(schedulerResponse.getJobName())) {
+
+				jobKeys.add(
+					new JobKey(
+						schedulerResponse.getJobName(),
+						schedulerResponse.getGroupName(),
+						schedulerResponse.getStorageType()));
+			}
+		}
+
+		Console.println(
+			ansi().eraseScreen().render(
+				"@|green " + operationName + " of the jobs matching:|@ @|red " +
+					pattern + " |@" + (dryRun ? "(dry run)" : "")));
+
+		TableWriter tableWriter = new TableWriter(
+			Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE, 0,
+			_COLUMN_JOB_NAME, _COLUMN_GROUP_NAME, _COLUMN_STORAGE_TYPE,
+			_COLUMN_RESULT, _COLUMN_TIME_MILLIS);
+
+		if (dryRun) {
+			for (JobKey jobKey : jobKeys) {
+				tableWriter.writeRow(
+					jobKey.getJobName(), jobKey.getGroupName(),
+					jobKey.getStorageType().name(), "Matched", StringPool.DASH);
+			}
+
+			tableWriter.finish("No Jobs found");
+
+			return;
+		}
+
+		long start = System.nanoTime();
+
+		List<JobOperationResult> jobOperationResults;
+
+		try {
+			jobOperationResults = new BulkJobExecutor(
+				_schedulerManagerConfiguration.bulkOperationsParallelism()
+			).execute(
+				jobKeys, jobOperation
+			);
+		}
+		catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+
+			throw new PortalException(operationName + " interrupted", ie);
+		}
+
+		int failed = 0;
+
+		for (JobOperationResult jobOperationResult : jobOperationResults) {
+			JobKey jobKey = jobOperationResult.getJobKey();
+
+			String result = "OK";
+
+			if (!jobOperationResult.isSuccess()) {
+				failed++;
+
+				result = "FAILED: " + jobOperationResult.getThrowable();
+			}
+
+			tableWriter.writeRow(
+				jobKey.getJobName(), jobKey.getGroupName(),
+				jobKey.getStorageType().name(), result,
+				String.valueOf(jobOperationResult.getDurationMillis()));
+		}
+
+		tableWriter.finish("No Jobs found");
+
+		Console.println(
+			ansi().render(
+				"@|green Succeeded:|@ " + (jobOperationResults.size() - failed) +
+					" @|red Failed:|@ " + failed + " @|green Total time (ms):|@ " +
+						((System.nanoTime() - start) / 1000000)));
+	}
+
+	/**
+	 * Return the rows of the top view. The sorted jobs are kept between the
+	 * refreshes and only the jobs that changed are read again from the
+	 * scheduler engine, bypassing the cache: the jobs that started or
+	 * stopped running and the jobs whose next fire time is past. All the
+	 * jobs are visited only when the inventory cache reads the jobs again
+	 * (new jobs or expired inventory). The rows are the first ones of the
+	 * sorted jobs.
+	 *
+	 * @param topState The state kept between the refreshes
+	 * @param rows     The max number of rows
+	 * @param now      The current time
+	 * @param df       The date format
+	 * @return The rows
+	 * @throws SchedulerException In the case of errors
+	 */
+	private List<String[]> getTopRows(
+			TopState topState, int rows, long now, SimpleDateFormat df)
+		throws SchedulerException {
+
+		// The running jobs are keyed without the storage type, the fired
+		// triggers do not have it
+
+		Map<JobKey, Long> runningSince = new HashMap<>();
+
+		try {
+			FiredTriggerSnapshot firedTriggerSnapshot =
+				QuartzUtils.getFiredTriggerSnapshot(
+					null, new StringDictionary());
+
+			for (int row = 0; row < firedTriggerSnapshot.size(); row++) {
+				runningSince.merge(
+					new JobKey(
+						firedTriggerSnapshot.getTriggerName(row),
+						firedTriggerSnapshot.getTriggerGroup(row), null),
+					firedTriggerSnapshot.getFiredTime(row), Math::min);
+			}
+
+			topState._firedTriggersError = null;
+		}
+		catch (SQLException sqle) {
+			_log.warn(sqle.getMessage(), sqle);
+
+			// The running jobs of the previous refresh are kept, the title
+			// shows that they are unknown
+
+			runningSince = topState._runningSince;
+
+			topState._firedTriggersError = sqle.getMessage();
+		}
+
+		List<SchedulerResponse> schedulerResponses =
+			_jobInventoryCache.getScheduledJobs(true);
+
+		if (schedulerResponses != topState._schedulerResponses) {
+			_rebuildTopEntries(
+				topState, schedulerResponses, runningSince, now);
+		}
+		else {
+			_updateTopEntries(topState, runningSince, now);
+		}
+
+		topState._runningSince = runningSince;
+
+		List<String[]> topRows = new ArrayList<>(rows);
+
+		for (TopEntry topEntry : topState._sortedTopEntries) {
+			if (topRows.size() == rows) {
+				break;
+			}
+
+			JobSnapshot jobSnapshot = topEntry.getJobSnapshot();
+
+			String runningFor = StringPool.DASH;
+
+			if (topEntry.getRunningSince() != Long.MAX_VALUE) {
+				runningFor = _formatDuration(
+					now - topEntry.getRunningSince());
+			}
+
+			topRows.add(
+				new String[] {
+					jobSnapshot.getJobName(), jobSnapshot.getGroupName(),
+					jobSnapshot.getTriggerState().name(),
+					_format(df, jobSnapshot.getNextFireTime()), runningFor
+				});
+		}
+
+		return topRows;
+	}
+
+	/**
+	 * Write the table of the indexes needed by the commands on the Quartz
+	 * tables, with the missing ones. The index metadata is read from the
+	 * database.
+	 *
+	 * @param outputFormat The output format
+	 * @throws PortalException In the case of errors reading the metadata
+	 */
+	private void writeCheckIndexesTable(OutputFormat outputFormat)
+		throws PortalException {
+
+		long startTime = System.nanoTime();
+
+		QuartzSql quartzSql = QuartzUtils.getQuartzSql();
+
+		List<IndexCheck> indexChecks;
+		List<String> schedulerNames;
+
+		try {
+			indexChecks = QuartzUtils.checkIndexes();
+			schedulerNames = QuartzUtils.getSchedulerNames();
+		}
+		catch (SQLException sqle) {
+			throw new PortalException(sqle.getMessage(), sqle);
+		}
+
+		String schedulerName = quartzSql.getSchedulerName();
+
+		if (schedulerName == null) {
+			schedulerName = _ALL;
+		}
+
+		if (!outputFormat.isMachineReadable()) {
+			Console.println(
+				ansi().eraseScreen().render(
+					"@|green Quartz indexes, table prefix:|@ @|red " +
+						quartzSql.getTablePrefix() +
+							" |@@|green scheduler name:|@ @|red " +
+								schedulerName + " |@"));
+		}
+
+		RowWriter rowWriter = outputFormat.createRowWriter(
+			Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE, 0,
+			_COLUMN_TABLE_NAME, _COLUMN_COLUMNS, _COLUMN_USED_BY,
+			_COLUMN_INDEX_NAME, _COLUMN_STATUS);
+
+		int missingIndexes = 0;
+
+		for (IndexCheck indexCheck : indexChecks) {
+			String indexName = indexCheck.getIndexName();
+			String status = _INDEX_OK;
+
+			if (indexCheck.isMissing()) {
+				indexName = StringPool.DASH;
+				status = _INDEX_MISSING;
+
+				missingIndexes++;
+			}
+
+			rowWriter.writeRow(
+				indexCheck.getTableName(),
+				StringUtil.merge(
+					indexCheck.getColumnNames(), StringPool.COMMA_AND_SPACE),
+				indexCheck.getUsedBy(), indexName, status);
+		}
+
+		rowWriter.finish("No indexes to check");
+
+		if (!outputFormat.isMachineReadable()) {
+			if (missingIndexes > 0) {
+				Console.println(
+					ansi().render(
+						"@|red " + missingIndexes + " index(es) missing, " +
+							"the commands using them scan the table|@"));
+			}
+
+			if (!quartzSql.isSchedulerNameScoped()) {
+				Console.println(
+					ansi().render(
+						"@|red No scheduler name configured, the commands " +
+							"read the rows of all the schedulers without " +
+								"the Quartz indexes|@"));
+			}
+			else if (!schedulerNames.isEmpty() &&
+					 !schedulerNames.contains(schedulerName)) {
+
+				Console.println(
+					ansi().render(
+						"@|red The scheduler name has no triggers, the " +
+							"schedulers in the tables are:|@ " +
+								StringUtil.merge(
+									schedulerNames.toArray(),
+									StringPool.COMMA_AND_SPACE)));
+			}
+		}
+
+		SchedulerManagerMetrics.record(
+			Metric.COMMAND_CHECK_INDEXES, startTime, rowWriter.getRowCount());
+	}
+
+	private void writeDrainTable(
+			String groupName, long timeoutMillis, OutputFormat outputFormat)
+		throws Exception {
+
+		long startTime = System.nanoTime();
+
+		if (!outputFormat.isMachineReadable()) {
+			Console.println(
+				ansi().eraseScreen().render(
+					"@|green Group paused, waiting for the running jobs of|@ " +
+						"@|red " + groupName + " |@"));
+		}
+
+		try (FiredTriggerWatcher firedTriggerWatcher =
+				QuartzUtils.openFiredTriggerWatcher(groupName)) {
+
+			boolean idle = firedTriggerWatcher.awaitIdle(timeoutMillis);
+
+			SimpleDateFormat df = new SimpleDateFormat(
+				DateUtil.ISO_8601_PATTERN);
+
+			Set<String> runningJobNames =
+				firedTriggerWatcher.getRunningJobNames();
+
+			RowWriter rowWriter = outputFormat.createRowWriter(
+				Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE, 0,
+				_COLUMN_JOB_NAME, _COLUMN_LAST_SEEN_RUNNING, _COLUMN_STATUS);
+
+			for (Map.Entry<String, Long> entry :
+					firedTriggerWatcher.getSeenJobNames().entrySet()) {
+
+				String status = _DRAIN_COMPLETED;
+
+				if (runningJobNames.contains(entry.getKey())) {
+					status = _DRAIN_RUNNING;
+				}
+
+				rowWriter.writeRow(
+					entry.getKey(), _format(df, new Date(entry.getValue())),
+					status);
+			}
+
+			rowWriter.finish("No running jobs to wait for");
+
+			if (!outputFormat.isMachineReadable()) {
+				long elapsedTime = (System.nanoTime() - startTime) / 1000000;
+
+				if (idle) {
+					Console.println(
+						ansi().render(
+							"@|green Group drained in|@ @|red " +
+								_formatDuration(elapsedTime) +
+									" |@@|green with|@ @|red " +
+										firedTriggerWatcher.getPollCount() +
+											" |@@|green queries|@"));
+				}
+				else {
+					Console.println(
+						ansi().render(
+							"@|red Timeout expired, " +
+								runningJobNames.size() +
+									" job(s) still running|@"));
+				}
+			}
+
+			SchedulerManagerMetrics.record(
+				Metric.COMMAND_DRAIN, startTime, rowWriter.getRowCount());
+		}
+	}
+
+	private void writeErrorsTable(
+			int top, String groupName, String name, String storageType,
+			boolean noCache, OutputFormat outputFormat)
+		throws PortalException {
+
+		long startTime = System.nanoTime();
+
+		if (groupName.isEmpty()) {
+			groupName = null;
+		}
+
+		StorageType storageTypeFilter = null;
+
+		if (!_ALL.equals(storageType)) {
+			storageTypeFilter = StorageType.valueOf(storageType);
+		}
+
+		Predicate<String> jobNamePredicate = null;
+
+		if (!name.isEmpty()) {
+			jobNamePredicate = JobNameMatcher.compile(name);
+		}
+
+		List<JobKey> jobKeys = new ArrayList<>();
+
+		for (SchedulerResponse schedulerResponse :
+				_jobInventoryCache.getScheduledJobs(
+					groupName, storageTypeFilter, !noCache)) {
+
+			if ((jobNamePredicate == null) ||
+				jobNamePredicate.test(schedulerResponse.getJobName())) {
+
+				jobKeys.add(
+					new JobKey(
+						schedulerResponse.getJobName(),
+						schedulerResponse.getGroupName(),
+						schedulerResponse.getStorageType()));
+			}
+		}
+
+		JobExceptionAggregator jobExceptionAggregator =
+			new JobExceptionAggregator(_ERRORS_MAX_JOB_NAMES);
+
+		// The workers run on their own threads, the scope of the command is
+		// checked to skip the jobs not yet read when the command is cancelled
+
+		CancellationScope cancellationScope = CancellationScope.getCurrent();
+
+		List<JobOperationResult> jobOperationResults;
+
+		try {
+			jobOperationResults = new BulkJobExecutor(
+				_schedulerManagerConfiguration.bulkOperationsParallelism()
+			).execute(
+				jobKeys,
+				jobKey -> {
+					if ((cancellationScope != null) &&
+						cancellationScope.isCancelled()) {
+
+						return;
+					}
+
+					long callStartTime = System.nanoTime();
+
+					ObjectValuePair<Exception, Date>[] jobExceptions =
+						_schedulerEngineHelper.getJobExceptions(
+							jobKey.getJobName(), jobKey.getGroupName(),
+							jobKey.getStorageType());
+
+					SchedulerManagerMetrics.record(
+						Metric.SCHEDULER_ENGINE_GET_JOB_EXCEPTIONS,
+						callStartTime);
+
+					jobExceptionAggregator.add(jobKey, jobExceptions);
+				}
+			);
+		}
+		catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+
+			throw new PortalException(
+				"The reading of the job exceptions was interrupted", ie);
+		}
+
+		if (_isCancelled(cancellationScope)) {
+			throw new PortalException(
+				"The reading of the job exceptions was interrupted");
+		}
+
+		int failed = 0;
+
+		for (JobOperationResult jobOperationResult : jobOperationResults) {
+			if (!jobOperationResult.isSuccess()) {
+				failed++;
+
+				if (_log.isDebugEnabled()) {
+					JobKey jobKey = jobOperationResult.getJobKey();
+
+					_log.debug(
+						"Unable to read the exceptions of the job " +
+							jobKey.getJobName(),
+						jobOperationResult.getThrowable());
+				}
+			}
+		}
+
+		if (!outputFormat.isMachineReadable()) {
+			int signatureCount = jobExceptionAggregator.getSignatureCount();
+
+			Console.println(
+				ansi().eraseScreen().render(
+					"@|green Exceptions:|@ @|red " +
+						jobExceptionAggregator.getExceptionCount() +
+							" |@@|green of|@ @|red " +
+								jobExceptionAggregator.getJobCount() + "/" +
+									jobKeys.size() +
+										" |@@|green jobs with|@ @|red " +
+											signatureCount +
+												" |@@|green signatures|@"));
+		}
+
+		SimpleDateFormat df = new SimpleDateFormat(DateUtil.ISO_8601_PATTERN);
+
+		RowWriter rowWriter = outputFormat.createRowWriter(
+			Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE, 0,
+			_COLUMN_SIGNATURE, _COLUMN_EXCEPTION, _COLUMN_MESSAGE,
+			_COLUMN_COUNT, _COLUMN_JOBS, _COLUMN_FIRST_SEEN,
+			_COLUMN_LAST_SEEN, _COLUMN_JOB_NAMES);
+
+		for (FailureSignature failureSignature :
+				jobExceptionAggregator.getTopFailureSignatures(top)) {
+
+			StringBuilder sb = new StringBuilder();
+
+			for (JobKey jobKey : failureSignature.getJobKeys()) {
+				if (sb.length() > 0) {
+					sb.append(StringPool.COMMA_AND_SPACE);
+				}
+
+				sb.append(jobKey.getJobName());
+			}
+
+			if (failureSignature.getJobCount() >
+					failureSignature.getJobKeys().size()) {
+
+				sb.append(StringPool.COMMA_AND_SPACE);
+				sb.append(StringPool.TRIPLE_PERIOD);
+			}
+
+			rowWriter.writeRow(
+				failureSignature.getSignature(),
+				failureSignature.getExceptionClassName(),
+				GetterUtil.getString(
+					failureSignature.getMessage(), StringPool.DASH),
+				String.valueOf(failureSignature.getCount()),
+				String.valueOf(failureSignature.getJobCount()),
+				_format(df, failureSignature.getFirstSeenTime()),
+				_format(df, failureSignature.getLastSeenTime()),
+				sb.toString());
+		}
+
+		rowWriter.finish("No job exceptions found");
+
+		if (!outputFormat.isMachineReadable() && (failed > 0)) {
+			Console.println(
+				ansi().render(
+					"@|red Unable to read the exceptions of " + failed +
+						" job(s)|@"));
+		}
+
+		SchedulerManagerMetrics.record(
+			Metric.COMMAND_ERRORS, startTime, rowWriter.getRowCount());
+	}
+
+	private void writeFiredCountsTable(
+			String[] groupNames, OutputFormat outputFormat)
+		throws PortalException {
+
+		long startTime = System.nanoTime();
+
+		FiredJobsCounts firedJobsCounts;
+
+		try {
+			firedJobsCounts = QuartzUtils.getFiredJobsCounts();
+		}
+		catch (SQLException sqle) {
+			throw new PortalException(sqle.getMessage(), sqle);
+		}
+
+		if (!outputFormat.isMachineReadable()) {
+			Console.println(
+				ansi().eraseScreen().render(
+					"@|green Count of the jobs that are in progress by group and instance name|@"));
+		}
+
+		RowWriter rowWriter = outputFormat.createRowWriter(
+			Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE, 0,
+			_COLUMN_GROUP_NAME, _COLUMN_INSTANCE_NAME, _COLUMN_COUNT);
+
+		Map<String, Map<String, Integer>> counts =
+			firedJobsCounts.getCounts();
+		int total = firedJobsCounts.getTotal();
+
+		if (groupNames.length > 0) {
+			counts = new TreeMap<>();
+			total = 0;
+
+			for (String groupName : groupNames) {
+				Map<String, Integer> instanceCounts =
+					firedJobsCounts.getCounts().get(groupName);
+
+				if (instanceCounts == null) {
+					instanceCounts = Collections.singletonMap(
+						StringPool.DASH, 0);
+				}
+
+				counts.put(groupName, instanceCounts);
+				total += firedJobsCounts.getCount(groupName);
+			}
+		}
+
+		counts.forEach(
+			(triggerGroup, instanceCounts) -> instanceCounts.forEach(
+				(instanceName, count) -> rowWriter.writeRow(
+					triggerGroup, instanceName, String.valueOf(count))));
+
+		if (!outputFormat.isMachineReadable() &&
+			(rowWriter.getRowCount() > 0)) {
+
+			rowWriter.writeRow(
+				"Total", StringPool.DASH, String.valueOf(total));
+		}
+
+		rowWriter.finish("No Jobs in progress found");
+
+		SchedulerManagerMetrics.record(
+			Metric.COMMAND_FIRED_COUNTS, startTime, rowWriter.getRowCount());
+	}
+
+	private void writeForecastTable(
+			FireTimeForecast fireTimeForecast, int window, String resolution,
+			int top, boolean histogram, String groupName, String name,
+			String storageType, boolean noCache, OutputFormat outputFormat)
+		throws PortalException {
+
+		long startTime = System.nanoTime();
+
+		if (groupName.isEmpty()) {
+			groupName = null;
+		}
+
+		StorageType storageTypeFilter = null;
+
+		if (!_ALL.equals(storageType)) {
+			storageTypeFilter = StorageType.valueOf(storageType);
+		}
+
+		Predicate<String> jobNamePredicate = null;
+
+		if (!name.isEmpty()) {
+			jobNamePredicate = JobNameMatcher.compile(name);
+		}
+
+		List<SchedulerResponse> schedulerResponses =
+			_jobInventoryCache.getScheduledJobs(
+				groupName, storageTypeFilter, !noCache);
+
+		int unsupportedJobs = 0;
+
+		CancellationScope cancellationScope = CancellationScope.getCurrent();
+
+		for (SchedulerResponse schedulerResponse : schedulerResponses) {
+			if (_isCancelled(cancellationScope)) {
+				throw new PortalException("The forecast was interrupted");
+			}
+
+			if ((jobNamePredicate != null) &&
+				!jobNamePredicate.test(schedulerResponse.getJobName())) {
+
+				continue;
+			}
+
+			if (_schedulerEngineHelper.getJobState(schedulerResponse) !=
+					TriggerState.NORMAL) {
+
+				continue;
+			}
+
+			FireTimeSchedule fireTimeSchedule = _getFireTimeSchedule(
+				schedulerResponse);
+
+			if (fireTimeSchedule == null) {
+				unsupportedJobs++;
+
+				continue;
+			}
+
+			fireTimeForecast.add(
+				schedulerResponse.getJobName(), fireTimeSchedule);
+		}
+
+		SimpleDateFormat df = new SimpleDateFormat(DateUtil.ISO_8601_PATTERN);
+
+		if (!outputFormat.isMachineReadable()) {
+			int peakBucket = fireTimeForecast.getPeakBucket();
+
+			Date peakTime = new Date(
+				fireTimeForecast.getBucketStartTime(peakBucket));
+
+			Console.println(
+				ansi().eraseScreen().render(
+					"@|green Fire time forecast of|@ @|red " +
+						fireTimeForecast.getJobCount() +
+							" |@@|green jobs for|@ @|red " + window +
+								" |@@|green hours by|@ @|red " + resolution +
+									" |@"));
+			Console.println(
+				ansi().render(
+					"@|green Fires:|@ @|red " +
+						fireTimeForecast.getFireCount() +
+							" |@@|green windows with collisions:|@ @|red " +
+								fireTimeForecast.getCollisionCount() +
+									" |@@|green peak:|@ @|red " +
+										fireTimeForecast.getFireCount(
+											peakBucket) +
+												" |@@|green fires at|@ @|red " +
+													_format(df, peakTime) +
+														" |@"));
+
+			if (unsupportedJobs > 0) {
+				Console.println(
+					ansi().render(
+						"@|red " + unsupportedJobs +
+							" job(s) without a cron expression or an " +
+								"interval are not forecast|@"));
+			}
+
+			if (fireTimeForecast.getTruncatedJobCount() > 0) {
+				Console.println(
+					ansi().render(
+						"@|red " + fireTimeForecast.getTruncatedJobCount() +
+							" job(s) fire too often, only their first " +
+								"fires are forecast|@"));
+			}
+		}
+
+		RowWriter rowWriter;
+
+		if (histogram) {
+			rowWriter = outputFormat.createRowWriter(
+				Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE, 0,
+				_COLUMN_WINDOW_START, _COLUMN_FIRES);
+
+			for (int bucket = 0; bucket < fireTimeForecast.getBucketCount();
+				 bucket++) {
+
+				int fireCount = fireTimeForecast.getFireCount(bucket);
+
+				if (fireCount > 0) {
+					rowWriter.writeRow(
+						_format(
+							df,
+							new Date(
+								fireTimeForecast.getBucketStartTime(bucket))),
+						String.valueOf(fireCount));
+				}
+			}
+
+			rowWriter.finish("No fires in the forecast window");
+		}
+		else {
+			rowWriter = outputFormat.createRowWriter(
+				Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE, 0,
+				_COLUMN_WINDOW_START, _COLUMN_FIRES, _COLUMN_JOBS,
+				_COLUMN_JOB_NAMES);
+
+			for (CollisionWindow collisionWindow :
+					fireTimeForecast.getWorstWindows(top)) {
+
+				Map<String, Integer> jobFireCounts =
+					collisionWindow.getJobFireCounts();
+
+				StringBuilder sb = new StringBuilder();
+
+				jobFireCounts.forEach(
+					(jobName, fireCount) -> {
+						if (sb.length() > 0) {
+							sb.append(StringPool.COMMA_AND_SPACE);
+						}
+
+						sb.append(jobName);
+
+						if (fireCount > 1) {
+							sb.append(" (x");
+							sb.append(fireCount);
+							sb.append(StringPool.CLOSE_PARENTHESIS);
+						}
+					});
+
+				rowWriter.writeRow(
+					_format(df, new Date(collisionWindow.getStartTime())),
+					String.valueOf(collisionWindow.getFireCount()),
+					String.valueOf(jobFireCounts.size()), sb.toString());
+			}
+
+			rowWriter.finish("No windows where two or more jobs fire");
+		}
+
+		SchedulerManagerMetrics.record(
+			Metric.COMMAND_FORECAST, startTime, rowWriter.getRowCount());
+	}
+
+	/**
+	 * Write the detail table of the job. The machine readable formats write
+	 * the job as a single row.
+	 *
+	 * @param jobName      The name of the job
+	 * @param groupName    The group name of the job
+	 * @param storageType  The Storage Type of the job
+	 * @param noCache      true to read the job ignoring the cache
+	 * @param outputFormat The output format
+	 * @throws PortalException In the case of errors
+	 */
+	private void writeJobInfoTable(
+			String jobName, String groupName, String storageType,
+			boolean noCache, OutputFormat outputFormat)
+		throws PortalException {
+
+		SchedulerResponse schedulerResponse =
+			_jobInventoryCache.getScheduledJob(
+				jobName, groupName, StorageType.valueOf(storageType),
+				!noCache);
+
+		if (Validator.isNull(schedulerResponse)) {
+			throw new PortalException("Job not found with the name " + jobName);
+		}
+
+		JobSnapshot jobSnapshot = JobSnapshot.ofWithJobExceptions(
+			_schedulerEngineHelper, schedulerResponse);
+
+		SimpleDateFormat df = new SimpleDateFormat(DateUtil.ISO_8601_PATTERN);
+
+		String jobExceptions = StringPool.DASH;
+
+		if (jobSnapshot.hasJobExceptions()) {
+			String separator = "<br>";
+
+			if (outputFormat.isMachineReadable()) {
+				separator = StringPool.NEW_LINE;
+			}
+
+			StringBuilder sb = new StringBuilder();
+
+			for (ObjectValuePair<Exception, Date> jobException :
+					jobSnapshot.getJobExceptions()) {
+
+				if (sb.length() > 0) {
+					sb.append(separator);
+				}
+
+				sb.append(_format(df, jobException.getValue()));
+				sb.append(StringPool.SPACE);
+				sb.append(jobException.getKey());
+			}
+
+			jobExceptions = sb.toString();
+		}
+
+		String[] values = {
+			jobSnapshot.getJobName(), jobSnapshot.getGroupName(),
+			jobSnapshot.getTriggerState().name(),
+			_format(df, jobSnapshot.getStartDate()),
+			_format(df, jobSnapshot.getPreviousFireTime()),
+			_format(df, jobSnapshot.getNextFireTime()),
+			new JobSnapshotFormatter().formatTrigger(jobSnapshot.getTrigger()),
+			jobSnapshot.getDestinationName(),
+			jobSnapshot.getStorageType().name(), jobExceptions
+		};
+
+		if (outputFormat.isMachineReadable()) {
+			RowWriter rowWriter = outputFormat.createRowWriter(
+				Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE, 0,
+				_INFO_COLUMN_NAMES);
+
+			rowWriter.writeRow(values);
+			rowWriter.finish(null);
+
+			return;
+		}
+
+		AsciiTable at = new AsciiTable();
+
+		at.setPadding(5);
+		at.addRule();
+
+		for (int i = 0; i < values.length; i++) {
+			at.addRow(_INFO_COLUMN_NAMES[i], values[i]);
+			at.addRule();
+		}
+
+		Console.println(
+			ansi().eraseScreen().render(
+				"@|green Detail of the job:|@ @|red " + jobName + " |@"));
+
+		long startTime = System.nanoTime();
+
+		Collection<String> lines = at.renderAsCollection(_TABLE_WIDTH);
+
+		SchedulerManagerMetrics.record(Metric.RENDER_ASCII_TABLE, startTime);
+
+		PrintStream printStream = Console.getPrintStream();
+
+		for (String line : lines) {
+			printStream.println(line);
+		}
+	}
+
+	/**
+	 * Write the jobs list in progress table rows. The rows are read from the
+	 * database page by page and streamed to the console.
+	 *
+	 * @param groupName    The group name of the jobs
+	 * @param outputFormat The output format
+	 * @return The number of rows written
+	 * @throws PortalException In the case of errors
+	 */
+	private long writeJobsListInProgressTableRows(
+			String groupName, OutputFormat outputFormat)
+		throws PortalException {
+
+		SimpleDateFormat df = new SimpleDateFormat(DateUtil.ISO_8601_PATTERN);
+		RowWriter rowWriter = outputFormat.createRowWriter(
+			Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE, 0,
+			_COLUMN_JOB_NAME, _COLUMN_GROUP_NAME, _COLUMN_INSTANCE_NAME,
+			_COLUMN_FIRED_TIME, _COLUMN_STATE);
+
+		try (FiredTriggerCursor firedTriggerCursor =
+				QuartzUtils.openFiredTriggerCursor(groupName)) {
+
+			while (firedTriggerCursor.next()) {
+				FiredTrigger firedTrigger = firedTriggerCursor.get();
+
+				rowWriter.writeRow(
+					firedTrigger.getTriggerName(),
+					firedTrigger.getTriggerGroup(),
+					firedTrigger.getInstanceName(),
+					_format(df, firedTrigger.getFiredTime()),
+					firedTrigger.getState());
+			}
+		}
+		catch (SQLException sqle) {
+			throw new PortalException(sqle.getMessage(), sqle);
+		}
+
+		rowWriter.finish("No Jobs in progress found");
+
+		return rowWriter.getRowCount();
+	}
+
+	/**
+	 * Write the jobs list table rows. The rows are streamed to the console
+	 * as soon as they are produced. The group and the storage type are
+	 * pushed down to the scheduler engine and the job name is matched
+	 * before reading the state and the fire times of the job. The persisted
+	 * jobs are read with a single query on the Quartz tables, the scheduler
+	 * engine is used only for the memory jobs (or for all the jobs if the
+	 * query fails); the persisted jobs are written first, like the scheduler
+	 * engine lists them.
+	 *
+	 * @param status       The trigger state used to filter the jobs
+	 * @param groupName    The group name, empty for all the groups
+	 * @param name         The pattern matching the job names, empty for all
+	 *                     the jobs
+	 * @param storageType  The storage type or ALL
+	 * @param limit        The max number of jobs to write (0 for no limit)
+	 * @param offset       The number of jobs to skip
+	 * @param pageSize     The number of rows per page (0 for a single page)
+	 * @param noCache      true to read the jobs ignoring the cache
+	 * @param outputFormat The output format
+	 * @return The number of rows written
+	 * @throws SchedulerException In the case of errors
+	 */
+	private long writeJobsListTableRows(
+			String status, String groupName, String name, String storageType,
+			int limit, int offset, int pageSize, boolean noCache,
+			OutputFormat outputFormat)
+		throws SchedulerException {
+
+		if (groupName.isEmpty()) {
+			groupName = null;
+		}
+
+		StorageType storageTypeFilter = null;
+
+		if (!_ALL.equals(storageType)) {
+			storageTypeFilter = StorageType.valueOf(storageType);
+		}
+
+		Predicate<String> jobNamePredicate = null;
+
+		if (!name.isEmpty()) {
+			jobNamePredicate = JobNameMatcher.compile(name);
+		}
+
+		List<PersistedJob> persistedJobs = null;
+
+		if ((storageTypeFilter == null) ||
+			(storageTypeFilter == StorageType.PERSISTED)) {
+
+			// The persisted jobs are read with a single query on the Quartz
+			// tables instead of several calls to the scheduler engine for
+			// every job
+
+			try {
+				persistedJobs = QuartzUtils.getPersistedJobs(groupName);
+			}
+			catch (SQLException sqle) {
+				if (_log.isWarnEnabled()) {
+					_log.warn(
+						"Unable to read the persisted jobs from the Quartz " +
+							"tables, they are read from the scheduler engine",
+						sqle);
+				}
+			}
+		}
+
+		List<SchedulerResponse> schedulerResponses;
+
+		if (persistedJobs == null) {
+			schedulerResponses = _jobInventoryCache.getScheduledJobs(
+				groupName, storageTypeFilter, !noCache);
+		}
+		else if (storageTypeFilter == null) {
+			schedulerResponses = new ArrayList<>(
+				_jobInventoryCache.getScheduledJobs(
+					groupName, StorageType.MEMORY, !noCache));
+
+			schedulerResponses.addAll(
+				_jobInventoryCache.getScheduledJobs(
+					groupName, StorageType.MEMORY_CLUSTERED, !noCache));
+		}
+		else {
+			schedulerResponses = Collections.emptyList();
+		}
+
+		JobSnapshotFormatter jobSnapshotFormatter = new JobSnapshotFormatter();
+		RowWriter rowWriter = outputFormat.createRowWriter(
+			Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE,
+			pageSize, _COLUMN_JOB_NAME, _COLUMN_GROUP_NAME, _COLUMN_STATE,
+			_COLUMN_START_TIME, _COLUMN_PREVIOUS_FIRE_TIME,
+			_COLUMN_NEXT_FIRE_TIME, _COLUMN_STORAGE_TYPE);
+
+		int skipped = 0;
+
+		if (persistedJobs == null) {
+			persistedJobs = Collections.emptyList();
+		}
+
+		for (PersistedJob persistedJob : persistedJobs) {
+			if ((limit > 0) && (rowWriter.getRowCount() >= limit)) {
+				break;
+			}
+
+			if ((jobNamePredicate != null) &&
+				!jobNamePredicate.test(persistedJob.getJobName())) {
+
+				continue;
+			}
+
+			if (!_ALL.equals(status) &&
+				!status.equals(persistedJob.getTriggerState().name())) {
+
+				continue;
+			}
+
+			if (skipped < offset) {
+				skipped++;
+
+				continue;
+			}
+
+			rowWriter.writeRow(jobSnapshotFormatter.toListRow(persistedJob));
+		}
+
+		for (SchedulerResponse schedulerResponse : schedulerResponses) {
+			if ((limit > 0) && (rowWriter.getRowCount() >= limit)) {
+				break;
+			}
+
+			if ((jobNamePredicate != null) &&
+				!jobNamePredicate.test(schedulerResponse.getJobName())) {
+
+				continue;
+			}
+
+			TriggerState triggerState = null;
+
+			if (!_ALL.equals(status)) {
+				triggerState = _schedulerEngineHelper.getJobState(
+					schedulerResponse);
+
+				if (!status.equals(triggerState.name())) {
+					continue;
+				}
+			}
+
+			if (skipped < offset) {
+				skipped++;
+
+				continue;
+			}
+
+			JobSnapshot jobSnapshot;
+
+			if (triggerState == null) {
+				jobSnapshot = JobSnapshot.of(
+					_schedulerEngineHelper, schedulerResponse);
+			}
+			else {
+				jobSnapshot = JobSnapshot.of(
+					_schedulerEngineHelper, schedulerResponse, triggerState);
+			}
+
+			rowWriter.writeRow(jobSnapshotFormatter.toListRow(jobSnapshot));
+		}
+
+		rowWriter.finish("No Jobs found");
+
+		return rowWriter.getRowCount();
+	}
+
+	private void writeMisfiresTable(
+			long misfireThreshold, OutputFormat outputFormat)
+		throws PortalException {
+
+		long startTime = System.nanoTime();
+
+		long now = System.currentTimeMillis();
+
+		List<MisfireBacklog> misfireBacklogs;
+
+		try {
+			misfireBacklogs = QuartzUtils.getMisfireBacklogs(
+				misfireThreshold, _MISFIRE_LAG_BUCKET_BOUNDS, now);
+		}
+		catch (SQLException sqle) {
+			throw new PortalException(sqle.getMessage(), sqle);
+		}
+
+		long total = 0;
+		long worstLag = 0;
+
+		long[] lagBucketTotals = new long[_MISFIRE_LAG_BUCKET_NAMES.length];
+
+		for (MisfireBacklog misfireBacklog : misfireBacklogs) {
+			total += misfireBacklog.getCount();
+			worstLag = Math.max(worstLag, misfireBacklog.getWorstLag(now));
+
+			for (int i = 0; i < lagBucketTotals.length; i++) {
+				lagBucketTotals[i] += misfireBacklog.getLagBucketCount(i);
+			}
+		}
+
+		if (!outputFormat.isMachineReadable()) {
+			Console.println(
+				ansi().eraseScreen().render(
+					"@|green Misfired triggers:|@ @|red " + total +
+						" |@@|green worst lag:|@ @|red " +
+							_formatDuration(worstLag) +
+								" |@@|green misfire threshold:|@ @|red " +
+									misfireThreshold + " ms |@"));
+		}
+
+		SimpleDateFormat df = new SimpleDateFormat(DateUtil.ISO_8601_PATTERN);
+
+		String[] columnNames = new String[_MISFIRE_LAG_BUCKET_NAMES.length + 4];
+
+		columnNames[0] = _COLUMN_GROUP_NAME;
+		columnNames[1] = _COLUMN_MISFIRED;
+		columnNames[2] = _COLUMN_OLDEST_NEXT_FIRE_TIME;
+		columnNames[3] = _COLUMN_WORST_LAG;
+
+		System.arraycopy(
+			_MISFIRE_LAG_BUCKET_NAMES, 0, columnNames, 4,
+			_MISFIRE_LAG_BUCKET_NAMES.length);
+
+		RowWriter rowWriter = outputFormat.createRowWriter(
+			Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE, 0,
+			columnNames);
+
+		for (MisfireBacklog misfireBacklog : misfireBacklogs) {
+			String[] values = new String[columnNames.length];
+
+			values[0] = misfireBacklog.getTriggerGroup();
+			values[1] = String.valueOf(misfireBacklog.getCount());
+			values[2] = _format(df, misfireBacklog.getOldestNextFireTime());
+			values[3] = _formatDuration(misfireBacklog.getWorstLag(now));
+
+			for (int i = 0; i < _MISFIRE_LAG_BUCKET_NAMES.length; i++) {
+				values[i + 4] = String.valueOf(
+					misfireBacklog.getLagBucketCount(i));
+			}
+
+			rowWriter.writeRow(values);
+		}
+
+		rowWriter.finish("No misfired triggers found");
+
+		if (!outputFormat.isMachineReadable() && (total > 0)) {
+			long maxLagBucketTotal = 0;
+
+			for (long lagBucketTotal : lagBucketTotals) {
+				maxLagBucketTotal = Math.max(maxLagBucketTotal, lagBucketTotal);
+			}
+
+			for (int i = 0; i < lagBucketTotals.length; i++) {
+				char[] bar = new char[
+					(int)Math.ceil(
+						lagBucketTotals[i] * _HISTOGRAM_WIDTH /
+							(double)maxLagBucketTotal)];
+
+				Arrays.fill(bar, _HISTOGRAM_BAR);
+
+				Console.println(
+					ansi().render(
+						String.format(
+							"%-10s @|red %-" + _HISTOGRAM_WIDTH + "s|@ %d",
+							_MISFIRE_LAG_BUCKET_NAMES[i], new String(bar),
+							lagBucketTotals[i])));
+			}
+		}
+
+		SchedulerManagerMetrics.record(
+			Metric.COMMAND_MISFIRES, startTime, rowWriter.getRowCount());
+	}
+
+	private void writeNodesTable(double threshold, OutputFormat outputFormat)
+		throws PortalException {
+
+		long startTime = System.nanoTime();
+
+		List<NodeLoad> nodeLoads;
+
+		try {
+			nodeLoads = QuartzUtils.getNodeLoads();
+		}
+		catch (SQLException sqle) {
+			throw new PortalException(sqle.getMessage(), sqle);
+		}
+
+		long total = 0;
+
+		for (NodeLoad nodeLoad : nodeLoads) {
+			total += nodeLoad.getRunningCount();
+		}
+
+		double average = 0;
+
+		if (!nodeLoads.isEmpty()) {
+			average = (double)total / nodeLoads.size();
+		}
+
+		boolean checkSkew = (total > 0) && (total >= nodeLoads.size());
+
+		if (!outputFormat.isMachineReadable()) {
+			Console.println(
+				ansi().eraseScreen().render(
+					"@|green Running jobs by node, total:|@ @|red " + total +
+						" |@@|green skew threshold:|@ @|red " + threshold +
+						" |@"));
+		}
+
+		SimpleDateFormat df = new SimpleDateFormat(DateUtil.ISO_8601_PATTERN);
+		long now = System.currentTimeMillis();
+
+		RowWriter rowWriter = outputFormat.createRowWriter(
+			Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE, 0,
+			_COLUMN_INSTANCE_NAME, _COLUMN_RUNNING, _COLUMN_SHARE,
+			_COLUMN_OLDEST_FIRED_TIME, _COLUMN_RUNNING_FOR, _COLUMN_SKEW);
+
+		int imbalancedNodes = 0;
+
+		for (NodeLoad nodeLoad : nodeLoads) {
+			String share = StringPool.DASH;
+
+			if (total > 0) {
+				share = String.format(
+					Locale.ROOT, "%.1f",
+					nodeLoad.getRunningCount() * 100D / total);
+			}
+
+			Date oldestFiredTime = nodeLoad.getOldestFiredTime();
+
+			String runningFor = StringPool.DASH;
+
+			if (oldestFiredTime != null) {
+				runningFor = _formatDuration(now - oldestFiredTime.getTime());
+			}
+
+			String skew = StringPool.DASH;
+
+			if (checkSkew &&
+				(nodeLoad.getRunningCount() > (threshold * average))) {
+
+				skew = _SKEW_IMBALANCED;
+
+				imbalancedNodes++;
+			}
+
+			rowWriter.writeRow(
+				nodeLoad.getInstanceName(),
+				String.valueOf(nodeLoad.getRunningCount()), share,
+				_format(df, oldestFiredTime), runningFor, skew);
+		}
+
+		rowWriter.finish("No cluster nodes found");
+
+		if (!outputFormat.isMachineReadable() && (imbalancedNodes > 0)) {
+			Console.println(
+				ansi().render(
+					"@|red " + imbalancedNodes + " node(s) running more than " +
+						threshold + " times the jobs of the average node|@"));
+		}
+
+		SchedulerManagerMetrics.record(
+			Metric.COMMAND_NODES, startTime, rowWriter.getRowCount());
+	}
+
+	private void writeSnapshotDiffTable(
+			String before, String after, String storageType, boolean fireTimes,
+			OutputFormat outputFormat)
+		throws Exception {
+
+		long startTime = System.nanoTime();
+
+		String storageTypeFilter = null;
+
+		if (!_ALL.equals(storageType)) {
+			storageTypeFilter = StorageType.valueOf(storageType).name();
+		}
+
+		try (SnapshotReader beforeSnapshotReader = SnapshotReader.open(
+				Paths.get(before));
+			SnapshotReader afterSnapshotReader = SnapshotReader.open(
+				Paths.get(after))) {
+
+			if (!outputFormat.isMachineReadable()) {
+				SimpleDateFormat df = new SimpleDateFormat(
+					DateUtil.ISO_8601_PATTERN);
+
+				Console.println(
+					ansi().eraseScreen().render(
+						"@|green Differences between the snapshots|@"));
+
+				for (SnapshotReader snapshotReader :
+						new SnapshotReader[] {
+							beforeSnapshotReader, afterSnapshotReader
+						}) {
+
+					Date createTime = _toDate(snapshotReader.getCreateTime());
+
+					Console.println(
+						ansi().render(
+							"@|green Snapshot of|@ @|red " +
+								snapshotReader.getJobCount() +
+									" |@@|green jobs saved on|@ @|red " +
+										snapshotReader.getNodeName() +
+											" |@@|green at|@ @|red " +
+												_format(df, createTime) +
+													" |@"));
+				}
+			}
+
+			RowWriter rowWriter = outputFormat.createRowWriter(
+				Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE, 0,
+				_COLUMN_CHANGE, _COLUMN_JOB_NAME, _COLUMN_GROUP_NAME,
+				_COLUMN_STORAGE_TYPE, _COLUMN_FIELD, _COLUMN_BEFORE,
+				_COLUMN_AFTER);
+
+			SnapshotDiff snapshotDiff = new SnapshotDiff(
+				storageTypeFilter, fireTimes);
+
+			snapshotDiff.diff(
+				beforeSnapshotReader, afterSnapshotReader,
+				(changeType, snapshotJob, field, beforeValue, afterValue) ->
+					rowWriter.writeRow(
+						changeType.name(), snapshotJob.getJobName(),
+						snapshotJob.getGroupName(),
+						snapshotJob.getStorageType(), field,
+						GetterUtil.getString(beforeValue, StringPool.DASH),
+						GetterUtil.getString(afterValue, StringPool.DASH)));
+
+			rowWriter.finish("No differences between the snapshots");
+
+			if (!outputFormat.isMachineReadable()) {
+				long unchangedCount = snapshotDiff.getUnchangedCount();
+
+				Console.println(
+					ansi().render(
+						"@|green Added:|@ @|red " +
+							snapshotDiff.getAddedCount() +
+								" |@@|green removed:|@ @|red " +
+									snapshotDiff.getRemovedCount() +
+										" |@@|green changed:|@ @|red " +
+											snapshotDiff.getChangedCount() +
+												" |@@|green unchanged:|@ " +
+													"@|red " + unchangedCount +
+														" |@"));
+			}
+
+			SchedulerManagerMetrics.record(
+				Metric.COMMAND_SNAPSHOT_DIFF, startTime,
+				rowWriter.getRowCount());
+		}
+	}
+
+	private void writeSnapshotFile(String file, String storageType)
+		throws Exception {
+
+		long startTime = System.nanoTime();
+
+		StorageType storageTypeFilter = null;
+
+		if (!_ALL.equals(storageType)) {
+			storageTypeFilter = StorageType.valueOf(storageType);
+		}
+
+		List<SchedulerResponse> schedulerResponses =
+			_jobInventoryCache.getScheduledJobs(null, storageTypeFilter, false);
+
+		// The fired trigger rows of the persisted jobs, read with a single
+		// pass over the QUARTZ_FIRED_TRIGGERS table
+
+		Map<JobKey, List<FiredTrigger>> firedTriggersMap = new HashMap<>();
+
+		if ((storageTypeFilter == null) ||
+			(storageTypeFilter == StorageType.PERSISTED)) {
+
+			try (FiredTriggerCursor firedTriggerCursor =
+					QuartzUtils.openFiredTriggerCursor(null)) {
+
+				while (firedTriggerCursor.next()) {
+					JobKey jobKey = new JobKey(
+						firedTriggerCursor.getTriggerName(),
+						firedTriggerCursor.getTriggerGroup(),
+						StorageType.PERSISTED);
+
+					firedTriggersMap.computeIfAbsent(
+						jobKey, key -> new ArrayList<>()
+					).add(
+						firedTriggerCursor.get()
+					);
+				}
+			}
+		}
+
+		JobSnapshotFormatter jobSnapshotFormatter = new JobSnapshotFormatter();
+		List<SnapshotJob> snapshotJobs = new ArrayList<>(
+			schedulerResponses.size());
+		int firedTriggerCount = 0;
+
+		CancellationScope cancellationScope = CancellationScope.getCurrent();
+
+		for (SchedulerResponse schedulerResponse : schedulerResponses) {
+			if (_isCancelled(cancellationScope)) {
+				throw new PortalException("The snapshot was interrupted");
+			}
+
+			JobSnapshot jobSnapshot = JobSnapshot.of(
+				_schedulerEngineHelper, schedulerResponse);
+
+			List<FiredTrigger> firedTriggers = firedTriggersMap.getOrDefault(
+				new JobKey(
+					jobSnapshot.getJobName(), jobSnapshot.getGroupName(),
+					jobSnapshot.getStorageType()),
+				Collections.emptyList());
+
+			firedTriggerCount += firedTriggers.size();
+
+			snapshotJobs.add(
+				new SnapshotJob(
+					jobSnapshot.getStorageType().name(),
+					jobSnapshot.getGroupName(), jobSnapshot.getJobName(),
+					jobSnapshot.getTriggerState().name(),
+					jobSnapshotFormatter.formatTrigger(
+						jobSnapshot.getTrigger()),
+					jobSnapshot.getStartDate(),
+					jobSnapshot.getPreviousFireTime(),
+					jobSnapshot.getNextFireTime(), firedTriggers));
+		}
+
+		Path path = Paths.get(file).toAbsolutePath();
+
+		long size = SnapshotWriter.write(
+			path, PortalUtil.getComputerName(), System.currentTimeMillis(),
+			snapshotJobs);
+
+		Console.println(
+			ansi().eraseScreen().render(
+				"@|green Snapshot of|@ @|red " + snapshotJobs.size() +
+					" |@@|green jobs and|@ @|red " + firedTriggerCount +
+						" |@@|green fired triggers saved to|@ @|red " + path +
+							" |@@|green (" + size + " bytes)|@"));
+
+		SchedulerManagerMetrics.record(
+			Metric.COMMAND_SNAPSHOT_SAVE, startTime, snapshotJobs.size());
+	}
+
+	private void writeStuckTable(
+			RunningTimeThresholds runningTimeThresholds, boolean all,
+			OutputFormat outputFormat)
+		throws PortalException {
+
+		long startTime = System.nanoTime();
+
+		long now = System.currentTimeMillis();
+
+		long firedBefore = Long.MAX_VALUE;
+
+		if (!all) {
+			firedBefore = now - runningTimeThresholds.getMinThreshold();
+		}
+
+		List<FiredTriggerCheckin> firedTriggerCheckins;
+
+		try {
+			firedTriggerCheckins = QuartzUtils.getFiredTriggerCheckins(
+				firedBefore, now);
+		}
+		catch (SQLException sqle) {
+			throw new PortalException(sqle.getMessage(), sqle);
+		}
+
+		if (!outputFormat.isMachineReadable()) {
+			Console.println(
+				ansi().eraseScreen().render(
+					"@|green Long running and orphaned jobs, default " +
+						"threshold:|@ @|red " +
+							_formatDuration(
+								runningTimeThresholds.getDefaultThreshold()) +
+									" |@"));
+		}
+
+		SimpleDateFormat df = new SimpleDateFormat(DateUtil.ISO_8601_PATTERN);
+
+		RowWriter rowWriter = outputFormat.createRowWriter(
+			Console.getPrintStream(), _TABLE_WIDTH, _TABLE_SAMPLE_SIZE, 0,
+			_COLUMN_JOB_NAME, _COLUMN_GROUP_NAME, _COLUMN_INSTANCE_NAME,
+			_COLUMN_FIRED_TIME, _COLUMN_RUNNING_FOR, _COLUMN_THRESHOLD,
+			_COLUMN_LAST_CHECKIN, _COLUMN_STATUS);
+
+		Map<String, RunningTimeThresholds.Threshold> thresholds =
+			new HashMap<>();
+
+		int longRunningJobs = 0;
+		int orphanedJobs = 0;
+
+		for (FiredTriggerCheckin firedTriggerCheckin : firedTriggerCheckins) {
+			String triggerName = firedTriggerCheckin.getTriggerName();
+			String triggerGroup = firedTriggerCheckin.getTriggerGroup();
+
+			RunningTimeThresholds.Threshold threshold =
+				thresholds.computeIfAbsent(
+					triggerGroup + StringPool.SLASH + triggerName,
+					key -> runningTimeThresholds.getThreshold(
+						triggerName, triggerGroup));
+
+			long runningFor =
+				now - firedTriggerCheckin.getFiredTime().getTime();
+
+			String status = _STUCK_RUNNING;
+
+			if (firedTriggerCheckin.isOrphaned(now)) {
+				status = _STUCK_ORPHANED;
+
+				orphanedJobs++;
+			}
+			else if (runningFor > threshold.getMillis()) {
+				status = _STUCK_LONG_RUNNING;
+
+				longRunningJobs++;
+			}
+			else if (!all) {
+				continue;
+			}
+
+			rowWriter.writeRow(
+				triggerName, triggerGroup,
+				firedTriggerCheckin.getInstanceName(),
+				_format(df, firedTriggerCheckin.getFiredTime()),
+				_formatDuration(runningFor),
+				_formatDuration(threshold.getMillis()) + " (" +
+					threshold.getSource() + ")",
+				_format(df, firedTriggerCheckin.getLastCheckinTime()), status);
+		}
+
+		rowWriter.finish("No long running or orphaned jobs found");
+
+		if (!outputFormat.isMachineReadable() &&
+			((longRunningJobs > 0) || (orphanedJobs > 0))) {
+
+			Console.println(
+				ansi().render(
+					"@|red " + longRunningJobs + " long running job(s), " +
+						orphanedJobs + " orphaned job(s)|@"));
+		}
+
+		SchedulerManagerMetrics.record(
+			Metric.COMMAND_STUCK, startTime, rowWriter.getRowCount());
+	}
+
+	/**
+	 * Check the indexes of the Quartz tables and the configured scheduler
+	 * name, logging a warning for every problem found. Run in background by
+	 * the activation, the errors are logged and never thrown.
+	 */
+	private void _checkQuartzIndexes() {
+		try {
+			for (IndexCheck indexCheck : QuartzUtils.checkIndexes()) {
+				if (indexCheck.isMissing() && _log.isWarnEnabled()) {
+					String columnNames = StringUtil.merge(
+						indexCheck.getColumnNames(),
+						StringPool.COMMA_AND_SPACE);
+
+					_log.warn(
+						"Missing index on " + indexCheck.getTableName() +
+							" (" + columnNames + "), used by " +
+								indexCheck.getUsedBy());
+				}
+			}
+
+			QuartzSql quartzSql = QuartzUtils.getQuartzSql();
+
+			if (!quartzSql.isSchedulerNameScoped()) {
+				if (_log.isWarnEnabled()) {
+					_log.warn(
+						"No Quartz scheduler name configured, the commands " +
+							"cannot use the Quartz indexes");
+				}
+
+				return;
+			}
+
+			List<String> schedulerNames = QuartzUtils.getSchedulerNames();
+
+			if (!schedulerNames.isEmpty() &&
+				!schedulerNames.contains(quartzSql.getSchedulerName()) &&
+				_log.isWarnEnabled()) {
+
+				_log.warn(
+					"The Quartz scheduler name " +
+						quartzSql.getSchedulerName() + " has no triggers, " +
+							"the schedulers in the tables are " +
+								schedulerNames);
+			}
+		}
+		catch (Exception e) {
+			_log.warn("Unable to check the Quartz indexes", e);
+		}
+	}
+
+	/**
+	 * Create the Quartz SQL from the configuration, the default one is used
+	 * when the configured dialect is not valid.
+	 *
+	 * @return The Quartz SQL
+	 */
+	private QuartzSql _createQuartzSql() {
+		try {
+			QuartzDialect quartzDialect = QuartzDialect.valueOf(
+				StringUtil.toUpperCase(
+					_schedulerManagerConfiguration.quartzDialect().trim()));
+
+			return new QuartzSql(
+				_schedulerManagerConfiguration.quartzTablePrefix().trim(),
+				_schedulerManagerConfiguration.quartzSchedulerName(),
+				quartzDialect);
+		}
+		catch (IllegalArgumentException iae) {
+			_log.error(
+				"Invalid Quartz SQL configuration, the default one is used: " +
+					iae.getMessage());
+
+			return new QuartzSql(
+				QuartzSql.DEFAULT_TABLE_PREFIX,
+				QuartzSql.DEFAULT_SCHEDULER_NAME, QuartzDialect.AUTO);
+		}
+	}
+
+	/**
+	 * Run the command with the command executor, in background or waiting
+	 * for its completion within the timeout.
+	 *
+	 * @param commandLine The command line, shown by the results command
+	 * @param timeout     The timeout in seconds (0 for the configured one, -1
+	 *                    for no timeout)
+	 * @param async       true to run the command in background
+	 * @param callable    The command
+	 * @return The result of the command, null if run in background
+	 * @throws PortalException In the case of errors, timeout or interruption
+	 */
+	private <T> T _execute(
+			String commandLine, long timeout, boolean async,
+			Callable<T> callable)
+		throws PortalException {
+
+		long timeoutMillis = _getTimeoutMillis(timeout);
+
+		try {
+			if (async) {
+				AsyncCommand asyncCommand = _commandExecutor.submit(
+					commandLine, callable, timeoutMillis);
+
+				Console.println(
+					ansi().render(
+						"@|green Command submitted in background with id:|@ " +
+							"@|red " + asyncCommand.getId() + " |@"));
+
+				return null;
+			}
+
+			return _commandExecutor.call(callable, timeoutMillis);
+		}
+		catch (PortalException pe) {
+			throw pe;
+		}
+		catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+
+			throw new PortalException("The command was cancelled", ie);
+		}
+		catch (RejectedExecutionException ree) {
+			throw new PortalException(
+				"Too many commands running, retry later", ree);
+		}
+		catch (TimeoutException te) {
+			throw new PortalException(te.getMessage(), te);
+		}
+		catch (Exception e) {
+			throw new PortalException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Return the schedule of the trigger of the job: the cron expression
+	 * (in the default time zone, like the Quartz cron triggers) or the
+	 * interval from the next fire time, limited to the start and end dates
+	 * of the trigger.
+	 *
+	 * @param schedulerResponse The scheduler response of the job
+	 * @return The schedule, null if the trigger is not supported
+	 */
+	private FireTimeSchedule _getFireTimeSchedule(
+		SchedulerResponse schedulerResponse) {
+
+		Trigger trigger = schedulerResponse.getTrigger();
+
+		if (trigger == null) {
+			return null;
+		}
+
+		Object triggerContent = trigger.getTriggerContent();
+
+		FireTimeSchedule fireTimeSchedule;
+
+		try {
+			if ((trigger.getTriggerType() == TriggerType.CRON) &&
+				(triggerContent instanceof String)) {
+
+				fireTimeSchedule = CronSchedule.parse(
+					(String)triggerContent, ZoneId.systemDefault());
+			}
+			else if ((trigger.getTriggerType() == TriggerType.SIMPLE) &&
+					 (triggerContent instanceof Number)) {
+
+				Date nextFireTime = _schedulerEngineHelper.getNextFireTime(
+					schedulerResponse);
+
+				if (nextFireTime == null) {
+					return null;
+				}
+
+				fireTimeSchedule = new IntervalSchedule(
+					nextFireTime.getTime(),
+					((Number)triggerContent).longValue());
+			}
+			else {
+				return null;
+			}
+		}
+		catch (IllegalArgumentException iae) {
+			if (_log.isDebugEnabled()) {
+				_log.debug(iae.getMessage(), iae);
+			}
+
+			return null;
+		}
+
+		long triggerStartTime = Long.MIN_VALUE;
+		long triggerEndTime = Long.MAX_VALUE;
+
+		if (trigger.getStartDate() != null) {
+			triggerStartTime = trigger.getStartDate().getTime();
+		}
+
+		if (trigger.getEndDate() != null) {
+			triggerEndTime = trigger.getEndDate().getTime();
+		}
+
+		if ((triggerStartTime == Long.MIN_VALUE) &&
+			(triggerEndTime == Long.MAX_VALUE)) {
+
+			return fireTimeSchedule;
+		}
+
+		long minTime = triggerStartTime - 1;
+		long maxTime = triggerEndTime;
+
+		return time -> {
+			long fireTime = fireTimeSchedule.getNextFireTime(
+				Math.max(time, minTime));
+
+			if (fireTime > maxTime) {
+				return Long.MAX_VALUE;
+			}
+
+			return fireTime;
+		};
+	}
+
+	private AsyncCommand _getAsyncCommand(long id) throws PortalException {
+		AsyncCommand asyncCommand = _commandExecutor.getAsyncCommand(id);
+
+		if (asyncCommand == null) {
+			throw new PortalException(
+				"The command " + id + " was not found or was already " +
+					"collected");
+		}
+
+		return asyncCommand;
+	}
+
+	/**
+	 * Return the execution stats sampler, it is started by the first call so
+	 * that the fired triggers are not read when the stats are never used.
+	 *
+	 * @return The sampler or null if it is disabled in the configuration
+	 */
+	private synchronized FiredTriggerSampler _getFiredTriggerSampler() {
+		if ((_firedTriggerSampler == null) &&
+			_schedulerManagerConfiguration.executionStatsSamplerEnabled()) {
+
+			FiredTriggerSampler firedTriggerSampler = new FiredTriggerSampler(
+				_schedulerManagerConfiguration.executionStatsSamplerInterval(),
+				_schedulerManagerConfiguration.executionStatsMaxJobs(),
+				_schedulerManagerConfiguration.executionStatsSamplesPerJob());
+
+			firedTriggerSampler.start();
+
+			_firedTriggerSampler = firedTriggerSampler;
+		}
+
+		return _firedTriggerSampler;
+	}
+
+	private long _getTimeoutMillis(long timeout) {
+		if (timeout < 0) {
+			return 0;
+		}
+
+		if (timeout == 0) {
+			return _schedulerManagerConfiguration.commandTimeout();
+		}
+
+		return timeout * 1000;
+	}
+
+	/**
+	 * Rebuild the sorted jobs of the top view from the inventory read again
+	 * by the cache. The snapshots of the previous refresh are reused for the
+	 * jobs that did not change.
+	 *
+	 * @param topState           The state kept between the refreshes
+	 * @param schedulerResponses The inventory
+	 * @param runningSince       The oldest fired time of the running jobs
+	 * @param now                The current time
+	 */
+	private void _rebuildTopEntries(
+		TopState topState, List<SchedulerResponse> schedulerResponses,
+		Map<JobKey, Long> runningSince, long now) {
+
+		Map<JobKey, TopEntry> previousTopEntries = topState._topEntries;
+
+		topState._clear();
+
+		for (SchedulerResponse schedulerResponse : schedulerResponses) {
+			JobKey jobKey = new JobKey(
+				schedulerResponse.getJobName(),
+				schedulerResponse.getGroupName(),
+				schedulerResponse.getStorageType());
+
+			long jobRunningSince = runningSince.getOrDefault(
+				new JobKey(jobKey.getJobName(), jobKey.getGroupName(), null),
+				Long.MAX_VALUE);
+
+			TopEntry topEntry = previousTopEntries.get(jobKey);
+
+			JobSnapshot jobSnapshot;
+
+			if ((topEntry == null) ||
+				(topEntry.getRunningSince() != jobRunningSince) ||
+				(topEntry.getNextFireTime() <= now)) {
+
+				jobSnapshot = JobSnapshot.of(
+					_schedulerEngineHelper, schedulerResponse);
+			}
+			else {
+				jobSnapshot = topEntry.getJobSnapshot();
+			}
+
+			topState._put(new TopEntry(jobKey, jobSnapshot, jobRunningSince));
+		}
+
+		topState._schedulerResponses = schedulerResponses;
+	}
+
+	private synchronized void _stopFiredTriggerSampler() {
+		if (_firedTriggerSampler != null) {
+			_firedTriggerSampler.stop();
+
+			_firedTriggerSampler = null;
+		}
+	}
+
+	/**
+	 * Update the sorted jobs of the top view with the jobs that changed
+	 * since the previous refresh, read again from the scheduler engine.
+	 *
+	 * @param topState     The state kept between the refreshes
+	 * @param runningSince The oldest fired time of the running jobs
+	 * @param now          The current time
+	 * @throws SchedulerException In the case of errors
+	 */
+	private void _updateTopEntries(
+			TopState topState, Map<JobKey, Long> runningSince, long now)
+		throws SchedulerException {
+
+		Set<JobKey> changedJobKeys = new HashSet<>();
+
+		for (TopEntry topEntry : topState._dueTopEntries) {
+			if (topEntry.getNextFireTime() > now) {
+				break;
+			}
+
+			changedJobKeys.add(topEntry.getJobKey());
+		}
+
+		Set<JobKey> runningJobKeys = new HashSet<>(runningSince.keySet());
+
+		runningJobKeys.addAll(topState._runningSince.keySet());
+
+		for (JobKey runningJobKey : runningJobKeys) {
+			if (Objects.equals(
+					runningSince.get(runningJobKey),
+					topState._runningSince.get(runningJobKey))) {
+
+				continue;
+			}
+
+			for (StorageType storageType : StorageType.values()) {
+				JobKey jobKey = new JobKey(
+					runningJobKey.getJobName(), runningJobKey.getGroupName(),
+					storageType);
+
+				if (topState._topEntries.containsKey(jobKey)) {
+					changedJobKeys.add(jobKey);
+				}
+			}
+		}
+
+		for (JobKey jobKey : changedJobKeys) {
+			topState._remove(jobKey);
+
+			SchedulerResponse schedulerResponse =
+				_jobInventoryCache.getScheduledJob(
+					jobKey.getJobName(), jobKey.getGroupName(),
+					jobKey.getStorageType(), false);
+
+			if (schedulerResponse == null) {
+				continue;
+			}
+
+			long jobRunningSince = runningSince.getOrDefault(
+				new JobKey(jobKey.getJobName(), jobKey.getGroupName(), null),
+				Long.MAX_VALUE);
+
+			topState._put(
+				new TopEntry(
+					jobKey,
+					JobSnapshot.of(_schedulerEngineHelper, schedulerResponse),
+					jobRunningSince));
+		}
+	}
+
+	private static List<ExecutionStats> _aggregateByGroup(
+		List<ExecutionStats> executionStatsList) {
+
+		Map<String, List<ExecutionStats>> groupExecutionStats =
+			new TreeMap<>();
+
+		for (ExecutionStats executionStats : executionStatsList) {
+			groupExecutionStats.computeIfAbsent(
+				executionStats.getTriggerGroup(), key -> new ArrayList<>()
+			).add(
+				executionStats
+			);
+		}
+
+		List<ExecutionStats> groupExecutionStatsList = new ArrayList<>();
+
+		groupExecutionStats.forEach(
+			(triggerGroup, jobExecutionStatsList) -> {
+				int capacity = 0;
+
+				for (ExecutionStats executionStats : jobExecutionStatsList) {
+					capacity += executionStats.getDurations().length;
+				}
+
+				ExecutionStats groupStats = new ExecutionStats(
+					null, triggerGroup, capacity);
+
+				jobExecutionStatsList.forEach(groupStats::add);
+
+				groupExecutionStatsList.add(groupStats);
+			});
+
+		return groupExecutionStatsList;
+	}
+
+	private static String[] _concat(String value, String[] values) {
+		String[] concat = new String[values.length + 1];
+
+		concat[0] = value;
+
+		System.arraycopy(values, 0, concat, 1, values.length);
+
+		return concat;
+	}
+
+	private static OutputFormat _getOutputFormat(String format)
+		throws PortalException {
+
+		try {
+			return OutputFormat.parse(format);
+		}
+		catch (IllegalArgumentException iae) {
+			throw new PortalException(iae.getMessage(), iae);
+		}
+	}
+
+	/**
+	 * Return true if the command was cancelled. The interrupt flag alone is
+	 * not enough because it is cleared by the code that catches the
+	 * InterruptedException without restoring it, the scope stays cancelled.
+	 *
+	 * @param cancellationScope The scope of the command, null if none
+	 * @return true if the thread is interrupted or the scope is cancelled
+	 */
+	private static boolean _isCancelled(CancellationScope cancellationScope) {
+		if (Thread.currentThread().isInterrupted()) {
+			return true;
+		}
+
+		if ((cancellationScope != null) && cancellationScope.isCancelled()) {
+			return true;
+		}
+
+		return false;
+	}
+
+	private static String _formatDuration(long millis) {
+		long seconds = Math.max(0, millis / 1000);
+
+		return String.format(
+			"%02d:%02d:%02d", seconds / 3600, (seconds % 3600) / 60,
+			seconds % 60);
+	}
+
+	private static Date _toDate(long time) {
+		if (time <= 0) {
+			return null;
+		}
+
+		return new Date(time);
+	}
+
+	private static String _format(SimpleDateFormat df, Date date) {
+		if (Validator.isNull(date)) {
+			return StringPool.DASH;
+		}
+
+		return df.format(date);
+	}
+
+	private static final String _ALL = "ALL";
+
+	private static final String _CHECK_INDEXES_THREAD_NAME =
+		"scheduler-manager-check-indexes";
+
+	private static final String _COLUMN_AFTER = "After";
+
+	private static final String _COLUMN_BEFORE = "Before";
+
+	private static final String _COLUMN_CHANGE = "Change";
+
+	private static final String _COLUMN_COLUMNS = "Columns";
+
+	private static final String _COLUMN_COMMAND = "Command";
+
+	private static final String _COLUMN_COUNT = "Count";
+
+	private static final String _COLUMN_DESTINATION_NAME = "Destination Name";
+
+	private static final String _COLUMN_END_TIME = "End Time";
+
+	private static final String _COLUMN_ERROR = "Error";
+
+	private static final String _COLUMN_ID = "Id";
+
+	private static final String _COLUMN_EXCEPTION = "Exception";
+
+	private static final String _COLUMN_FIELD = "Field";
+
+	private static final String _COLUMN_FIRES = "Fires";
+
+	private static final String _COLUMN_FIRST_SEEN = "First Seen";
+
+	private static final String _COLUMN_JOB_NAME = "Job Name";
+
+	private static final String _COLUMN_JOB_NAMES = "Job Names";
+
+	private static final String _COLUMN_JOBS = "Jobs";
+
+	private static final String _COLUMN_LAST_CHECKIN = "Last Check-in";
+
+	private static final String _COLUMN_FIRED_TIME = "Fired Time";
+
+	private static final String _COLUMN_GROUP_NAME = "Group Name";
+
+	private static final String _COLUMN_INDEX_NAME = "Index Name";
+
+	private static final String _COLUMN_INSTANCE_NAME = "Instance Name";
+
+	private static final String _COLUMN_LAST_COMPLETED = "Last Completed";
+
+	private static final String _COLUMN_LAST_SEEN = "Last Seen";
+
+	private static final String _COLUMN_MAX_MILLIS = "Max (ms)";
+
+	private static final String _COLUMN_LAST_SEEN_RUNNING =
+		"Last Seen Running";
+
+	private static final String _COLUMN_MESSAGE = "Message";
+
+	private static final String _COLUMN_MISFIRED = "Misfired";
+
+	private static final String _COLUMN_OLDEST_NEXT_FIRE_TIME =
+		"Oldest Next Fire Time";
+
+	private static final String _COLUMN_OLDEST_FIRED_TIME =
+		"Oldest Fired Time";
+
+	private static final String _COLUMN_P50_MILLIS = "p50 (ms)";
+
+	private static final String _COLUMN_P95_MILLIS = "p95 (ms)";
+
+	private static final String _COLUMN_RESULT = "Result";
+
+	private static final String _COLUMN_RUNNING = "Running";
+
+	private static final String _COLUMN_RUNS = "Runs";
+
+	private static final String _COLUMN_SHARE = "Share (%)";
+
+	private static final String _COLUMN_SIGNATURE = "Signature";
+
+	private static final String _COLUMN_SKEW = "Skew";
+
+	private static final String _COLUMN_RUNNING_FOR = "Running For";
+
+	private static final String _COLUMN_STATE = "State";
+
+	private static final String _COLUMN_START_TIME = "Start Time";
+
+	private static final String _COLUMN_PREVIOUS_FIRE_TIME =
+		"Previous Fire Time";
+
+	private static final String _COLUMN_NEXT_FIRE_TIME = "Next Fire Time";
+
+	private static final String _COLUMN_STATUS = "Status";
+
+	private static final String _COLUMN_STORAGE_TYPE = "Storage Type";
+
+	private static final String _COLUMN_TABLE_NAME = "Table Name";
+
+	private static final String _COLUMN_THRESHOLD = "Threshold";
+
+	private static final String _COLUMN_TIME_MILLIS = "Time (ms)";
+
+	private static final String _COLUMN_USED_BY = "Used By";
+
+	private static final String _COLUMN_WINDOW_START = "Window Start";
+
+	private static final String _COLUMN_WORST_LAG = "Worst Lag";
+
+	private static final String _DRAIN_COMPLETED = "COMPLETED";
+
+	private static final String _DRAIN_RUNNING = "RUNNING";
+
+	private static final int _ERRORS_MAX_JOB_NAMES = 5;
+
+	private static final String _FORMAT_TABLE = "table";
+
+	private static final char _HISTOGRAM_BAR = '#';
+
+	private static final int _HISTOGRAM_WIDTH = 50;
+
+	private static final String _INDEX_MISSING = "MISSING";
+
+	private static final String _INDEX_OK = "OK";
+
+	private static final String[] _INFO_COLUMN_NAMES = {
+		_COLUMN_JOB_NAME, _COLUMN_GROUP_NAME, _COLUMN_STATE,
+		_COLUMN_START_TIME, _COLUMN_PREVIOUS_FIRE_TIME, _COLUMN_NEXT_FIRE_TIME,
+		"Cron Expression", _COLUMN_DESTINATION_NAME, _COLUMN_STORAGE_TYPE,
+		"Job Exceptions"
+	};
+
+	private static final long[] _MISFIRE_LAG_BUCKET_BOUNDS = {
+		300000, 900000, 3600000, 21600000, 86400000
+	};
+
+	private static final String[] _MISFIRE_LAG_BUCKET_NAMES = {
+		"Lag < 5m", "Lag < 15m", "Lag < 1h", "Lag < 6h", "Lag < 1d",
+		"Lag >= 1d"
+	};
+
+	private static final String _RESOLUTION_MINUTE = "MINUTE";
+
+	private static final String _RESOLUTION_SECOND = "SECOND";
+
+	private static final String _SKEW_IMBALANCED = "IMBALANCED";
+
+	private static final String _SNAPSHOT_DIFF = "diff";
+
+	private static final String _SNAPSHOT_SAVE = "save";
+
+	private static final String _SORT_DURATION = "DURATION";
+
+	private static final String _SORT_NEXT_FIRE_TIME = "NEXT_FIRE_TIME";
+
+	private static final String _STATS_BY_GROUP = "GROUP";
+
+	private static final String _STATS_BY_JOB = "JOB";
+
+	private static final String _STUCK_LONG_RUNNING = "LONG_RUNNING";
+
+	private static final String _STUCK_ORPHANED = "ORPHANED";
+
+	private static final String _STUCK_RUNNING = "RUNNING";
+
+	private static final int _TABLE_SAMPLE_SIZE = 100;
+
+	private static final int _TABLE_WIDTH = 160;
+
+	private static final int[] _TOP_COLUMN_WIDTHS = {60, 40, 12, 25, 12};
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		SchedulerManagerCommand.class);
+
+	private volatile CommandExecutor _commandExecutor;
+	private volatile FiredTriggerSampler _firedTriggerSampler;
+	private volatile JobInventoryCache _jobInventoryCache;
+
+	@Reference
+	private SchedulerEngineHelper _schedulerEngineHelper;
+
+	private volatile SchedulerManagerConfiguration
+		_schedulerManagerConfiguration;
+
+	private static class TopEntry {
+
+		public JobKey getJobKey() {
+			return _jobKey;
+		}
+
+		public JobSnapshot getJobSnapshot() {
+			return _jobSnapshot;
+		}
+
+		public long getNextFireTime() {
+			return _nextFireTime;
+		}
+
+		public long getRunningSince() {
+			return _runningSince;
+		}
+
+		private TopEntry(
+			JobKey jobKey, JobSnapshot jobSnapshot, long runningSince) {
+
+			_jobKey = jobKey;
+			_jobSnapshot = jobSnapshot;
+			_runningSince = runningSince;
+
+			Date nextFireTime = jobSnapshot.getNextFireTime();
+
+			if (nextFireTime == null) {
+				_nextFireTime = Long.MAX_VALUE;
+			}
+			else {
+				_nextFireTime = nextFireTime.getTime();
+			}
+		}
+
+		private final JobKey _jobKey;
+		private final JobSnapshot _jobSnapshot;
+		private final long _nextFireTime;
+		private final long _runningSince;
+
+	}
+
+	/**
+	 * The jobs of the top view kept between the refreshes, sorted by the
+	 * order of the view and by the next fire time to find the due jobs.
+	 */
+	private static class TopState {
+
+		private TopState(String sort) {
+			Comparator<TopEntry> comparator = Comparator.comparingLong(
+				TopEntry::getNextFireTime
+			).thenComparing(
+				topEntry -> topEntry.getJobKey().getGroupName()
+			).thenComparing(
+				topEntry -> topEntry.getJobKey().getJobName()
+			).thenComparing(
+				topEntry -> topEntry.getJobKey().getStorageType()
+			);
+
+			_dueTopEntries = new TreeSet<>(comparator);
+
+			if (_SORT_DURATION.equals(sort)) {
+				_sortedTopEntries = new TreeSet<>(
+					Comparator.comparingLong(
+						TopEntry::getRunningSince
+					).thenComparing(
+						comparator
+					));
+			}
+			else {
+				_sortedTopEntries = _dueTopEntries;
+			}
+		}
+
+		private void _clear() {
+			_dueTopEntries.clear();
+			_sortedTopEntries.clear();
+
+			_topEntries = new HashMap<>();
+		}
+
+		private void _put(TopEntry topEntry) {
+			_topEntries.put(topEntry.getJobKey(), topEntry);
+
+			_dueTopEntries.add(topEntry);
+			_sortedTopEntries.add(topEntry);
+		}
+
+		private void _remove(JobKey jobKey) {
+			TopEntry topEntry = _topEntries.remove(jobKey);
+
+			if (topEntry != null) {
+				_dueTopEntries.remove(topEntry);
+				_sortedTopEntries.remove(topEntry);
+			}
+		}
+
+		private final NavigableSet<TopEntry> _dueTopEntries;
+		private String _firedTriggersError;
+		private Map<JobKey, Long> _runningSince = new HashMap<>();
+		private List<SchedulerResponse> _schedulerResponses;
+		private final NavigableSet<TopEntry> _sortedTopEntries;
+		private Map<JobKey, TopEntry> _topEntries = new HashMap<>();
+
+	}
 
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.configuration;
+
+import aQute.bnd.annotation.metatype.Meta;
+
+/**
+ * Configuration of the Scheduler Manager Gogo Shell Command.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+@Meta.OCD(
+	id = "it.dontesta.labs.liferay.gogo.scheduler.manager.configuration.SchedulerManagerConfiguration",
+	name = "Scheduler Manager Gogo Shell Command"
+)
+public interface SchedulerManagerConfiguration {
+
+	@Meta.AD(
+		deflt = "15000",
+		description = "The time to live in milliseconds of the cached job inventory, 0 to disable the cache",
+		name = "Job inventory cache TTL", required = false
+	)
+	public long jobInventoryCacheTTL();
+
+	@Meta.AD(
+		deflt = "10000",
+		description = "The max number of jobs kept in the job inventory cache, the whole inventory is not cached when it has more jobs",
+		name = "Job inventory cache max size", required = false
+	)
+	public int jobInventoryCacheMaxSize();
+
+	@Meta.AD(
+		deflt = "4",
+		description = "The max number of jobs paused or resumed at the same time by the bulk operations",
+		name = "Bulk operations parallelism", required = false
+	)
+	public int bulkOperationsParallelism();
+
+	@Meta.AD(
+		deflt = "true",
+		description = "Sample the fired triggers of the PERSISTED jobs in background to collect the execution duration statistics of the stats command, the sampler is started by the first stats or stuck command",
+		name = "Execution stats sampler enabled", required = false
+	)
+	public boolean executionStatsSamplerEnabled();
+
+	@Meta.AD(
+		deflt = "5000",
+		description = "The interval in milliseconds between two samples of the fired triggers, it is also the resolution of the measured durations",
+		name = "Execution stats sampler interval", required = false
+	)
+	public long executionStatsSamplerInterval();
+
+	@Meta.AD(
+		deflt = "1000",
+		description = "The max number of jobs tracked by the execution stats sampler, the least recently fired jobs are evicted first",
+		name = "Execution stats max jobs", required = false
+	)
+	public int executionStatsMaxJobs();
+
+	@Meta.AD(
+		deflt = "128",
+		description = "The number of the last execution durations kept for every job",
+		name = "Execution stats samples per job", required = false
+	)
+	public int executionStatsSamplesPerJob();
+
+	@Meta.AD(
+		deflt = "2.0",
+		description = "A node is flagged by the nodes command when it runs more than this many times the jobs of the average node",
+		name = "Nodes skew threshold", required = false
+	)
+	public double nodesSkewThreshold();
+
+	@Meta.AD(
+		deflt = "120000",
+		description = "The max time in milliseconds a command can run before it is cancelled (together with its running query), 0 to disable the timeout. It can be overridden with the --timeout option",
+		name = "Command timeout", required = false
+	)
+	public long commandTimeout();
+
+	@Meta.AD(
+		deflt = "20",
+		description = "The max number of commands run in background (--async) whose result is kept, the oldest completed commands are evicted first",
+		name = "Async commands max results", required = false
+	)
+	public int asyncCommandsMaxResults();
+
+	@Meta.AD(
+		deflt = "3600000",
+		description = "The running time in milliseconds after which a job is flagged as long running by the stuck command, when the job has no configured or learned threshold",
+		name = "Stuck default threshold", required = false
+	)
+	public long stuckDefaultThreshold();
+
+	@Meta.AD(
+		deflt = "",
+		description = "The running time thresholds of the jobs for the stuck command, as pattern=milliseconds, where the pattern is a glob or a regular expression prefixed with regex: (the first matching pattern wins)",
+		name = "Stuck job thresholds", required = false
+	)
+	public String[] stuckJobThresholds();
+
+	@Meta.AD(
+		deflt = "3.0",
+		description = "The learned threshold of a job is this multiple of the 95th percentile of its sampled durations (at least 10 runs are needed), 0 to not learn the thresholds",
+		name = "Stuck learned threshold factor", required = false
+	)
+	public double stuckLearnedThresholdFactor();
+
+	@Meta.AD(
+		deflt = "60000",
+		description = "The time in milliseconds a trigger can be late before it is misfired, used by the misfires command. It should match the org.quartz.jobStore.misfireThreshold property of the portal",
+		name = "Misfire threshold", required = false
+	)
+	public long misfireThreshold();
+
+	@Meta.AD(
+		deflt = "QUARTZ_",
+		description = "The prefix of the Quartz tables, it must match the persisted.scheduler.org.quartz.jobStore.tablePrefix property of the portal",
+		name = "Quartz table prefix", required = false
+	)
+	public String quartzTablePrefix();
+
+	@Meta.AD(
+		deflt = "PersistedQuartzSchedulerEngineInstance",
+		description = "The name of the Quartz scheduler (SCHED_NAME column) whose rows are read by the commands, it must match the persisted.scheduler.org.quartz.scheduler.instanceName property of the portal. Empty to read the rows of all the schedulers sharing the tables, without using the Quartz indexes",
+		name = "Quartz scheduler name", required = false
+	)
+	public String quartzSchedulerName();
+
+	@Meta.AD(
+		deflt = "AUTO",
+		description = "The SQL dialect of the portal database {AUTO, DB2, HYPERSONIC, MARIADB, MYSQL, ORACLE, POSTGRESQL, SQLSERVER, STANDARD, SYBASE}, AUTO to detect it from the JDBC driver",
+		name = "Quartz SQL dialect", required = false
+	)
+	public String quartzDialect();
+
+}
@@ -0,0 +1,197 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram of latencies in nanoseconds. Every power of two is
+ * split in 8 linear sub buckets, so the values at percentile are reported
+ * with a relative error of at most 12.5%.
+ *
+ * <p>
+ * The buckets are preallocated and updated with atomic operations only:
+ * recording a value does not allocate and does not lock.
+ * </p>
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class LatencyHistogram {
+
+	/**
+	 * @return The number of recorded values
+	 */
+	public long getCount() {
+		return _count.get();
+	}
+
+	/**
+	 * @return The max recorded value in nanoseconds
+	 */
+	public long getMax() {
+		return _max.get();
+	}
+
+	/**
+	 * @return The sum of the row counts recorded with the values
+	 */
+	public long getRows() {
+		return _rows.get();
+	}
+
+	/**
+	 * @return The sum of the recorded values in nanoseconds
+	 */
+	public long getSum() {
+		return _sum.get();
+	}
+
+	/**
+	 * @param  percentile The percentile (0 - 100)
+	 * @return The value at the percentile in nanoseconds (the upper bound of
+	 *         its bucket), 0 if no values were recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long count = 0;
+
+		for (int i = 0; i < _BUCKETS; i++) {
+			count += _buckets.get(i);
+		}
+
+		if (count == 0) {
+			return 0;
+		}
+
+		long rank = (long)Math.ceil(
+			(Math.min(Math.max(percentile, 0), 100) / 100) * count);
+
+		rank = Math.max(rank, 1);
+
+		long cumulativeCount = 0;
+
+		for (int i = 0; i < _BUCKETS; i++) {
+			cumulativeCount += _buckets.get(i);
+
+			if (cumulativeCount >= rank) {
+				return Math.min(_getUpperBound(i), getMax());
+			}
+		}
+
+		return getMax();
+	}
+
+	/**
+	 * Record a value.
+	 *
+	 * @param nanos The value in nanoseconds
+	 * @param rows  The rows processed (0 if not meaningful)
+	 */
+	public void record(long nanos, long rows) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+
+		_buckets.incrementAndGet(_getIndex(nanos));
+		_count.incrementAndGet();
+		_sum.addAndGet(nanos);
+
+		if (rows > 0) {
+			_rows.addAndGet(rows);
+		}
+
+		long max = _max.get();
+
+		while (nanos > max && !_max.compareAndSet(max, nanos)) {
+			max = _max.get();
+		}
+	}
+
+	/**
+	 * Clear the histogram. The values recorded while the histogram is
+	 * cleared could be partially lost.
+	 */
+	public void reset() {
+		for (int i = 0; i < _BUCKETS; i++) {
+			_buckets.set(i, 0);
+		}
+
+		_count.set(0);
+		_max.set(0);
+		_rows.set(0);
+		_sum.set(0);
+	}
+
+	private static int _getIndex(long value) {
+		if (value < _LINEAR_LIMIT) {
+			return (int)value;
+		}
+
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+
+		int subBucket =
+			(int)(value >>> (exponent - _SUB_BUCKET_BITS)) &
+				(_SUB_BUCKETS - 1);
+
+		return _LINEAR_LIMIT +
+			(exponent - _SUB_BUCKET_BITS - 1) * _SUB_BUCKETS + subBucket;
+	}
+
+	private static long _getUpperBound(int index) {
+		if (index < _LINEAR_LIMIT) {
+			return index;
+		}
+
+		int exponent =
+			(index - _LINEAR_LIMIT) / _SUB_BUCKETS + _SUB_BUCKET_BITS + 1;
+
+		long subBucket = (index - _LINEAR_LIMIT) % _SUB_BUCKETS;
+
+		long upperBound =
+			((_SUB_BUCKETS + subBucket + 1) << (exponent - _SUB_BUCKET_BITS)) -
+				1;
+
+		if (upperBound < 0) {
+			return Long.MAX_VALUE;
+		}
+
+		return upperBound;
+	}
+
+	private static final int _SUB_BUCKET_BITS = 3;
+
+	private static final int _SUB_BUCKETS = 1 << _SUB_BUCKET_BITS;
+
+	private static final int _LINEAR_LIMIT = _SUB_BUCKETS * 2;
+
+	private static final int _BUCKETS =
+		_LINEAR_LIMIT + (63 - _SUB_BUCKET_BITS) * _SUB_BUCKETS;
+
+	private final AtomicLongArray _buckets = new AtomicLongArray(_BUCKETS);
+	private final AtomicLong _count = new AtomicLong();
+	private final AtomicLong _max = new AtomicLong();
+	private final AtomicLong _rows = new AtomicLong();
+	private final AtomicLong _sum = new AtomicLong();
+
+}
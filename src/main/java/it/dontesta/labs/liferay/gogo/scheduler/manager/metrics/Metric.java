@@ -0,0 +1,85 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.metrics;
+
+/**
+ * The timed operations: the Gogo Shell commands, the queries on the Quartz
+ * tables, the calls to the scheduler engine and the table rendering.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public enum Metric {
+
+	COMMAND_AWAIT_IDLE("command.awaitIdle"),
+	COMMAND_CHECK_INDEXES("command.checkIndexes"),
+	COMMAND_DRAIN("command.drain"),
+	COMMAND_ERRORS("command.errors"),
+	COMMAND_FIRED_COUNTS("command.firedCounts"),
+	COMMAND_FORECAST("command.forecast"),
+	COMMAND_INFO("command.info"),
+	COMMAND_JOB_IS_FIRED("command.jobIsFired"),
+	COMMAND_JOBS_IS_FIRED("command.jobsIsFired"),
+	COMMAND_LIST("command.list"),
+	COMMAND_LIST_JOBS_IN_PROGRESS("command.listJobsInProgress"),
+	COMMAND_MISFIRES("command.misfires"),
+	COMMAND_NODES("command.nodes"),
+	COMMAND_PAUSE("command.pause"),
+	COMMAND_RESUME("command.resume"),
+	COMMAND_SNAPSHOT_DIFF("command.snapshot.diff"),
+	COMMAND_SNAPSHOT_SAVE("command.snapshot.save"),
+	COMMAND_STATS("command.stats"),
+	COMMAND_STUCK("command.stuck"),
+	COMMAND_TOP_REFRESH("command.top.refresh"),
+	QUERY_FIRED_JOB_COUNT_BY_TRIGGER_NAME("query.firedJobCountByTriggerName"),
+	QUERY_FIRED_JOBS_COUNT_BY_TRIGGER_GROUP(
+		"query.firedJobsCountByTriggerGroup"),
+	QUERY_FIRED_JOBS_COUNTS("query.firedJobsCounts"),
+	QUERY_FIRED_TRIGGER_CHECKINS("query.firedTriggerCheckins"),
+	QUERY_FIRED_TRIGGERS_PAGE("query.firedTriggersPage"),
+	QUERY_FIRED_TRIGGERS_POLL("query.firedTriggersPoll"),
+	QUERY_INDEX_CHECK("query.indexCheck"),
+	QUERY_MISFIRE_BACKLOGS("query.misfireBacklogs"),
+	QUERY_NODE_LOADS("query.nodeLoads"),
+	QUERY_PERSISTED_JOBS("query.persistedJobs"),
+	QUERY_SCHEDULER_NAMES("query.schedulerNames"),
+	RENDER_ASCII_TABLE("render.asciiTable"),
+	SAMPLER_POLL("sampler.poll"),
+	SCHEDULER_ENGINE_GET_JOB_EXCEPTIONS("schedulerEngine.getJobExceptions"),
+	SCHEDULER_ENGINE_GET_SCHEDULED_JOB("schedulerEngine.getScheduledJob"),
+	SCHEDULER_ENGINE_GET_SCHEDULED_JOBS("schedulerEngine.getScheduledJobs");
+
+	/**
+	 * @return The name of the metric published by the MBean
+	 */
+	public String getName() {
+		return _name;
+	}
+
+	private Metric(String name) {
+		_name = name;
+	}
+
+	private final String _name;
+
+}
@@ -0,0 +1,100 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.metrics;
+
+/**
+ * Registry of the latency histograms, one for each {@link Metric}. The
+ * histograms are created when the class is loaded, so recording a value is
+ * an array lookup plus a few atomic updates.
+ *
+ * <pre>
+ * long startTime = System.nanoTime();
+ *
+ * try {
+ *     ...
+ * }
+ * finally {
+ *     SchedulerManagerMetrics.record(Metric.COMMAND_LIST, startTime, rows);
+ * }
+ * </pre>
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class SchedulerManagerMetrics {
+
+	/**
+	 * @param metric The metric
+	 * @return The histogram of the metric
+	 */
+	public static LatencyHistogram getLatencyHistogram(Metric metric) {
+		return _latencyHistograms[metric.ordinal()];
+	}
+
+	/**
+	 * Record the time elapsed since the start time.
+	 *
+	 * @param metric    The metric
+	 * @param startTime The start time, read with {@link System#nanoTime()}
+	 */
+	public static void record(Metric metric, long startTime) {
+		record(metric, startTime, 0);
+	}
+
+	/**
+	 * Record the time elapsed since the start time and the rows processed.
+	 *
+	 * @param metric    The metric
+	 * @param startTime The start time, read with {@link System#nanoTime()}
+	 * @param rows      The rows processed
+	 */
+	public static void record(Metric metric, long startTime, long rows) {
+		_latencyHistograms[metric.ordinal()].record(
+			System.nanoTime() - startTime, rows);
+	}
+
+	/**
+	 * Clear all the histograms.
+	 */
+	public static void reset() {
+		for (LatencyHistogram latencyHistogram : _latencyHistograms) {
+			latencyHistogram.reset();
+		}
+	}
+
+	protected SchedulerManagerMetrics() {
+	}
+
+	private static final LatencyHistogram[] _latencyHistograms;
+
+	static {
+		Metric[] metrics = Metric.values();
+
+		_latencyHistograms = new LatencyHistogram[metrics.length];
+
+		for (int i = 0; i < metrics.length; i++) {
+			_latencyHistograms[i] = new LatencyHistogram();
+		}
+	}
+
+}
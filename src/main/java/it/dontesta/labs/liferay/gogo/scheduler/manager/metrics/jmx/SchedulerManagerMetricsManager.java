@@ -0,0 +1,151 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.jmx;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.LatencyHistogram;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.Metric;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.SchedulerManagerMetrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.management.DynamicMBean;
+import javax.management.NotCompliantMBeanException;
+import javax.management.StandardMBean;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularDataSupport;
+import javax.management.openmbean.TabularType;
+
+import org.osgi.service.component.annotations.Component;
+
+/**
+ * MBean that publishes the latency histograms of {@link
+ * SchedulerManagerMetrics}. The statistics are computed only when the
+ * attribute is read.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+@Component(
+	immediate = true,
+	property = {
+		"jmx.objectname=it.dontesta.labs.liferay.gogo.scheduler.manager:classification=scheduler_manager,name=SchedulerManagerMetrics",
+		"jmx.objectname.cache.key=SchedulerManagerMetrics"
+	},
+	service = DynamicMBean.class
+)
+public class SchedulerManagerMetricsManager
+	extends StandardMBean implements SchedulerManagerMetricsMBean {
+
+	public SchedulerManagerMetricsManager() throws NotCompliantMBeanException {
+		super(SchedulerManagerMetricsMBean.class);
+	}
+
+	@Override
+	public TabularData getLatencyStatistics() throws OpenDataException {
+		CompositeType compositeType = new CompositeType(
+			"LatencyStatistics", "Latency statistics of a metric", _ITEM_NAMES,
+			_ITEM_NAMES, _ITEM_TYPES);
+
+		TabularData tabularData = new TabularDataSupport(
+			new TabularType(
+				"LatencyStatisticsTable", "Latency statistics by metric",
+				compositeType, new String[] {_ITEM_NAME}));
+
+		for (Metric metric : Metric.values()) {
+			LatencyHistogram latencyHistogram =
+				SchedulerManagerMetrics.getLatencyHistogram(metric);
+
+			long count = latencyHistogram.getCount();
+
+			double mean = 0;
+
+			if (count > 0) {
+				mean = _toMillis(latencyHistogram.getSum()) / count;
+			}
+
+			Map<String, Object> items = new HashMap<>();
+
+			items.put(_ITEM_NAME, metric.getName());
+			items.put(_ITEM_COUNT, count);
+			items.put(_ITEM_ROWS, latencyHistogram.getRows());
+			items.put(_ITEM_MEAN, mean);
+			items.put(
+				_ITEM_P50,
+				_toMillis(latencyHistogram.getValueAtPercentile(50)));
+			items.put(
+				_ITEM_P90,
+				_toMillis(latencyHistogram.getValueAtPercentile(90)));
+			items.put(
+				_ITEM_P99,
+				_toMillis(latencyHistogram.getValueAtPercentile(99)));
+			items.put(_ITEM_MAX, _toMillis(latencyHistogram.getMax()));
+
+			tabularData.put(new CompositeDataSupport(compositeType, items));
+		}
+
+		return tabularData;
+	}
+
+	@Override
+	public void reset() {
+		SchedulerManagerMetrics.reset();
+	}
+
+	private static double _toMillis(long nanos) {
+		return nanos / 1000000D;
+	}
+
+	private static final String _ITEM_COUNT = "count";
+
+	private static final String _ITEM_MAX = "maxMillis";
+
+	private static final String _ITEM_MEAN = "meanMillis";
+
+	private static final String _ITEM_NAME = "name";
+
+	private static final String _ITEM_P50 = "p50Millis";
+
+	private static final String _ITEM_P90 = "p90Millis";
+
+	private static final String _ITEM_P99 = "p99Millis";
+
+	private static final String _ITEM_ROWS = "rows";
+
+	private static final String[] _ITEM_NAMES = {
+		_ITEM_NAME, _ITEM_COUNT, _ITEM_ROWS, _ITEM_MEAN, _ITEM_P50, _ITEM_P90,
+		_ITEM_P99, _ITEM_MAX
+	};
+
+	private static final OpenType<?>[] _ITEM_TYPES = {
+		SimpleType.STRING, SimpleType.LONG, SimpleType.LONG, SimpleType.DOUBLE,
+		SimpleType.DOUBLE, SimpleType.DOUBLE, SimpleType.DOUBLE,
+		SimpleType.DOUBLE
+	};
+
+}
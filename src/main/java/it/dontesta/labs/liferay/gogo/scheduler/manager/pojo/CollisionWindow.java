@@ -0,0 +1,75 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.pojo;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A window of the fire time forecast with the jobs that fire in it.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class CollisionWindow {
+
+	/**
+	 * @param startTime The start time of the window
+	 * @param fireCount The number of the fires in the window
+	 */
+	public CollisionWindow(long startTime, int fireCount) {
+		_startTime = startTime;
+		_fireCount = fireCount;
+	}
+
+	/**
+	 * Add a fire of the job in the window.
+	 *
+	 * @param jobName The job name
+	 */
+	public void addFire(String jobName) {
+		_jobFireCounts.merge(jobName, 1, Integer::sum);
+	}
+
+	public int getFireCount() {
+		return _fireCount;
+	}
+
+	/**
+	 * @return The number of the fires of every job in the window, in the
+	 *         order the jobs were added
+	 */
+	public Map<String, Integer> getJobFireCounts() {
+		return Collections.unmodifiableMap(_jobFireCounts);
+	}
+
+	public long getStartTime() {
+		return _startTime;
+	}
+
+	private final int _fireCount;
+	private final Map<String, Integer> _jobFireCounts = new LinkedHashMap<>();
+	private final long _startTime;
+
+}
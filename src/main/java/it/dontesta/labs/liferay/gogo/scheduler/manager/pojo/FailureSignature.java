@@ -0,0 +1,163 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.pojo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The exceptions of the jobs with the same failure signature, the hash of
+ * the normalized stack trace. Only the first jobs and the message of the
+ * latest exception are kept, so the memory does not depend on the number
+ * of the jobs and of the exceptions. Instances are not thread safe.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class FailureSignature {
+
+	/**
+	 * @param signature          The failure signature
+	 * @param exceptionClassName The class name of the exception
+	 * @param maxJobKeys         The max number of the jobs kept
+	 */
+	public FailureSignature(
+		String signature, String exceptionClassName, int maxJobKeys) {
+
+		_signature = signature;
+		_exceptionClassName = exceptionClassName;
+		_maxJobKeys = maxJobKeys;
+	}
+
+	/**
+	 * Add a job with exceptions of this signature, once for every job.
+	 *
+	 * @param jobKey The job
+	 */
+	public void addJob(JobKey jobKey) {
+		_jobCount++;
+
+		if (_jobKeys.size() < _maxJobKeys) {
+			_jobKeys.add(jobKey);
+		}
+	}
+
+	/**
+	 * Add an exception of this signature.
+	 *
+	 * @param time    The time of the exception, 0 if unknown
+	 * @param message The message of the exception
+	 */
+	public void addOccurrence(long time, String message) {
+		_count++;
+
+		if (time <= 0) {
+			if (_message == null) {
+				_message = message;
+			}
+
+			return;
+		}
+
+		if ((_firstSeenTime == 0) || (time < _firstSeenTime)) {
+			_firstSeenTime = time;
+		}
+
+		if (time >= _lastSeenTime) {
+			_lastSeenTime = time;
+			_message = message;
+		}
+	}
+
+	/**
+	 * @return The number of the exceptions
+	 */
+	public long getCount() {
+		return _count;
+	}
+
+	public String getExceptionClassName() {
+		return _exceptionClassName;
+	}
+
+	/**
+	 * @return The time of the oldest exception, null if unknown
+	 */
+	public Date getFirstSeenTime() {
+		if (_firstSeenTime == 0) {
+			return null;
+		}
+
+		return new Date(_firstSeenTime);
+	}
+
+	/**
+	 * @return The number of the jobs with exceptions of this signature
+	 */
+	public int getJobCount() {
+		return _jobCount;
+	}
+
+	/**
+	 * @return The first jobs with exceptions of this signature, at most the
+	 *         max number of the jobs kept
+	 */
+	public List<JobKey> getJobKeys() {
+		return Collections.unmodifiableList(_jobKeys);
+	}
+
+	/**
+	 * @return The time of the latest exception, null if unknown
+	 */
+	public Date getLastSeenTime() {
+		if (_lastSeenTime == 0) {
+			return null;
+		}
+
+		return new Date(_lastSeenTime);
+	}
+
+	/**
+	 * @return The message of the latest exception
+	 */
+	public String getMessage() {
+		return _message;
+	}
+
+	public String getSignature() {
+		return _signature;
+	}
+
+	private long _count;
+	private final String _exceptionClassName;
+	private long _firstSeenTime;
+	private int _jobCount;
+	private final List<JobKey> _jobKeys = new ArrayList<>();
+	private long _lastSeenTime;
+	private final int _maxJobKeys;
+	private String _message;
+	private final String _signature;
+
+}
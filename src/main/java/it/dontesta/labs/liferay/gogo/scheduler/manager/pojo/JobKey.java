@@ -0,0 +1,91 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.pojo;
+
+import com.liferay.portal.kernel.scheduler.StorageType;
+
+import java.util.Objects;
+
+/**
+ * Key of a scheduled job: job name, group name and storage type.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public final class JobKey {
+
+	public JobKey(String jobName, String groupName, StorageType storageType) {
+		_jobName = jobName;
+		_groupName = groupName;
+		_storageType = storageType;
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (this == object) {
+			return true;
+		}
+
+		if (!(object instanceof JobKey)) {
+			return false;
+		}
+
+		JobKey jobKey = (JobKey)object;
+
+		if (Objects.equals(_jobName, jobKey._jobName) &&
+			Objects.equals(_groupName, jobKey._groupName) &&
+			(_storageType == jobKey._storageType)) {
+
+			return true;
+		}
+
+		return false;
+	}
+
+	public String getGroupName() {
+		return _groupName;
+	}
+
+	public String getJobName() {
+		return _jobName;
+	}
+
+	public StorageType getStorageType() {
+		return _storageType;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(_jobName, _groupName, _storageType);
+	}
+
+	@Override
+	public String toString() {
+		return _groupName + "/" + _jobName + " (" + _storageType + ")";
+	}
+
+	private final String _groupName;
+	private final String _jobName;
+	private final StorageType _storageType;
+
+}
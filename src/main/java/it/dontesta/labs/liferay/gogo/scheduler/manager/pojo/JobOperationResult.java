@@ -0,0 +1,69 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.pojo;
+
+/**
+ * Result of an operation (pause, resume, ...) executed on a job.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public final class JobOperationResult {
+
+	public JobOperationResult(
+		JobKey jobKey, Throwable throwable, long durationNanos) {
+
+		_jobKey = jobKey;
+		_throwable = throwable;
+		_durationNanos = durationNanos;
+	}
+
+	public long getDurationMillis() {
+		return _durationNanos / 1000000;
+	}
+
+	public long getDurationNanos() {
+		return _durationNanos;
+	}
+
+	public JobKey getJobKey() {
+		return _jobKey;
+	}
+
+	public Throwable getThrowable() {
+		return _throwable;
+	}
+
+	public boolean isSuccess() {
+		if (_throwable == null) {
+			return true;
+		}
+
+		return false;
+	}
+
+	private final long _durationNanos;
+	private final JobKey _jobKey;
+	private final Throwable _throwable;
+
+}
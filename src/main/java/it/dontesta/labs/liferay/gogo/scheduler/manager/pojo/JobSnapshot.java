@@ -0,0 +1,201 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.pojo;
+
+import com.liferay.portal.kernel.scheduler.SchedulerEngineHelper;
+import com.liferay.portal.kernel.scheduler.SchedulerException;
+import com.liferay.portal.kernel.scheduler.StorageType;
+import com.liferay.portal.kernel.scheduler.Trigger;
+import com.liferay.portal.kernel.scheduler.TriggerState;
+import com.liferay.portal.kernel.scheduler.messaging.SchedulerResponse;
+import com.liferay.portal.kernel.util.ObjectValuePair;
+
+import java.util.Date;
+
+/**
+ * Immutable snapshot of a scheduled job. The state, the fire times and
+ * (optionally) the job exceptions are resolved exactly once, when the
+ * snapshot is created, and then shared by the filters and the views.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public final class JobSnapshot {
+
+	/**
+	 * Create the snapshot of the job without the job exceptions.
+	 *
+	 * @param schedulerEngineHelper The scheduler engine helper
+	 * @param schedulerResponse     The scheduler response of the job
+	 * @return The snapshot of the job
+	 */
+	public static JobSnapshot of(
+		SchedulerEngineHelper schedulerEngineHelper,
+		SchedulerResponse schedulerResponse) {
+
+		return new JobSnapshot(
+			schedulerResponse,
+			schedulerEngineHelper.getJobState(schedulerResponse),
+			schedulerEngineHelper.getPreviousFireTime(schedulerResponse),
+			schedulerEngineHelper.getNextFireTime(schedulerResponse), null);
+	}
+
+	/**
+	 * Create the snapshot of the job without the job exceptions, when the
+	 * state of the job was already read (for example to filter the jobs).
+	 *
+	 * @param schedulerEngineHelper The scheduler engine helper
+	 * @param schedulerResponse     The scheduler response of the job
+	 * @param triggerState          The state of the job
+	 * @return The snapshot of the job
+	 */
+	public static JobSnapshot of(
+		SchedulerEngineHelper schedulerEngineHelper,
+		SchedulerResponse schedulerResponse, TriggerState triggerState) {
+
+		return new JobSnapshot(
+			schedulerResponse, triggerState,
+			schedulerEngineHelper.getPreviousFireTime(schedulerResponse),
+			schedulerEngineHelper.getNextFireTime(schedulerResponse), null);
+	}
+
+	/**
+	 * Create the snapshot of the job including the job exceptions.
+	 *
+	 * @param schedulerEngineHelper The scheduler engine helper
+	 * @param schedulerResponse     The scheduler response of the job
+	 * @return The snapshot of the job
+	 * @throws SchedulerException In the case of errors
+	 */
+	public static JobSnapshot ofWithJobExceptions(
+			SchedulerEngineHelper schedulerEngineHelper,
+			SchedulerResponse schedulerResponse)
+		throws SchedulerException {
+
+		return new JobSnapshot(
+			schedulerResponse,
+			schedulerEngineHelper.getJobState(schedulerResponse),
+			schedulerEngineHelper.getPreviousFireTime(schedulerResponse),
+			schedulerEngineHelper.getNextFireTime(schedulerResponse),
+			schedulerEngineHelper.getJobExceptions(
+				schedulerResponse.getJobName(),
+				schedulerResponse.getGroupName(),
+				schedulerResponse.getStorageType()));
+	}
+
+	public String getDestinationName() {
+		return _destinationName;
+	}
+
+	public String getGroupName() {
+		return _groupName;
+	}
+
+	public ObjectValuePair<Exception, Date>[] getJobExceptions() {
+		if (_jobExceptions == null) {
+			return null;
+		}
+
+		return _jobExceptions.clone();
+	}
+
+	public String getJobName() {
+		return _jobName;
+	}
+
+	public Date getNextFireTime() {
+		return _copy(_nextFireTime);
+	}
+
+	public Date getPreviousFireTime() {
+		return _copy(_previousFireTime);
+	}
+
+	public Date getStartDate() {
+		return _copy(_startDate);
+	}
+
+	public StorageType getStorageType() {
+		return _storageType;
+	}
+
+	public Trigger getTrigger() {
+		return _trigger;
+	}
+
+	public TriggerState getTriggerState() {
+		return _triggerState;
+	}
+
+	public boolean hasJobExceptions() {
+		if (_jobExceptions != null && _jobExceptions.length > 0) {
+			return true;
+		}
+
+		return false;
+	}
+
+	private JobSnapshot(
+		SchedulerResponse schedulerResponse, TriggerState triggerState,
+		Date previousFireTime, Date nextFireTime,
+		ObjectValuePair<Exception, Date>[] jobExceptions) {
+
+		_jobName = schedulerResponse.getJobName();
+		_groupName = schedulerResponse.getGroupName();
+		_storageType = schedulerResponse.getStorageType();
+		_destinationName = schedulerResponse.getDestinationName();
+		_trigger = schedulerResponse.getTrigger();
+		_triggerState = triggerState;
+
+		if (_trigger != null) {
+			_startDate = _copy(_trigger.getStartDate());
+		}
+		else {
+			_startDate = null;
+		}
+
+		_previousFireTime = _copy(previousFireTime);
+		_nextFireTime = _copy(nextFireTime);
+		_jobExceptions = jobExceptions;
+	}
+
+	private static Date _copy(Date date) {
+		if (date == null) {
+			return null;
+		}
+
+		return new Date(date.getTime());
+	}
+
+	private final String _destinationName;
+	private final String _groupName;
+	private final ObjectValuePair<Exception, Date>[] _jobExceptions;
+	private final String _jobName;
+	private final Date _nextFireTime;
+	private final Date _previousFireTime;
+	private final Date _startDate;
+	private final StorageType _storageType;
+	private final Trigger _trigger;
+	private final TriggerState _triggerState;
+
+}
@@ -0,0 +1,153 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.pojo;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredTrigger;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A job of a snapshot file: the state, the trigger, the fire times and the
+ * fired trigger rows of the job when the snapshot was saved. The jobs of a
+ * snapshot are sorted by storage type, group name and job name.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public final class SnapshotJob {
+
+	/**
+	 * The order of the jobs in the snapshot files.
+	 */
+	public static final Comparator<SnapshotJob> KEY_COMPARATOR =
+		SnapshotJob::compareKeyTo;
+
+	/**
+	 * @param storageType      The storage type of the job
+	 * @param groupName        The group name of the job
+	 * @param jobName          The name of the job
+	 * @param state            The state of the job
+	 * @param trigger          The cron expression or the interval of the
+	 *                         trigger
+	 * @param startTime        The start time of the trigger, null if none
+	 * @param previousFireTime The previous fire time, null if none
+	 * @param nextFireTime     The next fire time, null if none
+	 * @param firedTriggers    The fired trigger rows of the job
+	 */
+	public SnapshotJob(
+		String storageType, String groupName, String jobName, String state,
+		String trigger, Date startTime, Date previousFireTime,
+		Date nextFireTime, List<FiredTrigger> firedTriggers) {
+
+		_storageType = storageType;
+		_groupName = groupName;
+		_jobName = jobName;
+		_state = state;
+		_trigger = trigger;
+		_startTime = _copy(startTime);
+		_previousFireTime = _copy(previousFireTime);
+		_nextFireTime = _copy(nextFireTime);
+		_firedTriggers = Collections.unmodifiableList(firedTriggers);
+	}
+
+	/**
+	 * Compare the keys of the jobs: storage type, group name and job name.
+	 *
+	 * @param snapshotJob The other job
+	 * @return A negative number, zero or a positive number if this job
+	 *         comes before, is the same or comes after the other job
+	 */
+	public int compareKeyTo(SnapshotJob snapshotJob) {
+		int value = _storageType.compareTo(snapshotJob._storageType);
+
+		if (value != 0) {
+			return value;
+		}
+
+		value = _groupName.compareTo(snapshotJob._groupName);
+
+		if (value != 0) {
+			return value;
+		}
+
+		return _jobName.compareTo(snapshotJob._jobName);
+	}
+
+	public List<FiredTrigger> getFiredTriggers() {
+		return _firedTriggers;
+	}
+
+	public String getGroupName() {
+		return _groupName;
+	}
+
+	public String getJobName() {
+		return _jobName;
+	}
+
+	public Date getNextFireTime() {
+		return _copy(_nextFireTime);
+	}
+
+	public Date getPreviousFireTime() {
+		return _copy(_previousFireTime);
+	}
+
+	public Date getStartTime() {
+		return _copy(_startTime);
+	}
+
+	public String getState() {
+		return _state;
+	}
+
+	public String getStorageType() {
+		return _storageType;
+	}
+
+	public String getTrigger() {
+		return _trigger;
+	}
+
+	private static Date _copy(Date date) {
+		if (date == null) {
+			return null;
+		}
+
+		return new Date(date.getTime());
+	}
+
+	private final List<FiredTrigger> _firedTriggers;
+	private final String _groupName;
+	private final String _jobName;
+	private final Date _nextFireTime;
+	private final Date _previousFireTime;
+	private final Date _startTime;
+	private final String _state;
+	private final String _storageType;
+	private final String _trigger;
+
+}
@@ -0,0 +1,173 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo;
+
+import java.util.Arrays;
+
+/**
+ * Execution durations of a job (or of a group of jobs). The last durations
+ * are kept in a fixed size ring buffer of primitive longs, so the memory
+ * used does not grow with the number of the executions.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class ExecutionStats {
+
+	/**
+	 * @param triggerName  The trigger name (the job name), null for a group
+	 * @param triggerGroup The trigger group
+	 * @param capacity     The number of the last durations kept
+	 */
+	public ExecutionStats(
+		String triggerName, String triggerGroup, int capacity) {
+
+		_triggerName = triggerName;
+		_triggerGroup = triggerGroup;
+		_durations = new long[Math.max(1, capacity)];
+	}
+
+	/**
+	 * Add the durations and the counters of another job, used to aggregate
+	 * the jobs of a group. The oldest durations are dropped when the ring
+	 * buffer is full.
+	 *
+	 * @param executionStats The execution stats of the job
+	 */
+	public void add(ExecutionStats executionStats) {
+		long[] durations = executionStats.getDurations();
+
+		synchronized (this) {
+			for (long duration : durations) {
+				_addDuration(duration);
+			}
+
+			_lastCompletedTime = Math.max(
+				_lastCompletedTime, executionStats.getLastCompletedTime());
+			_max = Math.max(_max, executionStats.getMax());
+			_runCount += executionStats.getRunCount() - durations.length;
+		}
+	}
+
+	/**
+	 * @return A copy of the durations in the ring buffer, in milliseconds
+	 */
+	public synchronized long[] getDurations() {
+		long[] durations = new long[_size];
+
+		if (_size < _durations.length) {
+			System.arraycopy(_durations, 0, durations, 0, _size);
+		}
+		else {
+			int tail = _durations.length - _next;
+
+			System.arraycopy(_durations, _next, durations, 0, tail);
+			System.arraycopy(_durations, 0, durations, tail, _next);
+		}
+
+		return durations;
+	}
+
+	/**
+	 * @return The time of the last completed execution
+	 */
+	public synchronized long getLastCompletedTime() {
+		return _lastCompletedTime;
+	}
+
+	/**
+	 * @return The max duration in milliseconds of all the executions
+	 */
+	public synchronized long getMax() {
+		return _max;
+	}
+
+	/**
+	 * @param  percentile The percentile (0 - 100)
+	 * @return The duration at the percentile in milliseconds of the last
+	 *         executions, 0 if there are no executions
+	 */
+	public long getPercentile(double percentile) {
+		long[] durations = getDurations();
+
+		if (durations.length == 0) {
+			return 0;
+		}
+
+		Arrays.sort(durations);
+
+		int index = (int)Math.ceil((percentile / 100) * durations.length) - 1;
+
+		return durations[Math.min(Math.max(index, 0), durations.length - 1)];
+	}
+
+	/**
+	 * @return The number of the executions, the durations of the oldest
+	 *         ones could be no longer in the ring buffer
+	 */
+	public synchronized long getRunCount() {
+		return _runCount;
+	}
+
+	public String getTriggerGroup() {
+		return _triggerGroup;
+	}
+
+	public String getTriggerName() {
+		return _triggerName;
+	}
+
+	/**
+	 * Record a completed execution.
+	 *
+	 * @param duration      The duration in milliseconds
+	 * @param completedTime The time when the execution completed
+	 */
+	public synchronized void record(long duration, long completedTime) {
+		_addDuration(duration);
+
+		_lastCompletedTime = Math.max(_lastCompletedTime, completedTime);
+		_max = Math.max(_max, duration);
+	}
+
+	private void _addDuration(long duration) {
+		_durations[_next] = duration;
+
+		_next = (_next + 1) % _durations.length;
+		_runCount++;
+
+		if (_size < _durations.length) {
+			_size++;
+		}
+	}
+
+	private final long[] _durations;
+	private long _lastCompletedTime;
+	private long _max;
+	private int _next;
+	private long _runCount;
+	private int _size;
+	private final String _triggerGroup;
+	private final String _triggerName;
+
+}
@@ -0,0 +1,115 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Count of the fired jobs by group and by instance (cluster node), loaded
+ * with a single query.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class FiredJobsCounts {
+
+	public void addCount(String triggerGroup, String instanceName, int count) {
+		Map<String, Integer> instanceCounts = _counts.computeIfAbsent(
+			triggerGroup, key -> new TreeMap<>());
+
+		instanceCounts.merge(instanceName, count, Integer::sum);
+
+		_instanceNames.add(instanceName);
+	}
+
+	/**
+	 * @param triggerGroup The trigger group
+	 * @return The count of the fired jobs of the group on all the instances
+	 */
+	public int getCount(String triggerGroup) {
+		Map<String, Integer> instanceCounts = _counts.get(triggerGroup);
+
+		if (instanceCounts == null) {
+			return 0;
+		}
+
+		int count = 0;
+
+		for (int instanceCount : instanceCounts.values()) {
+			count += instanceCount;
+		}
+
+		return count;
+	}
+
+	/**
+	 * @param triggerGroup The trigger group
+	 * @param instanceName The instance name
+	 * @return The count of the fired jobs of the group on the instance
+	 */
+	public int getCount(String triggerGroup, String instanceName) {
+		Map<String, Integer> instanceCounts = _counts.get(triggerGroup);
+
+		if (instanceCounts == null) {
+			return 0;
+		}
+
+		return instanceCounts.getOrDefault(instanceName, 0);
+	}
+
+	/**
+	 * @return The counts by trigger group and instance name
+	 */
+	public Map<String, Map<String, Integer>> getCounts() {
+		return Collections.unmodifiableMap(_counts);
+	}
+
+	public Set<String> getInstanceNames() {
+		return Collections.unmodifiableSet(_instanceNames);
+	}
+
+	public Set<String> getTriggerGroups() {
+		return Collections.unmodifiableSet(_counts.keySet());
+	}
+
+	/**
+	 * @return The count of the fired jobs of all the groups
+	 */
+	public int getTotal() {
+		int total = 0;
+
+		for (String triggerGroup : _counts.keySet()) {
+			total += getCount(triggerGroup);
+		}
+
+		return total;
+	}
+
+	private final Map<String, Map<String, Integer>> _counts = new TreeMap<>();
+	private final Set<String> _instanceNames = new TreeSet<>();
+
+}
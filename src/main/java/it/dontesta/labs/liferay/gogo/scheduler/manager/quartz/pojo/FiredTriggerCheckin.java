@@ -0,0 +1,154 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo;
+
+import java.util.Date;
+
+/**
+ * A fired trigger with the check-in state of the cluster node (Quartz
+ * scheduler instance) that owns it.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class FiredTriggerCheckin {
+
+	/**
+	 * The number of check-in intervals a node can miss before its fired
+	 * triggers are orphaned.
+	 */
+	public static final int ORPHAN_CHECKIN_INTERVALS = 2;
+
+	/**
+	 * The grace period in milliseconds added to the missed check-ins, the
+	 * same tolerance used by Quartz to recover the failed nodes.
+	 */
+	public static final long ORPHAN_GRACE_PERIOD = 7500;
+
+	/**
+	 * @param entryId         The entry id of the fired trigger
+	 * @param triggerName     The trigger name
+	 * @param triggerGroup    The trigger group
+	 * @param instanceName    The scheduler instance name of the owner node
+	 * @param firedTime       The fired time
+	 * @param clustered       true if the scheduler nodes check in (cluster
+	 *                        mode)
+	 * @param lastCheckinTime The last check-in of the owner node, null if
+	 *                        the node is not registered
+	 * @param checkinInterval The check-in interval of the owner node in
+	 *                        milliseconds
+	 */
+	public FiredTriggerCheckin(
+		String entryId, String triggerName, String triggerGroup,
+		String instanceName, Date firedTime, boolean clustered,
+		Date lastCheckinTime, long checkinInterval) {
+
+		_entryId = entryId;
+		_triggerName = triggerName;
+		_triggerGroup = triggerGroup;
+		_instanceName = instanceName;
+		_firedTime = _copy(firedTime);
+		_clustered = clustered;
+		_lastCheckinTime = _copy(lastCheckinTime);
+		_checkinInterval = checkinInterval;
+	}
+
+	public long getCheckinInterval() {
+		return _checkinInterval;
+	}
+
+	public String getEntryId() {
+		return _entryId;
+	}
+
+	public Date getFiredTime() {
+		return _copy(_firedTime);
+	}
+
+	public String getInstanceName() {
+		return _instanceName;
+	}
+
+	public Date getLastCheckinTime() {
+		return _copy(_lastCheckinTime);
+	}
+
+	public String getTriggerGroup() {
+		return _triggerGroup;
+	}
+
+	public String getTriggerName() {
+		return _triggerName;
+	}
+
+	public boolean isClustered() {
+		return _clustered;
+	}
+
+	/**
+	 * The fired trigger is orphaned when its owner node stopped checking in
+	 * (or is no longer registered). Without cluster mode the nodes do not
+	 * check in and the fired triggers are never orphaned.
+	 *
+	 * @param  now The current time
+	 * @return true if the fired trigger is orphaned
+	 */
+	public boolean isOrphaned(long now) {
+		if (!_clustered) {
+			return false;
+		}
+
+		if (_lastCheckinTime == null) {
+			return true;
+		}
+
+		long deadline =
+			_lastCheckinTime.getTime() +
+				_checkinInterval * ORPHAN_CHECKIN_INTERVALS +
+					ORPHAN_GRACE_PERIOD;
+
+		if (deadline < now) {
+			return true;
+		}
+
+		return false;
+	}
+
+	private static Date _copy(Date date) {
+		if (date == null) {
+			return null;
+		}
+
+		return new Date(date.getTime());
+	}
+
+	private final long _checkinInterval;
+	private final boolean _clustered;
+	private final String _entryId;
+	private final Date _firedTime;
+	private final String _instanceName;
+	private final Date _lastCheckinTime;
+	private final String _triggerGroup;
+	private final String _triggerName;
+
+}
@@ -0,0 +1,366 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo;
+
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Columnar snapshot of the fired triggers. The fired times are kept in a
+ * long[] and the trigger name, group, instance, scheduler and state in
+ * int[] codes of a shared {@link StringDictionary}, so a snapshot of
+ * hundreds of thousands of rows is a handful of arrays instead of as many
+ * objects. The group by and top N queries work on the arrays and do not
+ * allocate per row; a {@link FiredTrigger} is created only when a row is
+ * read with {@link #getFiredTrigger(int)}.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class FiredTriggerSnapshot {
+
+	/**
+	 * Count the rows by the values of the column. The rows without value are
+	 * not counted.
+	 *
+	 * @param column The column
+	 * @return The counts indexed by the code of the value (see
+	 *         {@link #getDictionary()})
+	 */
+	public int[] countBy(Column column) {
+		int[] codes = _getCodes(column);
+
+		int[] counts = new int[_dictionary.size()];
+
+		for (int row = 0; row < _size; row++) {
+			int code = codes[row];
+
+			if (code >= 0) {
+				counts[code]++;
+			}
+		}
+
+		return counts;
+	}
+
+	public StringDictionary getDictionary() {
+		return _dictionary;
+	}
+
+	public String getEntryId(int row) {
+		return _entryIds[row];
+	}
+
+	/**
+	 * @param row The row
+	 * @return A new fired trigger with the values of the row
+	 */
+	public FiredTrigger getFiredTrigger(int row) {
+		FiredTrigger firedTrigger = new FiredTrigger();
+
+		firedTrigger.setEntryId(_entryIds[row]);
+		firedTrigger.setFiredTime(new Date(_firedTimes[row]));
+		firedTrigger.setInstanceName(getInstanceName(row));
+		firedTrigger.setSchedulerName(getSchedulerName(row));
+		firedTrigger.setState(getState(row));
+		firedTrigger.setTriggerGroup(getTriggerGroup(row));
+		firedTrigger.setTriggerName(getTriggerName(row));
+
+		return firedTrigger;
+	}
+
+	public long getFiredTime(int row) {
+		return _firedTimes[row];
+	}
+
+	public String getInstanceName(int row) {
+		return _dictionary.decode(_instanceCodes[row]);
+	}
+
+	/**
+	 * Return the rows of the oldest fired triggers, the oldest first.
+	 *
+	 * @param n The max number of rows
+	 * @return The rows
+	 */
+	public int[] getOldestRows(int n) {
+		n = Math.min(n, _size);
+
+		int[] rows = new int[n];
+
+		if (_sortedByFiredTime) {
+			for (int i = 0; i < n; i++) {
+				rows[i] = i;
+			}
+
+			return rows;
+		}
+
+		// Max heap on the fired time of the n oldest rows seen so far
+
+		int heapSize = 0;
+
+		for (int row = 0; row < _size; row++) {
+			if (heapSize < n) {
+				rows[heapSize] = row;
+
+				_siftUp(rows, heapSize++);
+			}
+			else if ((n > 0) && (_firedTimes[row] < _firedTimes[rows[0]])) {
+				rows[0] = row;
+
+				_siftDown(rows, 0, heapSize);
+			}
+		}
+
+		for (int i = heapSize - 1; i > 0; i--) {
+			_swap(rows, 0, i);
+			_siftDown(rows, 0, i);
+		}
+
+		return rows;
+	}
+
+	public String getSchedulerName(int row) {
+		return _dictionary.decode(_schedulerCodes[row]);
+	}
+
+	public String getState(int row) {
+		return _dictionary.decode(_stateCodes[row]);
+	}
+
+	public String getTriggerGroup(int row) {
+		return _dictionary.decode(_groupCodes[row]);
+	}
+
+	public String getTriggerName(int row) {
+		return _dictionary.decode(_nameCodes[row]);
+	}
+
+	/**
+	 * @return true if the rows are ordered by fired time
+	 */
+	public boolean isSortedByFiredTime() {
+		return _sortedByFiredTime;
+	}
+
+	/**
+	 * Return the oldest fired time of the rows by the values of the column.
+	 *
+	 * @param column The column
+	 * @return The oldest fired times indexed by the code of the value,
+	 *         Long.MAX_VALUE for the values without rows
+	 */
+	public long[] minFiredTimeBy(Column column) {
+		int[] codes = _getCodes(column);
+
+		long[] minFiredTimes = new long[_dictionary.size()];
+
+		Arrays.fill(minFiredTimes, Long.MAX_VALUE);
+
+		for (int row = 0; row < _size; row++) {
+			int code = codes[row];
+
+			if ((code >= 0) && (_firedTimes[row] < minFiredTimes[code])) {
+				minFiredTimes[code] = _firedTimes[row];
+			}
+		}
+
+		return minFiredTimes;
+	}
+
+	public int size() {
+		return _size;
+	}
+
+	/**
+	 * Builder of the snapshot, the rows are appended one at a time.
+	 */
+	public static class Builder {
+
+		/**
+		 * @param dictionary The dictionary of the strings, shared with
+		 *                   other snapshots or a new one
+		 */
+		public Builder(StringDictionary dictionary) {
+			_dictionary = dictionary;
+		}
+
+		public Builder add(
+			String schedulerName, String entryId, String triggerName,
+			String triggerGroup, String instanceName, long firedTime,
+			String state) {
+
+			if (_size == _firedTimes.length) {
+				_grow();
+			}
+
+			if ((_size > 0) && (firedTime < _firedTimes[_size - 1])) {
+				_sortedByFiredTime = false;
+			}
+
+			_entryIds[_size] = entryId;
+			_firedTimes[_size] = firedTime;
+			_groupCodes[_size] = _dictionary.encode(triggerGroup);
+			_instanceCodes[_size] = _dictionary.encode(instanceName);
+			_nameCodes[_size] = _dictionary.encode(triggerName);
+			_schedulerCodes[_size] = _dictionary.encode(schedulerName);
+			_stateCodes[_size] = _dictionary.encode(state);
+
+			_size++;
+
+			return this;
+		}
+
+		/**
+		 * @return The snapshot, the builder must not be used anymore
+		 */
+		public FiredTriggerSnapshot build() {
+			return new FiredTriggerSnapshot(this);
+		}
+
+		private void _grow() {
+			int capacity = _firedTimes.length * 2;
+
+			_entryIds = Arrays.copyOf(_entryIds, capacity);
+			_firedTimes = Arrays.copyOf(_firedTimes, capacity);
+			_groupCodes = Arrays.copyOf(_groupCodes, capacity);
+			_instanceCodes = Arrays.copyOf(_instanceCodes, capacity);
+			_nameCodes = Arrays.copyOf(_nameCodes, capacity);
+			_schedulerCodes = Arrays.copyOf(_schedulerCodes, capacity);
+			_stateCodes = Arrays.copyOf(_stateCodes, capacity);
+		}
+
+		private static final int _INITIAL_CAPACITY = 256;
+
+		private final StringDictionary _dictionary;
+		private String[] _entryIds = new String[_INITIAL_CAPACITY];
+		private long[] _firedTimes = new long[_INITIAL_CAPACITY];
+		private int[] _groupCodes = new int[_INITIAL_CAPACITY];
+		private int[] _instanceCodes = new int[_INITIAL_CAPACITY];
+		private int[] _nameCodes = new int[_INITIAL_CAPACITY];
+		private int[] _schedulerCodes = new int[_INITIAL_CAPACITY];
+		private int _size;
+		private boolean _sortedByFiredTime = true;
+		private int[] _stateCodes = new int[_INITIAL_CAPACITY];
+
+	}
+
+	/**
+	 * The dictionary encoded columns.
+	 */
+	public enum Column {
+
+		INSTANCE_NAME, SCHEDULER_NAME, STATE, TRIGGER_GROUP, TRIGGER_NAME
+
+	}
+
+	private FiredTriggerSnapshot(Builder builder) {
+		_dictionary = builder._dictionary;
+		_entryIds = builder._entryIds;
+		_firedTimes = builder._firedTimes;
+		_groupCodes = builder._groupCodes;
+		_instanceCodes = builder._instanceCodes;
+		_nameCodes = builder._nameCodes;
+		_schedulerCodes = builder._schedulerCodes;
+		_size = builder._size;
+		_sortedByFiredTime = builder._sortedByFiredTime;
+		_stateCodes = builder._stateCodes;
+	}
+
+	private int[] _getCodes(Column column) {
+		switch (column) {
+			case INSTANCE_NAME:
+				return _instanceCodes;
+			case SCHEDULER_NAME:
+				return _schedulerCodes;
+			case STATE:
+				return _stateCodes;
+			case TRIGGER_GROUP:
+				return _groupCodes;
+			default:
+				return _nameCodes;
+		}
+	}
+
+	private void _siftDown(int[] heap, int index, int heapSize) {
+		while (true) {
+			int largest = index;
+			int left = 2 * index + 1;
+			int right = left + 1;
+
+			if ((left < heapSize) &&
+				(_firedTimes[heap[left]] > _firedTimes[heap[largest]])) {
+
+				largest = left;
+			}
+
+			if ((right < heapSize) &&
+				(_firedTimes[heap[right]] > _firedTimes[heap[largest]])) {
+
+				largest = right;
+			}
+
+			if (largest == index) {
+				return;
+			}
+
+			_swap(heap, index, largest);
+
+			index = largest;
+		}
+	}
+
+	private void _siftUp(int[] heap, int index) {
+		while (index > 0) {
+			int parent = (index - 1) / 2;
+
+			if (_firedTimes[heap[index]] <= _firedTimes[heap[parent]]) {
+				return;
+			}
+
+			_swap(heap, index, parent);
+
+			index = parent;
+		}
+	}
+
+	private void _swap(int[] heap, int i, int j) {
+		int row = heap[i];
+
+		heap[i] = heap[j];
+		heap[j] = row;
+	}
+
+	private final StringDictionary _dictionary;
+	private final String[] _entryIds;
+	private final long[] _firedTimes;
+	private final int[] _groupCodes;
+	private final int[] _instanceCodes;
+	private final int[] _nameCodes;
+	private final int[] _schedulerCodes;
+	private final int _size;
+	private final boolean _sortedByFiredTime;
+	private final int[] _stateCodes;
+
+}
@@ -0,0 +1,83 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo;
+
+/**
+ * An index needed by the queries on a Quartz table, and the index of the
+ * database that matches it (if any). An index matches when its leading
+ * columns are the needed columns, in the same order.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class IndexCheck {
+
+	/**
+	 * @param tableName   The name of the table
+	 * @param columnNames The needed leading columns of the index
+	 * @param usedBy      The commands that use the index
+	 * @param indexName   The name of the matching index, null if missing
+	 */
+	public IndexCheck(
+		String tableName, String[] columnNames, String usedBy,
+		String indexName) {
+
+		_tableName = tableName;
+		_columnNames = columnNames.clone();
+		_usedBy = usedBy;
+		_indexName = indexName;
+	}
+
+	public String[] getColumnNames() {
+		return _columnNames.clone();
+	}
+
+	/**
+	 * @return The name of the matching index, null if missing
+	 */
+	public String getIndexName() {
+		return _indexName;
+	}
+
+	public String getTableName() {
+		return _tableName;
+	}
+
+	public String getUsedBy() {
+		return _usedBy;
+	}
+
+	public boolean isMissing() {
+		if (_indexName == null) {
+			return true;
+		}
+
+		return false;
+	}
+
+	private final String[] _columnNames;
+	private final String _indexName;
+	private final String _tableName;
+	private final String _usedBy;
+
+}
@@ -0,0 +1,112 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo;
+
+import java.util.Date;
+
+/**
+ * The misfired triggers of a group, counted by lag bucket. The lag of a
+ * trigger is the time elapsed since its next fire time.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class MisfireBacklog {
+
+	/**
+	 * @param triggerGroup   The trigger group
+	 * @param lagBucketCount The number of the lag buckets
+	 */
+	public MisfireBacklog(String triggerGroup, int lagBucketCount) {
+		_triggerGroup = triggerGroup;
+		_lagBucketCounts = new long[lagBucketCount];
+	}
+
+	/**
+	 * Add the misfired triggers of a lag bucket.
+	 *
+	 * @param lagBucket    The lag bucket
+	 * @param count        The number of the misfired triggers
+	 * @param nextFireTime The oldest next fire time of the misfired triggers
+	 */
+	public void add(int lagBucket, long count, long nextFireTime) {
+		_lagBucketCounts[lagBucket] += count;
+		_count += count;
+
+		if ((_oldestNextFireTime == 0) ||
+			(nextFireTime < _oldestNextFireTime)) {
+
+			_oldestNextFireTime = nextFireTime;
+		}
+	}
+
+	/**
+	 * @return The number of the misfired triggers
+	 */
+	public long getCount() {
+		return _count;
+	}
+
+	/**
+	 * @param  lagBucket The lag bucket
+	 * @return The number of the misfired triggers of the lag bucket
+	 */
+	public long getLagBucketCount(int lagBucket) {
+		return _lagBucketCounts[lagBucket];
+	}
+
+	/**
+	 * @return The oldest next fire time, null if there are no misfired
+	 *         triggers
+	 */
+	public Date getOldestNextFireTime() {
+		if (_count == 0) {
+			return null;
+		}
+
+		return new Date(_oldestNextFireTime);
+	}
+
+	public String getTriggerGroup() {
+		return _triggerGroup;
+	}
+
+	/**
+	 * @param  now The current time
+	 * @return The lag of the oldest misfired trigger in milliseconds, 0 if
+	 *         there are no misfired triggers
+	 */
+	public long getWorstLag(long now) {
+		if (_count == 0) {
+			return 0;
+		}
+
+		return now - _oldestNextFireTime;
+	}
+
+	private long _count;
+	private final long[] _lagBucketCounts;
+	private long _oldestNextFireTime;
+	private final String _triggerGroup;
+
+}
@@ -0,0 +1,75 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo;
+
+import java.util.Date;
+
+/**
+ * The jobs running on a cluster node (a Quartz scheduler instance).
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class NodeLoad {
+
+	/**
+	 * @param instanceName     The scheduler instance name
+	 * @param runningCount     The number of the running jobs
+	 * @param oldestFiredTime  The fired time of the oldest running job, null
+	 *                         if there are no running jobs
+	 */
+	public NodeLoad(
+		String instanceName, int runningCount, Date oldestFiredTime) {
+
+		_instanceName = instanceName;
+		_runningCount = runningCount;
+
+		if (oldestFiredTime != null) {
+			_oldestFiredTime = new Date(oldestFiredTime.getTime());
+		}
+		else {
+			_oldestFiredTime = null;
+		}
+	}
+
+	public String getInstanceName() {
+		return _instanceName;
+	}
+
+	public Date getOldestFiredTime() {
+		if (_oldestFiredTime == null) {
+			return null;
+		}
+
+		return new Date(_oldestFiredTime.getTime());
+	}
+
+	public int getRunningCount() {
+		return _runningCount;
+	}
+
+	private final String _instanceName;
+	private final Date _oldestFiredTime;
+	private final int _runningCount;
+
+}
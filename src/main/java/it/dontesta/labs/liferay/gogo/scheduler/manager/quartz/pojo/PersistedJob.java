@@ -0,0 +1,127 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo;
+
+import com.liferay.portal.kernel.scheduler.StorageType;
+import com.liferay.portal.kernel.scheduler.TriggerState;
+
+import java.util.Date;
+
+/**
+ * A persisted job read from the Quartz tables, with its trigger. The state
+ * of the job is derived from the state of the Quartz trigger, mapped to the
+ * state the scheduler engine reports: a BLOCKED trigger (a job not allowed
+ * to run concurrently that is running) is NORMAL and a PAUSED_BLOCKED
+ * trigger is PAUSED.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class PersistedJob {
+
+	/**
+	 * @param jobName          The name of the job
+	 * @param groupName        The group name of the job
+	 * @param quartzState      The state of the Quartz trigger (TRIGGER_STATE
+	 *                         column), null if the job has no trigger
+	 * @param startTime        The start time of the trigger, null if none
+	 * @param previousFireTime The previous fire time, null if none
+	 * @param nextFireTime     The next fire time, null if none
+	 */
+	public PersistedJob(
+		String jobName, String groupName, String quartzState, Date startTime,
+		Date previousFireTime, Date nextFireTime) {
+
+		_jobName = jobName;
+		_groupName = groupName;
+		_triggerState = _toTriggerState(quartzState);
+		_startTime = _copy(startTime);
+		_previousFireTime = _copy(previousFireTime);
+		_nextFireTime = _copy(nextFireTime);
+	}
+
+	public String getGroupName() {
+		return _groupName;
+	}
+
+	public String getJobName() {
+		return _jobName;
+	}
+
+	public Date getNextFireTime() {
+		return _copy(_nextFireTime);
+	}
+
+	public Date getPreviousFireTime() {
+		return _copy(_previousFireTime);
+	}
+
+	public Date getStartTime() {
+		return _copy(_startTime);
+	}
+
+	public StorageType getStorageType() {
+		return StorageType.PERSISTED;
+	}
+
+	public TriggerState getTriggerState() {
+		return _triggerState;
+	}
+
+	private static Date _copy(Date date) {
+		if (date == null) {
+			return null;
+		}
+
+		return new Date(date.getTime());
+	}
+
+	private static TriggerState _toTriggerState(String quartzState) {
+		if (quartzState == null) {
+			return TriggerState.UNSCHEDULED;
+		}
+
+		switch (quartzState) {
+			case "COMPLETE":
+				return TriggerState.COMPLETE;
+
+			case "ERROR":
+				return TriggerState.ERROR;
+
+			case "PAUSED":
+			case "PAUSED_BLOCKED":
+				return TriggerState.PAUSED;
+
+			default:
+				return TriggerState.NORMAL;
+		}
+	}
+
+	private final String _groupName;
+	private final String _jobName;
+	private final Date _nextFireTime;
+	private final Date _previousFireTime;
+	private final Date _startTime;
+	private final TriggerState _triggerState;
+
+}
@@ -0,0 +1,91 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary of the strings of the columnar snapshots: every distinct
+ * string is stored once and referenced by its code. The dictionary can be
+ * shared by many snapshots (for example by the successive samples of the
+ * fired triggers), it is not thread safe.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class StringDictionary {
+
+	/**
+	 * Return the code of the string, adding the string to the dictionary if
+	 * missing. The null string has the code -1.
+	 *
+	 * @param value The string
+	 * @return The code of the string
+	 */
+	public int encode(String value) {
+		if (value == null) {
+			return -1;
+		}
+
+		Integer code = _codes.get(value);
+
+		if (code != null) {
+			return code;
+		}
+
+		if (_size == _values.length) {
+			_values = Arrays.copyOf(_values, _size * 2);
+		}
+
+		_values[_size] = value;
+		_codes.put(value, _size);
+
+		return _size++;
+	}
+
+	/**
+	 * @param code The code of the string
+	 * @return The string, null for the code -1
+	 */
+	public String decode(int code) {
+		if (code < 0) {
+			return null;
+		}
+
+		return _values[code];
+	}
+
+	/**
+	 * @return The number of strings, all the codes are lower than the size
+	 */
+	public int size() {
+		return _size;
+	}
+
+	private final Map<String, Integer> _codes = new HashMap<>();
+	private int _size;
+	private String[] _values = new String[64];
+
+}
@@ -23,7 +23,28 @@
 
 package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util;
 
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+
+import org.apache.felix.service.command.CommandSession;
+
 /**
+ * Console of the commands. A command opens an output bound to its Gogo
+ * session with {@link #open(CommandSession)}: the text is encoded as UTF-8
+ * straight into a buffer that is written to the session console when it is
+ * full, when the print stream is flushed (by the table writers at the page
+ * boundaries and by the top view after every refresh) and when the output
+ * is closed at the end of the command. Without an open output the text goes
+ * to System.out and is flushed on every call.
+ *
+ * <pre>
+ * try (Console.Output output = Console.open(commandSession)) {
+ *     Console.println("...");
+ * }
+ * </pre>
+ *
  * @author Antonio Musarra <antonio.musarra@gmail.com>
  */
 public final class Console {
@@ -32,24 +53,130 @@ public final class Console {
 		throw new IllegalStateException("Utility class");
 	}
 
+	/**
+	 * @return The print stream of the output of the current thread,
+	 *         System.out if no output is open
+	 */
+	public static PrintStream getPrintStream() {
+		Output output = _output.get();
+
+		if (output != null) {
+			return output._printStream;
+		}
+
+		return System.out;
+	}
+
+	/**
+	 * Open an output bound to the console of the session, for the current
+	 * thread.
+	 *
+	 * @param commandSession The session of the command
+	 * @return The output, to close at the end of the command
+	 */
+	public static Output open(CommandSession commandSession) {
+		return open(commandSession.getConsole());
+	}
+
+	/**
+	 * Open a buffered UTF-8 output on the stream, for the current thread.
+	 * The stream is flushed, but not closed, when the output is closed.
+	 *
+	 * @param outputStream The stream where the output is written
+	 * @return The output, to close at the end of the command
+	 */
+	public static Output open(OutputStream outputStream) {
+		Output output = new Output(outputStream, _output.get());
+
+		_output.set(output);
+
+		return output;
+	}
+
 	public static void print(String message) {
-		System.out.print(message);
-		System.out.flush();
+		PrintStream printStream = getPrintStream();
+
+		printStream.print(message);
+
+		_autoFlush(printStream);
 	}
 
 	public static void print(Object message) {
-		System.out.print(message);
-		System.out.flush();
+		PrintStream printStream = getPrintStream();
+
+		printStream.print(message);
+
+		_autoFlush(printStream);
 	}
 
 	public static void println(String message) {
-		System.out.println(message);
-		System.out.flush();
+		PrintStream printStream = getPrintStream();
+
+		printStream.println(message);
+
+		_autoFlush(printStream);
 	}
 
 	public static void println(Object message) {
-		System.out.println(message);
-		System.out.flush();
+		PrintStream printStream = getPrintStream();
+
+		printStream.println(message);
+
+		_autoFlush(printStream);
 	}
 
+	/**
+	 * Output of a command, bound to the thread that opened it.
+	 */
+	public static final class Output implements AutoCloseable {
+
+		/**
+		 * Flush the buffer and restore the previous output of the thread.
+		 */
+		@Override
+		public void close() {
+			_printStream.flush();
+
+			if (_output.get() != this) {
+				return;
+			}
+
+			if (_previousOutput == null) {
+				_output.remove();
+			}
+			else {
+				_output.set(_previousOutput);
+			}
+		}
+
+		private Output(OutputStream outputStream, Output previousOutput) {
+			try {
+				_printStream = new PrintStream(
+					new BufferedOutputStream(outputStream, _BUFFER_SIZE), false,
+					_CHARSET_NAME);
+			}
+			catch (UnsupportedEncodingException uee) {
+				throw new IllegalStateException(uee);
+			}
+
+			_previousOutput = previousOutput;
+		}
+
+		private final Output _previousOutput;
+		private final PrintStream _printStream;
+
+	}
+
+	private static void _autoFlush(PrintStream printStream) {
+		if (_output.get() == null) {
+			printStream.flush();
+		}
+	}
+
+	private static final int _BUFFER_SIZE = 16 * 1024;
+
+	private static final String _CHARSET_NAME = "UTF-8";
+
+	private static final ThreadLocal<Output> _output = new ThreadLocal<>();
+
 }
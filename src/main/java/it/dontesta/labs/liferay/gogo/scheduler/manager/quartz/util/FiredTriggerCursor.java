@@ -0,0 +1,294 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.LatencyHistogram;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.Metric;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.SchedulerManagerMetrics;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredTrigger;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import java.util.Date;
+
+/**
+ * Forward only cursor over the fired triggers of a group (or of all the
+ * groups). The rows are read
+ * page by page with keyset pagination on (FIRED_TIME, ENTRY_ID), so only one
+ * page of rows is held by the driver at a time, whatever the size of the
+ * QUARTZ_FIRED_TRIGGERS table. The pages are limited in the SQL, with the
+ * syntax of the dialect, so the database stops sorting after a page. The
+ * values of the current row can be read column by column, without creating
+ * a {@link FiredTrigger} for every row.
+ *
+ * <pre>
+ * try (FiredTriggerCursor cursor = QuartzUtils.openFiredTriggerCursor(group)) {
+ *     while (cursor.next()) {
+ *         FiredTrigger firedTrigger = cursor.get();
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class FiredTriggerCursor implements AutoCloseable {
+
+	@Override
+	public void close() throws SQLException {
+		try {
+			_closeResultSet();
+		}
+		finally {
+			_quartzConnection.close();
+		}
+	}
+
+	/**
+	 * @return The fired trigger of the current row
+	 */
+	public FiredTrigger get() {
+		if ((_firedTrigger == null) && _onRow) {
+			FiredTrigger firedTrigger = new FiredTrigger();
+
+			firedTrigger.setEntryId(_entryId);
+			firedTrigger.setFiredTime(new Date(_firedTime));
+			firedTrigger.setInstanceName(_instanceName);
+			firedTrigger.setSchedulerName(_schedulerName);
+			firedTrigger.setState(_state);
+			firedTrigger.setTriggerGroup(_triggerGroup);
+			firedTrigger.setTriggerName(_triggerName);
+
+			_firedTrigger = firedTrigger;
+		}
+
+		return _firedTrigger;
+	}
+
+	public String getEntryId() {
+		return _entryId;
+	}
+
+	public long getFiredTime() {
+		return _firedTime;
+	}
+
+	public String getInstanceName() {
+		return _instanceName;
+	}
+
+	public String getSchedulerName() {
+		return _schedulerName;
+	}
+
+	public String getState() {
+		return _state;
+	}
+
+	public String getTriggerGroup() {
+		return _triggerGroup;
+	}
+
+	public String getTriggerName() {
+		return _triggerName;
+	}
+
+	/**
+	 * Move the cursor to the next row, reading the next page when the
+	 * current page is exhausted.
+	 *
+	 * @return true if the cursor is on a row, false if there are no more rows
+	 * @throws SQLException In the case of errors
+	 */
+	public boolean next() throws SQLException {
+		while (true) {
+			if (_resultSet == null) {
+				if (_exhausted) {
+					return false;
+				}
+
+				_openPage();
+			}
+
+			if (_resultSet.next()) {
+				_pageRowCount++;
+
+				_readRow();
+
+				return true;
+			}
+
+			_closeResultSet();
+
+			if (_pageRowCount < _pageSize) {
+				_exhausted = true;
+				_firedTrigger = null;
+				_onRow = false;
+
+				return false;
+			}
+		}
+	}
+
+	protected FiredTriggerCursor(
+		QuartzConnection quartzConnection, QuartzSql quartzSql,
+		String triggerGroup, int pageSize) {
+
+		_quartzConnection = quartzConnection;
+		_quartzSql = quartzSql;
+		_groupFilter = triggerGroup;
+		_pageSize = pageSize;
+	}
+
+	private void _closeResultSet() throws SQLException {
+		if (_resultSet != null) {
+			try {
+				_resultSet.close();
+			}
+			finally {
+				_resultSet = null;
+
+				_latencyHistogram.record(_pageQueryTime, _pageRowCount);
+			}
+		}
+	}
+
+	private String _getPageSQL(boolean keyset) throws SQLException {
+		String predicate = null;
+
+		if (_groupFilter != null) {
+			predicate = _TRIGGER_GROUP;
+		}
+
+		if (keyset) {
+			if (predicate == null) {
+				predicate = _KEYSET;
+			}
+			else {
+				predicate = predicate + " AND " + _KEYSET;
+			}
+		}
+
+		return _quartzSql.limit(
+			_quartzConnection.getConnection(),
+			_SQL_FIRED_TRIGGERS +
+				_quartzSql.table(QuartzSql.TABLE_FIRED_TRIGGERS) +
+					_quartzSql.where(null, predicate) + _SQL_ORDER_BY,
+			_pageSize);
+	}
+
+	private void _openPage() throws SQLException {
+		PreparedStatement pst;
+
+		if (!_onRow) {
+			if (_firstPageSQL == null) {
+				_firstPageSQL = _getPageSQL(false);
+			}
+
+			pst = _quartzConnection.prepareStatement(_firstPageSQL);
+		}
+		else {
+			if (_nextPageSQL == null) {
+				_nextPageSQL = _getPageSQL(true);
+			}
+
+			pst = _quartzConnection.prepareStatement(_nextPageSQL);
+		}
+
+		int index = _quartzSql.setSchedulerName(pst, 1);
+
+		if (_groupFilter != null) {
+			pst.setString(index++, _groupFilter);
+		}
+
+		if (_onRow) {
+			pst.setLong(index++, _firedTime);
+			pst.setLong(index++, _firedTime);
+			pst.setString(index, _entryId);
+		}
+
+		pst.setFetchSize(_pageSize);
+
+		long startTime = System.nanoTime();
+
+		_resultSet = pst.executeQuery();
+
+		_pageQueryTime = System.nanoTime() - startTime;
+		_pageRowCount = 0;
+	}
+
+	private void _readRow() throws SQLException {
+		_schedulerName = _resultSet.getString(1);
+		_entryId = _resultSet.getString(2);
+		_triggerName = _resultSet.getString(3);
+		_triggerGroup = _resultSet.getString(4);
+		_instanceName = _resultSet.getString(5);
+		_firedTime = _resultSet.getLong(6);
+		_state = _resultSet.getString(7);
+
+		_firedTrigger = null;
+		_onRow = true;
+	}
+
+	// Equivalent to (FIRED_TIME > ? OR (FIRED_TIME = ? AND ENTRY_ID > ?)),
+	// with a range on FIRED_TIME that the database can use
+
+	private static final String _KEYSET =
+		"FIRED_TIME >= ? AND (FIRED_TIME > ? OR ENTRY_ID > ?)";
+
+	private static final String _SQL_FIRED_TRIGGERS =
+		"SELECT SCHED_NAME, ENTRY_ID, TRIGGER_NAME, TRIGGER_GROUP, " +
+			"INSTANCE_NAME, FIRED_TIME, STATE FROM ";
+
+	private static final String _SQL_ORDER_BY =
+		" ORDER BY FIRED_TIME, ENTRY_ID";
+
+	private static final String _TRIGGER_GROUP = "TRIGGER_GROUP = ?";
+
+	private static final LatencyHistogram _latencyHistogram =
+		SchedulerManagerMetrics.getLatencyHistogram(
+			Metric.QUERY_FIRED_TRIGGERS_PAGE);
+
+	private String _entryId;
+	private boolean _exhausted;
+	private long _firedTime;
+	private FiredTrigger _firedTrigger;
+	private String _firstPageSQL;
+	private final String _groupFilter;
+	private String _instanceName;
+	private String _nextPageSQL;
+	private boolean _onRow;
+	private long _pageQueryTime;
+	private int _pageRowCount;
+	private final int _pageSize;
+	private final QuartzConnection _quartzConnection;
+	private final QuartzSql _quartzSql;
+	private ResultSet _resultSet;
+	private String _schedulerName;
+	private String _state;
+	private String _triggerGroup;
+	private String _triggerName;
+
+}
@@ -0,0 +1,313 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util;
+
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.Metric;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.SchedulerManagerMetrics;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.ExecutionStats;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredTriggerSnapshot;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.StringDictionary;
+
+import java.sql.SQLException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background sampler of the QUARTZ_FIRED_TRIGGERS table. Every sample
+ * tracks when each fired trigger (ENTRY_ID) appears and disappears; when a
+ * fired trigger disappears its execution duration is recorded in the
+ * execution stats of the job. Only the columnar snapshot of the last sample
+ * is kept; two samples are compared with a merge on the fired time,
+ * without indexing the entries of every sample.
+ *
+ * <p>
+ * The end of an execution is known only at the sample granularity, so the
+ * recorded duration is the time between the fired time and the middle of
+ * the last two samples. Executions shorter than the interval could be
+ * never seen. The memory used is bounded: the jobs are evicted in least
+ * recently completed order and every job keeps a fixed number of
+ * durations.
+ * </p>
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class FiredTriggerSampler {
+
+	/**
+	 * @param interval       The interval between two samples in milliseconds
+	 * @param maxJobs        The max number of jobs tracked
+	 * @param samplesPerJob  The number of the last durations kept by job
+	 */
+	public FiredTriggerSampler(long interval, int maxJobs, int samplesPerJob) {
+		_interval = Math.max(_MIN_INTERVAL, interval);
+		_maxJobs = Math.max(1, maxJobs);
+		_samplesPerJob = samplesPerJob;
+	}
+
+	/**
+	 * @return The execution stats of the tracked jobs
+	 */
+	public synchronized List<ExecutionStats> getExecutionStats() {
+		return new ArrayList<>(_executionStats.values());
+	}
+
+	/**
+	 * @return The interval between two samples in milliseconds
+	 */
+	public long getInterval() {
+		return _interval;
+	}
+
+	/**
+	 * @return The number of the executions in progress
+	 */
+	public synchronized int getRunningCount() {
+		if (_firedTriggerSnapshot == null) {
+			return 0;
+		}
+
+		return _firedTriggerSnapshot.size();
+	}
+
+	/**
+	 * @return The time of the first sample, 0 if the sampler is not started
+	 */
+	public synchronized long getStartTime() {
+		return _startTime;
+	}
+
+	/**
+	 * Take a sample of the fired triggers.
+	 */
+	public void sample() {
+		long now = System.currentTimeMillis();
+		long startTime = System.nanoTime();
+
+		FiredTriggerSnapshot firedTriggerSnapshot;
+
+		try {
+			firedTriggerSnapshot = QuartzUtils.getFiredTriggerSnapshot(
+				null, new StringDictionary());
+		}
+		catch (SQLException sqle) {
+			_log.warn(sqle.getMessage(), sqle);
+
+			SchedulerManagerMetrics.record(Metric.SAMPLER_POLL, startTime);
+
+			return;
+		}
+
+		SchedulerManagerMetrics.record(
+			Metric.SAMPLER_POLL, startTime, firedTriggerSnapshot.size());
+
+		synchronized (this) {
+			_update(firedTriggerSnapshot, now);
+		}
+	}
+
+	/**
+	 * Start sampling in background.
+	 */
+	public synchronized void start() {
+		if (_scheduledExecutorService != null) {
+			return;
+		}
+
+		_scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
+			runnable -> {
+				Thread thread = new Thread(runnable, _THREAD_NAME);
+
+				thread.setDaemon(true);
+
+				return thread;
+			});
+
+		_scheduledExecutorService.scheduleWithFixedDelay(
+			this::_sampleSafely, 0, _interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop sampling. The collected stats are kept.
+	 */
+	public synchronized void stop() {
+		if (_scheduledExecutorService != null) {
+			_scheduledExecutorService.shutdownNow();
+
+			_scheduledExecutorService = null;
+		}
+	}
+
+	private void _sampleSafely() {
+		try {
+			sample();
+		}
+		catch (RuntimeException re) {
+			_log.error(re.getMessage(), re);
+		}
+	}
+
+	private static boolean _contains(
+		FiredTriggerSnapshot firedTriggerSnapshot, int row, long firedTime,
+		String entryId) {
+
+		while ((row < firedTriggerSnapshot.size()) &&
+			   (firedTriggerSnapshot.getFiredTime(row) == firedTime)) {
+
+			if (entryId.equals(firedTriggerSnapshot.getEntryId(row))) {
+				return true;
+			}
+
+			row++;
+		}
+
+		return false;
+	}
+
+	private void _record(
+		FiredTriggerSnapshot firedTriggerSnapshot, int row,
+		long completedTime) {
+
+		String triggerGroup = firedTriggerSnapshot.getTriggerGroup(row);
+		String triggerName = firedTriggerSnapshot.getTriggerName(row);
+
+		String key = triggerGroup + StringPool.SLASH + triggerName;
+
+		ExecutionStats executionStats = _executionStats.remove(key);
+
+		if (executionStats == null) {
+			executionStats = new ExecutionStats(
+				triggerName, triggerGroup, _samplesPerJob);
+		}
+
+		executionStats.record(
+			Math.max(
+				0, completedTime - firedTriggerSnapshot.getFiredTime(row)),
+			completedTime);
+
+		_executionStats.put(key, executionStats);
+	}
+
+	/**
+	 * Record the executions of the previous sample that are not in the
+	 * current one. The snapshots are ordered by fired time, so both are
+	 * scanned once; only the entries with the same fired time are compared.
+	 */
+	private void _update(FiredTriggerSnapshot firedTriggerSnapshot, long now) {
+		if (_startTime == 0) {
+			_startTime = now;
+		}
+
+		FiredTriggerSnapshot previousSnapshot = _firedTriggerSnapshot;
+
+		if (previousSnapshot != null) {
+			long completedTime = _lastSampleTime + (now - _lastSampleTime) / 2;
+
+			if (previousSnapshot.isSortedByFiredTime() &&
+				firedTriggerSnapshot.isSortedByFiredTime()) {
+
+				int row = 0;
+
+				for (int previousRow = 0; previousRow < previousSnapshot.size();
+					 previousRow++) {
+
+					long firedTime = previousSnapshot.getFiredTime(previousRow);
+
+					while ((row < firedTriggerSnapshot.size()) &&
+						   (firedTriggerSnapshot.getFiredTime(row) <
+							   firedTime)) {
+
+						row++;
+					}
+
+					if (!_contains(
+							firedTriggerSnapshot, row, firedTime,
+							previousSnapshot.getEntryId(previousRow))) {
+
+						_record(previousSnapshot, previousRow, completedTime);
+					}
+				}
+			}
+			else {
+				Set<String> entryIds = new HashSet<>();
+
+				for (int row = 0; row < firedTriggerSnapshot.size(); row++) {
+					entryIds.add(firedTriggerSnapshot.getEntryId(row));
+				}
+
+				for (int previousRow = 0; previousRow < previousSnapshot.size();
+					 previousRow++) {
+
+					if (!entryIds.contains(
+							previousSnapshot.getEntryId(previousRow))) {
+
+						_record(previousSnapshot, previousRow, completedTime);
+					}
+				}
+			}
+		}
+
+		_firedTriggerSnapshot = firedTriggerSnapshot;
+		_lastSampleTime = now;
+	}
+
+	private static final long _MIN_INTERVAL = 500;
+
+	private static final String _THREAD_NAME =
+		"scheduler-manager-stats-sampler";
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		FiredTriggerSampler.class);
+
+	private final Map<String, ExecutionStats> _executionStats =
+		new LinkedHashMap<String, ExecutionStats>() {
+
+			@Override
+			protected boolean removeEldestEntry(
+				Map.Entry<String, ExecutionStats> eldest) {
+
+				return size() > _maxJobs;
+			}
+
+		};
+	private FiredTriggerSnapshot _firedTriggerSnapshot;
+	private final long _interval;
+	private long _lastSampleTime;
+	private final int _maxJobs;
+	private final int _samplesPerJob;
+	private ScheduledExecutorService _scheduledExecutorService;
+	private long _startTime;
+
+}
@@ -0,0 +1,204 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.LatencyHistogram;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.Metric;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.SchedulerManagerMetrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Wait until no fired triggers of a group remain, polling the
+ * QUARTZ_FIRED_TRIGGERS table with a single statement prepared once on a
+ * connection held for the whole wait. The interval between two polls
+ * starts short and doubles (up to a max) while the running jobs do not
+ * change; it is reset when a job completes, so the wait returns shortly
+ * after the last job completes without polling the database every second
+ * for long running jobs. The watcher must be closed.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class FiredTriggerWatcher implements AutoCloseable {
+
+	/**
+	 * Wait until no fired triggers of the group remain or the timeout
+	 * expires.
+	 *
+	 * @param  timeoutMillis The timeout in milliseconds, 0 for no timeout
+	 * @return true if no fired triggers remain, false if the timeout
+	 *         expired
+	 * @throws InterruptedException If interrupted while waiting
+	 * @throws SQLException In the case of errors
+	 */
+	public boolean awaitIdle(long timeoutMillis)
+		throws InterruptedException, SQLException {
+
+		long startTime = System.currentTimeMillis();
+
+		long deadline = Long.MAX_VALUE;
+
+		if (timeoutMillis > 0) {
+			deadline = startTime + timeoutMillis;
+		}
+
+		long pollInterval = _MIN_POLL_INTERVAL;
+
+		Set<String> runningJobNames = _poll();
+
+		while (!runningJobNames.isEmpty()) {
+			long now = System.currentTimeMillis();
+
+			if (now >= deadline) {
+				return false;
+			}
+
+			Thread.sleep(Math.min(pollInterval, deadline - now));
+
+			Set<String> previousRunningJobNames = runningJobNames;
+
+			runningJobNames = _poll();
+
+			if (previousRunningJobNames.equals(runningJobNames)) {
+				pollInterval = Math.min(pollInterval * 2, _MAX_POLL_INTERVAL);
+			}
+			else {
+				pollInterval = _MIN_POLL_INTERVAL;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public void close() throws SQLException {
+		_quartzConnection.close();
+	}
+
+	/**
+	 * @return The number of the polls
+	 */
+	public int getPollCount() {
+		return _pollCount;
+	}
+
+	/**
+	 * @return The names of the jobs seen running by the last poll
+	 */
+	public Set<String> getRunningJobNames() {
+		return Collections.unmodifiableSet(_runningJobNames);
+	}
+
+	/**
+	 * @return The names of all the jobs seen running while waiting, with
+	 *         the time they were seen running for the last time, in the
+	 *         order they were seen for the first time
+	 */
+	public Map<String, Long> getSeenJobNames() {
+		return Collections.unmodifiableMap(_seenJobNames);
+	}
+
+	protected FiredTriggerWatcher(
+		QuartzConnection quartzConnection, QuartzSql quartzSql,
+		String triggerGroup) {
+
+		_quartzConnection = quartzConnection;
+		_quartzSql = quartzSql;
+		_triggerGroup = triggerGroup;
+
+		_sql = "SELECT DISTINCT TRIGGER_NAME FROM " +
+			quartzSql.table(QuartzSql.TABLE_FIRED_TRIGGERS) +
+				quartzSql.where(null, "TRIGGER_GROUP = ?");
+	}
+
+	private Set<String> _poll() throws SQLException {
+		PreparedStatement pst = _quartzConnection.prepareStatement(_sql);
+
+		int index = _quartzSql.setSchedulerName(pst, 1);
+
+		pst.setString(index, _triggerGroup);
+
+		Set<String> runningJobNames = new HashSet<>();
+
+		long startTime = System.nanoTime();
+
+		try (ResultSet rs = pst.executeQuery()) {
+			while (rs.next()) {
+				runningJobNames.add(rs.getString(1));
+			}
+		}
+		finally {
+			_latencyHistogram.record(
+				System.nanoTime() - startTime, runningJobNames.size());
+		}
+
+		Connection connection = _quartzConnection.getConnection();
+
+		if (!connection.getAutoCommit()) {
+
+			// End the transaction, otherwise the next poll could read the
+			// same snapshot (for example with REPEATABLE READ)
+
+			connection.rollback();
+		}
+
+		_pollCount++;
+
+		long now = System.currentTimeMillis();
+
+		for (String jobName : runningJobNames) {
+			_seenJobNames.put(jobName, now);
+		}
+
+		_runningJobNames = runningJobNames;
+
+		return runningJobNames;
+	}
+
+	private static final long _MAX_POLL_INTERVAL = 5000;
+
+	private static final long _MIN_POLL_INTERVAL = 100;
+
+	private static final LatencyHistogram _latencyHistogram =
+		SchedulerManagerMetrics.getLatencyHistogram(
+			Metric.QUERY_FIRED_TRIGGERS_POLL);
+
+	private int _pollCount;
+	private final QuartzConnection _quartzConnection;
+	private final QuartzSql _quartzSql;
+	private Set<String> _runningJobNames = Collections.emptySet();
+	private final Map<String, Long> _seenJobNames = new LinkedHashMap<>();
+	private final String _sql;
+	private final String _triggerGroup;
+
+}
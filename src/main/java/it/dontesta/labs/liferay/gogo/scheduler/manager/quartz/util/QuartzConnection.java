@@ -0,0 +1,220 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util;
+
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.InfrastructureUtil;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.CancellationScope;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+/**
+ * Connection borrowed from the portal pool for the time of a single
+ * operation. The connection is validated when borrowed and every statement
+ * is prepared with a query timeout and cached (keyed by SQL) until the
+ * connection is given back to the pool with {@link #close()}. The query
+ * timeout is the time left to the command, none if the command has no
+ * timeout, or the default one outside the commands (the background
+ * sampler). The statements are registered in the {@link CancellationScope}
+ * of the current thread, so a command that times out cancels its running
+ * query.
+ *
+ * <p>
+ * Instances are not thread safe and must not be shared between threads.
+ * </p>
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class QuartzConnection implements AutoCloseable {
+
+	/**
+	 * Borrow a valid connection from the portal pool.
+	 *
+	 * @return The connection
+	 * @throws SQLException If no valid connection can be borrowed
+	 */
+	public static QuartzConnection open() throws SQLException {
+		DataSource dataSource = _dataSource;
+
+		if (dataSource == null) {
+			dataSource = InfrastructureUtil.getDataSource();
+		}
+
+		if (dataSource == null) {
+			throw new SQLException("The portal data source is not available");
+		}
+
+		for (int i = 1;; i++) {
+			Connection connection = dataSource.getConnection();
+
+			try {
+				if (connection.isValid(_VALIDATION_TIMEOUT_SECONDS)) {
+					return new QuartzConnection(connection);
+				}
+			}
+			catch (SQLException sqle) {
+				if (_log.isDebugEnabled()) {
+					_log.debug(sqle.getMessage(), sqle);
+				}
+			}
+
+			connection.close();
+
+			if (i == _MAX_BORROW_ATTEMPTS) {
+				throw new SQLException(
+					"Unable to borrow a valid connection after " + i +
+						" attempts");
+			}
+
+			if (_log.isWarnEnabled()) {
+				_log.warn("Discarded an invalid connection, attempt " + i);
+			}
+		}
+	}
+
+	/**
+	 * Give back the connection to the pool, closing the cached statements.
+	 *
+	 * @throws SQLException In the case of errors
+	 */
+	@Override
+	public void close() throws SQLException {
+		SQLException sqlException = null;
+
+		for (PreparedStatement preparedStatement : _statements.values()) {
+			CancellationScope.unregister(preparedStatement);
+
+			try {
+				preparedStatement.close();
+			}
+			catch (SQLException sqle) {
+				sqlException = sqle;
+			}
+		}
+
+		_statements.clear();
+
+		_connection.close();
+
+		if (sqlException != null) {
+			throw sqlException;
+		}
+	}
+
+	public Connection getConnection() {
+		return _connection;
+	}
+
+	/**
+	 * Return the prepared statement for the SQL. The statement is prepared
+	 * once for this connection and then reused, with its parameters cleared.
+	 *
+	 * @param sql The SQL
+	 * @return The prepared statement
+	 * @throws SQLException In the case of errors
+	 */
+	public PreparedStatement prepareStatement(String sql) throws SQLException {
+		PreparedStatement preparedStatement = _statements.get(sql);
+
+		if (preparedStatement != null) {
+			preparedStatement.clearParameters();
+			preparedStatement.setQueryTimeout(_getQueryTimeout());
+
+			return preparedStatement;
+		}
+
+		preparedStatement = _connection.prepareStatement(sql);
+
+		preparedStatement.setQueryTimeout(_getQueryTimeout());
+
+		try {
+			CancellationScope.register(preparedStatement);
+		}
+		catch (SQLException sqle) {
+			preparedStatement.close();
+
+			throw sqle;
+		}
+
+		_statements.put(sql, preparedStatement);
+
+		return preparedStatement;
+	}
+
+	/**
+	 * Set the query timeout of the statements run outside a command.
+	 *
+	 * @param defaultQueryTimeout The timeout in seconds, 0 for none
+	 */
+	public static void setDefaultQueryTimeout(int defaultQueryTimeout) {
+		_defaultQueryTimeout = Math.max(0, defaultQueryTimeout);
+	}
+
+	/**
+	 * Replace the portal data source, used outside the portal by the
+	 * benchmarks. A null data source restores the portal one.
+	 *
+	 * @param dataSource The data source
+	 */
+	static void setDataSource(DataSource dataSource) {
+		_dataSource = dataSource;
+	}
+
+	private static int _getQueryTimeout() {
+		CancellationScope cancellationScope = CancellationScope.getCurrent();
+
+		if (cancellationScope == null) {
+			return _defaultQueryTimeout;
+		}
+
+		return cancellationScope.getRemainingSeconds();
+	}
+
+	private QuartzConnection(Connection connection) {
+		_connection = connection;
+	}
+
+	private static final int _MAX_BORROW_ATTEMPTS = 3;
+
+	private static final int _VALIDATION_TIMEOUT_SECONDS = 5;
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		QuartzConnection.class);
+
+	private static volatile DataSource _dataSource;
+	private static volatile int _defaultQueryTimeout = 30;
+
+	private final Connection _connection;
+	private final Map<String, PreparedStatement> _statements = new HashMap<>();
+
+}
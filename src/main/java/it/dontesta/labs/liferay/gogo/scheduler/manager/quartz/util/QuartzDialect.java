@@ -0,0 +1,115 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util;
+
+/**
+ * The SQL dialects of the databases supported by the portal. The dialect
+ * is used only where the standard SQL is not understood by every database,
+ * that is to limit the rows returned by a query.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public enum QuartzDialect {
+
+	AUTO, DB2, HYPERSONIC, MARIADB, MYSQL, ORACLE, POSTGRESQL, SQLSERVER,
+	STANDARD, SYBASE;
+
+	/**
+	 * Return the dialect of the database.
+	 *
+	 * @param  databaseProductName The product name of the database, as
+	 *                             returned by the JDBC driver
+	 * @return The dialect, STANDARD if the database is unknown
+	 */
+	public static QuartzDialect detect(String databaseProductName) {
+		if (databaseProductName == null) {
+			return STANDARD;
+		}
+
+		if (databaseProductName.startsWith("DB2")) {
+			return DB2;
+		}
+		else if (databaseProductName.startsWith("HSQL")) {
+			return HYPERSONIC;
+		}
+		else if (databaseProductName.startsWith("MariaDB")) {
+			return MARIADB;
+		}
+		else if (databaseProductName.startsWith("MySQL")) {
+			return MYSQL;
+		}
+		else if (databaseProductName.startsWith("Oracle")) {
+			return ORACLE;
+		}
+		else if (databaseProductName.startsWith("PostgreSQL")) {
+			return POSTGRESQL;
+		}
+		else if (databaseProductName.startsWith("Microsoft SQL Server")) {
+			return SQLSERVER;
+		}
+		else if (databaseProductName.startsWith("Adaptive Server") ||
+				 databaseProductName.startsWith("ASE") ||
+				 databaseProductName.startsWith("Sybase")) {
+
+			return SYBASE;
+		}
+
+		return STANDARD;
+	}
+
+	/**
+	 * Limit the rows returned by the query. The query must start with
+	 * SELECT and end with its ORDER BY clause, which is required by SQL
+	 * Server and makes the limited rows deterministic. The limit is written
+	 * in the SQL, so the statement of a query with the same limit is
+	 * prepared once.
+	 *
+	 * @param  sql  The query
+	 * @param  rows The max number of rows
+	 * @return The query returning at most the rows
+	 */
+	public String limit(String sql, int rows) {
+		switch (this) {
+			case HYPERSONIC:
+			case MARIADB:
+			case MYSQL:
+			case POSTGRESQL:
+				return sql + " LIMIT " + rows;
+
+			case ORACLE:
+				return "SELECT * FROM (" + sql + ") WHERE ROWNUM <= " + rows;
+
+			case SQLSERVER:
+				return sql + " OFFSET 0 ROWS FETCH NEXT " + rows +
+					" ROWS ONLY";
+
+			case SYBASE:
+				return "SELECT TOP " + rows + sql.substring(6);
+
+			default:
+				return sql + " FETCH FIRST " + rows + " ROWS ONLY";
+		}
+	}
+
+}
@@ -0,0 +1,244 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util;
+
+import com.liferay.portal.kernel.util.Validator;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import java.util.regex.Pattern;
+
+/**
+ * Builder of the SQL on the Quartz tables, for the configured table prefix,
+ * scheduler name and dialect. When the scheduler name is set, the queries
+ * read only the rows of that scheduler: the other schedulers sharing the
+ * tables do not inflate the counts and the predicate on SCHED_NAME is the
+ * leading column of the Quartz indexes, so they can be used.
+ *
+ * <pre>
+ * String sql = "SELECT COUNT(*) FROM " +
+ *     quartzSql.table(QuartzSql.TABLE_FIRED_TRIGGERS) +
+ *         quartzSql.where(null, "TRIGGER_GROUP = ?");
+ *
+ * int index = quartzSql.setSchedulerName(pst, 1);
+ *
+ * pst.setString(index, triggerGroup);
+ * </pre>
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class QuartzSql {
+
+	public static final String DEFAULT_SCHEDULER_NAME =
+		"PersistedQuartzSchedulerEngineInstance";
+
+	public static final String DEFAULT_TABLE_PREFIX = "QUARTZ_";
+
+	public static final String TABLE_FIRED_TRIGGERS = "FIRED_TRIGGERS";
+
+	public static final String TABLE_JOB_DETAILS = "JOB_DETAILS";
+
+	public static final String TABLE_SCHEDULER_STATE = "SCHEDULER_STATE";
+
+	public static final String TABLE_TRIGGERS = "TRIGGERS";
+
+	/**
+	 * @param tablePrefix   The prefix of the Quartz tables
+	 * @param schedulerName The name of the scheduler, empty for all the
+	 *                      schedulers
+	 * @param dialect       The dialect, AUTO to detect it from the database
+	 * @throws IllegalArgumentException If the table prefix is not a valid
+	 *                                  SQL identifier
+	 */
+	public QuartzSql(
+		String tablePrefix, String schedulerName, QuartzDialect dialect) {
+
+		if ((tablePrefix == null) ||
+			!_tablePrefixPattern.matcher(tablePrefix).matches()) {
+
+			throw new IllegalArgumentException(
+				"Invalid table prefix " + tablePrefix);
+		}
+
+		_tablePrefix = tablePrefix;
+
+		if (Validator.isNull(schedulerName)) {
+			_schedulerName = null;
+		}
+		else {
+			_schedulerName = schedulerName.trim();
+		}
+
+		if (dialect == QuartzDialect.AUTO) {
+			_dialect = null;
+		}
+		else {
+			_dialect = dialect;
+		}
+	}
+
+	/**
+	 * Return the dialect, detected from the database of the connection the
+	 * first time when it is not configured.
+	 *
+	 * @param  connection The connection
+	 * @return The dialect
+	 * @throws SQLException In the case of errors
+	 */
+	public QuartzDialect getDialect(Connection connection)
+		throws SQLException {
+
+		QuartzDialect dialect = _dialect;
+
+		if (dialect == null) {
+			DatabaseMetaData databaseMetaData = connection.getMetaData();
+
+			dialect = QuartzDialect.detect(
+				databaseMetaData.getDatabaseProductName());
+
+			_dialect = dialect;
+		}
+
+		return dialect;
+	}
+
+	/**
+	 * @return The name of the scheduler, null for all the schedulers
+	 */
+	public String getSchedulerName() {
+		return _schedulerName;
+	}
+
+	public String getTablePrefix() {
+		return _tablePrefix;
+	}
+
+	/**
+	 * @return true if the queries read only the rows of the scheduler
+	 */
+	public boolean isSchedulerNameScoped() {
+		if (_schedulerName != null) {
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Limit the rows returned by the query, with the syntax of the dialect.
+	 *
+	 * @param  connection The connection, to detect the dialect
+	 * @param  sql        The query, ending with its ORDER BY clause
+	 * @param  rows       The max number of rows
+	 * @return The query returning at most the rows
+	 * @throws SQLException In the case of errors
+	 * @see    QuartzDialect#limit(String, int)
+	 */
+	public String limit(Connection connection, String sql, int rows)
+		throws SQLException {
+
+		QuartzDialect dialect = getDialect(connection);
+
+		return dialect.limit(sql, rows);
+	}
+
+	/**
+	 * Set the parameter of the predicate on the scheduler name, added by
+	 * {@link #where(String, String)}. Nothing is set when the queries read
+	 * the rows of all the schedulers.
+	 *
+	 * @param  pst   The statement
+	 * @param  index The index of the parameter
+	 * @return The index of the next parameter
+	 * @throws SQLException In the case of errors
+	 */
+	public int setSchedulerName(PreparedStatement pst, int index)
+		throws SQLException {
+
+		if (_schedulerName == null) {
+			return index;
+		}
+
+		pst.setString(index, _schedulerName);
+
+		return index + 1;
+	}
+
+	/**
+	 * @param  tableName The name of the table without prefix (for example
+	 *                   FIRED_TRIGGERS)
+	 * @return The name of the table with prefix
+	 */
+	public String table(String tableName) {
+		return _tablePrefix + tableName;
+	}
+
+	/**
+	 * Return the WHERE clause with the predicate on the scheduler name,
+	 * followed by the predicate. A predicate with OR must be enclosed in
+	 * parentheses.
+	 *
+	 * @param  alias     The alias of the table, null for none
+	 * @param  predicate The predicate, null for none
+	 * @return The WHERE clause, empty if there are no predicates
+	 */
+	public String where(String alias, String predicate) {
+		if (_schedulerName == null) {
+			if (predicate == null) {
+				return "";
+			}
+
+			return " WHERE " + predicate;
+		}
+
+		StringBuilder sb = new StringBuilder();
+
+		sb.append(" WHERE ");
+
+		if (alias != null) {
+			sb.append(alias);
+			sb.append('.');
+		}
+
+		sb.append("SCHED_NAME = ?");
+
+		if (predicate != null) {
+			sb.append(" AND ");
+			sb.append(predicate);
+		}
+
+		return sb.toString();
+	}
+
+	private static final Pattern _tablePrefixPattern = Pattern.compile(
+		"[A-Za-z][A-Za-z0-9_]*");
+
+	private volatile QuartzDialect _dialect;
+	private final String _schedulerName;
+	private final String _tablePrefix;
+
+}
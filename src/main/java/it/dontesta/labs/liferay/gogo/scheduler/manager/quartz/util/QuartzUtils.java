@@ -25,27 +25,88 @@ package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util;
 
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
-import com.liferay.portal.kernel.util.InfrastructureUtil;
-import com.liferay.portal.kernel.util.Validator;
+import com.liferay.portal.kernel.util.StringUtil;
 
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.Metric;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.SchedulerManagerMetrics;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredJobsCounts;
 import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredTrigger;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredTriggerCheckin;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredTriggerSnapshot;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.IndexCheck;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.MisfireBacklog;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.NodeLoad;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.PersistedJob;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.StringDictionary;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-
-import javax.sql.DataSource;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 /**
  * @author Antonio Musarra <antonio.musarra@gmail.com>
  */
 public class QuartzUtils {
 
+	/**
+	 * Check that the indexes needed by the queries exist on the Quartz
+	 * tables. The indexes are read from the metadata of the database.
+	 *
+	 * @return The checks of the needed indexes
+	 * @throws SQLException In the case of errors
+	 */
+	public static List<IndexCheck> checkIndexes() throws SQLException {
+		QuartzSql quartzSql = _quartzSql;
+
+		List<IndexCheck> indexChecks = new ArrayList<>(_INDEX_CHECKS.length);
+
+		long startTime = System.nanoTime();
+
+		try (QuartzConnection quartzConnection = QuartzConnection.open()) {
+			Map<String, Map<String, SortedMap<Integer, String>>> tableIndexes =
+				new HashMap<>();
+
+			for (IndexCheck indexCheck : _INDEX_CHECKS) {
+				String tableName = quartzSql.table(indexCheck.getTableName());
+
+				Map<String, SortedMap<Integer, String>> indexColumnNames =
+					tableIndexes.get(tableName);
+
+				if (indexColumnNames == null) {
+					indexColumnNames = _getIndexColumnNames(
+						quartzConnection.getConnection(), tableName);
+
+					tableIndexes.put(tableName, indexColumnNames);
+				}
+
+				indexChecks.add(
+					new IndexCheck(
+						tableName, indexCheck.getColumnNames(),
+						indexCheck.getUsedBy(),
+						_getIndexName(
+							indexColumnNames, indexCheck.getColumnNames())));
+			}
+		}
+		finally {
+			SchedulerManagerMetrics.record(
+				Metric.QUERY_INDEX_CHECK, startTime, indexChecks.size());
+		}
+
+		return indexChecks;
+	}
+
 	/**
 	 * @param triggerName
 	 * @return
@@ -53,10 +114,19 @@ public class QuartzUtils {
 	public static int getFiredJobCount(String triggerName) {
 		int countFiredJobCount = 0;
 
-		try (PreparedStatement pst = _getConnection().prepareStatement(
-				_SQL_FIRED_JOBS_COUNT_BY_TRIGGER_NAME)) {
+		long startTime = System.nanoTime();
+
+		try (QuartzConnection quartzConnection = QuartzConnection.open()) {
+			QuartzSql quartzSql = _quartzSql;
 
-			pst.setString(1, triggerName);
+			PreparedStatement pst = quartzConnection.prepareStatement(
+				_SQL_SELECT_COUNT +
+					quartzSql.table(QuartzSql.TABLE_FIRED_TRIGGERS) +
+						quartzSql.where(null, "TRIGGER_NAME = ?"));
+
+			int index = quartzSql.setSchedulerName(pst, 1);
+
+			pst.setString(index, triggerName);
 
 			try (ResultSet rs = pst.executeQuery()) {
 				if (rs.next()) {
@@ -70,21 +140,38 @@ public class QuartzUtils {
 		catch (SQLException sqle) {
 			_log.warn(sqle.getMessage(), sqle);
 		}
+		finally {
+			SchedulerManagerMetrics.record(
+				Metric.QUERY_FIRED_JOB_COUNT_BY_TRIGGER_NAME, startTime);
+		}
 
 		return countFiredJobCount;
 	}
 
 	/**
+	 * Return the count of the fired jobs of the group. Use {@link
+	 * #getFiredJobsCounts()} to read the counts of many groups with a single
+	 * query.
+	 *
 	 * @param triggerGroup
 	 * @return
 	 */
 	public static int getFiredJobsCount(String triggerGroup) {
 		int countFiredJobsCount = 0;
 
-		try (PreparedStatement pst = _getConnection().prepareStatement(
-				_SQL_FIRED_JOBS_COUNT_BY_TRIGGER_GROUP)) {
+		long startTime = System.nanoTime();
 
-			pst.setString(1, triggerGroup);
+		try (QuartzConnection quartzConnection = QuartzConnection.open()) {
+			QuartzSql quartzSql = _quartzSql;
+
+			PreparedStatement pst = quartzConnection.prepareStatement(
+				_SQL_SELECT_COUNT +
+					quartzSql.table(QuartzSql.TABLE_FIRED_TRIGGERS) +
+						quartzSql.where(null, "TRIGGER_GROUP = ?"));
+
+			int index = quartzSql.setSchedulerName(pst, 1);
+
+			pst.setString(index, triggerGroup);
 
 			try (ResultSet rs = pst.executeQuery()) {
 				if (rs.next()) {
@@ -98,99 +185,667 @@ public class QuartzUtils {
 		catch (SQLException sqle) {
 			_log.warn(sqle.getMessage(), sqle);
 		}
+		finally {
+			SchedulerManagerMetrics.record(
+				Metric.QUERY_FIRED_JOBS_COUNT_BY_TRIGGER_GROUP, startTime);
+		}
 
 		return countFiredJobsCount;
 	}
 
 	/**
+	 * Return the count of the fired jobs of all the groups by group and
+	 * instance name, with a single query.
+	 *
+	 * @return The fired jobs counts
+	 * @throws SQLException In the case of errors
+	 */
+	public static FiredJobsCounts getFiredJobsCounts() throws SQLException {
+		FiredJobsCounts firedJobsCounts = new FiredJobsCounts();
+
+		long startTime = System.nanoTime();
+		long rows = 0;
+
+		try (QuartzConnection quartzConnection = QuartzConnection.open()) {
+			QuartzSql quartzSql = _quartzSql;
+
+			PreparedStatement pst = quartzConnection.prepareStatement(
+				"SELECT TRIGGER_GROUP, INSTANCE_NAME, COUNT(*) FROM " +
+					quartzSql.table(QuartzSql.TABLE_FIRED_TRIGGERS) +
+						quartzSql.where(null, null) +
+							" GROUP BY TRIGGER_GROUP, INSTANCE_NAME");
+
+			quartzSql.setSchedulerName(pst, 1);
+
+			try (ResultSet rs = pst.executeQuery()) {
+				while (rs.next()) {
+					rows++;
+
+					firedJobsCounts.addCount(
+						rs.getString(_FIELD_TRIGGER_GROUP),
+						rs.getString(_FIELD_INSTANCE_NAME), rs.getInt(3));
+				}
+			}
+		}
+		finally {
+			SchedulerManagerMetrics.record(
+				Metric.QUERY_FIRED_JOBS_COUNTS, startTime, rows);
+		}
+
+		return firedJobsCounts;
+	}
+
+	/**
+	 * Return the fired triggers of the group. The whole list is loaded in
+	 * memory, use {@link #openFiredTriggerCursor(String)} to stream the
+	 * rows instead.
+	 *
 	 * @param triggerGroup
 	 * @return
 	 */
 	public static List<FiredTrigger> getFiredTrigger(String triggerGroup) {
 		List<FiredTrigger> firedTriggersList = new ArrayList<>();
 
-		try (PreparedStatement pst = _getConnection().prepareStatement(
-				_SQL_FIRED_JOBS_BY_TRIGGER_GROUP)) {
+		try (FiredTriggerCursor firedTriggerCursor = openFiredTriggerCursor(
+				triggerGroup)) {
+
+			while (firedTriggerCursor.next()) {
+				firedTriggersList.add(firedTriggerCursor.get());
+			}
+		}
+		catch (SQLException sqle) {
+			_log.warn(sqle.getMessage(), sqle);
+		}
+
+		return firedTriggersList;
+	}
+
+	/**
+	 * Return the fired triggers with the check-in state of their owner
+	 * node, with a single query. Only the fired triggers fired before the
+	 * time, or orphaned by their owner node, are returned.
+	 *
+	 * @param firedBefore The max fired time, Long.MAX_VALUE for all the
+	 *                    fired triggers
+	 * @param now         The current time, to find the orphaned ones
+	 * @return The fired triggers, ordered by fired time
+	 * @throws SQLException In the case of errors
+	 */
+	public static List<FiredTriggerCheckin> getFiredTriggerCheckins(
+			long firedBefore, long now)
+		throws SQLException {
+
+		List<FiredTriggerCheckin> firedTriggerCheckins = new ArrayList<>();
+
+		long startTime = System.nanoTime();
 
-			pst.setString(1, triggerGroup);
+		try (QuartzConnection quartzConnection = QuartzConnection.open()) {
+			QuartzSql quartzSql = _quartzSql;
+
+			PreparedStatement pst = quartzConnection.prepareStatement(
+				_getFiredTriggerCheckinsSQL(quartzSql));
+
+			int index = quartzSql.setSchedulerName(pst, 1);
+
+			index = quartzSql.setSchedulerName(pst, index);
+
+			pst.setLong(index++, firedBefore);
+			pst.setLong(index, now);
 
 			try (ResultSet rs = pst.executeQuery()) {
 				while (rs.next()) {
-					FiredTrigger firedTrigger = new FiredTrigger();
-
-					firedTrigger.setSchedulerName(
-						rs.getString(_FIELD_SCHED_NAME));
-					firedTrigger.setEntryId(rs.getString(_FIELD_ENTRY_ID));
-					firedTrigger.setTriggerName(
-						rs.getString(_FIELD_TRIGGER_NAME));
-					firedTrigger.setTriggerGroup(
-						rs.getString(_FIELD_TRIGGER_GROUP));
-					firedTrigger.setInstanceName(
-						rs.getString(_FIELD_INSTANCE_NAME));
-					firedTrigger.setState(rs.getString(_FIELD_STATE));
-
-					firedTrigger.setFiredTime(
-						new Date(rs.getLong(_FIELD_FIRED_TIME)));
-
-					firedTriggersList.add(firedTrigger);
+					rs.getInt(6);
+
+					boolean clustered = !rs.wasNull();
+
+					Date lastCheckinTime = null;
+
+					long checkinTime = rs.getLong(7);
+
+					if (!rs.wasNull()) {
+						lastCheckinTime = new Date(checkinTime);
+					}
+
+					firedTriggerCheckins.add(
+						new FiredTriggerCheckin(
+							rs.getString(1), rs.getString(2), rs.getString(3),
+							rs.getString(4), new Date(rs.getLong(5)),
+							clustered, lastCheckinTime, rs.getLong(8)));
 				}
 			}
-			catch (SQLException sqle) {
-				_log.warn(sqle.getMessage(), sqle);
+		}
+		finally {
+			SchedulerManagerMetrics.record(
+				Metric.QUERY_FIRED_TRIGGER_CHECKINS, startTime,
+				firedTriggerCheckins.size());
+		}
+
+		return firedTriggerCheckins;
+	}
+
+	/**
+	 * Return the columnar snapshot of the fired triggers of the group,
+	 * ordered by fired time. The rows are streamed from the cursor straight
+	 * into the columns of the snapshot.
+	 *
+	 * @param triggerGroup The trigger group, null for all the groups
+	 * @param dictionary   The dictionary of the strings of the snapshot
+	 * @return The snapshot
+	 * @throws SQLException In the case of errors
+	 */
+	public static FiredTriggerSnapshot getFiredTriggerSnapshot(
+			String triggerGroup, StringDictionary dictionary)
+		throws SQLException {
+
+		FiredTriggerSnapshot.Builder builder = new FiredTriggerSnapshot.Builder(
+			dictionary);
+
+		try (FiredTriggerCursor firedTriggerCursor = openFiredTriggerCursor(
+				triggerGroup)) {
+
+			while (firedTriggerCursor.next()) {
+				builder.add(
+					firedTriggerCursor.getSchedulerName(),
+					firedTriggerCursor.getEntryId(),
+					firedTriggerCursor.getTriggerName(),
+					firedTriggerCursor.getTriggerGroup(),
+					firedTriggerCursor.getInstanceName(),
+					firedTriggerCursor.getFiredTime(),
+					firedTriggerCursor.getState());
 			}
 		}
-		catch (SQLException sqle) {
-			_log.warn(sqle.getMessage(), sqle);
+
+		return builder.build();
+	}
+
+	/**
+	 * Return the misfire backlog of every group, with a single query that
+	 * aggregates by group and lag bucket. A trigger is misfired when it is
+	 * waiting and its next fire time is older than the misfire threshold.
+	 * The lag bucket i counts the triggers with lag lower than
+	 * lagBucketBounds[i], the last bucket the triggers with lag greater or
+	 * equal to the last bound.
+	 *
+	 * @param misfireThreshold The misfire threshold in milliseconds
+	 * @param lagBucketBounds  The upper bounds in milliseconds of the lag
+	 *                         buckets, in ascending order
+	 * @param now              The current time
+	 * @return The misfire backlog of the groups with misfired triggers,
+	 *         ordered by group
+	 * @throws SQLException In the case of errors
+	 */
+	public static List<MisfireBacklog> getMisfireBacklogs(
+			long misfireThreshold, long[] lagBucketBounds, long now)
+		throws SQLException {
+
+		List<MisfireBacklog> misfireBacklogs = new ArrayList<>();
+
+		long startTime = System.nanoTime();
+
+		QuartzSql quartzSql = _quartzSql;
+
+		StringBuilder sb = new StringBuilder(
+			512 + lagBucketBounds.length * 32);
+
+		sb.append(_SQL_MISFIRE_BACKLOGS_SELECT);
+		sb.append("CASE");
+
+		for (int i = 0; i < lagBucketBounds.length; i++) {
+			sb.append(" WHEN NEXT_FIRE_TIME > ? THEN ");
+			sb.append(i);
 		}
 
-		return firedTriggersList;
+		sb.append(" ELSE ");
+		sb.append(lagBucketBounds.length);
+		sb.append(" END AS LAG_BUCKET FROM ");
+		sb.append(quartzSql.table(QuartzSql.TABLE_TRIGGERS));
+		sb.append(
+			quartzSql.where(
+				null, "TRIGGER_STATE = 'WAITING' AND NEXT_FIRE_TIME < ?"));
+		sb.append(_SQL_MISFIRE_BACKLOGS_GROUP_BY);
+
+		try (QuartzConnection quartzConnection = QuartzConnection.open()) {
+			PreparedStatement pst = quartzConnection.prepareStatement(
+				sb.toString());
+
+			int index = 1;
+
+			for (long lagBucketBound : lagBucketBounds) {
+				pst.setLong(index++, now - lagBucketBound);
+			}
+
+			index = quartzSql.setSchedulerName(pst, index);
+
+			pst.setLong(index, now - misfireThreshold);
+
+			try (ResultSet rs = pst.executeQuery()) {
+				MisfireBacklog misfireBacklog = null;
+
+				while (rs.next()) {
+					String triggerGroup = rs.getString(1);
+
+					if ((misfireBacklog == null) ||
+						!triggerGroup.equals(
+							misfireBacklog.getTriggerGroup())) {
+
+						misfireBacklog = new MisfireBacklog(
+							triggerGroup, lagBucketBounds.length + 1);
+
+						misfireBacklogs.add(misfireBacklog);
+					}
+
+					misfireBacklog.add(
+						rs.getInt(2), rs.getLong(3), rs.getLong(4));
+				}
+			}
+		}
+		finally {
+			SchedulerManagerMetrics.record(
+				Metric.QUERY_MISFIRE_BACKLOGS, startTime,
+				misfireBacklogs.size());
+		}
+
+		return misfireBacklogs;
 	}
 
-	protected QuartzUtils() {
+	/**
+	 * Return the running jobs of every cluster node, with a single query.
+	 * The nodes registered in QUARTZ_SCHEDULER_STATE are returned also
+	 * when they have no running jobs.
+	 *
+	 * @return The load of the nodes, ordered by instance name
+	 * @throws SQLException In the case of errors
+	 */
+	public static List<NodeLoad> getNodeLoads() throws SQLException {
+		List<NodeLoad> nodeLoads = new ArrayList<>();
+
+		long startTime = System.nanoTime();
+
+		try (QuartzConnection quartzConnection = QuartzConnection.open()) {
+			QuartzSql quartzSql = _quartzSql;
+
+			PreparedStatement pst = quartzConnection.prepareStatement(
+				_getNodeLoadsSQL(quartzSql));
+
+			int index = quartzSql.setSchedulerName(pst, 1);
+
+			quartzSql.setSchedulerName(pst, index);
+
+			try (ResultSet rs = pst.executeQuery()) {
+				while (rs.next()) {
+					Date oldestFiredTime = null;
+
+					long firedTime = rs.getLong(3);
+
+					if (!rs.wasNull()) {
+						oldestFiredTime = new Date(firedTime);
+					}
+
+					nodeLoads.add(
+						new NodeLoad(
+							rs.getString(1), rs.getInt(2), oldestFiredTime));
+				}
+			}
+		}
+		finally {
+			SchedulerManagerMetrics.record(
+				Metric.QUERY_NODE_LOADS, startTime, nodeLoads.size());
+		}
+
+		return nodeLoads;
 	}
 
-	private static Connection _getConnection() {
-		if (Validator.isNotNull(_connection)) {
-			return _connection;
+	/**
+	 * Return the persisted jobs of the group with their trigger, with a
+	 * single query joining the job details with the triggers. Only the
+	 * columns of the jobs list are read; the jobs without trigger are
+	 * returned too (they are unscheduled).
+	 *
+	 * @param groupName The group name, null for all the groups
+	 * @return The persisted jobs, ordered by group name and job name
+	 * @throws SQLException In the case of errors
+	 */
+	public static List<PersistedJob> getPersistedJobs(String groupName)
+		throws SQLException {
+
+		List<PersistedJob> persistedJobs = new ArrayList<>();
+
+		long startTime = System.nanoTime();
+
+		try (QuartzConnection quartzConnection = QuartzConnection.open()) {
+			QuartzSql quartzSql = _quartzSql;
+
+			String predicate = null;
+
+			if (groupName != null) {
+				predicate = "J.JOB_GROUP = ?";
+			}
+
+			PreparedStatement pst = quartzConnection.prepareStatement(
+				_SQL_PERSISTED_JOBS_SELECT +
+					quartzSql.table(QuartzSql.TABLE_JOB_DETAILS) +
+					" J LEFT OUTER JOIN " +
+					quartzSql.table(QuartzSql.TABLE_TRIGGERS) +
+					_SQL_PERSISTED_JOBS_JOIN + quartzSql.where("J", predicate) +
+					" ORDER BY J.JOB_GROUP, J.JOB_NAME");
+
+			int index = quartzSql.setSchedulerName(pst, 1);
+
+			if (groupName != null) {
+				pst.setString(index, groupName);
+			}
+
+			pst.setFetchSize(_PERSISTED_JOBS_FETCH_SIZE);
+
+			try (ResultSet rs = pst.executeQuery()) {
+				while (rs.next()) {
+					persistedJobs.add(
+						new PersistedJob(
+							rs.getString(1), rs.getString(2), rs.getString(3),
+							_getDate(rs, 4), _getDate(rs, 5),
+							_getDate(rs, 6)));
+				}
+			}
 		}
+		finally {
+			SchedulerManagerMetrics.record(
+				Metric.QUERY_PERSISTED_JOBS, startTime, persistedJobs.size());
+		}
+
+		return persistedJobs;
+	}
+
+	/**
+	 * @return The builder of the SQL on the Quartz tables
+	 */
+	public static QuartzSql getQuartzSql() {
+		return _quartzSql;
+	}
+
+	/**
+	 * Return the names of the schedulers that have triggers in the Quartz
+	 * tables, to check the configured scheduler name.
+	 *
+	 * @return The names of the schedulers, ordered by name
+	 * @throws SQLException In the case of errors
+	 */
+	public static List<String> getSchedulerNames() throws SQLException {
+		List<String> schedulerNames = new ArrayList<>();
 
-		try {
-			DataSource dataSource = InfrastructureUtil.getDataSource();
+		long startTime = System.nanoTime();
 
-			_connection = dataSource.getConnection();
+		try (QuartzConnection quartzConnection = QuartzConnection.open()) {
+			QuartzSql quartzSql = _quartzSql;
+
+			PreparedStatement pst = quartzConnection.prepareStatement(
+				"SELECT DISTINCT SCHED_NAME FROM " +
+					quartzSql.table(QuartzSql.TABLE_TRIGGERS) +
+						" ORDER BY SCHED_NAME");
+
+			try (ResultSet rs = pst.executeQuery()) {
+				while (rs.next()) {
+					schedulerNames.add(rs.getString(1));
+				}
+			}
 		}
-		catch (Exception e) {
-			_log.warn(e, e);
+		finally {
+			SchedulerManagerMetrics.record(
+				Metric.QUERY_SCHEDULER_NAMES, startTime,
+				schedulerNames.size());
 		}
 
-		return _connection;
+		return schedulerNames;
 	}
 
-	private static final String _FIELD_ENTRY_ID = "ENTRY_ID";
+	/**
+	 * Open a cursor over the fired triggers of the group, ordered by fired
+	 * time. The cursor owns a connection borrowed from the pool and must be
+	 * closed.
+	 *
+	 * @param triggerGroup The trigger group, null for all the groups
+	 * @return The cursor
+	 * @throws SQLException In the case of errors
+	 */
+	public static FiredTriggerCursor openFiredTriggerCursor(String triggerGroup)
+		throws SQLException {
 
-	private static final String _FIELD_FIRED_TIME = "FIRED_TIME";
+		QuartzConnection quartzConnection = QuartzConnection.open();
 
-	private static final String _FIELD_INSTANCE_NAME = "INSTANCE_NAME";
+		return new FiredTriggerCursor(
+			quartzConnection, _quartzSql, triggerGroup,
+			_FIRED_TRIGGERS_PAGE_SIZE);
+	}
 
-	private static final String _FIELD_SCHED_NAME = "SCHED_NAME";
+	/**
+	 * Open a watcher of the fired triggers of the group, to wait until no
+	 * fired triggers of the group remain. The watcher owns a connection
+	 * borrowed from the pool and must be closed.
+	 *
+	 * @param triggerGroup The trigger group
+	 * @return The watcher
+	 * @throws SQLException In the case of errors
+	 */
+	public static FiredTriggerWatcher openFiredTriggerWatcher(
+			String triggerGroup)
+		throws SQLException {
 
-	private static final String _FIELD_STATE = "STATE";
+		return new FiredTriggerWatcher(
+			QuartzConnection.open(), _quartzSql, triggerGroup);
+	}
 
-	private static final String _FIELD_TRIGGER_GROUP = "TRIGGER_GROUP";
+	/**
+	 * Set the builder of the SQL on the Quartz tables, from the
+	 * configuration.
+	 *
+	 * @param quartzSql The builder of the SQL
+	 */
+	public static void setQuartzSql(QuartzSql quartzSql) {
+		_quartzSql = quartzSql;
+	}
+
+	protected QuartzUtils() {
+	}
+
+	private static String _getFiredTriggerCheckinsSQL(QuartzSql quartzSql) {
+		String schedulerStateTable = quartzSql.table(
+			QuartzSql.TABLE_SCHEDULER_STATE);
+
+		StringBuilder sb = new StringBuilder(1024);
+
+		sb.append("SELECT FT.ENTRY_ID, FT.TRIGGER_NAME, FT.TRIGGER_GROUP, ");
+		sb.append("FT.INSTANCE_NAME, FT.FIRED_TIME, CL.NODES, ");
+		sb.append("SS.LAST_CHECKIN_TIME, SS.CHECKIN_INTERVAL FROM ");
+		sb.append(quartzSql.table(QuartzSql.TABLE_FIRED_TRIGGERS));
+		sb.append(" FT LEFT OUTER JOIN (SELECT SCHED_NAME, COUNT(*) AS ");
+		sb.append("NODES FROM ");
+		sb.append(schedulerStateTable);
+		sb.append(quartzSql.where(null, null));
+		sb.append(" GROUP BY SCHED_NAME) CL ON CL.SCHED_NAME = ");
+		sb.append("FT.SCHED_NAME LEFT OUTER JOIN ");
+		sb.append(schedulerStateTable);
+		sb.append(" SS ON SS.SCHED_NAME = FT.SCHED_NAME AND ");
+		sb.append("SS.INSTANCE_NAME = FT.INSTANCE_NAME");
+		sb.append(
+			quartzSql.where(
+				"FT",
+				"(FT.FIRED_TIME <= ? OR (CL.NODES IS NOT NULL AND " +
+					"(SS.INSTANCE_NAME IS NULL OR SS.LAST_CHECKIN_TIME + " +
+					"SS.CHECKIN_INTERVAL * " +
+					FiredTriggerCheckin.ORPHAN_CHECKIN_INTERVALS + " + " +
+					FiredTriggerCheckin.ORPHAN_GRACE_PERIOD + " < ?)))"));
+		sb.append(" ORDER BY FT.FIRED_TIME");
+
+		return sb.toString();
+	}
+
+	private static Date _getDate(ResultSet rs, int columnIndex)
+		throws SQLException {
+
+		long time = rs.getLong(columnIndex);
+
+		// Quartz writes -1 (or null) when there is no time
+
+		if (rs.wasNull() || (time <= 0)) {
+			return null;
+		}
+
+		return new Date(time);
+	}
+
+	private static Map<String, SortedMap<Integer, String>>
+			_getIndexColumnNames(Connection connection, String tableName)
+		throws SQLException {
+
+		DatabaseMetaData databaseMetaData = connection.getMetaData();
+
+		Map<String, SortedMap<Integer, String>> indexColumnNames =
+			new TreeMap<>();
+
+		// The case of the stored table names depends on the database and
+		// on how the tables were created
+
+		String[] candidateTableNames = {
+			tableName, StringUtil.toUpperCase(tableName),
+			StringUtil.toLowerCase(tableName)
+		};
+
+		for (String candidateTableName : candidateTableNames) {
+			try (ResultSet rs = databaseMetaData.getIndexInfo(
+					connection.getCatalog(), null, candidateTableName, false,
+					true)) {
+
+				while (rs.next()) {
+					String indexName = rs.getString("INDEX_NAME");
+					String columnName = rs.getString("COLUMN_NAME");
+
+					// The statistics of the table have no index name
+
+					if ((indexName == null) || (columnName == null)) {
+						continue;
+					}
+
+					SortedMap<Integer, String> columnNames =
+						indexColumnNames.computeIfAbsent(
+							indexName, key -> new TreeMap<>());
+
+					columnNames.put(
+						(int)rs.getShort("ORDINAL_POSITION"), columnName);
+				}
+			}
+
+			if (!indexColumnNames.isEmpty()) {
+				break;
+			}
+		}
+
+		return indexColumnNames;
+	}
+
+	private static String _getIndexName(
+		Map<String, SortedMap<Integer, String>> indexColumnNames,
+		String[] columnNames) {
+
+		for (Map.Entry<String, SortedMap<Integer, String>> entry :
+				indexColumnNames.entrySet()) {
+
+			Collection<String> leadingColumnNames = entry.getValue().values();
+
+			if (leadingColumnNames.size() < columnNames.length) {
+				continue;
+			}
+
+			Iterator<String> iterator = leadingColumnNames.iterator();
+
+			boolean matches = true;
+
+			for (String columnName : columnNames) {
+				if (!columnName.equalsIgnoreCase(iterator.next())) {
+					matches = false;
 
-	private static final String _FIELD_TRIGGER_NAME = "TRIGGER_NAME";
+					break;
+				}
+			}
+
+			if (matches) {
+				return entry.getKey();
+			}
+		}
+
+		return null;
+	}
 
-	private static final String _SQL_FIRED_JOBS_BY_TRIGGER_GROUP =
-		"SELECT * FROM QUARTZ_FIRED_TRIGGERS WHERE TRIGGER_GROUP = ?";
+	private static String _getNodeLoadsSQL(QuartzSql quartzSql) {
+		StringBuilder sb = new StringBuilder(512);
 
-	private static final String _SQL_FIRED_JOBS_COUNT_BY_TRIGGER_GROUP =
-		"SELECT COUNT(*) FROM QUARTZ_FIRED_TRIGGERS WHERE TRIGGER_GROUP = ?";
+		sb.append("SELECT INSTANCE_NAME, SUM(RUNNING), MIN(FIRED_TIME) FROM ");
+		sb.append("(SELECT INSTANCE_NAME, 1 AS RUNNING, FIRED_TIME FROM ");
+		sb.append(quartzSql.table(QuartzSql.TABLE_FIRED_TRIGGERS));
+		sb.append(quartzSql.where(null, null));
+		sb.append(" UNION ALL SELECT INSTANCE_NAME, 0 AS RUNNING, NULL AS ");
+		sb.append("FIRED_TIME FROM ");
+		sb.append(quartzSql.table(QuartzSql.TABLE_SCHEDULER_STATE));
+		sb.append(quartzSql.where(null, null));
+		sb.append(") NODES GROUP BY INSTANCE_NAME ORDER BY INSTANCE_NAME");
+
+		return sb.toString();
+	}
+
+	private static final int _FIRED_TRIGGERS_PAGE_SIZE = 500;
+
+	private static final String _FIELD_INSTANCE_NAME = "INSTANCE_NAME";
+
+	private static final String _FIELD_TRIGGER_GROUP = "TRIGGER_GROUP";
 
-	private static final String _SQL_FIRED_JOBS_COUNT_BY_TRIGGER_NAME =
-		"SELECT COUNT(*) FROM QUARTZ_FIRED_TRIGGERS WHERE TRIGGER_NAME = ?";
+	private static final IndexCheck[] _INDEX_CHECKS = {
+		new IndexCheck(
+			QuartzSql.TABLE_FIRED_TRIGGERS,
+			new String[] {"SCHED_NAME", "TRIGGER_GROUP"},
+			"jobsIsFired, listJobsInProgress, awaitIdle, drain", null),
+		new IndexCheck(
+			QuartzSql.TABLE_FIRED_TRIGGERS,
+			new String[] {"SCHED_NAME", "TRIGGER_NAME"}, "jobIsFired", null),
+		new IndexCheck(
+			QuartzSql.TABLE_FIRED_TRIGGERS,
+			new String[] {"SCHED_NAME", "INSTANCE_NAME"}, "nodes, stuck",
+			null),
+		new IndexCheck(
+			QuartzSql.TABLE_TRIGGERS,
+			new String[] {"SCHED_NAME", "TRIGGER_STATE", "NEXT_FIRE_TIME"},
+			"misfires", null),
+		new IndexCheck(
+			QuartzSql.TABLE_JOB_DETAILS,
+			new String[] {"SCHED_NAME", "JOB_GROUP"},
+			"list --storage PERSISTED", null),
+		new IndexCheck(
+			QuartzSql.TABLE_TRIGGERS,
+			new String[] {"SCHED_NAME", "JOB_NAME", "JOB_GROUP"},
+			"list --storage PERSISTED", null)
+	};
+
+	private static final int _PERSISTED_JOBS_FETCH_SIZE = 1000;
+
+	private static final String _SQL_MISFIRE_BACKLOGS_GROUP_BY =
+		") MISFIRES GROUP BY TRIGGER_GROUP, LAG_BUCKET ORDER BY " +
+			"TRIGGER_GROUP, LAG_BUCKET";
+
+	private static final String _SQL_MISFIRE_BACKLOGS_SELECT =
+		"SELECT TRIGGER_GROUP, LAG_BUCKET, COUNT(*), MIN(NEXT_FIRE_TIME) " +
+			"FROM (SELECT TRIGGER_GROUP, NEXT_FIRE_TIME, ";
+
+	private static final String _SQL_PERSISTED_JOBS_JOIN =
+		" T ON T.SCHED_NAME = J.SCHED_NAME AND T.JOB_NAME = J.JOB_NAME AND " +
+			"T.JOB_GROUP = J.JOB_GROUP";
+
+	private static final String _SQL_PERSISTED_JOBS_SELECT =
+		"SELECT J.JOB_NAME, J.JOB_GROUP, T.TRIGGER_STATE, T.START_TIME, " +
+			"T.PREV_FIRE_TIME, T.NEXT_FIRE_TIME FROM ";
+
+	private static final String _SQL_SELECT_COUNT = "SELECT COUNT(*) FROM ";
 
 	private static final Log _log = LogFactoryUtil.getLog(QuartzUtils.class);
 
-	private static Connection _connection = null;
+	private static volatile QuartzSql _quartzSql = new QuartzSql(
+		QuartzSql.DEFAULT_TABLE_PREFIX, QuartzSql.DEFAULT_SCHEDULER_NAME,
+		QuartzDialect.AUTO);
 
 }
\ No newline at end of file
@@ -0,0 +1,212 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util;
+
+import com.liferay.petra.string.StringPool;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.ExecutionStats;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.util.JobNameMatcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The running time after which a job is long running. The threshold of a
+ * job is, in order: the one configured for the first pattern that matches
+ * the job name, the one learned from its execution durations (a multiple of
+ * the 95th percentile, when there are enough runs), the default one. The
+ * learned thresholds are never lower than a multiple of the resolution of
+ * the sampled durations.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class RunningTimeThresholds {
+
+	/**
+	 * @param defaultThreshold    The default threshold in milliseconds
+	 * @param jobThresholds       The thresholds of the jobs, as
+	 *                            <code>pattern=milliseconds</code>, where the
+	 *                            pattern is a glob or a regular expression
+	 *                            prefixed with <code>regex:</code>
+	 * @param learnedFactor       The multiple of the 95th percentile of the
+	 *                            durations, 0 to not learn the thresholds
+	 * @param firedTriggerSampler The sampler of the execution durations, null
+	 *                            to not learn the thresholds
+	 * @throws IllegalArgumentException If a job threshold is not valid
+	 */
+	public RunningTimeThresholds(
+		long defaultThreshold, String[] jobThresholds, double learnedFactor,
+		FiredTriggerSampler firedTriggerSampler) {
+
+		_defaultThreshold = defaultThreshold;
+
+		if (jobThresholds != null) {
+			for (String jobThreshold : jobThresholds) {
+				if ((jobThreshold == null) || jobThreshold.trim().isEmpty()) {
+					continue;
+				}
+
+				int index = jobThreshold.lastIndexOf(StringPool.EQUAL);
+
+				if (index <= 0) {
+					throw new IllegalArgumentException(
+						"Invalid job threshold " + jobThreshold +
+							", the format is pattern=milliseconds");
+				}
+
+				long threshold;
+
+				try {
+					threshold = Long.parseLong(
+						jobThreshold.substring(index + 1).trim());
+				}
+				catch (NumberFormatException nfe) {
+					throw new IllegalArgumentException(
+						"Invalid job threshold " + jobThreshold +
+							", the format is pattern=milliseconds",
+						nfe);
+				}
+
+				_jobNameMatchers.add(
+					JobNameMatcher.compile(
+						jobThreshold.substring(0, index).trim()));
+				_jobThresholds.add(threshold);
+			}
+		}
+
+		if ((learnedFactor > 0) && (firedTriggerSampler != null)) {
+			long resolution = firedTriggerSampler.getInterval();
+
+			for (ExecutionStats executionStats :
+					firedTriggerSampler.getExecutionStats()) {
+
+				if (executionStats.getRunCount() < _MIN_LEARNED_RUNS) {
+					continue;
+				}
+
+				_learnedThresholds.put(
+					_getKey(
+						executionStats.getTriggerName(),
+						executionStats.getTriggerGroup()),
+					(long)Math.ceil(
+						Math.max(executionStats.getPercentile(95), resolution) *
+							learnedFactor));
+			}
+		}
+	}
+
+	/**
+	 * @return The default threshold in milliseconds
+	 */
+	public long getDefaultThreshold() {
+		return _defaultThreshold;
+	}
+
+	/**
+	 * @return The lowest threshold of all the jobs, the running jobs fired
+	 *         after now minus this threshold can not be long running
+	 */
+	public long getMinThreshold() {
+		long minThreshold = _defaultThreshold;
+
+		for (long threshold : _jobThresholds) {
+			minThreshold = Math.min(minThreshold, threshold);
+		}
+
+		for (long threshold : _learnedThresholds.values()) {
+			minThreshold = Math.min(minThreshold, threshold);
+		}
+
+		return minThreshold;
+	}
+
+	/**
+	 * @param triggerName  The job name
+	 * @param triggerGroup The group name
+	 * @return The threshold of the job
+	 */
+	public Threshold getThreshold(String triggerName, String triggerGroup) {
+		for (int i = 0; i < _jobNameMatchers.size(); i++) {
+			if (_jobNameMatchers.get(i).test(triggerName)) {
+				return new Threshold(_jobThresholds.get(i), Source.CONFIGURED);
+			}
+		}
+
+		Long learnedThreshold = _learnedThresholds.get(
+			_getKey(triggerName, triggerGroup));
+
+		if (learnedThreshold != null) {
+			return new Threshold(learnedThreshold, Source.LEARNED);
+		}
+
+		return new Threshold(_defaultThreshold, Source.DEFAULT);
+	}
+
+	/**
+	 * Where the threshold of a job comes from.
+	 */
+	public enum Source {
+
+		CONFIGURED, DEFAULT, LEARNED
+
+	}
+
+	/**
+	 * The threshold of a job.
+	 */
+	public static class Threshold {
+
+		public long getMillis() {
+			return _millis;
+		}
+
+		public Source getSource() {
+			return _source;
+		}
+
+		private Threshold(long millis, Source source) {
+			_millis = millis;
+			_source = source;
+		}
+
+		private final long _millis;
+		private final Source _source;
+
+	}
+
+	private static String _getKey(String triggerName, String triggerGroup) {
+		return triggerGroup + StringPool.SLASH + triggerName;
+	}
+
+	private static final int _MIN_LEARNED_RUNS = 10;
+
+	private final long _defaultThreshold;
+	private final List<Predicate<String>> _jobNameMatchers = new ArrayList<>();
+	private final List<Long> _jobThresholds = new ArrayList<>();
+	private final Map<String, Long> _learnedThresholds = new HashMap<>();
+
+}
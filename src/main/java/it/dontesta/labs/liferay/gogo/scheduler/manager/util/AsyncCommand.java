@@ -0,0 +1,204 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Date;
+import java.util.concurrent.Future;
+
+/**
+ * Command run in background by the {@link CommandExecutor}. The output of
+ * the command is kept in memory (up to a max size) until the result is
+ * collected or evicted.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class AsyncCommand {
+
+	public String getCommandLine() {
+		return _commandLine;
+	}
+
+	public Date getEndDate() {
+		if (_endTime == 0) {
+			return null;
+		}
+
+		return new Date(_endTime);
+	}
+
+	public String getErrorMessage() {
+		return _errorMessage;
+	}
+
+	public long getId() {
+		return _id;
+	}
+
+
+	public Date getStartDate() {
+		return new Date(_startTime);
+	}
+
+	public Status getStatus() {
+		return _status;
+	}
+
+	public boolean isDone() {
+		if (_status != Status.RUNNING) {
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Write the UTF-8 output of the command written so far.
+	 *
+	 * @param outputStream The stream where the output is written
+	 * @throws IOException In the case of errors
+	 */
+	public void writeOutput(OutputStream outputStream) throws IOException {
+		synchronized (_outputStream) {
+			_outputStream.writeTo(outputStream);
+		}
+	}
+
+	/**
+	 * Status of the command.
+	 */
+	public enum Status {
+
+		CANCELLED, COMPLETED, FAILED, RUNNING, TIMED_OUT
+
+	}
+
+	protected AsyncCommand(long id, String commandLine, int maxOutputSize) {
+		_id = id;
+		_commandLine = commandLine;
+		_maxOutputSize = maxOutputSize;
+
+		_startTime = System.currentTimeMillis();
+	}
+
+	protected CancellationScope getCancellationScope() {
+		return _cancellationScope;
+	}
+
+	protected Future<?> getFuture() {
+		return _future;
+	}
+
+	/**
+	 * @return The stream where the UTF-8 output of the command is written
+	 */
+	protected OutputStream getOutputStream() {
+		return _cappedOutputStream;
+	}
+
+	protected void setFuture(Future<?> future) {
+		_future = future;
+	}
+
+	/**
+	 * Set the final status of the command, unless already done.
+	 *
+	 * @param status       The final status
+	 * @param errorMessage The error message, null if none
+	 * @return true if the status was set
+	 */
+	protected synchronized boolean setDone(
+		Status status, String errorMessage) {
+
+		if (isDone()) {
+			return false;
+		}
+
+		_errorMessage = errorMessage;
+		_endTime = System.currentTimeMillis();
+		_status = status;
+
+		return true;
+	}
+
+	private class CappedOutputStream extends OutputStream {
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) {
+			synchronized (_outputStream) {
+				if (_truncated) {
+					return;
+				}
+
+				int available = _maxOutputSize - _outputStream.size();
+
+				if (length <= available) {
+					_outputStream.write(bytes, offset, length);
+
+					return;
+				}
+
+				_outputStream.write(bytes, offset, available);
+
+				byte[] message = _TRUNCATED_MESSAGE.getBytes(
+					StandardCharsets.UTF_8);
+
+				_outputStream.write(message, 0, message.length);
+
+				_truncated = true;
+			}
+		}
+
+		@Override
+		public void write(int b) {
+			write(new byte[] {(byte)b}, 0, 1);
+		}
+
+		private boolean _truncated;
+
+	}
+
+	private static final String _TRUNCATED_MESSAGE =
+		System.lineSeparator() + "... output truncated";
+
+	private final OutputStream _cappedOutputStream = new CappedOutputStream();
+	private final CancellationScope _cancellationScope =
+		new CancellationScope();
+	private final String _commandLine;
+	private volatile long _endTime;
+	private volatile String _errorMessage;
+	private volatile Future<?> _future;
+	private final long _id;
+	private final int _maxOutputSize;
+	private final ByteArrayOutputStream _outputStream =
+		new ByteArrayOutputStream();
+	private final long _startTime;
+	private volatile Status _status = Status.RUNNING;
+
+}
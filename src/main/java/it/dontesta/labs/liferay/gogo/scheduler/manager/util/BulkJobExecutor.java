@@ -0,0 +1,141 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.JobKey;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.JobOperationResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Execute an operation on many jobs with a bounded pool of workers. A
+ * failure on a job does not abort the operation on the other jobs, every
+ * job gets its own result.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class BulkJobExecutor {
+
+	/**
+	 * @param parallelism The max number of jobs processed at the same time
+	 */
+	public BulkJobExecutor(int parallelism) {
+		_parallelism = Math.max(1, parallelism);
+	}
+
+	/**
+	 * Execute the operation on the jobs.
+	 *
+	 * @param jobKeys      The jobs
+	 * @param jobOperation The operation
+	 * @return The results, in the same order of the jobs
+	 * @throws InterruptedException If interrupted while waiting the workers
+	 */
+	public List<JobOperationResult> execute(
+			List<JobKey> jobKeys, JobOperation jobOperation)
+		throws InterruptedException {
+
+		ExecutorService executorService = Executors.newFixedThreadPool(
+			Math.min(_parallelism, Math.max(1, jobKeys.size())),
+			_threadFactory);
+
+		try {
+			List<Future<JobOperationResult>> futures = new ArrayList<>(
+				jobKeys.size());
+
+			for (JobKey jobKey : jobKeys) {
+				futures.add(
+					executorService.submit(
+						() -> _execute(jobKey, jobOperation)));
+			}
+
+			List<JobOperationResult> jobOperationResults = new ArrayList<>(
+				jobKeys.size());
+
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					jobOperationResults.add(futures.get(i).get());
+				}
+				catch (ExecutionException ee) {
+					jobOperationResults.add(
+						new JobOperationResult(
+							jobKeys.get(i), ee.getCause(), 0));
+				}
+			}
+
+			return jobOperationResults;
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	/**
+	 * Operation executed on a job.
+	 */
+	@FunctionalInterface
+	public interface JobOperation {
+
+		public void execute(JobKey jobKey) throws Exception;
+
+	}
+
+	private JobOperationResult _execute(
+		JobKey jobKey, JobOperation jobOperation) {
+
+		long start = System.nanoTime();
+
+		try {
+			jobOperation.execute(jobKey);
+
+			return new JobOperationResult(
+				jobKey, null, System.nanoTime() - start);
+		}
+		catch (Exception e) {
+			return new JobOperationResult(jobKey, e, System.nanoTime() - start);
+		}
+	}
+
+	private static final AtomicInteger _threadCounter = new AtomicInteger();
+
+	private static final ThreadFactory _threadFactory = runnable -> {
+		Thread thread = new Thread(
+			runnable,
+			"scheduler-manager-bulk-" + _threadCounter.incrementAndGet());
+
+		thread.setDaemon(true);
+
+		return thread;
+	};
+
+	private final int _parallelism;
+
+}
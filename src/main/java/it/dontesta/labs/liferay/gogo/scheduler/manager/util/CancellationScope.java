@@ -0,0 +1,170 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Track the JDBC statements opened by a command, so that they can be
+ * cancelled from another thread when the command times out or is
+ * interrupted. The scope is bound to the thread that runs the command and
+ * knows the deadline of the command, used as the query timeout.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class CancellationScope {
+
+	/**
+	 * @return The scope of the current thread, null if none
+	 */
+	public static CancellationScope getCurrent() {
+		return _cancellationScope.get();
+	}
+
+	/**
+	 * Register the statement in the scope of the current thread, if any.
+	 *
+	 * @param statement The statement
+	 * @throws SQLException If the scope was already cancelled
+	 */
+	public static void register(Statement statement) throws SQLException {
+		CancellationScope cancellationScope = _cancellationScope.get();
+
+		if (cancellationScope != null) {
+			cancellationScope._register(statement);
+		}
+	}
+
+	/**
+	 * Remove the statement from the scope of the current thread, if any.
+	 *
+	 * @param statement The statement
+	 */
+	public static void unregister(Statement statement) {
+		CancellationScope cancellationScope = _cancellationScope.get();
+
+		if (cancellationScope != null) {
+			cancellationScope._statements.remove(statement);
+		}
+	}
+
+	/**
+	 * Cancel the statements registered in the scope. The statements
+	 * registered after the cancellation are rejected.
+	 */
+	public void cancel() {
+		_cancelled = true;
+
+		Statement[] statements;
+
+		synchronized (_statements) {
+			statements = _statements.toArray(new Statement[0]);
+		}
+
+		for (Statement statement : statements) {
+			try {
+				statement.cancel();
+			}
+			catch (SQLException sqle) {
+				if (_log.isDebugEnabled()) {
+					_log.debug(sqle.getMessage(), sqle);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return the time left to the command in seconds, rounded up, to be
+	 * used as the query timeout of its statements.
+	 *
+	 * @return The seconds left (at least 1), 0 if the command has no timeout
+	 */
+	public int getRemainingSeconds() {
+		if (_deadline == 0) {
+			return 0;
+		}
+
+		long remaining = _deadline - System.currentTimeMillis();
+
+		return (int)Math.max(1, (remaining + 999) / 1000);
+	}
+
+	/**
+	 * @return true if the scope was cancelled
+	 */
+	public boolean isCancelled() {
+		return _cancelled;
+	}
+
+	/**
+	 * Set the timeout of the command, from now.
+	 *
+	 * @param timeout The timeout in milliseconds, 0 for none
+	 */
+	void setTimeout(long timeout) {
+		if (timeout > 0) {
+			_deadline = System.currentTimeMillis() + timeout;
+		}
+		else {
+			_deadline = 0;
+		}
+	}
+
+	static void bind(CancellationScope cancellationScope) {
+		if (cancellationScope == null) {
+			_cancellationScope.remove();
+		}
+		else {
+			_cancellationScope.set(cancellationScope);
+		}
+	}
+
+	private void _register(Statement statement) throws SQLException {
+		if (_cancelled) {
+			throw new SQLException("The command was cancelled");
+		}
+
+		_statements.add(statement);
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		CancellationScope.class);
+
+	private static final ThreadLocal<CancellationScope> _cancellationScope =
+		new ThreadLocal<>();
+
+	private volatile boolean _cancelled;
+	private volatile long _deadline;
+	private final Set<Statement> _statements = Collections.synchronizedSet(
+		Collections.newSetFromMap(new IdentityHashMap<>()));
+
+}
@@ -0,0 +1,482 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.util.Console;
+
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import java.lang.reflect.Method;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Run the commands off the Gogo session thread, so that a slow call to the
+ * scheduler engine or to the database can be bounded by a timeout and
+ * interrupted with Ctrl-C. On timeout or interruption the running JDBC
+ * statements of the command are cancelled too (see
+ * {@link CancellationScope}).
+ *
+ * <p>
+ * The commands run on virtual threads when the runtime supports them (Java
+ * 21+), otherwise on a bounded pool of daemon threads. The output of a
+ * command is streamed back to the session thread through a bounded queue
+ * and written to the output of the session.
+ * </p>
+ *
+ * <p>
+ * The commands can also be submitted in background: the output is kept in
+ * memory and can be collected later by the id of the command.
+ * </p>
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class CommandExecutor {
+
+	/**
+	 * @param maxAsyncCommands The max number of background commands kept
+	 */
+	public CommandExecutor(int maxAsyncCommands) {
+		_maxAsyncCommands = Math.max(1, maxAsyncCommands);
+
+		_executorService = _createExecutorService();
+		_scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
+			runnable -> _newThread(runnable, "scheduler-manager-timeout"));
+	}
+
+	/**
+	 * Run the command and wait for its completion, forwarding its output to
+	 * the print stream of the calling thread.
+	 *
+	 * @param callable The command
+	 * @param timeout  The timeout in milliseconds, 0 for none
+	 * @return The result of the command
+	 * @throws Exception The exception thrown by the command, a
+	 *         TimeoutException on timeout or an InterruptedException when the
+	 *         calling thread is interrupted
+	 */
+	public <T> T call(Callable<T> callable, long timeout) throws Exception {
+		PrintStream printStream = Console.getPrintStream();
+
+		BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(
+			_OUTPUT_QUEUE_CAPACITY);
+		CancellationScope cancellationScope = new CancellationScope();
+
+		cancellationScope.setTimeout(timeout);
+
+		ClassLoader contextClassLoader =
+			Thread.currentThread().getContextClassLoader();
+
+		Future<T> future = _executorService.submit(
+			() -> _call(
+				callable, contextClassLoader, new QueueOutputStream(queue),
+				cancellationScope));
+
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(
+			timeout);
+
+		try {
+			while (true) {
+				byte[] bytes = queue.poll(
+					_POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+				if (bytes == _EOF) {
+					break;
+				}
+
+				if (bytes != null) {
+					printStream.write(bytes, 0, bytes.length);
+					printStream.flush();
+
+					continue;
+				}
+
+				if ((timeout > 0) && (System.nanoTime() - deadline > 0)) {
+					_cancel(future, cancellationScope);
+
+					throw new TimeoutException(
+						"The command did not complete in " + timeout +
+							" ms and was cancelled");
+				}
+			}
+		}
+		catch (InterruptedException ie) {
+			_cancel(future, cancellationScope);
+
+			throw ie;
+		}
+		finally {
+			printStream.flush();
+		}
+
+		try {
+			return future.get();
+		}
+		catch (ExecutionException ee) {
+			Throwable cause = ee.getCause();
+
+			if (cause instanceof Exception) {
+				throw (Exception)cause;
+			}
+
+			throw ee;
+		}
+	}
+
+	/**
+	 * Cancel a background command.
+	 *
+	 * @param id The id of the command
+	 * @return The command, null if not found
+	 */
+	public AsyncCommand cancel(long id) {
+		AsyncCommand asyncCommand = getAsyncCommand(id);
+
+		if ((asyncCommand != null) &&
+			asyncCommand.setDone(AsyncCommand.Status.CANCELLED, null)) {
+
+			_cancel(
+				asyncCommand.getFuture(), asyncCommand.getCancellationScope());
+		}
+
+		return asyncCommand;
+	}
+
+	public AsyncCommand getAsyncCommand(long id) {
+		synchronized (_asyncCommands) {
+			return _asyncCommands.get(id);
+		}
+	}
+
+	/**
+	 * @return The background commands, the oldest first
+	 */
+	public List<AsyncCommand> getAsyncCommands() {
+		synchronized (_asyncCommands) {
+			return new ArrayList<>(_asyncCommands.values());
+		}
+	}
+
+	/**
+	 * Remove a completed background command.
+	 *
+	 * @param id The id of the command
+	 * @return The command removed, null if not found or still running
+	 */
+	public AsyncCommand removeAsyncCommand(long id) {
+		synchronized (_asyncCommands) {
+			AsyncCommand asyncCommand = _asyncCommands.get(id);
+
+			if ((asyncCommand == null) || !asyncCommand.isDone()) {
+				return null;
+			}
+
+			return _asyncCommands.remove(id);
+		}
+	}
+
+	/**
+	 * @param maxAsyncCommands The max number of background commands kept
+	 */
+	public void setMaxAsyncCommands(int maxAsyncCommands) {
+		_maxAsyncCommands = Math.max(1, maxAsyncCommands);
+	}
+
+	/**
+	 * Cancel the running commands and stop the threads.
+	 */
+	public void shutdown() {
+		for (AsyncCommand asyncCommand : getAsyncCommands()) {
+			cancel(asyncCommand.getId());
+		}
+
+		_scheduledExecutorService.shutdownNow();
+		_executorService.shutdownNow();
+	}
+
+	/**
+	 * Run the command in background.
+	 *
+	 * @param commandLine The command line, to show in the list of commands
+	 * @param callable    The command
+	 * @param timeout     The timeout in milliseconds, 0 for none
+	 * @return The background command
+	 */
+	public AsyncCommand submit(
+		String commandLine, Callable<?> callable, long timeout) {
+
+		AsyncCommand asyncCommand = new AsyncCommand(
+			_idCounter.incrementAndGet(), commandLine, _MAX_OUTPUT_SIZE);
+
+		asyncCommand.getCancellationScope().setTimeout(timeout);
+
+		synchronized (_asyncCommands) {
+			_evictAsyncCommands();
+
+			_asyncCommands.put(asyncCommand.getId(), asyncCommand);
+		}
+
+		ClassLoader contextClassLoader =
+			Thread.currentThread().getContextClassLoader();
+
+		try {
+			asyncCommand.setFuture(
+				_executorService.submit(
+					() -> _run(asyncCommand, callable, contextClassLoader)));
+		}
+		catch (RuntimeException re) {
+			synchronized (_asyncCommands) {
+				_asyncCommands.remove(asyncCommand.getId());
+			}
+
+			throw re;
+		}
+
+		if (timeout > 0) {
+			_scheduledExecutorService.schedule(
+				() -> _timeout(asyncCommand, timeout), timeout,
+				TimeUnit.MILLISECONDS);
+		}
+
+		return asyncCommand;
+	}
+
+	private static ExecutorService _createExecutorService() {
+		try {
+			Method method = Executors.class.getMethod(
+				"newVirtualThreadPerTaskExecutor");
+
+			return (ExecutorService)method.invoke(null);
+		}
+		catch (ReflectiveOperationException roe) {
+			if (_log.isDebugEnabled()) {
+				_log.debug(
+					"Virtual threads are not available, using a pool of " +
+						"platform threads");
+			}
+		}
+
+		return new ThreadPoolExecutor(
+			0, _MAX_THREADS, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+			runnable -> _newThread(
+				runnable,
+				"scheduler-manager-command-" +
+					_threadCounter.incrementAndGet()));
+	}
+
+	private static Thread _newThread(Runnable runnable, String name) {
+		Thread thread = new Thread(runnable, name);
+
+		thread.setDaemon(true);
+
+		return thread;
+	}
+
+	private <T> T _call(
+			Callable<T> callable, ClassLoader contextClassLoader,
+			QueueOutputStream queueOutputStream,
+			CancellationScope cancellationScope)
+		throws Exception {
+
+		Thread.currentThread().setContextClassLoader(contextClassLoader);
+		CancellationScope.bind(cancellationScope);
+
+		try (Console.Output output = Console.open(queueOutputStream)) {
+			return callable.call();
+		}
+		finally {
+			CancellationScope.bind(null);
+
+			queueOutputStream.close();
+		}
+	}
+
+	private void _cancel(
+		Future<?> future, CancellationScope cancellationScope) {
+
+		cancellationScope.cancel();
+
+		if (future != null) {
+			future.cancel(true);
+		}
+	}
+
+	private void _evictAsyncCommands() {
+		Iterator<AsyncCommand> iterator = _asyncCommands.values().iterator();
+
+		while ((_asyncCommands.size() >= _maxAsyncCommands) &&
+			   iterator.hasNext()) {
+
+			AsyncCommand asyncCommand = iterator.next();
+
+			if (asyncCommand.isDone()) {
+				iterator.remove();
+			}
+		}
+	}
+
+	private Void _run(
+		AsyncCommand asyncCommand, Callable<?> callable,
+		ClassLoader contextClassLoader) {
+
+		Thread.currentThread().setContextClassLoader(contextClassLoader);
+		CancellationScope.bind(asyncCommand.getCancellationScope());
+
+		AsyncCommand.Status status = AsyncCommand.Status.COMPLETED;
+		String message = null;
+
+		try (Console.Output output = Console.open(
+				asyncCommand.getOutputStream())) {
+
+			callable.call();
+		}
+		catch (CancellationException | InterruptedException e) {
+			status = AsyncCommand.Status.CANCELLED;
+		}
+		catch (Exception e) {
+			if (_log.isDebugEnabled()) {
+				_log.debug(e.getMessage(), e);
+			}
+
+			status = AsyncCommand.Status.FAILED;
+			message = e.getMessage();
+		}
+		finally {
+			CancellationScope.bind(null);
+		}
+
+		// The command is marked as done only after the output is closed, so
+		// that the results command never reads a partial buffered output
+
+		asyncCommand.setDone(status, message);
+
+		return null;
+	}
+
+	private void _timeout(AsyncCommand asyncCommand, long timeout) {
+		if (asyncCommand.setDone(
+				AsyncCommand.Status.TIMED_OUT,
+				"The command did not complete in " + timeout +
+					" ms and was cancelled")) {
+
+			_cancel(
+				asyncCommand.getFuture(), asyncCommand.getCancellationScope());
+		}
+	}
+
+	/**
+	 * Output stream that hands the bytes to the session thread. The writer
+	 * blocks when the queue is full, so a slow terminal slows the command
+	 * down instead of filling the memory.
+	 */
+	private static class QueueOutputStream extends OutputStream {
+
+		@Override
+		public void close() throws InterruptedIOException {
+			_put(_EOF);
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length)
+			throws InterruptedIOException {
+
+			byte[] chunk = new byte[length];
+
+			System.arraycopy(bytes, offset, chunk, 0, length);
+
+			_put(chunk);
+		}
+
+		@Override
+		public void write(int b) throws InterruptedIOException {
+			_put(new byte[] {(byte)b});
+		}
+
+		private QueueOutputStream(BlockingQueue<byte[]> queue) {
+			_queue = queue;
+		}
+
+		private void _put(byte[] bytes) throws InterruptedIOException {
+			try {
+				_queue.put(bytes);
+			}
+			catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+
+				throw new InterruptedIOException();
+			}
+		}
+
+		private final BlockingQueue<byte[]> _queue;
+
+	}
+
+	private static final byte[] _EOF = new byte[0];
+
+	private static final int _MAX_OUTPUT_SIZE = 4 * 1024 * 1024;
+
+	private static final int _MAX_THREADS = 16;
+
+	private static final int _OUTPUT_QUEUE_CAPACITY = 64;
+
+	private static final long _POLL_INTERVAL_MILLIS = 100;
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		CommandExecutor.class);
+
+	private static final AtomicInteger _threadCounter = new AtomicInteger();
+
+	private final Map<Long, AsyncCommand> _asyncCommands =
+		new LinkedHashMap<>();
+	private final ExecutorService _executorService;
+	private final AtomicLong _idCounter = new AtomicLong();
+	private volatile int _maxAsyncCommands;
+	private final ScheduledExecutorService _scheduledExecutorService;
+
+}
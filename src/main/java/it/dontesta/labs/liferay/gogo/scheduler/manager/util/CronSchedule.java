@@ -0,0 +1,514 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import java.util.BitSet;
+import java.util.Locale;
+
+/**
+ * The fire times of a Quartz cron expression (seconds, minutes, hours, day
+ * of month, month, day of week and the optional year), including the
+ * special characters L, W, LW and #. The next fire time is found field by
+ * field, jumping to the next allowed value of the first field that does not
+ * match, instead of testing every second. The fire times inside the same
+ * minute are resolved from the allowed seconds only. Instances are not
+ * thread safe.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class CronSchedule implements FireTimeSchedule {
+
+	/**
+	 * @param  expression The cron expression
+	 * @param  zoneId     The time zone of the expression
+	 * @return The schedule of the cron expression
+	 * @throws IllegalArgumentException If the cron expression is not valid
+	 *         or not supported
+	 */
+	public static CronSchedule parse(String expression, ZoneId zoneId) {
+		String[] fields = expression.trim().toUpperCase(
+			Locale.ROOT
+		).split("\\s+");
+
+		if ((fields.length < 6) || (fields.length > 7)) {
+			throw new IllegalArgumentException(
+				"Invalid cron expression " + expression +
+					", 6 or 7 fields are expected");
+		}
+
+		try {
+			return new CronSchedule(fields, zoneId);
+		}
+		catch (RuntimeException re) {
+			throw new IllegalArgumentException(
+				"Invalid cron expression " + expression + ": " +
+					re.getMessage(),
+				re);
+		}
+	}
+
+	@Override
+	public long getNextFireTime(long time) {
+		if ((time >= _minuteStartTime) && (time < (_minuteStartTime + 60000))) {
+			int second = _seconds.nextSetBit(
+				(int)((time - _minuteStartTime) / 1000) + 1);
+
+			if ((second >= 0) && (second < 60)) {
+				return _minuteStartTime + second * 1000L;
+			}
+		}
+
+		LocalDateTime localDateTime = LocalDateTime.ofInstant(
+			Instant.ofEpochSecond(Math.floorDiv(time, 1000) + 1), _zoneId);
+
+		for (int i = 0; i < _MAX_ITERATIONS; i++) {
+			int year = localDateTime.getYear();
+
+			if (year > _MAX_YEAR) {
+				return Long.MAX_VALUE;
+			}
+
+			if (!_years.get(year)) {
+				int nextYear = _years.nextSetBit(year);
+
+				if (nextYear < 0) {
+					return Long.MAX_VALUE;
+				}
+
+				localDateTime = LocalDateTime.of(nextYear, 1, 1, 0, 0);
+
+				continue;
+			}
+
+			LocalDate localDate = localDateTime.toLocalDate();
+
+			int month = localDateTime.getMonthValue();
+
+			if (!_months.get(month)) {
+				int nextMonth = _months.nextSetBit(month);
+
+				if (nextMonth < 0) {
+					localDateTime = LocalDateTime.of(year + 1, 1, 1, 0, 0);
+				}
+				else {
+					localDateTime = LocalDateTime.of(year, nextMonth, 1, 0, 0);
+				}
+
+				continue;
+			}
+
+			if (!_matchesDay(localDate)) {
+				localDateTime = localDate.plusDays(1).atStartOfDay();
+
+				continue;
+			}
+
+			int hour = localDateTime.getHour();
+
+			if (!_hours.get(hour)) {
+				int nextHour = _hours.nextSetBit(hour);
+
+				if (nextHour < 0) {
+					localDateTime = localDate.plusDays(1).atStartOfDay();
+				}
+				else {
+					localDateTime = localDate.atTime(nextHour, 0);
+				}
+
+				continue;
+			}
+
+			int minute = localDateTime.getMinute();
+
+			if (!_minutes.get(minute)) {
+				int nextMinute = _minutes.nextSetBit(minute);
+
+				if (nextMinute < 0) {
+					localDateTime = localDate.atTime(hour, 0).plusHours(1);
+				}
+				else {
+					localDateTime = localDate.atTime(hour, nextMinute);
+				}
+
+				continue;
+			}
+
+			int second = _seconds.nextSetBit(localDateTime.getSecond());
+
+			if (second < 0) {
+				localDateTime = localDate.atTime(hour, minute).plusMinutes(1);
+
+				continue;
+			}
+
+			long fireTime = localDate.atTime(
+				hour, minute, second
+			).atZone(
+				_zoneId
+			).toInstant(
+			).toEpochMilli();
+
+			if (fireTime <= time) {
+
+				// The repeated local time at the end of the daylight saving
+				// time
+
+				localDateTime = localDate.atTime(
+					hour, minute, second
+				).plusSeconds(1);
+
+				continue;
+			}
+
+			_minuteStartTime = fireTime - second * 1000L;
+
+			return fireTime;
+		}
+
+		return Long.MAX_VALUE;
+	}
+
+	private CronSchedule(String[] fields, ZoneId zoneId) {
+		_zoneId = zoneId;
+
+		_seconds = _parseField(fields[0], 0, 59, null, 0);
+		_minutes = _parseField(fields[1], 0, 59, null, 0);
+		_hours = _parseField(fields[2], 0, 23, null, 0);
+		_months = _parseField(fields[4], 1, 12, _MONTH_NAMES, 1);
+
+		if (fields.length == 7) {
+			_years = _parseField(fields[6], _MIN_YEAR, _MAX_YEAR, null, 0);
+		}
+		else {
+			_years = _parseField("*", _MIN_YEAR, _MAX_YEAR, null, 0);
+		}
+
+		String dayOfMonth = fields[3];
+		String dayOfWeek = fields[5];
+
+		if (dayOfMonth.equals("?") || (dayOfMonth.equals("*") &&
+			 !dayOfWeek.equals("?") && !dayOfWeek.equals("*"))) {
+
+			_daysOfMonth = null;
+			_parseDayOfWeek(dayOfWeek);
+		}
+		else if (dayOfWeek.equals("?") || dayOfWeek.equals("*")) {
+			_daysOfWeek = null;
+			_parseDayOfMonth(dayOfMonth);
+		}
+		else {
+			throw new IllegalArgumentException(
+				"Specifying both a day of week and a day of month is not " +
+					"supported");
+		}
+	}
+
+	private static int _parseValue(String value, String[] names, int offset) {
+		if (names != null) {
+			for (int i = 0; i < names.length; i++) {
+				if (names[i].equals(value)) {
+					return i + offset;
+				}
+			}
+		}
+
+		return Integer.parseInt(value);
+	}
+
+	private boolean _matchesDay(LocalDate localDate) {
+		int dayOfMonth = localDate.getDayOfMonth();
+
+		if (_daysOfWeek != null) {
+			int dayOfWeek = _toQuartzDayOfWeek(localDate.getDayOfWeek());
+
+			if (_lastDayOfWeek) {
+				return (dayOfWeek == _dayOfWeek) &&
+					((dayOfMonth + 7) > localDate.lengthOfMonth());
+			}
+
+			if (_dayOfWeekOrdinal > 0) {
+				return (dayOfWeek == _dayOfWeek) &&
+					(((dayOfMonth - 1) / 7 + 1) == _dayOfWeekOrdinal);
+			}
+
+			return _daysOfWeek.get(dayOfWeek);
+		}
+
+		int lengthOfMonth = localDate.lengthOfMonth();
+
+		if (_lastDayOfMonth) {
+			int lastDayOfMonth = lengthOfMonth - _lastDayOfMonthOffset;
+
+			if (_nearestWeekday) {
+				return dayOfMonth == _getNearestWeekday(
+					localDate, lastDayOfMonth);
+			}
+
+			return dayOfMonth == lastDayOfMonth;
+		}
+
+		if (_nearestWeekday) {
+			return dayOfMonth == _getNearestWeekday(
+				localDate, Math.min(_nearestWeekdayDay, lengthOfMonth));
+		}
+
+		return _daysOfMonth.get(dayOfMonth);
+	}
+
+	private int _getNearestWeekday(LocalDate localDate, int day) {
+		DayOfWeek dayOfWeek = localDate.withDayOfMonth(
+			day
+		).getDayOfWeek();
+
+		if (dayOfWeek == DayOfWeek.SATURDAY) {
+			if (day == 1) {
+				return 3;
+			}
+
+			return day - 1;
+		}
+
+		if (dayOfWeek == DayOfWeek.SUNDAY) {
+			if (day == localDate.lengthOfMonth()) {
+				return day - 2;
+			}
+
+			return day + 1;
+		}
+
+		return day;
+	}
+
+	private BitSet _parseField(
+		String field, int min, int max, String[] names, int offset) {
+
+		BitSet bitSet = new BitSet(max + 1);
+
+		for (String item : field.split(",")) {
+			int step = 1;
+
+			int index = item.indexOf('/');
+
+			if (index >= 0) {
+				step = Integer.parseInt(item.substring(index + 1));
+
+				if (step <= 0) {
+					throw new IllegalArgumentException(
+						"Invalid increment " + item);
+				}
+
+				item = item.substring(0, index);
+			}
+
+			int start;
+			int end;
+
+			if (item.equals("*") || item.equals("?")) {
+				start = min;
+				end = max;
+			}
+			else {
+				index = item.indexOf('-');
+
+				if (index > 0) {
+					start = _parseValue(item.substring(0, index), names, offset);
+					end = _parseValue(item.substring(index + 1), names, offset);
+				}
+				else {
+					start = _parseValue(item, names, offset);
+
+					if (step > 1) {
+						end = max;
+					}
+					else {
+						end = start;
+					}
+				}
+			}
+
+			if ((start < min) || (start > max) || (end < min) || (end > max)) {
+				throw new IllegalArgumentException(
+					"Value out of range " + item + " (" + min + "-" + max +
+						")");
+			}
+
+			int count = end - start;
+
+			if (count < 0) {
+
+				// A range that wraps around, such as FRI-MON
+
+				count += max - min + 1;
+			}
+
+			for (int i = 0; i <= count; i += step) {
+				int value = start + i;
+
+				if (value > max) {
+					value -= max - min + 1;
+				}
+
+				bitSet.set(value);
+			}
+		}
+
+		return bitSet;
+	}
+
+	private void _parseDayOfMonth(String field) {
+		if (field.startsWith("L")) {
+			_lastDayOfMonth = true;
+
+			String rest = field.substring(1);
+
+			if (rest.equals("W")) {
+				_nearestWeekday = true;
+			}
+			else if (rest.startsWith("-")) {
+				_lastDayOfMonthOffset = Integer.parseInt(rest.substring(1));
+
+				if ((_lastDayOfMonthOffset < 0) ||
+					(_lastDayOfMonthOffset > 30)) {
+
+					throw new IllegalArgumentException(
+						"Invalid offset from the last day of the month " +
+							field);
+				}
+			}
+			else if (!rest.isEmpty()) {
+				throw new IllegalArgumentException(
+					"Invalid day of month " + field);
+			}
+
+			_daysOfMonth = new BitSet();
+
+			return;
+		}
+
+		if (field.endsWith("W")) {
+			_nearestWeekday = true;
+			_nearestWeekdayDay = Integer.parseInt(
+				field.substring(0, field.length() - 1));
+
+			if ((_nearestWeekdayDay < 1) || (_nearestWeekdayDay > 31)) {
+				throw new IllegalArgumentException(
+					"Invalid day of month " + field);
+			}
+
+			_daysOfMonth = new BitSet();
+
+			return;
+		}
+
+		_daysOfMonth = _parseField(field, 1, 31, null, 0);
+	}
+
+	private void _parseDayOfWeek(String field) {
+		if (field.equals("L")) {
+			field = "7";
+		}
+
+		int index = field.indexOf('#');
+
+		if (index > 0) {
+			_dayOfWeek = _parseValue(
+				field.substring(0, index), _DAY_OF_WEEK_NAMES, 1);
+			_dayOfWeekOrdinal = Integer.parseInt(field.substring(index + 1));
+
+			if ((_dayOfWeek < 1) || (_dayOfWeek > 7) ||
+				(_dayOfWeekOrdinal < 1) || (_dayOfWeekOrdinal > 5)) {
+
+				throw new IllegalArgumentException(
+					"Invalid day of week " + field);
+			}
+
+			_daysOfWeek = new BitSet();
+
+			return;
+		}
+
+		if ((field.length() > 1) && field.endsWith("L")) {
+			_dayOfWeek = _parseValue(
+				field.substring(0, field.length() - 1), _DAY_OF_WEEK_NAMES, 1);
+			_lastDayOfWeek = true;
+
+			if ((_dayOfWeek < 1) || (_dayOfWeek > 7)) {
+				throw new IllegalArgumentException(
+					"Invalid day of week " + field);
+			}
+
+			_daysOfWeek = new BitSet();
+
+			return;
+		}
+
+		_daysOfWeek = _parseField(field, 1, 7, _DAY_OF_WEEK_NAMES, 1);
+	}
+
+	private int _toQuartzDayOfWeek(DayOfWeek dayOfWeek) {
+
+		// Quartz numbers the days of week from 1 (Sunday) to 7 (Saturday)
+
+		return (dayOfWeek.getValue() % 7) + 1;
+	}
+
+	private static final String[] _DAY_OF_WEEK_NAMES = {
+		"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"
+	};
+
+	private static final int _MAX_ITERATIONS = 100000;
+
+	private static final int _MAX_YEAR = 2099;
+
+	private static final int _MIN_YEAR = 1970;
+
+	private static final String[] _MONTH_NAMES = {
+		"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT",
+		"NOV", "DEC"
+	};
+
+	private int _dayOfWeek;
+	private int _dayOfWeekOrdinal;
+	private BitSet _daysOfMonth;
+	private BitSet _daysOfWeek;
+	private final BitSet _hours;
+	private boolean _lastDayOfMonth;
+	private int _lastDayOfMonthOffset;
+	private boolean _lastDayOfWeek;
+	private final BitSet _minutes;
+	private long _minuteStartTime = Long.MIN_VALUE / 2;
+	private final BitSet _months;
+	private boolean _nearestWeekday;
+	private int _nearestWeekdayDay;
+	private final BitSet _seconds;
+	private final ZoneId _zoneId;
+	private final BitSet _years;
+
+}
@@ -0,0 +1,127 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import com.liferay.petra.string.StringPool;
+
+import java.io.PrintStream;
+
+/**
+ * Write the rows in the CSV format (RFC 4180), with a header line with the
+ * column names. The missing values (the dash of the table) are written as
+ * empty fields.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class CsvRowWriter implements RowWriter {
+
+	/**
+	 * @param printStream The stream where the rows are written
+	 * @param columnNames The names of the columns
+	 */
+	public CsvRowWriter(PrintStream printStream, String... columnNames) {
+		_printStream = printStream;
+		_columns = columnNames.length;
+
+		_write(columnNames);
+	}
+
+	@Override
+	public void finish(String emptyMessage) {
+		_printStream.flush();
+	}
+
+	@Override
+	public long getRowCount() {
+		return _rowCount;
+	}
+
+	@Override
+	public void writeRow(String... values) {
+		_rowCount++;
+
+		_write(values);
+	}
+
+	private void _write(String[] values) {
+		_sb.setLength(0);
+
+		for (int i = 0; i < _columns; i++) {
+			if (i > 0) {
+				_sb.append(',');
+			}
+
+			String value = null;
+
+			if (i < values.length) {
+				value = values[i];
+			}
+
+			if ((value == null) || StringPool.DASH.equals(value)) {
+				continue;
+			}
+
+			if (_needsQuotes(value)) {
+				_sb.append('"');
+
+				for (int j = 0; j < value.length(); j++) {
+					char c = value.charAt(j);
+
+					if (c == '"') {
+						_sb.append('"');
+					}
+
+					_sb.append(c);
+				}
+
+				_sb.append('"');
+			}
+			else {
+				_sb.append(value);
+			}
+		}
+
+		_sb.append("\r\n");
+
+		_printStream.print(_sb);
+	}
+
+	private boolean _needsQuotes(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+
+			if ((c == ',') || (c == '"') || (c == '\r') || (c == '\n')) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private final int _columns;
+	private final PrintStream _printStream;
+	private long _rowCount;
+	private final StringBuilder _sb = new StringBuilder();
+
+}
@@ -0,0 +1,310 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.CollisionWindow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Histogram of the fire times of the jobs over a time window, bucketed by
+ * a fixed resolution (for example a second or a minute). The fire times of
+ * every job are computed one at a time from its schedule and counted in
+ * their bucket, so the memory used depends only on the number of the
+ * buckets. The jobs that fire in the worst windows are found with a second
+ * pass over the schedules of the jobs. The fires of a job are counted up to
+ * a max, so a schedule firing every second or millisecond over a long
+ * window does not run for hours; both passes stop when the command is
+ * cancelled.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class FireTimeForecast {
+
+	/**
+	 * @param startTime  The start time of the window (inclusive)
+	 * @param endTime    The end time of the window (exclusive)
+	 * @param resolution The size of the buckets in milliseconds
+	 * @throws IllegalArgumentException If the window is empty or it has too
+	 *         many buckets
+	 */
+	public FireTimeForecast(long startTime, long endTime, long resolution) {
+		if ((resolution <= 0) || (endTime <= startTime)) {
+			throw new IllegalArgumentException(
+				"Invalid forecast window or resolution");
+		}
+
+		long bucketCount = (endTime - startTime + resolution - 1) / resolution;
+
+		if (bucketCount > _MAX_BUCKET_COUNT) {
+			throw new IllegalArgumentException(
+				"The forecast window has " + bucketCount +
+					" buckets, the max is " + _MAX_BUCKET_COUNT +
+						": reduce the window or the resolution");
+		}
+
+		_startTime = startTime;
+		_endTime = endTime;
+		_resolution = resolution;
+
+		_fireCounts = new int[(int)bucketCount];
+	}
+
+	/**
+	 * Count the fire times of the job in the window, up to the max number
+	 * of fires of a job.
+	 *
+	 * @param  jobName          The job name
+	 * @param  fireTimeSchedule The schedule of the job
+	 * @throws CancellationException If the command was cancelled
+	 */
+	public void add(String jobName, FireTimeSchedule fireTimeSchedule) {
+		CancellationScope cancellationScope = CancellationScope.getCurrent();
+
+		long fireTime = fireTimeSchedule.getNextFireTime(_startTime - 1);
+		int jobFireCount = 0;
+
+		while (fireTime < _endTime) {
+			if (jobFireCount == _MAX_JOB_FIRE_COUNT) {
+				_truncatedJobCount++;
+
+				break;
+			}
+
+			_checkCancelled(cancellationScope, jobFireCount);
+
+			_fireCounts[_getBucket(fireTime)]++;
+			_fireCount++;
+
+			jobFireCount++;
+
+			fireTime = fireTimeSchedule.getNextFireTime(fireTime);
+		}
+
+		_jobNames.add(jobName);
+		_fireTimeSchedules.add(fireTimeSchedule);
+	}
+
+	public int getBucketCount() {
+		return _fireCounts.length;
+	}
+
+	/**
+	 * @param  bucket The bucket
+	 * @return The start time of the bucket
+	 */
+	public long getBucketStartTime(int bucket) {
+		return _startTime + bucket * _resolution;
+	}
+
+	/**
+	 * @return The number of the buckets with at least two fires
+	 */
+	public int getCollisionCount() {
+		int collisionCount = 0;
+
+		for (int fireCount : _fireCounts) {
+			if (fireCount > 1) {
+				collisionCount++;
+			}
+		}
+
+		return collisionCount;
+	}
+
+	/**
+	 * @return The number of the fires of all the jobs in the window
+	 */
+	public long getFireCount() {
+		return _fireCount;
+	}
+
+	/**
+	 * @param  bucket The bucket
+	 * @return The number of the fires in the bucket
+	 */
+	public int getFireCount(int bucket) {
+		return _fireCounts[bucket];
+	}
+
+	/**
+	 * @return The number of the jobs
+	 */
+	public int getJobCount() {
+		return _jobNames.size();
+	}
+
+	/**
+	 * @return The bucket with the most fires, the first one on a tie
+	 */
+	public int getPeakBucket() {
+		int peakBucket = 0;
+
+		for (int bucket = 1; bucket < _fireCounts.length; bucket++) {
+			if (_fireCounts[bucket] > _fireCounts[peakBucket]) {
+				peakBucket = bucket;
+			}
+		}
+
+		return peakBucket;
+	}
+
+	/**
+	 * @return The number of the jobs with more fires than the max, only the
+	 *         first fires of these jobs are counted
+	 */
+	public int getTruncatedJobCount() {
+		return _truncatedJobCount;
+	}
+
+	/**
+	 * Return the windows with the most fires (at least two), with the jobs
+	 * that fire in them.
+	 *
+	 * @param  count The max number of the windows
+	 * @return The windows ordered by number of fires (descending) and start
+	 *         time
+	 * @throws CancellationException If the command was cancelled
+	 */
+	public List<CollisionWindow> getWorstWindows(int count) {
+		if (count <= 0) {
+			return Collections.emptyList();
+		}
+
+		Comparator<Integer> comparator = Comparator.comparingInt(
+			bucket -> _fireCounts[bucket]);
+
+		comparator = comparator.thenComparing(Comparator.reverseOrder());
+
+		PriorityQueue<Integer> worstBuckets = new PriorityQueue<>(
+			count + 1, comparator);
+
+		for (int bucket = 0; bucket < _fireCounts.length; bucket++) {
+			if (_fireCounts[bucket] < 2) {
+				continue;
+			}
+
+			if (worstBuckets.size() < count) {
+				worstBuckets.add(bucket);
+			}
+			else if (comparator.compare(bucket, worstBuckets.peek()) > 0) {
+				worstBuckets.poll();
+				worstBuckets.add(bucket);
+			}
+		}
+
+		Map<Integer, CollisionWindow> collisionWindows = new HashMap<>();
+
+		for (int bucket : worstBuckets) {
+			collisionWindows.put(
+				bucket,
+				new CollisionWindow(
+					getBucketStartTime(bucket), _fireCounts[bucket]));
+		}
+
+		CancellationScope cancellationScope = CancellationScope.getCurrent();
+
+		for (int i = 0; i < _fireTimeSchedules.size(); i++) {
+			FireTimeSchedule fireTimeSchedule = _fireTimeSchedules.get(i);
+
+			long fireTime = fireTimeSchedule.getNextFireTime(_startTime - 1);
+
+			int jobFireCount = 0;
+
+			while ((fireTime < _endTime) &&
+				   (jobFireCount < _MAX_JOB_FIRE_COUNT)) {
+
+				_checkCancelled(cancellationScope, jobFireCount);
+
+				CollisionWindow collisionWindow = collisionWindows.get(
+					_getBucket(fireTime));
+
+				if (collisionWindow != null) {
+					collisionWindow.addFire(_jobNames.get(i));
+				}
+
+				jobFireCount++;
+
+				fireTime = fireTimeSchedule.getNextFireTime(fireTime);
+			}
+		}
+
+		List<CollisionWindow> worstWindows = new ArrayList<>(
+			collisionWindows.values());
+
+		worstWindows.sort(
+			Comparator.comparingInt(
+				CollisionWindow::getFireCount
+			).reversed(
+			).thenComparingLong(
+				CollisionWindow::getStartTime
+			));
+
+		return worstWindows;
+	}
+
+	/**
+	 * Throw a CancellationException if the thread is interrupted or the
+	 * scope of the command is cancelled, checked every 4096 fires.
+	 */
+	private void _checkCancelled(
+		CancellationScope cancellationScope, int jobFireCount) {
+
+		if ((jobFireCount & 0xFFF) != 0) {
+			return;
+		}
+
+		if (Thread.currentThread().isInterrupted() ||
+			((cancellationScope != null) && cancellationScope.isCancelled())) {
+
+			throw new CancellationException("The forecast was cancelled");
+		}
+	}
+
+	private int _getBucket(long fireTime) {
+		return (int)((fireTime - _startTime) / _resolution);
+	}
+
+	private static final int _MAX_BUCKET_COUNT = 1000000;
+
+	private static final int _MAX_JOB_FIRE_COUNT = 1000000;
+
+	private final long _endTime;
+	private long _fireCount;
+	private final int[] _fireCounts;
+	private final List<FireTimeSchedule> _fireTimeSchedules =
+		new ArrayList<>();
+	private final List<String> _jobNames = new ArrayList<>();
+	private final long _resolution;
+	private final long _startTime;
+	private int _truncatedJobCount;
+
+}
@@ -0,0 +1,61 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+/**
+ * The fire times of a simple trigger, that fires at a fixed interval from
+ * its first fire time.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class IntervalSchedule implements FireTimeSchedule {
+
+	/**
+	 * @param fireTime The first fire time, usually the next fire time
+	 * @param interval The interval in milliseconds
+	 * @throws IllegalArgumentException If the interval is not positive
+	 */
+	public IntervalSchedule(long fireTime, long interval) {
+		if (interval <= 0) {
+			throw new IllegalArgumentException(
+				"Invalid interval " + interval);
+		}
+
+		_fireTime = fireTime;
+		_interval = interval;
+	}
+
+	@Override
+	public long getNextFireTime(long time) {
+		if (time < _fireTime) {
+			return _fireTime;
+		}
+
+		return _fireTime + ((time - _fireTime) / _interval + 1) * _interval;
+	}
+
+	private final long _fireTime;
+	private final long _interval;
+
+}
@@ -0,0 +1,321 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.util.ObjectValuePair;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.FailureSignature;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.JobKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Group the exceptions of the jobs by failure signature: the hash of the
+ * exception classes and of the frames (class and method, without the line
+ * numbers) of the exception and of its causes. The same failure has the
+ * same signature on every job, node and build, whatever the message. The
+ * memory is bounded by the number of the distinct signatures. The
+ * exceptions can be added by several threads at the same time.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class JobExceptionAggregator {
+
+	/**
+	 * Return the failure signature of the exception. The recursive frames
+	 * are counted once, the synthetic class names (lambdas, proxies,
+	 * anonymous classes and generated accessors) are normalized.
+	 *
+	 * @param throwable The exception
+	 * @return The signature, 16 hexadecimal digits
+	 */
+	public static String getSignature(Throwable throwable) {
+		Set<Throwable> throwables = Collections.newSetFromMap(
+			new IdentityHashMap<>());
+		long hash = _FNV_OFFSET_BASIS;
+
+		while ((throwable != null) && (throwables.size() < _MAX_CAUSES) &&
+			   throwables.add(throwable)) {
+
+			hash = _hash(hash, _normalizeClassName(throwable.getClass()));
+
+			StackTraceElement previousStackTraceElement = null;
+			int frames = 0;
+
+			for (StackTraceElement stackTraceElement :
+					throwable.getStackTrace()) {
+
+				if (frames >= _MAX_FRAMES) {
+					break;
+				}
+
+				if ((previousStackTraceElement != null) &&
+					previousStackTraceElement.getClassName().equals(
+						stackTraceElement.getClassName()) &&
+					previousStackTraceElement.getMethodName().equals(
+						stackTraceElement.getMethodName())) {
+
+					continue;
+				}
+
+				hash = _hash(
+					hash,
+					_normalizeClassName(stackTraceElement.getClassName()));
+				hash = _hash(hash, stackTraceElement.getMethodName());
+
+				previousStackTraceElement = stackTraceElement;
+				frames++;
+			}
+
+			throwable = throwable.getCause();
+		}
+
+		return String.format("%016x", hash);
+	}
+
+	/**
+	 * @param maxJobKeys The max number of the jobs kept for every signature
+	 */
+	public JobExceptionAggregator(int maxJobKeys) {
+		_maxJobKeys = maxJobKeys;
+	}
+
+	/**
+	 * Add the exceptions of a job, once for every job.
+	 *
+	 * @param jobKey        The job
+	 * @param jobExceptions The exceptions of the job with their time, as
+	 *                      returned by the scheduler engine helper
+	 */
+	public void add(
+		JobKey jobKey, ObjectValuePair<Exception, Date>[] jobExceptions) {
+
+		if ((jobExceptions == null) || (jobExceptions.length == 0)) {
+			return;
+		}
+
+		Set<String> signatures = new HashSet<>();
+
+		for (ObjectValuePair<Exception, Date> jobException : jobExceptions) {
+			Exception exception = jobException.getKey();
+
+			if (exception == null) {
+				continue;
+			}
+
+			String signature = getSignature(exception);
+
+			FailureSignature failureSignature =
+				_failureSignatures.computeIfAbsent(
+					signature,
+					key -> new FailureSignature(
+						key, exception.getClass().getName(), _maxJobKeys));
+
+			long time = 0;
+
+			if (jobException.getValue() != null) {
+				time = jobException.getValue().getTime();
+			}
+
+			synchronized (failureSignature) {
+				failureSignature.addOccurrence(
+					time, _normalizeMessage(exception.getMessage()));
+
+				if (signatures.add(signature)) {
+					failureSignature.addJob(jobKey);
+				}
+			}
+
+			_exceptionCount.incrementAndGet();
+		}
+
+		if (!signatures.isEmpty()) {
+			_jobCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @return The number of the exceptions
+	 */
+	public long getExceptionCount() {
+		return _exceptionCount.get();
+	}
+
+	/**
+	 * @return The number of the jobs with exceptions
+	 */
+	public int getJobCount() {
+		return _jobCount.get();
+	}
+
+	/**
+	 * @return The number of the distinct signatures
+	 */
+	public int getSignatureCount() {
+		return _failureSignatures.size();
+	}
+
+	/**
+	 * Return the most frequent failure signatures, by number of exceptions
+	 * and then by time of the latest exception. Call it after all the
+	 * exceptions are added.
+	 *
+	 * @param top The max number of signatures, 0 for all the signatures
+	 * @return The failure signatures
+	 */
+	public List<FailureSignature> getTopFailureSignatures(int top) {
+		List<FailureSignature> failureSignatures = new ArrayList<>(
+			_failureSignatures.values());
+
+		failureSignatures.sort(_failureSignatureComparator);
+
+		if ((top > 0) && (failureSignatures.size() > top)) {
+			return new ArrayList<>(failureSignatures.subList(0, top));
+		}
+
+		return failureSignatures;
+	}
+
+	private static long _hash(long hash, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= _FNV_PRIME;
+		}
+
+		// Separator, so that "ab" + "c" and "a" + "bc" have different hashes
+
+		hash ^= 0xFFFF;
+		hash *= _FNV_PRIME;
+
+		return hash;
+	}
+
+	private static String _normalizeClassName(Class<?> clazz) {
+		return _normalizeClassName(clazz.getName());
+	}
+
+	// The digits after a $ and at the end of the class name are generated
+	// (Foo$1, Foo$$Lambda$12, $Proxy34, GeneratedMethodAccessor56) and the
+	// hidden classes end with /0x and the address
+
+	private static String _normalizeClassName(String className) {
+		int index = className.indexOf('/');
+
+		if (index >= 0) {
+			className = className.substring(0, index);
+		}
+
+		StringBuilder sb = new StringBuilder(className.length());
+
+		int i = 0;
+
+		while (i < className.length()) {
+			char c = className.charAt(i);
+
+			if (!Character.isDigit(c)) {
+				sb.append(c);
+
+				i++;
+
+				continue;
+			}
+
+			int end = i + 1;
+
+			while ((end < className.length()) &&
+				   Character.isDigit(className.charAt(end))) {
+
+				end++;
+			}
+
+			if (((i > 0) && (className.charAt(i - 1) == '$')) ||
+				(end == className.length())) {
+
+				sb.append('#');
+			}
+			else {
+				sb.append(className, i, end);
+			}
+
+			i = end;
+		}
+
+		return sb.toString();
+	}
+
+	// A single line, so that the message fits a cell of the table
+
+	private static String _normalizeMessage(String message) {
+		if (message == null) {
+			return null;
+		}
+
+		message = message.trim().replaceAll("\\s+", StringPool.SPACE);
+
+		if (message.length() > _MAX_MESSAGE_LENGTH) {
+			message =
+				message.substring(0, _MAX_MESSAGE_LENGTH) +
+					StringPool.TRIPLE_PERIOD;
+		}
+
+		return message;
+	}
+
+	private static final long _FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+
+	private static final long _FNV_PRIME = 0x100000001B3L;
+
+	private static final int _MAX_CAUSES = 10;
+
+	private static final int _MAX_FRAMES = 64;
+
+	private static final int _MAX_MESSAGE_LENGTH = 200;
+
+	private static final Comparator<FailureSignature>
+		_failureSignatureComparator = Comparator.comparingLong(
+			FailureSignature::getCount
+		).reversed(
+		).thenComparing(
+			FailureSignature::getLastSeenTime,
+			Comparator.nullsLast(Comparator.reverseOrder())
+		);
+
+	private final AtomicLong _exceptionCount = new AtomicLong();
+	private final ConcurrentHashMap<String, FailureSignature>
+		_failureSignatures = new ConcurrentHashMap<>();
+	private final AtomicInteger _jobCount = new AtomicInteger();
+	private final int _maxJobKeys;
+
+}
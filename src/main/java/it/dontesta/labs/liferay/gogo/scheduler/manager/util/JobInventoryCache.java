@@ -0,0 +1,352 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import com.liferay.portal.kernel.scheduler.SchedulerEngineHelper;
+import com.liferay.portal.kernel.scheduler.SchedulerException;
+import com.liferay.portal.kernel.scheduler.StorageType;
+import com.liferay.portal.kernel.scheduler.messaging.SchedulerResponse;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.Metric;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.metrics.SchedulerManagerMetrics;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.JobKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of the job inventory (the scheduler responses) with a time to live
+ * and a max number of jobs, the least recently used jobs are evicted
+ * first. The whole inventory is cached only when it does not exceed the max
+ * number of jobs, otherwise it is read from the scheduler engine every
+ * time. The cache is invalidated by the commands that change the state of
+ * the jobs.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class JobInventoryCache {
+
+	/**
+	 * @param schedulerEngineHelper The scheduler engine helper
+	 * @param ttl                   The time to live in milliseconds, 0 to
+	 *                              disable the cache
+	 * @param maxSize               The max number of jobs
+	 */
+	public JobInventoryCache(
+		SchedulerEngineHelper schedulerEngineHelper, long ttl, int maxSize) {
+
+		_schedulerEngineHelper = schedulerEngineHelper;
+		_ttl = ttl;
+		_maxSize = maxSize;
+
+		_schedulerResponses = new LinkedHashMap<JobKey, CacheEntry>(
+			16, 0.75F, true) {
+
+			@Override
+			protected boolean removeEldestEntry(
+				Map.Entry<JobKey, CacheEntry> eldest) {
+
+				return size() > _maxSize;
+			}
+
+		};
+	}
+
+	/**
+	 * Return the job, from the cache when possible.
+	 *
+	 * @param jobName     The name of the job
+	 * @param groupName   The group name of the job
+	 * @param storageType The storage type of the job
+	 * @param useCache    false to force a fresh read
+	 * @return The scheduler response of the job, null if not found
+	 * @throws SchedulerException In the case of errors
+	 */
+	public SchedulerResponse getScheduledJob(
+			String jobName, String groupName, StorageType storageType,
+			boolean useCache)
+		throws SchedulerException {
+
+		JobKey jobKey = new JobKey(jobName, groupName, storageType);
+
+		if (useCache && (_ttl > 0)) {
+			synchronized (this) {
+				CacheEntry cacheEntry = _schedulerResponses.get(jobKey);
+
+				if ((cacheEntry != null) && !_isExpired(cacheEntry)) {
+					return cacheEntry._schedulerResponse;
+				}
+			}
+		}
+
+		long startTime = System.nanoTime();
+
+		SchedulerResponse schedulerResponse =
+			_schedulerEngineHelper.getScheduledJob(
+				jobName, groupName, storageType);
+
+		SchedulerManagerMetrics.record(
+			Metric.SCHEDULER_ENGINE_GET_SCHEDULED_JOB, startTime);
+
+		if ((schedulerResponse != null) && (_ttl > 0)) {
+			synchronized (this) {
+				_schedulerResponses.put(
+					jobKey,
+					new CacheEntry(
+						schedulerResponse, System.currentTimeMillis()));
+			}
+		}
+
+		return schedulerResponse;
+	}
+
+	/**
+	 * Return all the jobs, from the cache when possible.
+	 *
+	 * @param useCache false to force a fresh read
+	 * @return The scheduler responses of all the jobs
+	 * @throws SchedulerException In the case of errors
+	 */
+	public List<SchedulerResponse> getScheduledJobs(boolean useCache)
+		throws SchedulerException {
+
+		if (useCache && (_ttl > 0)) {
+			synchronized (this) {
+				if ((_inventory != null) && !_isExpired(_inventory)) {
+					return _inventory._schedulerResponses;
+				}
+			}
+		}
+
+		long startTime = System.nanoTime();
+
+		List<SchedulerResponse> schedulerResponses = Collections.unmodifiableList(
+			new ArrayList<>(_schedulerEngineHelper.getScheduledJobs()));
+
+		SchedulerManagerMetrics.record(
+			Metric.SCHEDULER_ENGINE_GET_SCHEDULED_JOBS, startTime,
+			schedulerResponses.size());
+
+		if ((_ttl > 0) && (schedulerResponses.size() <= _maxSize)) {
+			long now = System.currentTimeMillis();
+
+			synchronized (this) {
+				_inventory = new InventoryEntry(schedulerResponses, now);
+
+				_putAll(schedulerResponses, now);
+			}
+		}
+
+		return schedulerResponses;
+	}
+
+	/**
+	 * Return the jobs of the group and of the storage type. When the whole
+	 * inventory is cached the jobs are filtered from the cache, otherwise
+	 * they are read with the narrowest query of the scheduler engine.
+	 *
+	 * @param groupName   The group name, null for all the groups
+	 * @param storageType The storage type, null for all the storage types
+	 * @param useCache    false to force a fresh read
+	 * @return The scheduler responses of the jobs
+	 * @throws SchedulerException In the case of errors
+	 */
+	public List<SchedulerResponse> getScheduledJobs(
+			String groupName, StorageType storageType, boolean useCache)
+		throws SchedulerException {
+
+		if ((groupName == null) && (storageType == null)) {
+			return getScheduledJobs(useCache);
+		}
+
+		if (useCache && (_ttl > 0)) {
+			List<SchedulerResponse> inventory = null;
+
+			synchronized (this) {
+				if ((_inventory != null) && !_isExpired(_inventory)) {
+					inventory = _inventory._schedulerResponses;
+				}
+			}
+
+			if (inventory != null) {
+				List<SchedulerResponse> schedulerResponses = new ArrayList<>();
+
+				for (SchedulerResponse schedulerResponse : inventory) {
+					if (((groupName == null) ||
+						 groupName.equals(schedulerResponse.getGroupName())) &&
+						((storageType == null) ||
+						 (storageType == schedulerResponse.getStorageType()))) {
+
+						schedulerResponses.add(schedulerResponse);
+					}
+				}
+
+				return schedulerResponses;
+			}
+		}
+
+		long startTime = System.nanoTime();
+
+		List<SchedulerResponse> schedulerResponses;
+
+		if (groupName == null) {
+			schedulerResponses = new ArrayList<>(
+				_schedulerEngineHelper.getScheduledJobs(storageType));
+		}
+		else if (storageType != null) {
+			schedulerResponses = new ArrayList<>(
+				_schedulerEngineHelper.getScheduledJobs(
+					groupName, storageType));
+		}
+		else {
+			schedulerResponses = new ArrayList<>();
+
+			for (StorageType curStorageType : StorageType.values()) {
+				schedulerResponses.addAll(
+					_schedulerEngineHelper.getScheduledJobs(
+						groupName, curStorageType));
+			}
+		}
+
+		SchedulerManagerMetrics.record(
+			Metric.SCHEDULER_ENGINE_GET_SCHEDULED_JOBS, startTime,
+			schedulerResponses.size());
+
+		if (_ttl > 0) {
+			long now = System.currentTimeMillis();
+
+			synchronized (this) {
+				_putAll(schedulerResponses, now);
+			}
+		}
+
+		return schedulerResponses;
+	}
+
+	/**
+	 * Invalidate the job and the inventory.
+	 *
+	 * @param jobName     The name of the job
+	 * @param groupName   The group name of the job
+	 * @param storageType The storage type of the job
+	 */
+	public synchronized void invalidate(
+		String jobName, String groupName, StorageType storageType) {
+
+		_inventory = null;
+
+		_schedulerResponses.remove(
+			new JobKey(jobName, groupName, storageType));
+	}
+
+	/**
+	 * Invalidate all the jobs of the group and the inventory.
+	 *
+	 * @param groupName   The group name of the jobs
+	 * @param storageType The storage type of the jobs
+	 */
+	public synchronized void invalidate(
+		String groupName, StorageType storageType) {
+
+		_inventory = null;
+
+		Iterator<JobKey> iterator = _schedulerResponses.keySet().iterator();
+
+		while (iterator.hasNext()) {
+			JobKey jobKey = iterator.next();
+
+			if (groupName.equals(jobKey.getGroupName()) &&
+				(storageType == jobKey.getStorageType())) {
+
+				iterator.remove();
+			}
+		}
+	}
+
+	private boolean _isExpired(CacheEntry cacheEntry) {
+		if ((System.currentTimeMillis() - cacheEntry._createTime) > _ttl) {
+			return true;
+		}
+
+		return false;
+	}
+
+	private boolean _isExpired(InventoryEntry inventoryEntry) {
+		if ((System.currentTimeMillis() - inventoryEntry._createTime) > _ttl) {
+			return true;
+		}
+
+		return false;
+	}
+
+	private void _putAll(List<SchedulerResponse> schedulerResponses, long now) {
+		for (SchedulerResponse schedulerResponse : schedulerResponses) {
+			_schedulerResponses.put(
+				new JobKey(
+					schedulerResponse.getJobName(),
+					schedulerResponse.getGroupName(),
+					schedulerResponse.getStorageType()),
+				new CacheEntry(schedulerResponse, now));
+		}
+	}
+
+	private InventoryEntry _inventory;
+	private final int _maxSize;
+	private final SchedulerEngineHelper _schedulerEngineHelper;
+	private final Map<JobKey, CacheEntry> _schedulerResponses;
+	private final long _ttl;
+
+	private static class CacheEntry {
+
+		private CacheEntry(
+			SchedulerResponse schedulerResponse, long createTime) {
+
+			_schedulerResponse = schedulerResponse;
+			_createTime = createTime;
+		}
+
+		private final long _createTime;
+		private final SchedulerResponse _schedulerResponse;
+
+	}
+
+	private static class InventoryEntry {
+
+		private InventoryEntry(
+			List<SchedulerResponse> schedulerResponses, long createTime) {
+
+			_schedulerResponses = schedulerResponses;
+			_createTime = createTime;
+		}
+
+		private final long _createTime;
+		private final List<SchedulerResponse> _schedulerResponses;
+
+	}
+
+}
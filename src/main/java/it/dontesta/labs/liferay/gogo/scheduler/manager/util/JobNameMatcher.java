@@ -0,0 +1,118 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Matcher of the job names. The pattern is a glob (<code>*</code> matches
+ * any sequence of characters and <code>?</code> a single character), or a
+ * regular expression when prefixed with <code>regex:</code>.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public final class JobNameMatcher {
+
+	/**
+	 * Compile the pattern.
+	 *
+	 * @param pattern The glob, or the regular expression prefixed with
+	 *                <code>regex:</code>
+	 * @return The predicate that matches the whole name against the pattern
+	 */
+	public static Predicate<String> compile(String pattern) {
+
+		// A glob without wildcards is compared as is, without a regular
+		// expression
+
+		if (_isLiteral(pattern)) {
+			return pattern::equals;
+		}
+
+		Pattern compiledPattern;
+
+		if (pattern.startsWith(_REGEX_PREFIX)) {
+			compiledPattern = Pattern.compile(
+				pattern.substring(_REGEX_PREFIX.length()));
+		}
+		else {
+			compiledPattern = Pattern.compile(_toRegex(pattern));
+		}
+
+		return name -> (name != null) && compiledPattern.matcher(
+			name
+		).matches();
+	}
+
+	private static boolean _isLiteral(String pattern) {
+		if (pattern.startsWith(_REGEX_PREFIX) || (pattern.indexOf('*') >= 0) ||
+			(pattern.indexOf('?') >= 0)) {
+
+			return false;
+		}
+
+		return true;
+	}
+
+	private static String _toRegex(String glob) {
+		StringBuilder sb = new StringBuilder(glob.length() + 16);
+
+		int start = 0;
+
+		for (int i = 0; i < glob.length(); i++) {
+			char c = glob.charAt(i);
+
+			if ((c != '*') && (c != '?')) {
+				continue;
+			}
+
+			if (start < i) {
+				sb.append(Pattern.quote(glob.substring(start, i)));
+			}
+
+			if (c == '*') {
+				sb.append(".*");
+			}
+			else {
+				sb.append('.');
+			}
+
+			start = i + 1;
+		}
+
+		if (start < glob.length()) {
+			sb.append(Pattern.quote(glob.substring(start)));
+		}
+
+		return sb.toString();
+	}
+
+	private JobNameMatcher() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	private static final String _REGEX_PREFIX = "regex:";
+
+}
@@ -0,0 +1,114 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.scheduler.Trigger;
+import com.liferay.portal.kernel.scheduler.TriggerType;
+import com.liferay.portal.kernel.util.DateUtil;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.JobSnapshot;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.PersistedJob;
+
+import java.text.SimpleDateFormat;
+
+import java.util.Date;
+
+/**
+ * Format the job snapshots as the rows of the jobs list. Instances are not
+ * thread safe.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class JobSnapshotFormatter {
+
+	/**
+	 * @param date The date
+	 * @return The date in the ISO 8601 format, or a dash if null
+	 */
+	public String format(Date date) {
+		if (date == null) {
+			return StringPool.DASH;
+		}
+
+		return _dateFormat.format(date);
+	}
+
+	/**
+	 * @param trigger The trigger
+	 * @return The cron expression of a cron trigger, the interval of a
+	 *         simple trigger, or a dash if there is no trigger content
+	 */
+	public String formatTrigger(Trigger trigger) {
+		if ((trigger == null) || (trigger.getTriggerContent() == null)) {
+			return StringPool.DASH;
+		}
+
+		Object triggerContent = trigger.getTriggerContent();
+
+		if ((trigger.getTriggerType() == TriggerType.SIMPLE) &&
+			(triggerContent instanceof Number)) {
+
+			return "Every " + triggerContent + " ms";
+		}
+
+		return String.valueOf(triggerContent);
+	}
+
+	/**
+	 * @param jobSnapshot The job snapshot
+	 * @return The cells of the row: job name, group name, state, start
+	 *         time, previous fire time, next fire time and storage type
+	 */
+	public String[] toListRow(JobSnapshot jobSnapshot) {
+		return new String[] {
+			jobSnapshot.getJobName(), jobSnapshot.getGroupName(),
+			jobSnapshot.getTriggerState().name(),
+			format(jobSnapshot.getStartDate()),
+			format(jobSnapshot.getPreviousFireTime()),
+			format(jobSnapshot.getNextFireTime()),
+			jobSnapshot.getStorageType().name()
+		};
+	}
+
+	/**
+	 * @param persistedJob The persisted job read from the Quartz tables
+	 * @return The cells of the row, the same of {@link
+	 *         #toListRow(JobSnapshot)}
+	 */
+	public String[] toListRow(PersistedJob persistedJob) {
+		return new String[] {
+			persistedJob.getJobName(), persistedJob.getGroupName(),
+			persistedJob.getTriggerState().name(),
+			format(persistedJob.getStartTime()),
+			format(persistedJob.getPreviousFireTime()),
+			format(persistedJob.getNextFireTime()),
+			persistedJob.getStorageType().name()
+		};
+	}
+
+	private final SimpleDateFormat _dateFormat = new SimpleDateFormat(
+		DateUtil.ISO_8601_PATTERN);
+
+}
@@ -0,0 +1,211 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import com.liferay.petra.string.StringPool;
+
+import java.io.PrintStream;
+
+/**
+ * Write the rows as JSON objects, either as a JSON array or as JSON Lines
+ * (one object per line). The keys are the column names in camel case
+ * ("Job Name" is jobName) and the missing values (the dash of the table)
+ * are written as null.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class JsonRowWriter implements RowWriter {
+
+	/**
+	 * @param printStream The stream where the rows are written
+	 * @param lines       true for JSON Lines, false for a JSON array
+	 * @param columnNames The names of the columns
+	 */
+	public JsonRowWriter(
+		PrintStream printStream, boolean lines, String... columnNames) {
+
+		_printStream = printStream;
+		_lines = lines;
+
+		_keys = new String[columnNames.length];
+
+		for (int i = 0; i < columnNames.length; i++) {
+			_keys[i] = toKey(columnNames[i]);
+		}
+	}
+
+	/**
+	 * @param  columnName The column name
+	 * @return The column name in camel case, without the characters that
+	 *         are not letters or digits
+	 */
+	public static String toKey(String columnName) {
+		StringBuilder sb = new StringBuilder(columnName.length());
+
+		boolean upperCase = false;
+
+		for (int i = 0; i < columnName.length(); i++) {
+			char c = columnName.charAt(i);
+
+			if (!Character.isLetterOrDigit(c)) {
+				upperCase = sb.length() > 0;
+
+				continue;
+			}
+
+			if (upperCase) {
+				sb.append(Character.toUpperCase(c));
+			}
+			else if (sb.length() == 0) {
+				sb.append(Character.toLowerCase(c));
+			}
+			else {
+				sb.append(c);
+			}
+
+			upperCase = false;
+		}
+
+		return sb.toString();
+	}
+
+	@Override
+	public void finish(String emptyMessage) {
+		if (!_lines) {
+			if (_rowCount == 0) {
+				_printStream.println("[]");
+			}
+			else {
+				_printStream.println();
+				_printStream.println(']');
+			}
+		}
+
+		_printStream.flush();
+	}
+
+	@Override
+	public long getRowCount() {
+		return _rowCount;
+	}
+
+	@Override
+	public void writeRow(String... values) {
+		_sb.setLength(0);
+
+		if (!_lines) {
+			if (_rowCount == 0) {
+				_sb.append('[');
+			}
+			else {
+				_sb.append(',');
+			}
+
+			_sb.append(System.lineSeparator());
+		}
+
+		_sb.append('{');
+
+		for (int i = 0; i < _keys.length; i++) {
+			if (i > 0) {
+				_sb.append(',');
+			}
+
+			_appendString(_keys[i]);
+
+			_sb.append(':');
+
+			String value = null;
+
+			if (i < values.length) {
+				value = values[i];
+			}
+
+			if ((value == null) || StringPool.DASH.equals(value)) {
+				_sb.append("null");
+			}
+			else {
+				_appendString(value);
+			}
+		}
+
+		_sb.append('}');
+
+		if (_lines) {
+			_printStream.println(_sb);
+		}
+		else {
+			_printStream.print(_sb);
+		}
+
+		_rowCount++;
+	}
+
+	private void _appendString(String value) {
+		_sb.append('"');
+
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+
+			switch (c) {
+				case '"':
+					_sb.append("\\\"");
+
+					break;
+				case '\\':
+					_sb.append("\\\\");
+
+					break;
+				case '\n':
+					_sb.append("\\n");
+
+					break;
+				case '\r':
+					_sb.append("\\r");
+
+					break;
+				case '\t':
+					_sb.append("\\t");
+
+					break;
+				default:
+					if (c < 0x20) {
+						_sb.append(String.format("\\u%04x", (int)c));
+					}
+					else {
+						_sb.append(c);
+					}
+			}
+		}
+
+		_sb.append('"');
+	}
+
+	private final String[] _keys;
+	private final boolean _lines;
+	private final PrintStream _printStream;
+	private long _rowCount;
+	private final StringBuilder _sb = new StringBuilder();
+
+}
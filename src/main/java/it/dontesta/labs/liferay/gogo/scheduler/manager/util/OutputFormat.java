@@ -0,0 +1,94 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import java.io.PrintStream;
+
+/**
+ * The output formats of the listing commands. TABLE is meant for humans,
+ * the other formats for the automation: they are written without ANSI
+ * sequences and with the timestamps in the ISO 8601 format.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public enum OutputFormat {
+
+	CSV, JSON, JSONL, TABLE;
+
+	/**
+	 * @param  format The format name, case insensitive
+	 * @return The format
+	 * @throws IllegalArgumentException If the format is not valid
+	 */
+	public static OutputFormat parse(String format) {
+		for (OutputFormat outputFormat : values()) {
+			if (outputFormat.name().equalsIgnoreCase(format)) {
+				return outputFormat;
+			}
+		}
+
+		throw new IllegalArgumentException(
+			"Invalid format " + format +
+				", the valid values are csv, json, jsonl and table");
+	}
+
+	/**
+	 * @param printStream The stream where the rows are written
+	 * @param maxWidth    The max width of the table
+	 * @param sampleSize  The number of rows used to compute the column widths
+	 *                    of the table
+	 * @param pageSize    The number of rows per page of the table, 0 for a
+	 *                    single page
+	 * @param columnNames The names of the columns
+	 * @return The row writer of the format
+	 */
+	public RowWriter createRowWriter(
+		PrintStream printStream, int maxWidth, int sampleSize, int pageSize,
+		String... columnNames) {
+
+		switch (this) {
+			case CSV:
+				return new CsvRowWriter(printStream, columnNames);
+			case JSON:
+				return new JsonRowWriter(printStream, false, columnNames);
+			case JSONL:
+				return new JsonRowWriter(printStream, true, columnNames);
+			default:
+				return new TableWriter(
+					printStream, maxWidth, sampleSize, pageSize, columnNames);
+		}
+	}
+
+	/**
+	 * @return true if the format is meant for the automation
+	 */
+	public boolean isMachineReadable() {
+		if (this == TABLE) {
+			return false;
+		}
+
+		return true;
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+/**
+ * Writer of the rows produced by the listing commands. The rows are written
+ * as soon as they are produced.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public interface RowWriter {
+
+	/**
+	 * Complete the output.
+	 *
+	 * @param emptyMessage The message for the human readable formats when
+	 *                     no rows were written
+	 */
+	public void finish(String emptyMessage);
+
+	/**
+	 * @return The number of rows written
+	 */
+	public long getRowCount();
+
+	/**
+	 * Write a row.
+	 *
+	 * @param values The cell values, one for each column
+	 */
+	public void writeRow(String... values);
+
+}
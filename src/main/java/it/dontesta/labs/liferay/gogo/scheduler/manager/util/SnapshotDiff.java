@@ -0,0 +1,317 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.util.DateUtil;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.SnapshotJob;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredTrigger;
+
+import java.text.SimpleDateFormat;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Compare two snapshots with a single sequential pass over both files: the
+ * jobs are sorted by key, so the two readers are merged like two sorted
+ * lists and every job is decoded once. The fire times change at every fire,
+ * they are compared only when requested. Instances are not thread safe.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class SnapshotDiff {
+
+	public static final String FIELD_NEXT_FIRE_TIME = "Next Fire Time";
+
+	public static final String FIELD_PREVIOUS_FIRE_TIME = "Previous Fire Time";
+
+	public static final String FIELD_RUNNING_ON = "Running On";
+
+	public static final String FIELD_START_TIME = "Start Time";
+
+	public static final String FIELD_STATE = "State";
+
+	public static final String FIELD_TRIGGER = "Trigger";
+
+	/**
+	 * @param storageType      The storage type of the compared jobs, null
+	 *                         for all the jobs
+	 * @param compareFireTimes true to compare also the previous and the
+	 *                         next fire times
+	 */
+	public SnapshotDiff(String storageType, boolean compareFireTimes) {
+		_storageType = storageType;
+		_compareFireTimes = compareFireTimes;
+	}
+
+	/**
+	 * Compare the snapshots, from the current position of the readers to
+	 * their end. An added or removed job is reported once with its state,
+	 * a changed job once for every changed field.
+	 *
+	 * @param before        The older snapshot
+	 * @param after         The newer snapshot
+	 * @param changeHandler The handler of the changes
+	 * @throws Exception In the case of errors reading the snapshots or
+	 *         handling the changes
+	 */
+	public void diff(
+			SnapshotReader before, SnapshotReader after,
+			ChangeHandler changeHandler)
+		throws Exception {
+
+		SnapshotJob beforeJob = _next(before);
+		SnapshotJob afterJob = _next(after);
+
+		while ((beforeJob != null) || (afterJob != null)) {
+			if ((++_comparedCount % _INTERRUPT_CHECK_INTERVAL) == 0) {
+				if (Thread.currentThread().isInterrupted()) {
+					throw new InterruptedException(
+						"The diff of the snapshots was interrupted");
+				}
+			}
+
+			int value;
+
+			if (beforeJob == null) {
+				value = 1;
+			}
+			else if (afterJob == null) {
+				value = -1;
+			}
+			else {
+				value = beforeJob.compareKeyTo(afterJob);
+			}
+
+			if (value < 0) {
+				_removedCount++;
+
+				changeHandler.change(
+					ChangeType.REMOVED, beforeJob, FIELD_STATE,
+					beforeJob.getState(), null);
+
+				beforeJob = _next(before);
+			}
+			else if (value > 0) {
+				_addedCount++;
+
+				changeHandler.change(
+					ChangeType.ADDED, afterJob, FIELD_STATE, null,
+					afterJob.getState());
+
+				afterJob = _next(after);
+			}
+			else {
+				if (_diff(beforeJob, afterJob, changeHandler)) {
+					_changedCount++;
+				}
+				else {
+					_unchangedCount++;
+				}
+
+				beforeJob = _next(before);
+				afterJob = _next(after);
+			}
+		}
+	}
+
+	public long getAddedCount() {
+		return _addedCount;
+	}
+
+	public long getChangedCount() {
+		return _changedCount;
+	}
+
+	public long getRemovedCount() {
+		return _removedCount;
+	}
+
+	public long getUnchangedCount() {
+		return _unchangedCount;
+	}
+
+	/**
+	 * Handler of the changes between the snapshots.
+	 */
+	@FunctionalInterface
+	public interface ChangeHandler {
+
+		/**
+		 * @param changeType  The type of the change
+		 * @param snapshotJob The job, from the newer snapshot unless it was
+		 *                    removed
+		 * @param field       The changed field
+		 * @param beforeValue The value in the older snapshot, null if none
+		 * @param afterValue  The value in the newer snapshot, null if none
+		 * @throws Exception In the case of errors
+		 */
+		public void change(
+				ChangeType changeType, SnapshotJob snapshotJob, String field,
+				String beforeValue, String afterValue)
+			throws Exception;
+
+	}
+
+	/**
+	 * The type of change of a job.
+	 */
+	public enum ChangeType {
+
+		ADDED, CHANGED, REMOVED
+
+	}
+
+	private boolean _diff(
+			SnapshotJob beforeJob, SnapshotJob afterJob,
+			ChangeHandler changeHandler)
+		throws Exception {
+
+		boolean changed = _diffField(
+			afterJob, FIELD_STATE, beforeJob.getState(), afterJob.getState(),
+			changeHandler);
+
+		changed |= _diffField(
+			afterJob, FIELD_TRIGGER, beforeJob.getTrigger(),
+			afterJob.getTrigger(), changeHandler);
+		changed |= _diffTime(
+			afterJob, FIELD_START_TIME, beforeJob.getStartTime(),
+			afterJob.getStartTime(), changeHandler);
+
+		if (_compareFireTimes) {
+			changed |= _diffTime(
+				afterJob, FIELD_PREVIOUS_FIRE_TIME,
+				beforeJob.getPreviousFireTime(),
+				afterJob.getPreviousFireTime(), changeHandler);
+			changed |= _diffTime(
+				afterJob, FIELD_NEXT_FIRE_TIME, beforeJob.getNextFireTime(),
+				afterJob.getNextFireTime(), changeHandler);
+		}
+
+		List<FiredTrigger> beforeFiredTriggers = beforeJob.getFiredTriggers();
+		List<FiredTrigger> afterFiredTriggers = afterJob.getFiredTriggers();
+
+		if (!beforeFiredTriggers.isEmpty() || !afterFiredTriggers.isEmpty()) {
+			changed |= _diffField(
+				afterJob, FIELD_RUNNING_ON,
+				_formatRunningOn(beforeFiredTriggers),
+				_formatRunningOn(afterFiredTriggers), changeHandler);
+		}
+
+		return changed;
+	}
+
+	private boolean _diffField(
+			SnapshotJob snapshotJob, String field, String beforeValue,
+			String afterValue, ChangeHandler changeHandler)
+		throws Exception {
+
+		if (Objects.equals(beforeValue, afterValue)) {
+			return false;
+		}
+
+		changeHandler.change(
+			ChangeType.CHANGED, snapshotJob, field, beforeValue, afterValue);
+
+		return true;
+	}
+
+	// The dates are formatted only when they are different
+
+	private boolean _diffTime(
+			SnapshotJob snapshotJob, String field, Date beforeDate,
+			Date afterDate, ChangeHandler changeHandler)
+		throws Exception {
+
+		if (Objects.equals(beforeDate, afterDate)) {
+			return false;
+		}
+
+		changeHandler.change(
+			ChangeType.CHANGED, snapshotJob, field, _format(beforeDate),
+			_format(afterDate));
+
+		return true;
+	}
+
+	private String _format(Date date) {
+		if (date == null) {
+			return null;
+		}
+
+		return _dateFormat.format(date);
+	}
+
+	// The instance names and the states of the fired triggers, without the
+	// fired times that change at every fire
+
+	private String _formatRunningOn(List<FiredTrigger> firedTriggers) {
+		if (firedTriggers.isEmpty()) {
+			return null;
+		}
+
+		TreeSet<String> runningOn = new TreeSet<>();
+
+		for (FiredTrigger firedTrigger : firedTriggers) {
+			runningOn.add(
+				firedTrigger.getInstanceName() + " (" +
+					firedTrigger.getState() + ")");
+		}
+
+		return String.join(StringPool.COMMA_AND_SPACE, runningOn);
+	}
+
+	private SnapshotJob _next(SnapshotReader snapshotReader)
+		throws Exception {
+
+		while (snapshotReader.next()) {
+			SnapshotJob snapshotJob = snapshotReader.get();
+
+			if ((_storageType == null) ||
+				_storageType.equals(snapshotJob.getStorageType())) {
+
+				return snapshotJob;
+			}
+		}
+
+		return null;
+	}
+
+	private static final int _INTERRUPT_CHECK_INTERVAL = 1024;
+
+	private long _addedCount;
+	private long _changedCount;
+	private final boolean _compareFireTimes;
+	private long _comparedCount;
+	private final SimpleDateFormat _dateFormat = new SimpleDateFormat(
+		DateUtil.ISO_8601_PATTERN);
+	private long _removedCount;
+	private final String _storageType;
+	private long _unchangedCount;
+
+}
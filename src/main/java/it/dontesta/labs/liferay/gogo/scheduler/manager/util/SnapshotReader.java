@@ -0,0 +1,290 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.SnapshotJob;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredTrigger;
+
+import java.io.IOException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Forward only cursor over the jobs of a snapshot file written by {@link
+ * SnapshotWriter}. The file is memory mapped and the jobs are decoded one
+ * at a time, so only the current job is held in memory whatever the size of
+ * the snapshot.
+ *
+ * <pre>
+ * try (SnapshotReader snapshotReader = SnapshotReader.open(path)) {
+ *     while (snapshotReader.next()) {
+ *         SnapshotJob snapshotJob = snapshotReader.get();
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class SnapshotReader implements AutoCloseable {
+
+	/**
+	 * Open the snapshot file and read its header.
+	 *
+	 * @param path The path of the file
+	 * @return The reader, positioned before the first job
+	 * @throws IOException If the file can not be read or it is not a
+	 *         snapshot file
+	 */
+	public static SnapshotReader open(Path path) throws IOException {
+		FileChannel fileChannel = FileChannel.open(
+			path, StandardOpenOption.READ);
+
+		try {
+			long size = fileChannel.size();
+
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException(
+					"The snapshot " + path + " is too large to be mapped");
+			}
+
+			return new SnapshotReader(
+				path, fileChannel,
+				fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+		}
+		catch (IOException | RuntimeException e) {
+			fileChannel.close();
+
+			throw e;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		_fileChannel.close();
+	}
+
+	/**
+	 * @return The job of the current position, null before the first job
+	 *         and after the last one
+	 */
+	public SnapshotJob get() {
+		return _snapshotJob;
+	}
+
+	public long getCreateTime() {
+		return _createTime;
+	}
+
+	public int getJobCount() {
+		return _jobCount;
+	}
+
+	public String getNodeName() {
+		return _nodeName;
+	}
+
+	/**
+	 * Move the cursor to the next job.
+	 *
+	 * @return true if the cursor is on a job, false if there are no more
+	 *         jobs
+	 * @throws IOException If the file is truncated or the jobs are not
+	 *         sorted
+	 */
+	public boolean next() throws IOException {
+		if (_readCount >= _jobCount) {
+			_snapshotJob = null;
+
+			return false;
+		}
+
+		try {
+			SnapshotJob snapshotJob = _readJob();
+
+			if ((_snapshotJob != null) &&
+				(_snapshotJob.compareKeyTo(snapshotJob) >= 0)) {
+
+				throw new IOException(
+					"The jobs of the snapshot " + _path + " are not sorted");
+			}
+
+			_snapshotJob = snapshotJob;
+			_readCount++;
+
+			return true;
+		}
+		catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw new IOException("The snapshot " + _path + " is corrupted", e);
+		}
+	}
+
+	protected SnapshotReader(
+			Path path, FileChannel fileChannel,
+			MappedByteBuffer mappedByteBuffer)
+		throws IOException {
+
+		_path = path;
+		_fileChannel = fileChannel;
+		_mappedByteBuffer = mappedByteBuffer;
+
+		try {
+			if (_mappedByteBuffer.getInt() != SnapshotWriter.MAGIC) {
+				throw new IOException(path + " is not a scheduler snapshot");
+			}
+
+			short version = _mappedByteBuffer.getShort();
+
+			if (version != SnapshotWriter.VERSION) {
+				throw new IOException(
+					"Unsupported version " + version + " of the snapshot " +
+						path);
+			}
+
+			_createTime = _mappedByteBuffer.getLong();
+			_nodeName = _readString();
+			_jobCount = _mappedByteBuffer.getInt();
+		}
+		catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw new IOException(path + " is not a scheduler snapshot", e);
+		}
+	}
+
+	private SnapshotJob _readJob() {
+		String storageType = _readString();
+		String groupName = _readString();
+		String jobName = _readString();
+		String state = _readString();
+		String trigger = _readString();
+		Date startTime = _readTime();
+		Date previousFireTime = _readTime();
+		Date nextFireTime = _readTime();
+
+		int firedTriggerCount = _readVarInt();
+
+		// The count is read from the file, a corrupted one must not allocate
+		// more fired triggers than the bytes left could hold (a fired trigger
+		// takes at least two lengths of one byte and the fired time)
+
+		if (firedTriggerCount >
+				(_mappedByteBuffer.remaining() / _MIN_FIRED_TRIGGER_SIZE)) {
+
+			throw new IllegalArgumentException("Invalid fired trigger count");
+		}
+
+		List<FiredTrigger> firedTriggers = Collections.emptyList();
+
+		if (firedTriggerCount > 0) {
+			firedTriggers = new ArrayList<>();
+
+			for (int i = 0; i < firedTriggerCount; i++) {
+				FiredTrigger firedTrigger = new FiredTrigger();
+
+				firedTrigger.setInstanceName(_readString());
+				firedTrigger.setState(_readString());
+				firedTrigger.setFiredTime(_readTime());
+				firedTrigger.setTriggerGroup(groupName);
+				firedTrigger.setTriggerName(jobName);
+
+				firedTriggers.add(firedTrigger);
+			}
+		}
+
+		return new SnapshotJob(
+			storageType, groupName, jobName, state, trigger, startTime,
+			previousFireTime, nextFireTime, firedTriggers);
+	}
+
+	private String _readString() {
+		int length = _readVarInt();
+
+		if (length == 0) {
+			return "";
+		}
+
+		if (length > _mappedByteBuffer.remaining()) {
+			throw new BufferUnderflowException();
+		}
+
+		if (length > _buffer.length) {
+			_buffer = new byte[Math.max(length, _buffer.length * 2)];
+		}
+
+		_mappedByteBuffer.get(_buffer, 0, length);
+
+		return new String(_buffer, 0, length, StandardCharsets.UTF_8);
+	}
+
+	private Date _readTime() {
+		long time = _mappedByteBuffer.getLong();
+
+		if (time <= 0) {
+			return null;
+		}
+
+		return new Date(time);
+	}
+
+	private int _readVarInt() {
+		int value = 0;
+
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = _mappedByteBuffer.get();
+
+			value |= (b & 0x7F) << shift;
+
+			if (b >= 0) {
+				if (value < 0) {
+					break;
+				}
+
+				return value;
+			}
+		}
+
+		throw new IllegalArgumentException("Invalid length");
+	}
+
+	private static final int _MIN_FIRED_TRIGGER_SIZE = 10;
+
+	private byte[] _buffer = new byte[256];
+	private final long _createTime;
+	private final FileChannel _fileChannel;
+	private final int _jobCount;
+	private final MappedByteBuffer _mappedByteBuffer;
+	private final String _nodeName;
+	private final Path _path;
+	private int _readCount;
+	private SnapshotJob _snapshotJob;
+
+}
@@ -0,0 +1,176 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import it.dontesta.labs.liferay.gogo.scheduler.manager.pojo.SnapshotJob;
+import it.dontesta.labs.liferay.gogo.scheduler.manager.quartz.pojo.FiredTrigger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Write the jobs to a snapshot file. The file is binary, big endian, with
+ * the strings as UTF-8 bytes prefixed by their length (a variable length
+ * integer, one byte up to 127 bytes):
+ *
+ * <pre>
+ * header:        magic (int), version (short), created time (long),
+ *                node name (string), job count (int)
+ * job:           storage type, group name, job name, state, trigger
+ *                (strings), start time, previous fire time, next fire
+ *                time (longs, 0 if none), fired trigger count (varint)
+ * fired trigger: instance name, state (strings), fired time (long)
+ * </pre>
+ *
+ * The jobs are sorted by storage type, group name and job name, so two
+ * snapshots are compared with a single sequential pass over both files.
+ * The node name is only informative: the jobs and the fired triggers do not
+ * depend on the node that saved the snapshot.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class SnapshotWriter {
+
+	public static final int MAGIC = 0x51534E50;
+
+	public static final short VERSION = 1;
+
+	/**
+	 * Write the snapshot file, replacing the existing one.
+	 *
+	 * @param path         The path of the file
+	 * @param nodeName     The name of the node that saves the snapshot
+	 * @param createTime   The time of the snapshot
+	 * @param snapshotJobs The jobs, in any order
+	 * @return The size of the file in bytes
+	 * @throws IOException In the case of errors
+	 */
+	public static long write(
+			Path path, String nodeName, long createTime,
+			List<SnapshotJob> snapshotJobs)
+		throws IOException {
+
+		List<SnapshotJob> sortedSnapshotJobs = new ArrayList<>(snapshotJobs);
+
+		sortedSnapshotJobs.sort(SnapshotJob.KEY_COMPARATOR);
+
+		try (DataOutputStream dataOutputStream = new DataOutputStream(
+				new BufferedOutputStream(
+					Files.newOutputStream(path), _BUFFER_SIZE))) {
+
+			dataOutputStream.writeInt(MAGIC);
+			dataOutputStream.writeShort(VERSION);
+			dataOutputStream.writeLong(createTime);
+			_writeString(dataOutputStream, nodeName);
+			dataOutputStream.writeInt(sortedSnapshotJobs.size());
+
+			for (SnapshotJob snapshotJob : sortedSnapshotJobs) {
+				_writeJob(dataOutputStream, snapshotJob);
+			}
+
+			dataOutputStream.flush();
+
+			return dataOutputStream.size();
+		}
+	}
+
+	protected SnapshotWriter() {
+	}
+
+	private static void _writeJob(
+			DataOutputStream dataOutputStream, SnapshotJob snapshotJob)
+		throws IOException {
+
+		_writeString(dataOutputStream, snapshotJob.getStorageType());
+		_writeString(dataOutputStream, snapshotJob.getGroupName());
+		_writeString(dataOutputStream, snapshotJob.getJobName());
+		_writeString(dataOutputStream, snapshotJob.getState());
+		_writeString(dataOutputStream, snapshotJob.getTrigger());
+		_writeTime(dataOutputStream, snapshotJob.getStartTime());
+		_writeTime(dataOutputStream, snapshotJob.getPreviousFireTime());
+		_writeTime(dataOutputStream, snapshotJob.getNextFireTime());
+
+		List<FiredTrigger> firedTriggers = snapshotJob.getFiredTriggers();
+
+		_writeVarInt(dataOutputStream, firedTriggers.size());
+
+		for (FiredTrigger firedTrigger : firedTriggers) {
+			_writeString(dataOutputStream, firedTrigger.getInstanceName());
+			_writeString(dataOutputStream, firedTrigger.getState());
+			_writeTime(dataOutputStream, firedTrigger.getFiredTime());
+		}
+	}
+
+	private static void _writeString(
+			DataOutputStream dataOutputStream, String value)
+		throws IOException {
+
+		if (value == null) {
+			value = "";
+		}
+
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+		_writeVarInt(dataOutputStream, bytes.length);
+
+		dataOutputStream.write(bytes);
+	}
+
+	private static void _writeTime(
+			DataOutputStream dataOutputStream, Date date)
+		throws IOException {
+
+		if (date == null) {
+			dataOutputStream.writeLong(0);
+		}
+		else {
+			dataOutputStream.writeLong(date.getTime());
+		}
+	}
+
+	private static void _writeVarInt(
+			DataOutputStream dataOutputStream, int value)
+		throws IOException {
+
+		while ((value & ~0x7F) != 0) {
+			dataOutputStream.writeByte((value & 0x7F) | 0x80);
+
+			value >>>= 7;
+		}
+
+		dataOutputStream.writeByte(value);
+	}
+
+	private static final int _BUFFER_SIZE = 65536;
+
+}
@@ -0,0 +1,333 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import java.io.PrintStream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming table writer. Unlike AsciiTable, the rows are not kept in
+ * memory: the column widths are computed from a bounded sample of rows
+ * (the first rows of every page) and after that every row is written as
+ * soon as it is produced.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class TableWriter implements RowWriter {
+
+	/**
+	 * @param printStream The stream where the table is written
+	 * @param maxWidth    The max width of the table (borders included)
+	 * @param sampleSize  The number of rows used to compute the column widths
+	 * @param pageSize    The number of rows per page, 0 for a single page.
+	 *                    The header is repeated (and the column widths
+	 *                    computed again) on every page
+	 * @param columnNames The names of the columns
+	 */
+	public TableWriter(
+		PrintStream printStream, int maxWidth, int sampleSize, int pageSize,
+		String... columnNames) {
+
+		_printStream = printStream;
+		_maxWidth = maxWidth;
+		_columnNames = columnNames;
+
+		if (pageSize > 0) {
+			_sampleSize = Math.max(1, Math.min(sampleSize, pageSize));
+		}
+		else {
+			_sampleSize = Math.max(1, sampleSize);
+		}
+
+		_pageSize = pageSize;
+		_sample = new ArrayList<>(_sampleSize);
+		_widths = new int[columnNames.length];
+	}
+
+	/**
+	 * Close the table. If no rows was written, the empty message is
+	 * printed inside the table.
+	 *
+	 * @param emptyMessage The message for the empty table
+	 */
+	@Override
+	public void finish(String emptyMessage) {
+		if (_rowCount == 0) {
+			_printEmptyTable(emptyMessage);
+
+			return;
+		}
+
+		if (!_sample.isEmpty()) {
+			_flushSample();
+		}
+
+		_printRule(_BOTTOM_LEFT, _BOTTOM_MIDDLE, _BOTTOM_RIGHT);
+		_printStream.flush();
+	}
+
+	/**
+	 * @return The number of rows written
+	 */
+	@Override
+	public long getRowCount() {
+		return _rowCount;
+	}
+
+	/**
+	 * Write a row. The row is buffered only while the column widths of the
+	 * current page are not yet known. The stream is flushed at the end of
+	 * every page.
+	 *
+	 * @param values The cell values, one for each column
+	 */
+	@Override
+	public void writeRow(String... values) {
+		if ((_pageSize > 0) && (_pageRowCount == _pageSize)) {
+			_printRule(_BOTTOM_LEFT, _BOTTOM_MIDDLE, _BOTTOM_RIGHT);
+			_printStream.flush();
+
+			_pageRowCount = 0;
+			_widthsComputed = false;
+		}
+
+		_rowCount++;
+		_pageRowCount++;
+
+		if (_widthsComputed) {
+			_printRow(values);
+
+			return;
+		}
+
+		_sample.add(values);
+
+		if (_sample.size() == _sampleSize) {
+			_flushSample();
+		}
+	}
+
+	private void _computeWidths() {
+		int columns = _columnNames.length;
+
+		for (int i = 0; i < columns; i++) {
+			_widths[i] = _length(_columnNames[i]);
+		}
+
+		for (String[] row : _sample) {
+			for (int i = 0; i < columns && i < row.length; i++) {
+				_widths[i] = Math.max(_widths[i], _length(row[i]));
+			}
+		}
+
+		int available = _maxWidth - (columns * 3 + 1);
+
+		int total = 0;
+
+		for (int width : _widths) {
+			total += width;
+		}
+
+		while (total > available) {
+			int widest = 0;
+
+			for (int i = 1; i < columns; i++) {
+				if (_widths[i] > _widths[widest]) {
+					widest = i;
+				}
+			}
+
+			if (_widths[widest] <= _MIN_COLUMN_WIDTH) {
+				break;
+			}
+
+			_widths[widest]--;
+			total--;
+		}
+
+		_widthsComputed = true;
+	}
+
+	private void _flushSample() {
+		_computeWidths();
+
+		_printRule(_TOP_LEFT, _TOP_MIDDLE, _TOP_RIGHT);
+		_printRow(_columnNames);
+		_printRule(_MIDDLE_LEFT, _MIDDLE_MIDDLE, _MIDDLE_RIGHT);
+
+		for (String[] row : _sample) {
+			_printRow(row);
+		}
+
+		_sample.clear();
+	}
+
+	private int _length(String value) {
+		if (value == null) {
+			return 0;
+		}
+
+		return value.length();
+	}
+
+	private void _printEmptyTable(String emptyMessage) {
+		int width = Math.min(
+			_maxWidth - 4, Math.max(_length(emptyMessage), 20));
+
+		StringBuilder sb = new StringBuilder(width + 4);
+
+		sb.append(_TOP_LEFT);
+		_repeat(sb, _HORIZONTAL, width + 2);
+		sb.append(_TOP_RIGHT);
+
+		_printStream.println(sb);
+
+		sb.setLength(0);
+
+		int padding = Math.max(0, width - _length(emptyMessage));
+
+		sb.append(_VERTICAL);
+		_repeat(sb, ' ', padding / 2 + 1);
+		sb.append(emptyMessage);
+		_repeat(sb, ' ', padding - padding / 2 + 1);
+		sb.append(_VERTICAL);
+
+		_printStream.println(sb);
+
+		sb.setLength(0);
+
+		sb.append(_BOTTOM_LEFT);
+		_repeat(sb, _HORIZONTAL, width + 2);
+		sb.append(_BOTTOM_RIGHT);
+
+		_printStream.println(sb);
+		_printStream.flush();
+	}
+
+	private void _printRow(String[] values) {
+		int columns = _columnNames.length;
+		int lines = 1;
+
+		for (int i = 0; i < columns && i < values.length; i++) {
+			int length = _length(values[i]);
+
+			if (length > _widths[i]) {
+				lines = Math.max(lines, (length + _widths[i] - 1) / _widths[i]);
+			}
+		}
+
+		StringBuilder sb = new StringBuilder(_maxWidth);
+
+		for (int line = 0; line < lines; line++) {
+			sb.setLength(0);
+
+			for (int i = 0; i < columns; i++) {
+				String value = null;
+
+				if (i < values.length) {
+					value = values[i];
+				}
+
+				int width = _widths[i];
+				int begin = Math.min(line * width, _length(value));
+				int end = Math.min(begin + width, _length(value));
+
+				sb.append(_VERTICAL);
+				sb.append(' ');
+
+				if (begin < end) {
+					sb.append(value, begin, end);
+				}
+
+				_repeat(sb, ' ', width - (end - begin) + 1);
+			}
+
+			sb.append(_VERTICAL);
+
+			_printStream.println(sb);
+		}
+	}
+
+	private void _printRule(char left, char middle, char right) {
+		StringBuilder sb = new StringBuilder(_maxWidth);
+
+		sb.append(left);
+
+		for (int i = 0; i < _widths.length; i++) {
+			if (i > 0) {
+				sb.append(middle);
+			}
+
+			_repeat(sb, _HORIZONTAL, _widths[i] + 2);
+		}
+
+		sb.append(right);
+
+		_printStream.println(sb);
+	}
+
+	private void _repeat(StringBuilder sb, char c, int count) {
+		for (int i = 0; i < count; i++) {
+			sb.append(c);
+		}
+	}
+
+	private static final char _BOTTOM_LEFT = '\u2514';
+
+	private static final char _BOTTOM_MIDDLE = '\u2534';
+
+	private static final char _BOTTOM_RIGHT = '\u2518';
+
+	private static final char _HORIZONTAL = '\u2500';
+
+	private static final int _MIN_COLUMN_WIDTH = 8;
+
+	private static final char _MIDDLE_LEFT = '\u251c';
+
+	private static final char _MIDDLE_MIDDLE = '\u253c';
+
+	private static final char _MIDDLE_RIGHT = '\u2524';
+
+	private static final char _TOP_LEFT = '\u250c';
+
+	private static final char _TOP_MIDDLE = '\u252c';
+
+	private static final char _TOP_RIGHT = '\u2510';
+
+	private static final char _VERTICAL = '\u2502';
+
+	private final String[] _columnNames;
+	private final int _maxWidth;
+	private final int _pageSize;
+	private long _pageRowCount;
+	private final PrintStream _printStream;
+	private long _rowCount;
+	private final List<String[]> _sample;
+	private final int _sampleSize;
+	private final int[] _widths;
+	private boolean _widthsComputed;
+
+}
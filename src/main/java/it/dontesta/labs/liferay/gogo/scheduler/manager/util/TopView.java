@@ -0,0 +1,173 @@
+/*
+  MIT License
+  Copyright (c) 2020 Antonio Musarra's Blog - https://www.dontesta.it
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+  The above copyright notice and this permission notice shall be included in all
+  copies or substantial portions of the Software.
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+  SOFTWARE.
+ */
+
+package it.dontesta.labs.liferay.gogo.scheduler.manager.util;
+
+import static org.fusesource.jansi.Ansi.ansi;
+
+import java.io.PrintStream;
+
+import java.util.List;
+
+/**
+ * Live view with incremental redraw. The previous frame is kept and on
+ * every refresh only the cells that changed are written, moving the cursor
+ * to the cell with the ANSI cursor positioning sequence.
+ *
+ * @author Antonio Musarra <antonio.musarra@gmail.com>
+ */
+public class TopView {
+
+	/**
+	 * @param printStream The stream where the view is written
+	 * @param maxRows     The max number of rows of the view
+	 * @param widths      The width of every column
+	 * @param columnNames The names of the columns
+	 */
+	public TopView(
+		PrintStream printStream, int maxRows, int[] widths,
+		String... columnNames) {
+
+		_printStream = printStream;
+		_maxRows = maxRows;
+		_widths = widths;
+		_columnNames = columnNames;
+
+		_columnPositions = new int[widths.length];
+
+		int position = 1;
+
+		for (int i = 0; i < widths.length; i++) {
+			_columnPositions[i] = position;
+
+			position += widths[i] + 1;
+		}
+
+		_frame = new String[maxRows][widths.length];
+	}
+
+	/**
+	 * @return The number of cells written by the last refresh
+	 */
+	public int getChangedCells() {
+		return _changedCells;
+	}
+
+	/**
+	 * Draw the rows. The first call draws the whole view, the next calls
+	 * draw only the cells that changed since the previous call.
+	 *
+	 * @param title The title of the view
+	 * @param rows  The rows, the rows over the max number of rows are ignored
+	 */
+	public void refresh(String title, List<String[]> rows) {
+		_changedCells = 0;
+
+		if (!_drawn) {
+			_printStream.print(ansi().eraseScreen());
+
+			for (int i = 0; i < _columnNames.length; i++) {
+				_printCell(_HEADER_ROW, i, _columnNames[i]);
+			}
+
+			_drawn = true;
+		}
+
+		if (!title.equals(_title)) {
+			_printStream.print(
+				ansi().cursor(_TITLE_ROW, 1).eraseLine().render(title));
+
+			_title = title;
+		}
+
+		for (int row = 0; row < _maxRows; row++) {
+			String[] values = null;
+
+			if (row < rows.size()) {
+				values = rows.get(row);
+			}
+
+			for (int column = 0; column < _widths.length; column++) {
+				String value = _EMPTY;
+
+				if ((values != null) && (column < values.length) &&
+					(values[column] != null)) {
+
+					value = values[column];
+				}
+
+				if (value.equals(_frame[row][column])) {
+					continue;
+				}
+
+				_frame[row][column] = value;
+				_changedCells++;
+
+				_printCell(_FIRST_ROW + row, column, value);
+			}
+		}
+
+		_printStream.print(
+			ansi().cursor(_FIRST_ROW + _maxRows + 1, 1).reset());
+		_printStream.flush();
+	}
+
+	private void _printCell(int row, int column, String value) {
+		int width = _widths[column];
+
+		StringBuilder sb = new StringBuilder(width);
+
+		if (value.length() > width) {
+			sb.append(value, 0, width);
+		}
+		else {
+			sb.append(value);
+
+			while (sb.length() < width) {
+				sb.append(' ');
+			}
+		}
+
+		_printStream.print(
+			ansi().cursor(row, _columnPositions[column]).a(sb.toString()));
+	}
+
+	private static final String _EMPTY = "";
+
+	private static final int _FIRST_ROW = 4;
+
+	private static final int _HEADER_ROW = 3;
+
+	private static final int _TITLE_ROW = 1;
+
+	private int _changedCells;
+	private final int[] _columnPositions;
+	private final String[] _columnNames;
+	private boolean _drawn;
+	private final String[][] _frame;
+	private final int _maxRows;
+	private final PrintStream _printStream;
+	private String _title;
+	private final int[] _widths;
+
+}